@@ -0,0 +1,246 @@
+package clases.gen;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+
+/**
+ * Generador de las especializaciones primitivas de la tabla hash. Expande
+ * tres plantillas (la tabla, su test y su benchmark) para cada combinación
+ * de tipo de clave y tipo de valor entre int, long, double y Object, salvo
+ * Object a Object (que es TSBHashTableDA). Las combinaciones int a Object
+ * (TSBIntHashTableDA) y long a long (TSBLongLongHashTableDA) están escritas a
+ * mano: de ellas se generan sólo el test (con el sufijo SharedTest, para no
+ * chocar con el test propio de la clase) y el benchmark, así que todas las
+ * variantes pasan por la misma batería de tests y de benchmarks.
+ *
+ * Se ejecuta en la fase generate-sources (ver pom.xml) con el lanzador de
+ * archivos fuente de Java, sin compilarlo antes:
+ *
+ *     java SpecializationGenerator.java plantillas main test jmh
+ *
+ * Las plantillas usan dos construcciones:
+ *   - $nombre$ se reemplaza por el valor de la variable nombre de la
+ *     variante (ver variables()).
+ *   - las líneas entre "//#if FLAG" (o "//#if !FLAG") y "//#endif" sólo se
+ *     conservan si la variante tiene (o no tiene) el indicador FLAG. Los
+ *     bloques pueden anidarse.
+ *
+ * Un archivo sólo se escribe si su contenido cambió, para no forzar la
+ * recompilación de todo en cada build.
+ *
+ * @author Grupo 31 - Falco, Gonzalo - Marzo, Lautaro - Pesetti, Sabrina - Vela, Azul
+ * @version Octubre de 2022.
+ */
+public class SpecializationGenerator
+{
+    // los tipos de clave y de valor...
+    private enum Kind { INT, LONG, DOUBLE, OBJ }
+
+    // combinaciones que no se generan (es TSBHashTableDA)...
+    private static final Set<String> EXCLUDED = new HashSet<>(Arrays.asList("ObjObj"));
+
+    // combinaciones escritas a mano: sólo se generan su test y su benchmark...
+    private static final Map<String, String> HAND_WRITTEN = Map.of("IntObj", "TSBIntHashTableDA", "LongLong", "TSBLongLongHashTableDA");
+
+    public static void main(String args[]) throws IOException
+    {
+        if(args.length != 4)
+        {
+            System.err.println("uso: SpecializationGenerator <plantillas> <main> <test> <jmh>");
+            System.exit(2);
+        }
+        Path templates = Paths.get(args[0]);
+        String table = read(templates.resolve("Table.java.tmpl"));
+        String test = read(templates.resolve("TableTest.java.tmpl"));
+        String benchmark = read(templates.resolve("TableBenchmark.java.tmpl"));
+
+        int generated = 0;
+        for(Kind k : Kind.values())
+        {
+            for(Kind v : Kind.values())
+            {
+                if(EXCLUDED.contains(name(k) + name(v))) { continue; }
+
+                Map<String, String> vars = variables(k, v);
+                Set<String> flags = flags(k, v);
+                String cls = vars.get("Class");
+                if(!HAND_WRITTEN.containsKey(name(k) + name(v)))
+                {
+                    write(Paths.get(args[1], "clases", cls + ".java"), expand(table, vars, flags));
+                }
+                write(Paths.get(args[2], "clases", vars.get("TestClass") + ".java"), expand(test, vars, flags));
+                write(Paths.get(args[3], "clases", "bench", cls + "Benchmark.java"), expand(benchmark, vars, flags));
+                generated++;
+            }
+        }
+        System.out.println("SpecializationGenerator: " + generated + " variantes");
+    }
+
+    /*
+     * Las variables de la variante de claves k y valores v.
+     */
+    private static Map<String, String> variables(Kind k, Kind v)
+    {
+        Map<String, String> m = new HashMap<>();
+        String hand_written = HAND_WRITTEN.get(name(k) + name(v));
+        String cls = (hand_written != null) ? hand_written : "TSB" + name(k) + name(v) + "HashTableDA";
+        String params = (k == Kind.OBJ) ? "<K>" : (v == Kind.OBJ) ? "<V>" : "";
+        m.put("Class", cls);
+        m.put("TestClass", cls + ((hand_written != null) ? "SharedTest" : "Test"));
+        m.put("generic", params);
+        m.put("diamond", params.isEmpty() ? "" : "<>");
+
+        // tabla...
+        m.put("K", type(k, "K"));
+        m.put("V", type(v, "V"));
+        m.put("newKeys", (k == Kind.OBJ) ? "(K[]) new Object[length]" : "new " + type(k, "") + "[length]");
+        m.put("newValues", (v == Kind.OBJ) ? "(V[]) new Object[length]" : "new " + type(v, "") + "[length]");
+        m.put("keyName", describe(k));
+        m.put("valueName", describe(v));
+        m.put("hashOf", new String[]{ "key", "Long.hashCode(key)", "Double.hashCode(key)", "key.hashCode()" }[k.ordinal()]);
+        m.put("sameKey", new String[]{ "a == b", "a == b", "Double.doubleToLongBits(a) == Double.doubleToLongBits(b)", "a == b || a.equals(b)" }[k.ordinal()]);
+        m.put("noValue", new String[]{ "0", "0L", "0.0", "null" }[v.ordinal()]);
+        m.put("writeKey", write_method(k));
+        m.put("writeValue", write_method(v));
+        m.put("readKey", read_expression(k, "K"));
+        m.put("readValue", read_expression(v, "V"));
+
+        // test y benchmark: las claves de Object son String...
+        m.put("KT", type(k, "String"));
+        m.put("VT", type(v, "String"));
+        m.put("KB", boxed(k));
+        m.put("VB", boxed(v));
+        m.put("TestType", cls + (params.isEmpty() ? "" : "<String>"));
+        m.put("keyOf", new String[]{ "i", "i * 0x9e3779b97f4a7c15L", "i * 0.5", "\"k\" + i" }[k.ordinal()]);
+        m.put("valueOf", new String[]{ "i", "i * 3L", "i + 0.25", "\"v\" + i" }[v.ordinal()]);
+        m.put("noValueBoxed", new String[]{ "Integer.valueOf(0)", "Long.valueOf(0)", "Double.valueOf(0)", "null" }[v.ordinal()]);
+        m.put("one", new String[]{ "1", "1L", "1.0", "null" }[v.ordinal()]);
+
+        // diferencias de las tablas escritas a mano: TSBLongLongHashTableDA
+        // admite más carga; TSBIntHashTableDA recorre los pares con asMap()...
+        boolean long_long = cls.equals("TSBLongLongHashTableDA");
+        m.put("maxLoad", long_long ? "0.75f" : "0.5f");
+        m.put("forEach", cls.equals("TSBIntHashTableDA") ? "asMap().forEach" : "forEach");
+        return m;
+    }
+
+    /*
+     * Los indicadores de la variante, para los bloques //#if. GET,
+     * REMOVE_RETURNS_VALUE y TOMBSTONE_RATIO faltan sólo en
+     * TSBLongLongHashTableDA, que no tiene get() (no hay un long libre para
+     * indicar "no está"), retorna un boolean en remove() y no expone la
+     * proporción de TOMBSTONE.
+     */
+    private static Set<String> flags(Kind k, Kind v)
+    {
+        Set<String> f = new HashSet<>();
+        if(!(k == Kind.LONG && v == Kind.LONG))
+        {
+            f.add("GET");
+            f.add("REMOVE_RETURNS_VALUE");
+            f.add("TOMBSTONE_RATIO");
+        }
+        if(k == Kind.OBJ) { f.add("OBJ_KEY"); }
+        if(v == Kind.OBJ) { f.add("OBJ_VALUE"); }
+        if(k == Kind.OBJ || v == Kind.OBJ) { f.add("GENERIC"); }
+        if(v != Kind.OBJ) { f.add("NUMERIC_VALUE"); }
+        return f;
+    }
+
+    private static String name(Kind k)
+    {
+        return new String[]{ "Int", "Long", "Double", "Obj" }[k.ordinal()];
+    }
+
+    private static String type(Kind k, String object_type)
+    {
+        return new String[]{ "int", "long", "double", object_type }[k.ordinal()];
+    }
+
+    private static String boxed(Kind k)
+    {
+        return new String[]{ "Integer", "Long", "Double", "String" }[k.ordinal()];
+    }
+
+    private static String describe(Kind k)
+    {
+        return new String[]{ "int", "long", "double", "Object" }[k.ordinal()];
+    }
+
+    private static String write_method(Kind k)
+    {
+        return new String[]{ "writeInt", "writeLong", "writeDouble", "writeObject" }[k.ordinal()];
+    }
+
+    private static String read_expression(Kind k, String object_type)
+    {
+        return new String[]{ "s.readInt()", "s.readLong()", "s.readDouble()", "(" + object_type + ") s.readObject()" }[k.ordinal()];
+    }
+
+    /*
+     * Expande la plantilla text: primero los bloques //#if, después las
+     * variables. Una variable desconocida es un error de la plantilla.
+     */
+    static String expand(String text, Map<String, String> vars, Set<String> flags)
+    {
+        StringBuilder out = new StringBuilder();
+        Deque<Boolean> active = new ArrayDeque<>();
+        active.push(true);
+        for(String line : text.split("\n", -1))
+        {
+            String t = line.trim();
+            if(t.startsWith("//#if "))
+            {
+                String flag = t.substring(6).trim();
+                boolean on = flag.startsWith("!") ? !flags.contains(flag.substring(1)) : flags.contains(flag);
+                active.push(active.peek() && on);
+                continue;
+            }
+            if(t.equals("//#endif"))
+            {
+                if(active.size() == 1) throw new IllegalArgumentException("//#endif sin //#if");
+                active.pop();
+                continue;
+            }
+            if(active.peek()) { out.append(line).append('\n'); }
+        }
+        if(active.size() != 1) throw new IllegalArgumentException("//#if sin //#endif");
+
+        String result = out.substring(0, out.length() - 1);
+        StringBuilder expanded = new StringBuilder();
+        int from = 0;
+        for(int i = result.indexOf('$'); i != -1; i = result.indexOf('$', from))
+        {
+            int j = result.indexOf('$', i + 1);
+            if(j == -1) throw new IllegalArgumentException("variable sin cerrar: " + result.substring(i));
+            String name = result.substring(i + 1, j);
+            String value = vars.get(name);
+            if(value == null) throw new IllegalArgumentException("variable desconocida: " + name);
+            expanded.append(result, from, i).append(value);
+            from = j + 1;
+        }
+        return expanded.append(result.substring(from)).toString();
+    }
+
+    private static String read(Path p) throws IOException
+    {
+        return new String(Files.readAllBytes(p), StandardCharsets.UTF_8).replace("\r\n", "\n");
+    }
+
+    /*
+     * Escribe el archivo p sólo si no existe o si su contenido es distinto.
+     */
+    private static void write(Path p, String content) throws IOException
+    {
+        byte bytes[] = content.getBytes(StandardCharsets.UTF_8);
+        if(Files.exists(p) && Arrays.equals(Files.readAllBytes(p), bytes)) { return; }
+
+        Files.createDirectories(p.getParent());
+        Files.write(p, bytes);
+    }
+}
@@ -0,0 +1,80 @@
+package clases.bench;
+
+import clases.TSBHashTableDA;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga de size pares en una tabla vacía: put() uno por uno (con los rehash
+ * que vaya necesitando), putAll() desde un HashMap (que agranda la tabla una
+ * sola vez antes de insertar), el constructor TSBHashTableDA(Map), y
+ * bulkLoad() (que además no busca cada clave antes de insertarla).
+ *
+ *     java -jar target/benchmarks.jar BulkLoadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class BulkLoadBenchmark
+{
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"SEQ_INT", "STRING"})
+    public String keyType;
+
+    private Object keys[];
+    private Object values[];
+    private Map<Object, Object> source;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        keys = Keys.generate(keyType, size, 0);
+        values = keys.clone();
+        source = new HashMap<>();
+        for(Object k : keys)
+        {
+            source.put(k, k);
+        }
+    }
+
+    @Benchmark
+    public Object put()
+    {
+        TSBHashTableDA<Object, Object> t = new TSBHashTableDA<>();
+        for(int i = 0; i < keys.length; i++)
+        {
+            t.put(keys[i], values[i]);
+        }
+        return t;
+    }
+
+    @Benchmark
+    public Object putAll()
+    {
+        TSBHashTableDA<Object, Object> t = new TSBHashTableDA<>();
+        t.putAll(source);
+        return t;
+    }
+
+    @Benchmark
+    public Object fromMap()
+    {
+        return new TSBHashTableDA<>(source);
+    }
+
+    @Benchmark
+    public Object bulkLoad()
+    {
+        TSBHashTableDA<Object, Object> t = new TSBHashTableDA<>();
+        t.bulkLoad(keys, values);
+        return t;
+    }
+}
@@ -0,0 +1,93 @@
+package clases.bench;
+
+import clases.TSBConcurrentHashTableDA;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput de una mezcla de lecturas y escrituras sobre un mapa compartido
+ * por varios hilos: TSBConcurrentHashTableDA (segmentos con lock) contra
+ * ConcurrentHashMap. Cada operación elige una clave al azar entre las size
+ * claves; con probabilidad readRatio hace get() y si no merge().
+ *
+ * El main() corre el benchmark con 1, 2, 4, ... hilos hasta la cantidad de
+ * procesadores disponibles, para ver cómo escala cada implementación:
+ *
+ *     java -cp target/benchmarks.jar clases.bench.ConcurrentMapBenchmark
+ *
+ * También puede correrse con una cantidad fija de hilos:
+ *
+ *     java -jar target/benchmarks.jar ConcurrentMapBenchmark -t 8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentMapBenchmark
+{
+    @Param({"TSBConcurrentHashTableDA", "ConcurrentHashMap"})
+    public String impl;
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"0.9", "0.5"})
+    public double readRatio;
+
+    @Param({"16"})
+    public int concurrencyLevel;
+
+    private Object keys[];
+    private ConcurrentMap<Object, Object> map;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        keys = Keys.generate("RANDOM_INT", size, 0);
+        switch(impl)
+        {
+            case "TSBConcurrentHashTableDA": map = new TSBConcurrentHashTableDA<>(size * 2, 0.5f, concurrencyLevel); break;
+            case "ConcurrentHashMap": map = new ConcurrentHashMap<>(size * 2, 0.5f, concurrencyLevel); break;
+            default: throw new IllegalArgumentException("implementación desconocida: " + impl);
+        }
+        for(Object k : keys)
+        {
+            map.put(k, 0);
+        }
+    }
+
+    @Benchmark
+    public Object mixed()
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Object key = keys[random.nextInt(keys.length)];
+        if(random.nextDouble() < readRatio)
+        {
+            return map.get(key);
+        }
+        return map.merge(key, 1, (a, b) -> (Integer) a + (Integer) b);
+    }
+
+    public static void main(String args[]) throws RunnerException
+    {
+        int max = Runtime.getRuntime().availableProcessors();
+        for(int threads = 1; threads <= max; threads *= 2)
+        {
+            Options opt = new OptionsBuilder()
+                    .include(ConcurrentMapBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(opt).run();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package clases.bench;
+
+/**
+ * Clave de prueba con hashCode() y equals() costosos (recorren una cadena
+ * larga sin cachear el resultado), que además cuenta cuántas veces se invoca
+ * a cada uno. Los contadores son estáticos: los benchmarks que los usan
+ * corren en un solo hilo.
+ */
+public final class CostlyKey
+{
+    public static long hashCodeCalls;
+    public static long equalsCalls;
+
+    private final char text[];
+
+    public CostlyKey(int id, int length)
+    {
+        StringBuilder sb = new StringBuilder(length);
+        String suffix = Integer.toString(id);
+        for(int i = suffix.length(); i < length; i++)
+        {
+            sb.append('x');
+        }
+        sb.append(suffix);
+        this.text = sb.toString().toCharArray();
+    }
+
+    public static void resetCounters()
+    {
+        hashCodeCalls = 0;
+        equalsCalls = 0;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        hashCodeCalls++;
+        int h = 0;
+        for(char c : text)
+        {
+            h = 31 * h + c;
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        equalsCalls++;
+        if(this == obj) { return true; }
+        if(!(obj instanceof CostlyKey)) { return false; }
+
+        char other[] = ((CostlyKey) obj).text;
+        if(other.length != text.length) { return false; }
+        for(int i = 0; i < text.length; i++)
+        {
+            if(other[i] != text[i]) { return false; }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,121 @@
+package clases.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsquedas, inserciones y llenado completo con claves de hashCode()/equals()
+ * costosos (CostlyKey). Además del throughput, informa en los contadores
+ * auxiliares cuántas invocaciones a hashCode() y a equals() se hicieron por
+ * operación (hashCodePerOp, equalsPerOp), que es lo que ahorra guardar el
+ * hash de cada clave en su casilla.
+ *
+ *     java -jar target/benchmarks.jar CostlyKeyBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CostlyKeyBenchmark
+{
+    @Param({"TSBHashTableDA", "HashMap"})
+    public String impl;
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"64"})
+    public int keyLength;
+
+    @Param({"0.5"})
+    public float loadFactor;
+
+    @Param({"0.0", "1.0"})
+    public double hitRatio;
+
+    private Object present[];
+    private Object lookups[];
+    private Map<Object, Object> map;
+    private int mask;
+    private int cursor;
+
+    /**
+     * Contadores auxiliares que JMH agrega a los resultados de cada iteración.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Calls
+    {
+        public double hashCodePerOp;
+        public double equalsPerOp;
+
+        private long ops;
+
+        @Setup(Level.Iteration)
+        public void reset()
+        {
+            ops = 0;
+            hashCodePerOp = 0;
+            equalsPerOp = 0;
+            CostlyKey.resetCounters();
+        }
+
+        @TearDown(Level.Iteration)
+        public void summarize()
+        {
+            if(ops > 0)
+            {
+                hashCodePerOp = (double) CostlyKey.hashCodeCalls / ops;
+                equalsPerOp = (double) CostlyKey.equalsCalls / ops;
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        present = new Object[size];
+        Object absent[] = new Object[size];
+        for(int i = 0; i < size; i++)
+        {
+            present[i] = new CostlyKey(i, keyLength);
+            absent[i] = new CostlyKey(size + i, keyLength);
+        }
+        lookups = Keys.lookups(present, absent, hitRatio);
+        mask = lookups.length - 1;
+        map = Maps.filled(impl, loadFactor, present);
+    }
+
+    @Benchmark
+    public Object get(Calls calls)
+    {
+        calls.ops++;
+        return map.get(lookups[cursor++ & mask]);
+    }
+
+    @Benchmark
+    public Object putExisting(Calls calls)
+    {
+        calls.ops++;
+        Object key = present[cursor++ % present.length];
+        return map.put(key, key);
+    }
+
+    /*
+     * Llenado completo desde una tabla vacía: incluye todos los rehash, que
+     * con el hash guardado no vuelven a invocar a hashCode().
+     */
+    @Benchmark
+    @Warmup(iterations = 2, batchSize = 1)
+    @Measurement(iterations = 5, batchSize = 1)
+    public void fill(Calls calls, Blackhole bh)
+    {
+        calls.ops += present.length;
+        bh.consume(Maps.filled(impl, loadFactor, present));
+    }
+}
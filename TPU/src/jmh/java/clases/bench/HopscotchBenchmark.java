@@ -0,0 +1,74 @@
+package clases.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput de get() (mitad de búsquedas exitosas) y de put() de claves
+ * nuevas con tablas de diez millones de pares, donde la tabla ya no entra en
+ * la caché y cuenta cuántas líneas lee cada búsqueda. TSBHashTableDA salta
+ * por la tabla con exploración cuadrática (y no admite factores de carga
+ * mayores a 0.5: los ajusta a 0.5); TSBHopscotchHashTableDA revisa sólo el
+ * vecindario contiguo de la casilla de origen, también con factor 0.9.
+ *
+ *     java -jar target/benchmarks.jar HopscotchBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class HopscotchBenchmark
+{
+    @Param({"TSBHashTableDA", "TSBHopscotchHashTableDA"})
+    public String impl;
+
+    @Param({"10000000"})
+    public int size;
+
+    @Param({"0.5", "0.9"})
+    public float loadFactor;
+
+    @Param({"RANDOM_INT", "STRING"})
+    public String keyType;
+
+    private Object present[];
+    private Object lookups[];
+    private Map<Object, Object> map;
+    private Map<Object, Object> growing;
+    private int mask;
+    private int cursor;
+    private int inserted;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        present = Keys.generate(keyType, size, 0);
+        Object absent[] = Keys.generate(keyType, 1 << 20, size);
+        lookups = Keys.lookups(present, absent, 0.5);
+        mask = lookups.length - 1;
+        map = Maps.filled(impl, loadFactor, present);
+        growing = Maps.create(impl, loadFactor);
+    }
+
+    @Benchmark
+    public Object get()
+    {
+        return map.get(lookups[cursor++ & mask]);
+    }
+
+    @Benchmark
+    public Object put()
+    {
+        if(inserted == present.length)
+        {
+            growing = Maps.create(impl, loadFactor);
+            inserted = 0;
+        }
+        Object k = present[inserted++];
+        return growing.put(k, k);
+    }
+}
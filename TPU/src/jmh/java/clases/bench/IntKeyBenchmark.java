@@ -0,0 +1,93 @@
+package clases.bench;
+
+import clases.TSBHashTableDA;
+import clases.TSBIntHashTableDA;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claves int sin boxing (TSBIntHashTableDA) frente a la tabla genérica con
+ * claves Integer (TSBHashTableDA), con el mismo tamaño, factor de carga y
+ * esquema de exploración. Las claves se guardan como int[] en el estado del
+ * benchmark, así que la tabla genérica paga el Integer.valueOf() de cada
+ * operación, como en el código que la usa con ids enteros. Para ver la tasa
+ * de asignación de memoria, correr con el profiler de gc:
+ *
+ *     java -jar target/benchmarks.jar IntKeyBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class IntKeyBenchmark
+{
+    @Param({"TSBIntHashTableDA", "TSBHashTableDA"})
+    public String impl;
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private int present[];
+    private int lookups[];
+    private TSBIntHashTableDA<Object> ints;
+    private TSBHashTableDA<Integer, Object> boxed;
+    private boolean primitive;
+    private int mask;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        // claves al azar (como ids dispersos), y búsquedas mitad exitosas...
+        Random random = new Random(42);
+        present = new int[size];
+        for(int i = 0; i < size; i++) { present[i] = random.nextInt(); }
+        lookups = new int[1 << 20];
+        for(int i = 0; i < lookups.length; i++)
+        {
+            lookups[i] = random.nextBoolean() ? present[random.nextInt(size)] : random.nextInt();
+        }
+        mask = lookups.length - 1;
+
+        primitive = impl.equals("TSBIntHashTableDA");
+        ints = new TSBIntHashTableDA<>();
+        boxed = new TSBHashTableDA<>();
+        for(int k : present)
+        {
+            if(primitive) { ints.put(k, Boolean.TRUE); }
+            else { boxed.put(k, Boolean.TRUE); }
+        }
+    }
+
+    @Benchmark
+    public Object get()
+    {
+        int k = lookups[cursor++ & mask];
+        return primitive ? ints.get(k) : boxed.get(k);
+    }
+
+    /*
+     * Inserta y elimina la misma clave (una búsqueda sin éxito y dos
+     * modificaciones), sin hacer crecer la tabla entre invocaciones.
+     */
+    @Benchmark
+    public void putRemove(Blackhole bh)
+    {
+        int k = lookups[cursor++ & mask] ^ 0x5bd1e995;
+        if(primitive)
+        {
+            bh.consume(ints.put(k, Boolean.TRUE));
+            bh.consume(ints.remove(k));
+        }
+        else
+        {
+            bh.consume(boxed.put(k, Boolean.TRUE));
+            bh.consume(boxed.remove(k));
+        }
+    }
+}
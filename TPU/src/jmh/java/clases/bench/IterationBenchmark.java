@@ -0,0 +1,91 @@
+package clases.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recorrido completo de las vistas keySet(), values() y entrySet() de
+ * TSBHashTableDA frente a java.util.HashMap y java.util.LinkedHashMap. Cada
+ * operación es un recorrido completo de la vista. Los métodos *Stream
+ * recorren la vista con stream() y parallelStream(), que usan el
+ * Spliterator de la vista (y en paralelo, sus particiones).
+ *
+ *     java -jar target/benchmarks.jar IterationBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IterationBenchmark
+{
+    @Param({"TSBHashTableDA", "TSBHashTableDA-pow2", "HashMap", "LinkedHashMap"})
+    public String impl;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"0.1", "0.25", "0.5"})
+    public float loadFactor;
+
+    @Param({"SEQ_INT", "RANDOM_INT", "STRING", "STUDENT"})
+    public String keyType;
+
+    private Map<Object, Object> map;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        map = Maps.filled(impl, loadFactor, Keys.generate(keyType, size, 0));
+    }
+
+    @Benchmark
+    public void keySet(Blackhole bh)
+    {
+        for(Object key : map.keySet())
+        {
+            bh.consume(key);
+        }
+    }
+
+    @Benchmark
+    public void values(Blackhole bh)
+    {
+        for(Object value : map.values())
+        {
+            bh.consume(value);
+        }
+    }
+
+    @Benchmark
+    public void entrySet(Blackhole bh)
+    {
+        for(Map.Entry<Object, Object> entry : map.entrySet())
+        {
+            bh.consume(entry.getKey());
+            bh.consume(entry.getValue());
+        }
+    }
+
+    @Benchmark
+    public long keySetStream()
+    {
+        return map.keySet().stream().mapToLong(Object::hashCode).sum();
+    }
+
+    @Benchmark
+    public long keySetParallelStream()
+    {
+        return map.keySet().parallelStream().mapToLong(Object::hashCode).sum();
+    }
+
+    @Benchmark
+    public long entrySetParallelStream()
+    {
+        return map.entrySet().parallelStream().mapToLong(e -> e.getKey().hashCode() ^ e.getValue().hashCode()).sum();
+    }
+}
@@ -0,0 +1,100 @@
+package clases.bench;
+
+import clases.Student;
+
+import java.util.Random;
+
+/**
+ * Generador de claves para los benchmarks. Todas las claves se generan con
+ * una semilla fija, de forma que dos corridas distintas (o dos motores
+ * distintos) trabajen exactamente con los mismos datos.
+ *
+ * Tipos de clave soportados (parámetro keyType de los benchmarks):
+ *  - SEQ_INT: Integer secuenciales (0, 1, 2, ...).
+ *  - RANDOM_INT: Integer pseudo-aleatorios sin repetidos.
+ *  - STRING: cadenas del estilo "key-12345".
+ *  - STUDENT: instancias de clases.Student con legajo secuencial.
+ */
+public final class Keys
+{
+    public static final long SEED = 31L;
+
+    private Keys()
+    {
+    }
+
+    /**
+     * Genera n claves distintas del tipo indicado. Las claves generadas con
+     * los índices [0, n) son las "presentes"; las generadas con los índices
+     * [n, 2n) sirven como claves "ausentes" para búsquedas sin éxito.
+     * @param keyType el tipo de clave.
+     * @param n la cantidad de claves a generar.
+     * @param offset el índice lógico de la primera clave.
+     * @return un arreglo con las claves generadas.
+     */
+    public static Object[] generate(String keyType, int n, int offset)
+    {
+        Object keys[] = new Object[n];
+        for(int i = 0; i < n; i++)
+        {
+            keys[i] = key(keyType, offset + i);
+        }
+        return keys;
+    }
+
+    /**
+     * Retorna la clave lógica número i para el tipo indicado. Para un mismo
+     * tipo, índices distintos producen siempre claves distintas.
+     * @param keyType el tipo de clave.
+     * @param i el índice lógico de la clave.
+     * @return la clave.
+     */
+    public static Object key(String keyType, int i)
+    {
+        switch(keyType)
+        {
+            case "SEQ_INT": return i;
+            case "RANDOM_INT": return scramble(i);
+            case "STRING": return "key-" + i;
+            case "STUDENT": return new Student(i, "alumno-" + i);
+            default: throw new IllegalArgumentException("tipo de clave desconocido: " + keyType);
+        }
+    }
+
+    /**
+     * Arma un arreglo de búsquedas de longitud potencia de dos, donde cada
+     * posición es una clave presente con probabilidad hitRatio, o una clave
+     * ausente en caso contrario.
+     * @param present las claves presentes en el mapa.
+     * @param absent claves que no están en el mapa.
+     * @param hitRatio la proporción de búsquedas exitosas (entre 0 y 1).
+     * @return el arreglo de claves a buscar.
+     */
+    public static Object[] lookups(Object present[], Object absent[], double hitRatio)
+    {
+        int n = Integer.highestOneBit(Math.max(1, Math.min(present.length, 1 << 20)) * 2 - 1);
+        Random random = new Random(SEED);
+        Object lookups[] = new Object[n];
+        for(int i = 0; i < n; i++)
+        {
+            Object source[] = random.nextDouble() < hitRatio ? present : absent;
+            lookups[i] = source[random.nextInt(source.length)];
+        }
+        return lookups;
+    }
+
+    /*
+     * Biyección sobre los int (finalizador de MurmurHash3): índices distintos
+     * producen valores distintos, pero sin el orden de los secuenciales.
+     */
+    private static int scramble(int i)
+    {
+        int h = i ^ 0x5bd1e995;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -0,0 +1,103 @@
+package clases.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput de get() (mitad de búsquedas exitosas) y de put() de claves
+ * nuevas según el factor de carga, y memoria ocupada por la estructura de la
+ * tabla. La línea "bytes por par" de la salida es el heap retenido por la
+ * tabla cargada (medido después de un System.gc(), sin contar claves ni
+ * valores) dividido la cantidad de pares. Se imprime una vez desde setup():
+ * JMH suma los contadores auxiliares de tipo EVENTS entre iteraciones, así
+ * que no sirven para un valor fijo. TSBHashTableDA no admite factores de
+ * carga mayores a 0.5 (los ajusta a 0.5); TSBRobinHoodHashTableDA admite
+ * hasta 0.95. Como el tamaño de TSBRobinHoodHashTableDA es una potencia de dos, el
+ * ahorro depende de dónde cae size: con 1800000 pares y factor 0.9 la tabla
+ * tiene 2^21 casillas (86% de ocupación), mientras que con 1000000 pares
+ * tiene las mismas 2^21 casillas con cualquier factor de carga.
+ *
+ *     java -jar target/benchmarks.jar LoadFactorBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class LoadFactorBenchmark
+{
+    @Param({"TSBHashTableDA", "TSBRobinHoodHashTableDA", "HashMap"})
+    public String impl;
+
+    @Param({"0.5", "0.8", "0.9"})
+    public float loadFactor;
+
+    @Param({"1000000", "1800000"})
+    public int size;
+
+    @Param({"RANDOM_INT", "STRING"})
+    public String keyType;
+
+    private Object present[];
+    private Object lookups[];
+    private Map<Object, Object> map;
+    private Map<Object, Object> growing;
+    private int mask;
+    private int cursor;
+    private int inserted;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        present = Keys.generate(keyType, size, 0);
+        Object absent[] = Keys.generate(keyType, Math.min(size, 1 << 20), size);
+        lookups = Keys.lookups(present, absent, 0.5);
+        mask = lookups.length - 1;
+
+        long before = usedHeap();
+        map = Maps.filled(impl, loadFactor, present);
+        System.out.println("bytes por par: " + (usedHeap() - before) / size);
+        growing = Maps.create(impl, loadFactor);
+    }
+
+    @Benchmark
+    public Object get()
+    {
+        return map.get(lookups[cursor++ & mask]);
+    }
+
+    @Benchmark
+    public Object put()
+    {
+        if(inserted == present.length)
+        {
+            growing = Maps.create(impl, loadFactor);
+            inserted = 0;
+        }
+        Object k = present[inserted++];
+        return growing.put(k, k);
+    }
+
+    /*
+     * Heap en uso después de System.gc(), que se repite mientras siga
+     * liberando memoria (la primera invocación suele dejar basura).
+     */
+    static long usedHeap()
+    {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long previous = Long.MAX_VALUE;
+        for(int i = 0; i < 10; i++)
+        {
+            System.gc();
+            long used = memory.getHeapMemoryUsage().getUsed();
+            if(used >= previous) { break; }
+            previous = used;
+        }
+        return previous;
+    }
+}
@@ -0,0 +1,88 @@
+package clases.bench;
+
+import clases.TSBHashTableDA;
+import clases.TSBLongLongHashTableDA;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tabla long a long (TSBLongLongHashTableDA) frente a TSBHashTableDA&lt;Long,
+ * Long&gt;, con contadores: addTo() (merge() con Long::sum en la tabla
+ * genérica), getOrDefault() y un recorrido completo que suma los valores.
+ * La línea "bytes por par" de la salida es el heap retenido por la tabla
+ * cargada con pares (k, k) (incluidos los Long de claves y valores, que es
+ * lo que se ahorra) dividido la cantidad de pares.
+ *
+ *     java -jar target/benchmarks.jar LongLongBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class LongLongBenchmark
+{
+    @Param({"TSBLongLongHashTableDA", "TSBHashTableDA"})
+    public String impl;
+
+    @Param({"1000000"})
+    public int size;
+
+    private long present[];
+    private TSBLongLongHashTableDA longs;
+    private TSBHashTableDA<Long, Long> boxed;
+    private boolean primitive;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        Random random = new Random(42);
+        present = new long[size];
+        for(int i = 0; i < size; i++) { present[i] = random.nextLong(); }
+        primitive = impl.equals("TSBLongLongHashTableDA");
+
+        long before = LoadFactorBenchmark.usedHeap();
+        if(primitive)
+        {
+            longs = new TSBLongLongHashTableDA();
+            for(long k : present) { longs.put(k, k); }
+        }
+        else
+        {
+            boxed = new TSBHashTableDA<>();
+            for(long k : present) { boxed.put(k, k); }
+        }
+        System.out.println("bytes por par: " + (LoadFactorBenchmark.usedHeap() - before) / size);
+    }
+
+    @Benchmark
+    public long addTo()
+    {
+        long k = present[cursor++ % size];
+        if(primitive) { return longs.addTo(k, 1); }
+        return boxed.merge(k, 1L, Long::sum);
+    }
+
+    @Benchmark
+    public long getOrDefault()
+    {
+        long k = present[cursor++ % size];
+        if(primitive) { return longs.getOrDefault(k, 0); }
+        return boxed.getOrDefault(k, 0L);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @BenchmarkMode(Mode.AverageTime)
+    public long sumValues()
+    {
+        long sum[] = new long[1];
+        if(primitive) { longs.forEach((k, v) -> sum[0] += v); }
+        else { boxed.forEach((k, v) -> sum[0] += v); }
+        return sum[0];
+    }
+}
@@ -0,0 +1,62 @@
+package clases.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distribución de la latencia de get() (mezcla de búsquedas exitosas y sin
+ * éxito) sobre una tabla cargada con size claves. En el modo SampleTime JMH
+ * informa percentiles: con exploración cuadrática (TSBHashTableDA) la cola
+ * (p0.999, p0.9999) crece con los grupos de casillas ocupadas, mientras que
+ * con cuckoo hashing (TSBCuckooHashTableDA) cada búsqueda revisa a lo sumo
+ * dos cubetas. Conviene comparar también con factores de carga altos, por
+ * ejemplo -p loadFactor=0.9 para los motores que lo admiten.
+ *
+ *     java -jar target/benchmarks.jar LookupLatencyBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class LookupLatencyBenchmark
+{
+    @Param({"TSBHashTableDA", "TSBHashTableDA-pow2", "TSBCuckooHashTableDA", "HashMap"})
+    public String impl;
+
+    @Param({"1000000"})
+    public int size;
+
+    @Param({"0.5"})
+    public float loadFactor;
+
+    @Param({"RANDOM_INT", "STRING"})
+    public String keyType;
+
+    @Param({"0.5"})
+    public double hitRatio;
+
+    private Object lookups[];
+    private Map<Object, Object> map;
+    private int mask;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        Object present[] = Keys.generate(keyType, size, 0);
+        Object absent[] = Keys.generate(keyType, Math.min(size, 1 << 20), size);
+        lookups = Keys.lookups(present, absent, hitRatio);
+        mask = lookups.length - 1;
+        map = Maps.filled(impl, loadFactor, present);
+    }
+
+    @Benchmark
+    public Object get()
+    {
+        return map.get(lookups[cursor++ & mask]);
+    }
+}
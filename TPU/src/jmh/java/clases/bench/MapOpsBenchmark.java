@@ -0,0 +1,105 @@
+package clases.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput de put/get/remove de TSBHashTableDA frente a java.util.HashMap y
+ * java.util.LinkedHashMap, variando tamaño, factor de carga, tipo de clave y
+ * proporción de búsquedas exitosas. Para obtener además la tasa de asignación
+ * de memoria, correr con el profiler de gc:
+ *
+ *     java -jar target/benchmarks.jar MapOpsBenchmark -prof gc
+ *
+ * La matriz completa de parámetros es grande: conviene acotarla con -p, por
+ * ejemplo -p size=1000000 -p keyType=STRING.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapOpsBenchmark
+{
+    @Param({"TSBHashTableDA", "TSBHashTableDA-pow2", "HashMap", "LinkedHashMap"})
+    public String impl;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"0.1", "0.25", "0.5"})
+    public float loadFactor;
+
+    @Param({"SEQ_INT", "RANDOM_INT", "STRING", "STUDENT"})
+    public String keyType;
+
+    @Param({"0.0", "0.5", "1.0"})
+    public double hitRatio;
+
+    private Object present[];
+    private Object absent[];
+    private Object lookups[];
+    private Map<Object, Object> map;
+    private int mask;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        present = Keys.generate(keyType, size, 0);
+        absent = Keys.generate(keyType, Math.min(size, 1 << 20), size);
+        lookups = Keys.lookups(present, absent, hitRatio);
+        mask = lookups.length - 1;
+        map = Maps.filled(impl, loadFactor, present);
+    }
+
+    @Benchmark
+    public Object get()
+    {
+        return map.get(lookups[cursor++ & mask]);
+    }
+
+    @Benchmark
+    public boolean containsKey()
+    {
+        return map.containsKey(lookups[cursor++ & mask]);
+    }
+
+    /*
+     * Reemplaza el valor de una clave: no cambia el tamaño del mapa.
+     */
+    @Benchmark
+    public Object putExisting()
+    {
+        Object key = present[cursor++ % present.length];
+        return map.put(key, key);
+    }
+
+    /*
+     * Inserta y elimina la misma clave: mide el par put/remove sobre claves
+     * nuevas sin hacer crecer el mapa entre invocaciones.
+     */
+    @Benchmark
+    public void putRemove(Blackhole bh)
+    {
+        Object key = absent[cursor++ % absent.length];
+        bh.consume(map.put(key, key));
+        bh.consume(map.remove(key));
+    }
+
+    /*
+     * Construye un mapa completo de size elementos desde cero (incluye todos
+     * los rehash necesarios).
+     */
+    @Benchmark
+    @Warmup(iterations = 2, batchSize = 1)
+    @Measurement(iterations = 5, batchSize = 1)
+    public Map<Object, Object> fill()
+    {
+        return Maps.filled(impl, loadFactor, present);
+    }
+}
@@ -0,0 +1,104 @@
+package clases.bench;
+
+import clases.TSBHashTableDA;
+import clases.TSBMappedHashTableDA;
+import clases.TSBOffHeapHashTableDA;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo de "arranque" de una tabla de size pares String a String:
+ * reconstruir un TSBHashTableDA repitiendo los put() (rebuild) contra
+ * reabrir un TSBMappedHashTableDA ya guardado en disco (reopen), y reabrir
+ * y hacer 1000 búsquedas (reopenAndGet), que es lo que paga la primera
+ * consulta mientras el sistema operativo trae páginas del archivo.
+ *
+ *     java -jar target/benchmarks.jar MappedReopenBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class MappedReopenBenchmark
+{
+    @Param({"1000000"})
+    public int size;
+
+    private String keys[];
+    private String values[];
+    private Path dir;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        keys = new String[size];
+        values = new String[size];
+        for(int i = 0; i < size; i++)
+        {
+            keys[i] = (String) Keys.key("STRING", i);
+            values[i] = "value-" + Integer.toHexString(i * 31);
+        }
+
+        dir = Files.createTempDirectory("tsb-mapped");
+        file = dir.resolve("tabla.tsb");
+        try(TSBMappedHashTableDA<String, String> t = TSBMappedHashTableDA.create(file,
+                TSBOffHeapHashTableDA.STRING_CODEC, TSBOffHeapHashTableDA.STRING_CODEC, 16, 16,
+                size * 2, 0.5f, TSBHashTableDA.PRIME_MODE))
+        {
+            for(int i = 0; i < size; i++)
+            {
+                t.put(keys[i], values[i]);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public int rebuild()
+    {
+        TSBHashTableDA<String, String> t = new TSBHashTableDA<>();
+        for(int i = 0; i < size; i++)
+        {
+            t.put(keys[i], values[i]);
+        }
+        return t.size();
+    }
+
+    @Benchmark
+    public int reopen() throws IOException
+    {
+        try(TSBMappedHashTableDA<String, String> t = TSBMappedHashTableDA.open(file,
+                TSBOffHeapHashTableDA.STRING_CODEC, TSBOffHeapHashTableDA.STRING_CODEC))
+        {
+            return t.size();
+        }
+    }
+
+    @Benchmark
+    public int reopenAndGet() throws IOException
+    {
+        try(TSBMappedHashTableDA<String, String> t = TSBMappedHashTableDA.open(file,
+                TSBOffHeapHashTableDA.STRING_CODEC, TSBOffHeapHashTableDA.STRING_CODEC))
+        {
+            int found = 0;
+            for(int i = 0; i < 1000; i++)
+            {
+                if(t.get(keys[(i * 7919) % size]) != null) { found++; }
+            }
+            return found;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package clases.bench;
+
+import clases.TSBCuckooHashTableDA;
+import clases.TSBHashTableDA;
+import clases.TSBHopscotchHashTableDA;
+import clases.TSBRobinHoodHashTableDA;
+import clases.TSBSwissHashTableDA;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fábrica de los mapas que se comparan en los benchmarks (parámetro impl).
+ * Cada motor nuevo de la tabla se agrega acá, de forma que todos los
+ * benchmarks lo midan con los mismos datos y parámetros.
+ */
+public final class Maps
+{
+    private Maps()
+    {
+    }
+
+    /**
+     * Crea un mapa vacío de la implementación indicada.
+     * @param impl el nombre de la implementación.
+     * @param loadFactor el factor de carga a usar (si la implementación lo admite).
+     * @return el mapa creado.
+     */
+    public static Map<Object, Object> create(String impl, float loadFactor)
+    {
+        switch(impl)
+        {
+            case "TSBHashTableDA": return new TSBHashTableDA<>(11, loadFactor);
+            case "TSBHashTableDA-pow2": return new TSBHashTableDA<>(11, loadFactor, TSBHashTableDA.POWER_OF_TWO_MODE);
+            case "TSBHashTableDA-incremental": return incremental(new TSBHashTableDA<>(11, loadFactor));
+            case "TSBCuckooHashTableDA": return new TSBCuckooHashTableDA<>(16, loadFactor, 2);
+            case "TSBHopscotchHashTableDA": return new TSBHopscotchHashTableDA<>(16, loadFactor);
+            case "TSBRobinHoodHashTableDA": return new TSBRobinHoodHashTableDA<>(16, loadFactor);
+            case "TSBSwissHashTableDA": return new TSBSwissHashTableDA<>(16);
+            case "HashMap": return new HashMap<>(16, loadFactor);
+            case "LinkedHashMap": return new LinkedHashMap<>(16, loadFactor);
+            default: throw new IllegalArgumentException("implementación desconocida: " + impl);
+        }
+    }
+
+    private static Map<Object, Object> incremental(TSBHashTableDA<Object, Object> table)
+    {
+        table.setIncrementalRehash(true);
+        return table;
+    }
+
+    /**
+     * Crea un mapa de la implementación indicada y lo carga con las claves
+     * recibidas (el valor asociado a cada clave es la propia clave).
+     * @param impl el nombre de la implementación.
+     * @param loadFactor el factor de carga a usar.
+     * @param keys las claves a insertar.
+     * @return el mapa cargado.
+     */
+    public static Map<Object, Object> filled(String impl, float loadFactor, Object keys[])
+    {
+        Map<Object, Object> map = create(impl, loadFactor);
+        for(Object key : keys)
+        {
+            map.put(key, key);
+        }
+        return map;
+    }
+}
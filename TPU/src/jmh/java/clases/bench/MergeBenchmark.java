@@ -0,0 +1,102 @@
+package clases.bench;
+
+import clases.TSBHashTableDA;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conteo de frecuencias con merge(k, 1, Integer::sum) sobre una secuencia de
+ * claves con repetidos: merge() nativo de TSBHashTableDA (una exploración por
+ * operación), la misma operación hecha como la implementación default de Map
+ * (get() + put(), dos exploraciones), y HashMap.merge() como referencia.
+ * churn alterna remove() y putIfAbsent() sobre las mismas claves, de forma que
+ * cada inserción reutiliza la tumba que dejó la eliminación anterior.
+ *
+ *     java -jar target/benchmarks.jar MergeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class MergeBenchmark
+{
+    @Param({"10000", "1000000"})
+    public int size;
+
+    @Param({"SEQ_INT", "STRING"})
+    public String keyType;
+
+    private static final Integer ONE = 1;
+
+    private Object stream[];
+    private Object keys[];
+    private TSBHashTableDA<Object, Object> filled;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        keys = Keys.generate(keyType, size, 0);
+        stream = new Object[size * 4];
+        Random random = new Random(Keys.SEED);
+        for(int i = 0; i < stream.length; i++)
+        {
+            stream[i] = keys[random.nextInt(size)];
+        }
+        filled = new TSBHashTableDA<>();
+        for(Object k : keys)
+        {
+            filled.put(k, ONE);
+        }
+    }
+
+    @Benchmark
+    public Object merge()
+    {
+        TSBHashTableDA<Object, Integer> t = new TSBHashTableDA<>();
+        for(Object k : stream)
+        {
+            t.merge(k, ONE, Integer::sum);
+        }
+        return t;
+    }
+
+    @Benchmark
+    public Object getThenPut()
+    {
+        TSBHashTableDA<Object, Integer> t = new TSBHashTableDA<>();
+        for(Object k : stream)
+        {
+            Integer old = t.get(k);
+            t.put(k, (old == null) ? ONE : old + 1);
+        }
+        return t;
+    }
+
+    @Benchmark
+    public Object hashMapMerge()
+    {
+        Map<Object, Integer> t = new HashMap<>();
+        for(Object k : stream)
+        {
+            t.merge(k, ONE, Integer::sum);
+        }
+        return t;
+    }
+
+    @Benchmark
+    public Object churn()
+    {
+        for(Object k : keys)
+        {
+            filled.remove(k);
+            filled.putIfAbsent(k, ONE);
+        }
+        return filled;
+    }
+}
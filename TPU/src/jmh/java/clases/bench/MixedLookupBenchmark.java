@@ -0,0 +1,62 @@
+package clases.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput de get() con una mezcla de búsquedas exitosas y sin éxito
+ * (hitRatio) sobre una tabla cargada con size claves. Las búsquedas sin
+ * éxito son las que más dependen del motor: TSBHashTableDA recorre el grupo
+ * de casillas ocupadas comparando hashes, mientras que TSBSwissHashTableDA
+ * descarta de a ocho casillas con los bytes de control y casi nunca lee una
+ * clave. El factor de carga no se aplica a TSBSwissHashTableDA, que usa
+ * siempre 7/8.
+ *
+ *     java -jar target/benchmarks.jar MixedLookupBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class MixedLookupBenchmark
+{
+    @Param({"TSBHashTableDA", "TSBRobinHoodHashTableDA", "TSBSwissHashTableDA", "HashMap"})
+    public String impl;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"0.5"})
+    public float loadFactor;
+
+    @Param({"RANDOM_INT", "STRING"})
+    public String keyType;
+
+    @Param({"0.0", "0.5", "0.9", "1.0"})
+    public double hitRatio;
+
+    private Object lookups[];
+    private Map<Object, Object> map;
+    private int mask;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        Object present[] = Keys.generate(keyType, size, 0);
+        Object absent[] = Keys.generate(keyType, Math.min(size, 1 << 20), size);
+        lookups = Keys.lookups(present, absent, hitRatio);
+        mask = lookups.length - 1;
+        map = Maps.filled(impl, loadFactor, present);
+    }
+
+    @Benchmark
+    public Object get()
+    {
+        return map.get(lookups[cursor++ & mask]);
+    }
+}
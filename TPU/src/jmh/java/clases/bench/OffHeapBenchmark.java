@@ -0,0 +1,96 @@
+package clases.bench;
+
+import clases.TSBHashTableDA;
+import clases.TSBOffHeapHashTableDA;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tabla de String a String con size pares: búsqueda (get) y carga completa
+ * (fill) en TSBOffHeapHashTableDA contra TSBHashTableDA y HashMap. Con
+ * -prof gc se ve el costo en asignación de memoria de cada variante (la
+ * tabla fuera del heap asigna las claves serializadas y los valores
+ * deserializados, pero no mantiene objetos vivos por par):
+ *
+ *     java -jar target/benchmarks.jar OffHeapBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class OffHeapBenchmark
+{
+    @Param({"TSBOffHeapHashTableDA", "TSBHashTableDA", "HashMap"})
+    public String impl;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private String keys[];
+    private String values[];
+    private Map<String, String> map;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        keys = new String[size];
+        values = new String[size];
+        for(int i = 0; i < size; i++)
+        {
+            keys[i] = (String) Keys.key("STRING", i);
+            values[i] = "value-" + Integer.toHexString(i * 31);
+        }
+        map = create();
+        for(int i = 0; i < size; i++)
+        {
+            map.put(keys[i], values[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        if(map instanceof TSBOffHeapHashTableDA) { ((TSBOffHeapHashTableDA<String, String>) map).close(); }
+    }
+
+    @Benchmark
+    public String get()
+    {
+        if(cursor == keys.length) { cursor = 0; }
+        return map.get(keys[cursor++]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public int fill()
+    {
+        Map<String, String> m = create();
+        for(int i = 0; i < size; i++)
+        {
+            m.put(keys[i], values[i]);
+        }
+        int n = m.size();
+        if(m instanceof TSBOffHeapHashTableDA) { ((TSBOffHeapHashTableDA<String, String>) m).close(); }
+        return n;
+    }
+
+    private Map<String, String> create()
+    {
+        switch(impl)
+        {
+            case "TSBOffHeapHashTableDA": return TSBOffHeapHashTableDA.forStrings();
+            case "TSBHashTableDA": return new TSBHashTableDA<>();
+            case "HashMap": return new HashMap<>();
+            default: throw new IllegalArgumentException("implementación desconocida: " + impl);
+        }
+    }
+}
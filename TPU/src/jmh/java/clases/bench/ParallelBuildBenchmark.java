@@ -0,0 +1,82 @@
+package clases.bench;
+
+import clases.TSBHashTableDA;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construcción de una tabla de size pares: TSBHashTableDA.parallelBuild()
+ * con un ForkJoinPool de threads hilos, contra putAll() (secuencial y
+ * presized) desde un HashMap y bulkLoad() como referencias de un solo hilo.
+ * La aceleración es el cociente entre el tiempo de putAll y el de
+ * parallelBuild para cada cantidad de hilos:
+ *
+ *     java -jar target/benchmarks.jar ParallelBuildBenchmark -p threads=1,2,4,8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class ParallelBuildBenchmark
+{
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM_INT", "STRING"})
+    public String keyType;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    private Object keys[];
+    private Object values[];
+    private Map<Object, Object> source;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        keys = Keys.generate(keyType, size, 0);
+        values = keys.clone();
+        source = new HashMap<>(size * 2);
+        for(Object k : keys)
+        {
+            source.put(k, k);
+        }
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Object parallelBuild()
+    {
+        return TSBHashTableDA.parallelBuild(keys, values, 0.5f, TSBHashTableDA.PRIME_MODE, pool);
+    }
+
+    @Benchmark
+    public Object putAll()
+    {
+        TSBHashTableDA<Object, Object> t = new TSBHashTableDA<>();
+        t.putAll(source);
+        return t;
+    }
+
+    @Benchmark
+    public Object bulkLoad()
+    {
+        TSBHashTableDA<Object, Object> t = new TSBHashTableDA<>();
+        t.bulkLoad(keys, values);
+        return t;
+    }
+}
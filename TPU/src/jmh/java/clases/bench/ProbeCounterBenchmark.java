@@ -0,0 +1,69 @@
+package clases.bench;
+
+import clases.TSBHashTableDA;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de los contadores en vivo de TSBHashTableDA: el mismo recorrido de
+ * get() (mitad de búsquedas exitosas) en una JVM con los contadores
+ * desactivados (el valor por defecto) y en otra con
+ * -Dclases.TSBHashTableDA.probeCounters=true. Al terminar el setup se
+ * imprime stats() de la tabla, que sirve para comparar modos y factores de
+ * carga.
+ *
+ *     java -jar target/benchmarks.jar ProbeCounterBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProbeCounterBenchmark
+{
+    @Param({"100000", "1000000"})
+    public int size;
+
+    @Param({"RANDOM_INT", "STRING"})
+    public String keyType;
+
+    @Param({"0", "1"})
+    public int hashMode;
+
+    private Object lookups[];
+    private TSBHashTableDA<Object, Object> table;
+    private int mask;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        Object present[] = Keys.generate(keyType, size, 0);
+        Object absent[] = Keys.generate(keyType, Math.min(size, 1 << 20), size);
+        lookups = Keys.lookups(present, absent, 0.5);
+        mask = lookups.length - 1;
+        table = new TSBHashTableDA<>(11, 0.5f, hashMode);
+        for(Object k : present)
+        {
+            table.put(k, k);
+        }
+        System.out.println();
+        System.out.println(table.stats());
+    }
+
+    @Benchmark
+    @Fork(1)
+    public void countersOff(Blackhole bh)
+    {
+        bh.consume(table.get(lookups[cursor++ & mask]));
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Dclases.TSBHashTableDA.probeCounters=true")
+    public void countersOn(Blackhole bh)
+    {
+        bh.consume(table.get(lookups[cursor++ & mask]));
+    }
+}
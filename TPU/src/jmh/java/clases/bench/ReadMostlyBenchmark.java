@@ -0,0 +1,122 @@
+package clases.bench;
+
+import clases.TSBHashTableDA;
+import clases.TSBStampedHashTableDA;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tabla compartida con muchos lectores y un escritor: el grupo "readMostly"
+ * corre 7 hilos haciendo get() y 1 hilo haciendo put() de claves existentes
+ * y nuevas (que provocan rehash de vez en cuando). Compara las lecturas
+ * optimistas de TSBStampedHashTableDA con un ReentrantReadWriteLock y con
+ * Collections.synchronizedMap() alrededor de TSBHashTableDA, y con
+ * ConcurrentHashMap como referencia. JMH informa el throughput de cada
+ * método del grupo por separado.
+ *
+ *     java -jar target/benchmarks.jar ReadMostlyBenchmark
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadMostlyBenchmark
+{
+    @Param({"TSBStampedHashTableDA", "ReadWriteLock", "synchronized", "ConcurrentHashMap"})
+    public String impl;
+
+    @Param({"100000"})
+    public int size;
+
+    private Object keys[];
+    private Map<Object, Object> map;
+    private int next_new;
+
+    @Setup(Level.Iteration)
+    public void setup()
+    {
+        keys = Keys.generate("RANDOM_INT", size, 0);
+        switch(impl)
+        {
+            case "TSBStampedHashTableDA": map = new TSBStampedHashTableDA<>(); break;
+            case "ReadWriteLock": map = new ReadWriteLockMap<>(new TSBHashTableDA<>()); break;
+            case "synchronized": map = Collections.synchronizedMap(new TSBHashTableDA<>()); break;
+            case "ConcurrentHashMap": map = new ConcurrentHashMap<>(); break;
+            default: throw new IllegalArgumentException("implementación desconocida: " + impl);
+        }
+        for(Object k : keys)
+        {
+            map.put(k, k);
+        }
+        next_new = size;
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(7)
+    public Object reader()
+    {
+        return map.get(keys[ThreadLocalRandom.current().nextInt(keys.length)]);
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(1)
+    public Object writer()
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if(random.nextInt(100) == 0)
+        {
+            // una clave nueva de vez en cuando: la tabla crece y hace rehash...
+            Object key = Keys.key("RANDOM_INT", next_new++);
+            return map.put(key, key);
+        }
+        Object key = keys[random.nextInt(keys.length)];
+        return map.put(key, key);
+    }
+
+    /*
+     * TSBHashTableDA protegida por un ReentrantReadWriteLock: los lectores
+     * comparten el lock, pero igual escriben su contador interno.
+     */
+    private static final class ReadWriteLockMap<K, V> extends java.util.AbstractMap<K, V>
+    {
+        private final Map<K, V> map;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        ReadWriteLockMap(Map<K, V> map)
+        {
+            this.map = map;
+        }
+
+        @Override
+        public V get(Object key)
+        {
+            lock.readLock().lock();
+            try { return map.get(key); }
+            finally { lock.readLock().unlock(); }
+        }
+
+        @Override
+        public V put(K key, V value)
+        {
+            lock.writeLock().lock();
+            try { return map.put(key, value); }
+            finally { lock.writeLock().unlock(); }
+        }
+
+        @Override
+        public java.util.Set<Map.Entry<K, V>> entrySet()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
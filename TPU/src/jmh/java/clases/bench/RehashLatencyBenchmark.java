@@ -0,0 +1,57 @@
+package clases.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distribución de la latencia de put() de claves nuevas sobre una tabla que
+ * crece desde vacía hasta maxSize elementos (y vuelve a empezar), con rehash
+ * completo (TSBHashTableDA) o incremental (TSBHashTableDA-incremental). En el
+ * modo SampleTime JMH informa percentiles: el rehash completo aparece como
+ * picos en p0.9999 y p1.0 que el rehash incremental reparte entre muchas
+ * operaciones.
+ *
+ *     java -jar target/benchmarks.jar RehashLatencyBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class RehashLatencyBenchmark
+{
+    @Param({"TSBHashTableDA", "TSBHashTableDA-incremental", "HashMap"})
+    public String impl;
+
+    @Param({"4000000"})
+    public int maxSize;
+
+    @Param({"0.5"})
+    public float loadFactor;
+
+    private Object keys[];
+    private Map<Object, Object> map;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup()
+    {
+        keys = Keys.generate("RANDOM_INT", maxSize, 0);
+        map = Maps.create(impl, loadFactor);
+    }
+
+    @Benchmark
+    public Object put()
+    {
+        if(cursor == keys.length)
+        {
+            map = Maps.create(impl, loadFactor);
+            cursor = 0;
+        }
+        Object key = keys[cursor++];
+        return map.put(key, key);
+    }
+}
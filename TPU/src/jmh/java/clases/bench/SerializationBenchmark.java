@@ -0,0 +1,85 @@
+package clases.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización y deserialización de una tabla de size pares con
+ * ObjectOutputStream / ObjectInputStream. Además del tiempo, el contador
+ * auxiliar serializedBytes informa el tamaño del resultado: con
+ * writeObject() propio depende sólo de la cantidad de pares, no de la
+ * capacidad de la tabla ni de sus casillas TOMBSTONE (compárese el factor de
+ * carga 0.1 con 0.5).
+ *
+ *     java -jar target/benchmarks.jar SerializationBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark
+{
+    @Param({"TSBHashTableDA", "TSBHashTableDA-pow2", "HashMap"})
+    public String impl;
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"0.1", "0.5"})
+    public float loadFactor;
+
+    @Param({"SEQ_INT", "STRING"})
+    public String keyType;
+
+    private Map<Object, Object> map;
+    private byte serialized[];
+
+    /**
+     * Contador auxiliar con el tamaño de la tabla serializada.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size
+    {
+        public long serializedBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException
+    {
+        map = Maps.filled(impl, loadFactor, Keys.generate(keyType, size, 0));
+        serialized = serialize(map);
+    }
+
+    @Benchmark
+    public byte[] serialize(Size s) throws IOException
+    {
+        byte bytes[] = serialize(map);
+        s.serializedBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException, ClassNotFoundException
+    {
+        try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized)))
+        {
+            return in.readObject();
+        }
+    }
+
+    private static byte[] serialize(Object object) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,376 @@
+package clases;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.*;
+
+
+/**
+ * Base de los motores alternativos de tabla hash (cuckoo, Robin Hood, etc.),
+ * que se usan igual que TSBHashTableDA a través de la interface Map pero
+ * organizan sus casillas de otra forma. Esta clase implementa lo que no
+ * depende de esa organización: get(), containsKey(), remove(), las vistas
+ * (respaldadas por la tabla, con iteradores fail-fast) y la serialización de
+ * los pares. Cada motor implementa put(), clear() y el acceso a sus casillas.
+ *
+ * Las casillas de un motor se numeran de 0 a length() - 1. El iterador las
+ * recorre en orden circular a partir de iteration_start(), y después de
+ * remove_at(i) vuelve a revisar la casilla i si quedó ocupada (un motor que
+ * al eliminar mueve otro par a la casilla liberada debe garantizar que ese par
+ * todavía no fue visitado). No se admiten claves ni valores null.
+ *
+ * @author Grupo 31 - Falco, Gonzalo - Marzo, Lautaro - Pesetti, Sabrina - Vela, Azul
+ * @version Octubre de 2022.
+ * @param <K> el tipo de los objetos que serán usados como clave en la tabla.
+ * @param <V> el tipo de los objetos que serán los valores de la tabla.
+ */
+public abstract class AbstractTSBHashTableDA<K,V> extends AbstractMap<K,V> implements Serializable
+{
+    //************************ Atributos protegidos.
+
+    // la cantidad de pares que contiene la tabla...
+    protected transient int count;
+
+    // conteo de operaciones de cambio de estructura (fail-fast iterator)...
+    protected transient int modCount;
+
+    // la vista de pares (se crea la primera vez que se pide)...
+    private transient Set<Map.Entry<K,V>> entrySet = null;
+
+
+    //************************ Acceso a las casillas (a cargo de cada motor).
+
+    /*
+     * Retorna la casilla en la que está la clave key (con hashCode() hc), o -1
+     * si no está en la tabla.
+     */
+    abstract int index_of(Object key, int hc);
+
+    /*
+     * Retorna la cantidad de casillas (ocupadas o no) que recorre el iterador.
+     */
+    abstract int length();
+
+    /*
+     * Determina si la casilla i contiene un par.
+     */
+    abstract boolean is_closed(int i);
+
+    /*
+     * Retornan la clave y el valor de la casilla ocupada i.
+     */
+    abstract K key_at(int i);
+    abstract V value_at(int i);
+
+    /*
+     * Reemplaza el valor de la casilla ocupada i (no cambia la estructura).
+     */
+    abstract void set_value_at(int i, V value);
+
+    /*
+     * Elimina el par de la casilla ocupada i: descuenta count e incrementa
+     * modCount.
+     */
+    abstract void remove_at(int i);
+
+    /*
+     * Retorna la casilla en la que empieza el recorrido del iterador.
+     */
+    int iteration_start()
+    {
+        return 0;
+    }
+
+
+    //************************ Implementación de métodos especificados por Map.
+
+    @Override
+    public int size()
+    {
+        return this.count;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return this.count == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        if(key == null) throw new NullPointerException("containsKey(): parámetro null");
+        return this.index_of(key, key.hashCode()) != -1;
+    }
+
+    @Override
+    public V get(Object key)
+    {
+        if(key == null) throw new NullPointerException("get(): parámetro null");
+        int i = this.index_of(key, key.hashCode());
+        return (i == -1) ? null : this.value_at(i);
+    }
+
+    @Override
+    public V remove(Object key)
+    {
+        if(key == null) throw new NullPointerException("remove(): parámetro null");
+        int i = this.index_of(key, key.hashCode());
+        if(i == -1) { return null; }
+
+        V old = this.value_at(i);
+        this.remove_at(i);
+        return old;
+    }
+
+    @Override
+    public Set<Map.Entry<K,V>> entrySet()
+    {
+        if(this.entrySet == null) { this.entrySet = new EntrySet(); }
+        return this.entrySet;
+    }
+
+
+    //************************ Métodos para la serialización de los motores.
+
+    /*
+     * Escribe count y luego cada clave seguida de su valor.
+     */
+    void write_pairs(ObjectOutputStream s) throws IOException
+    {
+        s.writeInt(this.count);
+        for(int i = 0; i < this.length(); i++)
+        {
+            if(this.is_closed(i))
+            {
+                s.writeObject(this.key_at(i));
+                s.writeObject(this.value_at(i));
+            }
+        }
+    }
+
+    /*
+     * Lee la cantidad de pares escrita por write_pairs() (el motor debe crear
+     * su tabla con esa capacidad antes de invocar a read_pairs()).
+     */
+    static int read_count(ObjectInputStream s) throws IOException
+    {
+        int n = s.readInt();
+        if(n < 0) throw new InvalidObjectException("cantidad de pares inválida: " + n);
+        return n;
+    }
+
+    /*
+     * Lee n pares escritos por write_pairs() y los inserta con put().
+     */
+    void read_pairs(ObjectInputStream s, int n) throws IOException, ClassNotFoundException
+    {
+        for(int i = 0; i < n; i++)
+        {
+            K key = (K) s.readObject();
+            V value = (V) s.readObject();
+            if(key == null || value == null) throw new InvalidObjectException("par null en la posición " + i);
+            this.put(key, value);
+        }
+    }
+
+
+    //************************ Clases Internas.
+
+    /*
+     * Vista de los pares de la tabla. Sus métodos delegan en la tabla.
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<K,V>>
+    {
+        @Override
+        public Iterator<Map.Entry<K,V>> iterator()
+        {
+            return new EntryIterator();
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            if(!(o instanceof Map.Entry)) { return false; }
+            Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+            if(e.getKey() == null) { return false; }
+
+            int i = AbstractTSBHashTableDA.this.index_of(e.getKey(), e.getKey().hashCode());
+            return i != -1 && AbstractTSBHashTableDA.this.value_at(i).equals(e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o)
+        {
+            if(!this.contains(o)) { return false; }
+            AbstractTSBHashTableDA.this.remove(((Map.Entry<?,?>) o).getKey());
+            return true;
+        }
+
+        @Override
+        public int size()
+        {
+            return AbstractTSBHashTableDA.this.count;
+        }
+
+        @Override
+        public void clear()
+        {
+            AbstractTSBHashTableDA.this.clear();
+        }
+    }
+
+    /*
+     * Iterador fail-fast sobre las casillas ocupadas, en orden circular a
+     * partir de iteration_start().
+     */
+    private class EntryIterator implements Iterator<Map.Entry<K,V>>
+    {
+        // la casilla donde empezó el recorrido y cuántas casillas se revisaron...
+        private final int start;
+        private int visited;
+
+        // la casilla retornada por el último next() (-1 si no hay una)...
+        private int current = -1;
+
+        // el valor que debería tener el modCount de la tabla...
+        private int expected_modCount;
+
+        EntryIterator()
+        {
+            this.start = AbstractTSBHashTableDA.this.iteration_start();
+            this.expected_modCount = AbstractTSBHashTableDA.this.modCount;
+        }
+
+        /*
+         * Avanza visited hasta la próxima casilla ocupada (si la hay).
+         */
+        private void skip_empty()
+        {
+            AbstractTSBHashTableDA<K,V> t = AbstractTSBHashTableDA.this;
+            int n = t.length();
+            while(this.visited < n && !t.is_closed(this.slot(this.visited))) { this.visited++; }
+        }
+
+        private int slot(int v)
+        {
+            int n = AbstractTSBHashTableDA.this.length();
+            int i = this.start + v;
+            return (i >= n) ? i - n : i;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            this.skip_empty();
+            return this.visited < AbstractTSBHashTableDA.this.length();
+        }
+
+        @Override
+        public Map.Entry<K,V> next()
+        {
+            if(AbstractTSBHashTableDA.this.modCount != this.expected_modCount)
+            {
+                throw new ConcurrentModificationException("next(): modificación inesperada de tabla...");
+            }
+            if(!this.hasNext()) { throw new NoSuchElementException("next(): no existe el elemento pedido..."); }
+
+            this.current = this.slot(this.visited);
+            this.visited++;
+            return new Entry(this.current);
+        }
+
+        @Override
+        public void remove()
+        {
+            if(this.current == -1) { throw new IllegalStateException("remove(): debe invocar a next() antes de remove()..."); }
+            if(AbstractTSBHashTableDA.this.modCount != this.expected_modCount)
+            {
+                throw new ConcurrentModificationException("remove(): modificación inesperada de tabla...");
+            }
+
+            AbstractTSBHashTableDA.this.remove_at(this.current);
+            this.expected_modCount = AbstractTSBHashTableDA.this.modCount;
+
+            // si otro par ocupó la casilla liberada, hay que volver a revisarla...
+            if(AbstractTSBHashTableDA.this.is_closed(this.current)) { this.visited--; }
+            this.current = -1;
+        }
+    }
+
+    /*
+     * Par entregado por el iterador: recuerda la casilla de la que salió para
+     * que setValue() modifique el valor en la tabla. Si desde entonces la tabla
+     * movió el par (al crecer o al reubicar otros pares), setValue() vuelve a
+     * buscar la clave antes de escribir.
+     */
+    private class Entry implements Map.Entry<K,V>
+    {
+        private int index;
+        private final K key;
+        private V value;
+
+        Entry(int index)
+        {
+            this.index = index;
+            this.key = AbstractTSBHashTableDA.this.key_at(index);
+            this.value = AbstractTSBHashTableDA.this.value_at(index);
+        }
+
+        @Override
+        public K getKey()
+        {
+            return this.key;
+        }
+
+        @Override
+        public V getValue()
+        {
+            return this.value;
+        }
+
+        @Override
+        public V setValue(V value)
+        {
+            if(value == null) { throw new IllegalArgumentException("setValue(): parámetro null..."); }
+
+            // si la casilla ya no tiene esta clave, el par se movió (o se eliminó)...
+            AbstractTSBHashTableDA<K,V> t = AbstractTSBHashTableDA.this;
+            int i = this.index;
+            if(i >= t.length() || !t.is_closed(i) || t.key_at(i) != this.key)
+            {
+                i = t.index_of(this.key, this.key.hashCode());
+                if(i == -1) { throw new IllegalStateException("setValue(): el par ya no está en la tabla..."); }
+                this.index = i;
+            }
+
+            V old = t.value_at(i);
+            this.value = value;
+            t.set_value_at(i, value);
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if(!(o instanceof Map.Entry)) { return false; }
+            Map.Entry<?,?> e = (Map.Entry<?,?>) o;
+            return this.key.equals(e.getKey()) && this.value.equals(e.getValue());
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return this.key.hashCode() ^ this.value.hashCode();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "(" + this.key + ", " + this.value + ")";
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package clases;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Evento de Java Flight Recorder que registra una búsqueda en una tabla
+ * TSBHashTableDA cuya secuencia de exploración revisó al menos tantas
+ * casillas como el umbral de la tabla (ver
+ * TSBHashTableDA.setLongProbeThreshold()). La traza de pila del evento
+ * muestra qué operación hizo la búsqueda.
+ *
+ * @author Grupo 31 - Falco, Gonzalo - Marzo, Lautaro - Pesetti, Sabrina - Vela, Azul
+ * @version Octubre de 2022.
+ */
+@Name(LongProbeEvent.NAME)
+@Label("Exploración larga en TSBHashTableDA")
+@Category({"TSB", "Tablas hash"})
+@Description("Búsqueda que revisó más casillas que el umbral de la tabla")
+final class LongProbeEvent extends jdk.jfr.Event
+{
+    static final String NAME = "clases.TSBHashTableDA.LongProbe";
+
+    @Label("Tabla")
+    @Description("System.identityHashCode() de la tabla")
+    int tableId;
+
+    @Label("Casillas revisadas")
+    int probes;
+
+    @Label("Umbral")
+    int threshold;
+
+    @Label("Tamaño de la tabla")
+    int length;
+
+    @Label("Pares en la tabla")
+    int count;
+}
@@ -0,0 +1,52 @@
+package clases;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+
+/**
+ * Evento de Java Flight Recorder que registra un rehash (o una limpieza con
+ * compact()) de una tabla TSBHashTableDA. El evento empieza cuando se crean
+ * los arreglos nuevos y termina cuando el último par llegó a ellos, por lo
+ * que su duración es la del rehash completo: con rehash incremental abarca
+ * toda la migración, repartida entre las operaciones posteriores.
+ *
+ * Se habilita como cualquier evento de JFR, por ejemplo:
+ *
+ *     java -XX:StartFlightRecording:filename=rec.jfr,settings=profile ...
+ *
+ * (el evento viene habilitado por defecto, con su traza de pila).
+ *
+ * @author Grupo 31 - Falco, Gonzalo - Marzo, Lautaro - Pesetti, Sabrina - Vela, Azul
+ * @version Octubre de 2022.
+ */
+@Name(RehashEvent.NAME)
+@Label("Rehash de TSBHashTableDA")
+@Category({"TSB", "Tablas hash"})
+@Description("Cambio de tamaño o limpieza de una tabla TSBHashTableDA")
+final class RehashEvent extends jdk.jfr.Event
+{
+    static final String NAME = "clases.TSBHashTableDA.Rehash";
+
+    @Label("Tabla")
+    @Description("System.identityHashCode() de la tabla")
+    int tableId;
+
+    @Label("Tamaño anterior")
+    int oldLength;
+
+    @Label("Tamaño nuevo")
+    int newLength;
+
+    @Label("Pares movidos")
+    int entriesMoved;
+
+    @Label("Incremental")
+    boolean incremental;
+
+    @Label("Limpieza")
+    @Description("true si fue una limpieza con compact() (el tamaño no cambia)")
+    boolean compaction;
+}
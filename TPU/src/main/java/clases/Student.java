@@ -8,6 +8,26 @@ public class Student
     private int legajo;
     private String nombre;
 
+    public Student()
+    {
+    }
+
+    public Student(int legajo, String nombre)
+    {
+        this.legajo = legajo;
+        this.nombre = nombre;
+    }
+
+    public int getLegajo()
+    {
+        return legajo;
+    }
+
+    public String getNombre()
+    {
+        return nombre;
+    }
+
     @Override
     public int hashCode()
     {
@@ -0,0 +1,644 @@
+package clases;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+
+/**
+ * Tabla hash segura para el uso concurrente desde varios hilos, implementada
+ * como un arreglo de segmentos independientes. Cada segmento es una tabla
+ * TSBHashTableDA (con su exploración cuadrática y su rehash) protegida por
+ * su propio lock: dos hilos que trabajan con claves de segmentos distintos
+ * no se bloquean entre sí, y el rehash de un segmento sólo bloquea a ese
+ * segmento.
+ *
+ * El segmento de una clave se elige con los bits altos de su hashCode()
+ * mezclado, de forma que la elección no se correlacione con los bits que
+ * usa cada segmento para ubicar la clave dentro de su tabla.
+ *
+ * Las operaciones compuestas de ConcurrentMap (putIfAbsent(), remove(k, v),
+ * replace(), compute(), computeIfAbsent(), computeIfPresent() y merge()) se
+ * ejecutan completas con el lock del segmento tomado, por lo que son
+ * atómicas. Las funciones que reciben compute() y sus variantes no deben
+ * modificar esta tabla. Las vistas son débilmente consistentes: recorren los
+ * segmentos de a uno, tomando una instantánea de cada segmento al llegar a él,
+ * y nunca lanzan ConcurrentModificationException.
+ *
+ * No se admiten claves ni valores null.
+ *
+ * @author Grupo 31 - Falco, Gonzalo - Marzo, Lautaro - Pesetti, Sabrina - Vela, Azul
+ * @version Octubre de 2022.
+ * @param <K> el tipo de los objetos que serán usados como clave en la tabla.
+ * @param <V> el tipo de los objetos que serán los valores de la tabla.
+ */
+public class TSBConcurrentHashTableDA<K,V> extends AbstractMap<K,V> implements ConcurrentMap<K,V>, Serializable
+{
+    //************************ Constantes (privadas o públicas).
+
+    // cantidad máxima de segmentos...
+    private static final int MAX_SEGMENTS = 1 << 16;
+
+    //************************ Atributos privados (estructurales).
+
+    // los segmentos: cada uno es una tabla con su propio lock...
+    private final Segment<K,V> segments[];
+
+    // desplazamiento para quedarse con los bits altos del hash mezclado...
+    private final int segment_shift;
+
+    // vista de pares (se crea la primera vez que se pide)...
+    private transient Set<Map.Entry<K,V>> entrySet = null;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea una tabla vacía con 16 segmentos, cada uno con capacidad inicial
+     * igual a 11 y factor de carga igual a 0.5f.
+     */
+    public TSBConcurrentHashTableDA()
+    {
+        this(16 * 11, 0.5f, 16);
+    }
+
+    /**
+     * Crea una tabla vacía con 16 segmentos, repartiendo entre ellos la
+     * capacidad inicial indicada, con factor de carga igual a 0.5f.
+     * @param initial_capacity la capacidad inicial total de la tabla.
+     */
+    public TSBConcurrentHashTableDA(int initial_capacity)
+    {
+        this(initial_capacity, 0.5f, 16);
+    }
+
+    /**
+     * Crea una tabla vacía con la capacidad inicial total, el factor de carga
+     * y el nivel de concurrencia indicados. La cantidad de segmentos es la
+     * primera potencia de dos mayor o igual a concurrency_level (que debería
+     * ser aproximadamente la cantidad de hilos que modifican la tabla al mismo
+     * tiempo); si concurrency_level es menor o igual a 0 se usan 16 segmentos.
+     * La capacidad inicial se reparte en partes iguales entre los segmentos, y
+     * el factor de carga se aplica a cada segmento con las mismas reglas que
+     * en TSBHashTableDA.
+     * @param initial_capacity la capacidad inicial total de la tabla.
+     * @param load_factor el factor de carga de cada segmento.
+     * @param concurrency_level la cantidad estimada de hilos concurrentes.
+     */
+    public TSBConcurrentHashTableDA(int initial_capacity, float load_factor, int concurrency_level)
+    {
+        if(concurrency_level <= 0) { concurrency_level = 16; }
+        if(concurrency_level > MAX_SEGMENTS) { concurrency_level = MAX_SEGMENTS; }
+
+        int n = 1;
+        int bits = 0;
+        while(n < concurrency_level) { n <<= 1; bits++; }
+
+        int segment_capacity = Math.max(1, initial_capacity / n);
+        this.segments = (Segment<K,V>[]) new Segment[n];
+        for(int i = 0; i < n; i++)
+        {
+            this.segments[i] = new Segment<>(new TSBHashTableDA<>(segment_capacity, load_factor));
+        }
+        this.segment_shift = 32 - bits;
+    }
+
+    /**
+     * Crea una tabla a partir del contenido del Map especificado.
+     * @param t el Map a partir del cual se creará la tabla.
+     */
+    public TSBConcurrentHashTableDA(Map<? extends K,? extends V> t)
+    {
+        this(Math.max(16 * 11, t.size() * 2), 0.5f, 16);
+        this.putAll(t);
+    }
+
+
+    //************************ Implementación de métodos especificados por Map.
+
+    /**
+     * Retorna la cantidad de elementos contenidos en la tabla. El valor se
+     * obtiene sumando los tamaños de los segmentos de a uno, por lo que con
+     * modificaciones concurrentes es sólo una estimación.
+     * @return la cantidad de elementos de la tabla.
+     */
+    @Override
+    public int size()
+    {
+        long total = 0;
+        for(Segment<K,V> s : this.segments)
+        {
+            s.lock();
+            try { total += s.table.size(); }
+            finally { s.unlock(); }
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Determina si la tabla está vacía (no contiene ningún elemento).
+     * @return true si la tabla está vacía.
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        for(Segment<K,V> s : this.segments)
+        {
+            s.lock();
+            try { if(!s.table.isEmpty()) { return false; } }
+            finally { s.unlock(); }
+        }
+        return true;
+    }
+
+    /**
+     * Determina si la clave key está en la tabla.
+     * @param key la clave a verificar.
+     * @return true si la clave está en la tabla.
+     * @throws NullPointerException si la clave es null.
+     */
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return this.get(key) != null;
+    }
+
+    /**
+     * Determina si alguna clave de la tabla está asociada al objeto value.
+     * Recorre los segmentos de a uno.
+     * @param value el objeto a buscar en la tabla.
+     * @return true si alguna clave está asociada efectivamente a ese value.
+     * @throws NullPointerException si value es null.
+     */
+    @Override
+    public boolean containsValue(Object value)
+    {
+        if(value == null) throw new NullPointerException("containsValue(): parámetro null");
+
+        for(Segment<K,V> s : this.segments)
+        {
+            s.lock();
+            try { if(s.table.containsValue(value)) { return true; } }
+            finally { s.unlock(); }
+        }
+        return false;
+    }
+
+    /**
+     * Retorna el objeto al cual está asociada la clave key en la tabla, o null
+     * si la tabla no contiene ningún objeto asociado a esa clave.
+     * @param key la clave que será buscada en la tabla.
+     * @return el objeto asociado a la clave especificada, o null.
+     * @throws NullPointerException si key es null.
+     */
+    @Override
+    public V get(Object key)
+    {
+        if(key == null) throw new NullPointerException("get(): parámetro null");
+
+        Segment<K,V> s = this.segment_for(key);
+        s.lock();
+        try { return s.table.get(key); }
+        finally { s.unlock(); }
+    }
+
+    /**
+     * Asocia el valor (value) especificado con la clave (key) especificada.
+     * @param key la clave del objeto que se quiere agregar a la tabla.
+     * @param value el objeto que se quiere agregar a la tabla.
+     * @return el objeto anteriormente asociado a la clave, o null.
+     * @throws NullPointerException si key es null o value es null.
+     */
+    @Override
+    public V put(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("put(): parámetro null");
+
+        Segment<K,V> s = this.segment_for(key);
+        s.lock();
+        try { return s.table.put(key, value); }
+        finally { s.unlock(); }
+    }
+
+    /**
+     * Elimina de la tabla la clave key (y su correspondiente valor asociado).
+     * @param key la clave a eliminar.
+     * @return el objeto al cual la clave estaba asociada, o null.
+     * @throws NullPointerException si key es null.
+     */
+    @Override
+    public V remove(Object key)
+    {
+        if(key == null) throw new NullPointerException("remove(): parámetro null");
+
+        Segment<K,V> s = this.segment_for(key);
+        s.lock();
+        try { return s.table.remove(key); }
+        finally { s.unlock(); }
+    }
+
+    /**
+     * Copia en esta tabla todos los objetos contenidos en el map especificado.
+     * Cada par se inserta con su propio put(): la copia no es atómica.
+     * @param m el map cuyos objetos serán copiados en esta tabla.
+     * @throws NullPointerException si m es null o contiene claves o valores null.
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m)
+    {
+        if(m == null) throw new NullPointerException("putAll(): parámetro null");
+
+        for(Map.Entry<? extends K, ? extends V> e : m.entrySet())
+        {
+            this.put(e.getKey(), e.getValue());
+        }
+    }
+
+    /**
+     * Elimina el contenido de la tabla, vaciando los segmentos de a uno.
+     */
+    @Override
+    public void clear()
+    {
+        for(Segment<K,V> s : this.segments)
+        {
+            s.lock();
+            try { s.table.clear(); }
+            finally { s.unlock(); }
+        }
+    }
+
+    /**
+     * Retorna una vista débilmente consistente de todos los pares de la
+     * tabla. Los pares retornados por el iterador son instantáneas: setValue()
+     * actualiza la tabla con put() si la clave sigue presente.
+     * @return un conjunto a modo de vista de todos los pares de la tabla.
+     */
+    @Override
+    public Set<Map.Entry<K, V>> entrySet()
+    {
+        if(this.entrySet == null) { this.entrySet = new EntrySet(); }
+        return this.entrySet;
+    }
+
+
+    //************************ Implementación de métodos especificados por ConcurrentMap.
+
+    /**
+     * Asocia value con key sólo si key no estaba en la tabla (de forma atómica).
+     * @param key la clave.
+     * @param value el valor.
+     * @return el valor que ya estaba asociado a key, o null si se insertó.
+     * @throws NullPointerException si key es null o value es null.
+     */
+    @Override
+    public V putIfAbsent(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("putIfAbsent(): parámetro null");
+
+        Segment<K,V> s = this.segment_for(key);
+        s.lock();
+        try
+        {
+            return s.table.putIfAbsent(key, value);
+        }
+        finally { s.unlock(); }
+    }
+
+    /**
+     * Elimina key sólo si está asociada a value (de forma atómica).
+     * @param key la clave.
+     * @param value el valor esperado.
+     * @return true si se eliminó el par.
+     * @throws NullPointerException si key es null.
+     */
+    @Override
+    public boolean remove(Object key, Object value)
+    {
+        if(key == null) throw new NullPointerException("remove(): parámetro null");
+        if(value == null) { return false; }
+
+        Segment<K,V> s = this.segment_for(key);
+        s.lock();
+        try
+        {
+            V old = s.table.get(key);
+            if(old == null || !old.equals(value)) { return false; }
+            s.table.remove(key);
+            return true;
+        }
+        finally { s.unlock(); }
+    }
+
+    /**
+     * Reemplaza el valor de key sólo si está asociada a old_value (de forma
+     * atómica).
+     * @param key la clave.
+     * @param old_value el valor esperado.
+     * @param new_value el nuevo valor.
+     * @return true si se reemplazó el valor.
+     * @throws NullPointerException si algún parámetro es null.
+     */
+    @Override
+    public boolean replace(K key, V old_value, V new_value)
+    {
+        if(key == null || old_value == null || new_value == null) throw new NullPointerException("replace(): parámetro null");
+
+        Segment<K,V> s = this.segment_for(key);
+        s.lock();
+        try
+        {
+            V old = s.table.get(key);
+            if(old == null || !old.equals(old_value)) { return false; }
+            s.table.put(key, new_value);
+            return true;
+        }
+        finally { s.unlock(); }
+    }
+
+    /**
+     * Reemplaza el valor de key sólo si key está en la tabla (de forma atómica).
+     * @param key la clave.
+     * @param value el nuevo valor.
+     * @return el valor anterior, o null si key no estaba en la tabla.
+     * @throws NullPointerException si key es null o value es null.
+     */
+    @Override
+    public V replace(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("replace(): parámetro null");
+
+        Segment<K,V> s = this.segment_for(key);
+        s.lock();
+        try
+        {
+            V old = s.table.get(key);
+            if(old != null) { s.table.put(key, value); }
+            return old;
+        }
+        finally { s.unlock(); }
+    }
+
+    /**
+     * Retorna el valor asociado a key, o default_value si key no está en la
+     * tabla.
+     * @param key la clave.
+     * @param default_value el valor a retornar si key no está en la tabla.
+     * @return el valor asociado a key, o default_value.
+     */
+    @Override
+    public V getOrDefault(Object key, V default_value)
+    {
+        V v = this.get(key);
+        return v != null ? v : default_value;
+    }
+
+    /**
+     * Si key no está en la tabla, calcula su valor con la función indicada y
+     * lo inserta (si no es null). Todo se hace con el lock del segmento
+     * tomado, por lo que la función se invoca a lo sumo una vez por clave.
+     * @param key la clave.
+     * @param mapping_function la función que calcula el valor.
+     * @return el valor asociado a key (el existente o el calculado), o null.
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mapping_function)
+    {
+        if(key == null || mapping_function == null) throw new NullPointerException("computeIfAbsent(): parámetro null");
+
+        Segment<K,V> s = this.segment_for(key);
+        s.lock();
+        try
+        {
+            return s.table.computeIfAbsent(key, mapping_function);
+        }
+        finally { s.unlock(); }
+    }
+
+    /**
+     * Si key está en la tabla, calcula su nuevo valor con la función indicada
+     * (si el resultado es null, elimina la clave). Atómico.
+     * @param key la clave.
+     * @param remapping_function la función que calcula el nuevo valor.
+     * @return el nuevo valor asociado a key, o null.
+     */
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remapping_function)
+    {
+        if(key == null || remapping_function == null) throw new NullPointerException("computeIfPresent(): parámetro null");
+
+        Segment<K,V> s = this.segment_for(key);
+        s.lock();
+        try
+        {
+            return s.table.computeIfPresent(key, remapping_function);
+        }
+        finally { s.unlock(); }
+    }
+
+    /**
+     * Calcula el nuevo valor de key a partir de su valor actual (o null si no
+     * está en la tabla). Si el resultado es null, elimina la clave. Atómico.
+     * @param key la clave.
+     * @param remapping_function la función que calcula el nuevo valor.
+     * @return el nuevo valor asociado a key, o null.
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping_function)
+    {
+        if(key == null || remapping_function == null) throw new NullPointerException("compute(): parámetro null");
+
+        Segment<K,V> s = this.segment_for(key);
+        s.lock();
+        try
+        {
+            return s.table.compute(key, remapping_function);
+        }
+        finally { s.unlock(); }
+    }
+
+    /**
+     * Si key no está en la tabla la asocia con value; si está, combina su
+     * valor actual con value usando la función indicada (si el resultado es
+     * null, elimina la clave). Atómico.
+     * @param key la clave.
+     * @param value el valor a insertar o combinar.
+     * @param remapping_function la función que combina los valores.
+     * @return el nuevo valor asociado a key, o null.
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remapping_function)
+    {
+        if(key == null || value == null || remapping_function == null) throw new NullPointerException("merge(): parámetro null");
+
+        Segment<K,V> s = this.segment_for(key);
+        s.lock();
+        try
+        {
+            return s.table.merge(key, value, remapping_function);
+        }
+        finally { s.unlock(); }
+    }
+
+
+    //************************ Métodos privados.
+
+    /*
+     * Retorna el segmento que corresponde a la clave key: los bits altos del
+     * hashCode() de key, mezclado con TSBHashTableDA.spread().
+     */
+    private Segment<K,V> segment_for(Object key)
+    {
+        if(this.segments.length == 1) { return this.segments[0]; }
+
+        return this.segments[TSBHashTableDA.spread(key.hashCode()) >>> this.segment_shift];
+    }
+
+
+    //************************ Clases Internas.
+
+    /*
+     * Un segmento: una tabla TSBHashTableDA y el lock que la protege.
+     */
+    private static final class Segment<K,V> extends ReentrantLock
+    {
+        private final TSBHashTableDA<K,V> table;
+
+        Segment(TSBHashTableDA<K,V> table)
+        {
+            this.table = table;
+        }
+    }
+
+    /*
+     * Vista de todos los pares de la tabla. El iterador toma una instantánea
+     * de cada segmento (con su lock) recién cuando llega a él.
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>>
+    {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator()
+        {
+            return new EntrySetIterator();
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            if(!(o instanceof Map.Entry)) { return false; }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            if(e.getKey() == null) { return false; }
+            V v = TSBConcurrentHashTableDA.this.get(e.getKey());
+            return v != null && v.equals(e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o)
+        {
+            if(!(o instanceof Map.Entry)) { return false; }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            if(e.getKey() == null) { return false; }
+            return TSBConcurrentHashTableDA.this.remove(e.getKey(), e.getValue());
+        }
+
+        @Override
+        public int size()
+        {
+            return TSBConcurrentHashTableDA.this.size();
+        }
+
+        @Override
+        public void clear()
+        {
+            TSBConcurrentHashTableDA.this.clear();
+        }
+    }
+
+    private class EntrySetIterator implements Iterator<Map.Entry<K, V>>
+    {
+        // el próximo segmento del cual tomar una instantánea...
+        private int next_segment;
+
+        // instantánea del segmento actual y posición dentro de ella...
+        private Object keys[] = new Object[0];
+        private Object values[] = new Object[0];
+        private int next_entry;
+
+        // la clave retornada por la última invocación a next()...
+        private K last_key;
+
+        @Override
+        public boolean hasNext()
+        {
+            while(next_entry >= keys.length)
+            {
+                if(next_segment >= TSBConcurrentHashTableDA.this.segments.length) { return false; }
+                this.snapshot(TSBConcurrentHashTableDA.this.segments[next_segment++]);
+            }
+            return true;
+        }
+
+        @Override
+        public Map.Entry<K, V> next()
+        {
+            if(!hasNext()) { throw new NoSuchElementException("next(): no existe el elemento pedido..."); }
+
+            K key = (K) keys[next_entry];
+            V value = (V) values[next_entry];
+            next_entry++;
+            last_key = key;
+            return new SnapshotEntry(key, value);
+        }
+
+        @Override
+        public void remove()
+        {
+            if(last_key == null) { throw new IllegalStateException("remove(): debe invocar a next() antes de remove()..."); }
+            TSBConcurrentHashTableDA.this.remove(last_key);
+            last_key = null;
+        }
+
+        private void snapshot(Segment<K,V> s)
+        {
+            s.lock();
+            try
+            {
+                int n = s.table.size();
+                keys = new Object[n];
+                values = new Object[n];
+                int i = 0;
+                for(Map.Entry<K, V> e : s.table.entrySet())
+                {
+                    keys[i] = e.getKey();
+                    values[i] = e.getValue();
+                    i++;
+                }
+            }
+            finally { s.unlock(); }
+            next_entry = 0;
+        }
+    }
+
+    /*
+     * Par retornado por el iterador: setValue() actualiza la tabla.
+     */
+    private class SnapshotEntry extends AbstractMap.SimpleEntry<K, V>
+    {
+        SnapshotEntry(K key, V value)
+        {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value)
+        {
+            if(value == null) { throw new NullPointerException("setValue(): parámetro null"); }
+            V old = super.setValue(value);
+            TSBConcurrentHashTableDA.this.replace(getKey(), value);
+            return old;
+        }
+    }
+}
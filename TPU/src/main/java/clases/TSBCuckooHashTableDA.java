@@ -0,0 +1,520 @@
+package clases;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+
+/**
+ * Tabla hash con cuckoo hashing: cada clave puede estar sólo en uno de sus
+ * ways cubetas candidatas (una por función hash), de BUCKET_SIZE casillas
+ * cada una. Por eso get(), containsKey() y remove() revisan a lo sumo
+ * ways * BUCKET_SIZE casillas, sin importar el estado de la tabla: el peor
+ * caso de una búsqueda está acotado, a diferencia de la exploración
+ * cuadrática de TSBHashTableDA.
+ *
+ * Para insertar una clave nueva se busca una casilla libre en sus cubetas
+ * candidatas; si están todas llenas, la clave desplaza a una de las que
+ * estaban (elegida al azar), que a su vez pasa a otra de sus cubetas, y así
+ * hasta encontrar lugar o hasta MAX_EVICTIONS desplazamientos. Si el camino
+ * de desplazamientos se agota, la clave que quedó sin lugar va a un pequeño
+ * depósito (stash) que también revisan las búsquedas; cuando el depósito se
+ * llena, la tabla se reconstruye con funciones hash nuevas (otras semillas).
+ * Las claves cuyo hashCode() coincide caen en las mismas cubetas con
+ * cualquier semilla: si son más de las que entran, quedan en el depósito. La
+ * tabla crece al doble cuando la proporción de casillas ocupadas alcanza el
+ * factor de carga. Las eliminaciones liberan la casilla (no hay TOMBSTONE).
+ *
+ * No se admiten claves ni valores null.
+ *
+ * @author Grupo 31 - Falco, Gonzalo - Marzo, Lautaro - Pesetti, Sabrina - Vela, Azul
+ * @version Octubre de 2022.
+ * @param <K> el tipo de los objetos que serán usados como clave en la tabla.
+ * @param <V> el tipo de los objetos que serán los valores de la tabla.
+ */
+public class TSBCuckooHashTableDA<K,V> extends AbstractTSBHashTableDA<K,V>
+{
+    //************************ Constantes (privadas o públicas).
+
+    // casillas por cubeta...
+    public static final int BUCKET_SIZE = 4;
+
+    // máxima cantidad de desplazamientos de una inserción...
+    private static final int MAX_EVICTIONS = 128;
+
+    // pares que se admiten en el depósito antes de reconstruir la tabla...
+    private static final int STASH_SIZE = 4;
+
+    // reconstrucciones con semillas nuevas antes de agrandar la tabla...
+    private static final int MAX_RESEEDS = 4;
+
+
+    //************************ Atributos privados (estructurales).
+
+    // las casillas: claves (null si la casilla está libre), valores y el
+    // hashCode() de cada clave, agrupadas de a BUCKET_SIZE por cubeta...
+    private transient Object keys[];
+    private transient Object values[];
+    private transient int hashes[];
+
+    // máscara para obtener el número de cubeta (cubetas: potencia de dos)...
+    private transient int mask;
+
+    // una semilla por función hash...
+    private transient int seeds[];
+
+    // el depósito: pares que no entraron en sus cubetas...
+    private transient Object stash_keys[];
+    private transient Object stash_values[];
+    private transient int stash_hashes[];
+    private transient int stash_count;
+
+    // pares en el depósito a partir de los cuales se reconstruye la tabla...
+    private transient int stash_limit;
+
+    // estado del generador de números pseudo-aleatorios (desplazamientos y
+    // semillas)...
+    private transient int random;
+
+    // cantidad de reconstrucciones (con o sin cambio de tamaño)...
+    private transient int rehash_count;
+
+    // el tamaño inicial, el factor de carga y la cantidad de funciones hash...
+    private int initial_capacity;
+    private float load_factor;
+    private int ways;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea una tabla vacía, con capacidad inicial para 16 pares, factor de
+     * carga 0.9f y dos funciones hash.
+     */
+    public TSBCuckooHashTableDA()
+    {
+        this(16, 0.9f, 2);
+    }
+
+    /**
+     * Crea una tabla vacía con la capacidad inicial indicada, factor de carga
+     * 0.9f y dos funciones hash.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     */
+    public TSBCuckooHashTableDA(int initial_capacity)
+    {
+        this(initial_capacity, 0.9f, 2);
+    }
+
+    /**
+     * Crea una tabla vacía con la capacidad inicial, el factor de carga y la
+     * cantidad de funciones hash indicados. Si la capacidad es menor o igual a
+     * cero, se usa 16. Si el factor de carga no está entre 0 y 1 (excluidos),
+     * se usa 0.9f (con cubetas de cuatro casillas, dos funciones hash llenan
+     * más del 90% de la tabla antes de que las inserciones fallen). Si la
+     * cantidad de funciones hash no está entre 2 y 4, se usa 2.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     * @param load_factor el factor de carga de la tabla.
+     * @param ways la cantidad de funciones hash (cubetas candidatas por clave).
+     */
+    public TSBCuckooHashTableDA(int initial_capacity, float load_factor, int ways)
+    {
+        if(initial_capacity <= 0) { initial_capacity = 16; }
+        if(load_factor <= 0 || load_factor >= 1) { load_factor = 0.9f; }
+        if(ways < 2 || ways > 4) { ways = 2; }
+
+        this.initial_capacity = initial_capacity;
+        this.load_factor = load_factor;
+        this.ways = ways;
+        this.random = 0x9E3779B9;
+        this.init(this.buckets_for(initial_capacity));
+    }
+
+
+    //************************ Implementación de métodos especificados por Map.
+
+    /**
+     * Asocia el valor value con la clave key. Si la clave ya estaba en la
+     * tabla, reemplaza su valor.
+     * @param key la clave.
+     * @param value el valor.
+     * @return el valor anterior asociado a key, o null si no estaba.
+     * @throws NullPointerException si key o value es null.
+     */
+    @Override
+    public V put(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("put(): parámetro null");
+
+        int hc = key.hashCode();
+        int i = this.index_of(key, hc);
+        if(i != -1)
+        {
+            V old = this.value_at(i);
+            this.set_value_at(i, value);
+            return old;
+        }
+
+        if(this.count + 1 > this.load_factor * this.keys.length) { this.rebuild(2 * (this.mask + 1)); }
+        this.insert(key, value, hc);
+        this.count++;
+        this.modCount++;
+        return null;
+    }
+
+    /**
+     * Elimina todos los pares de la tabla, y la deja con su tamaño inicial.
+     */
+    @Override
+    public void clear()
+    {
+        this.init(this.buckets_for(this.initial_capacity));
+        this.count = 0;
+        this.modCount++;
+    }
+
+
+    //************************ Métodos específicos de la clase.
+
+    /**
+     * @return la cantidad de casillas de la tabla (sin contar el depósito).
+     */
+    public int capacity()
+    {
+        return this.keys.length;
+    }
+
+    /**
+     * @return la cantidad de funciones hash (cubetas candidatas por clave).
+     */
+    public int getWays()
+    {
+        return this.ways;
+    }
+
+    /**
+     * @return la cantidad de pares que están en el depósito.
+     */
+    public int stashSize()
+    {
+        return this.stash_count;
+    }
+
+    /**
+     * @return la cantidad de veces que la tabla se reconstruyó (al crecer o
+     * con semillas nuevas).
+     */
+    public int getRehashCount()
+    {
+        return this.rehash_count;
+    }
+
+
+    //************************ Acceso a las casillas.
+
+    /*
+     * Revisa las BUCKET_SIZE casillas de cada cubeta candidata y, si el
+     * depósito no está vacío, el depósito.
+     */
+    @Override
+    int index_of(Object key, int hc)
+    {
+        Object k[] = this.keys;
+        int h[] = this.hashes;
+        for(int w = 0; w < this.ways; w++)
+        {
+            int base = this.bucket(hc, w) * BUCKET_SIZE;
+            for(int i = base; i < base + BUCKET_SIZE; i++)
+            {
+                Object x = k[i];
+                if(x != null && h[i] == hc && (x == key || key.equals(x))) { return i; }
+            }
+        }
+
+        for(int s = 0; s < this.stash_count; s++)
+        {
+            Object x = this.stash_keys[s];
+            if(this.stash_hashes[s] == hc && (x == key || key.equals(x))) { return k.length + s; }
+        }
+        return -1;
+    }
+
+    /*
+     * Las casillas del depósito se numeran a continuación de las de la tabla.
+     */
+    @Override
+    int length()
+    {
+        return this.keys.length + this.stash_count;
+    }
+
+    @Override
+    boolean is_closed(int i)
+    {
+        return i >= this.keys.length || this.keys[i] != null;
+    }
+
+    @Override
+    K key_at(int i)
+    {
+        int n = this.keys.length;
+        return (K) ((i < n) ? this.keys[i] : this.stash_keys[i - n]);
+    }
+
+    @Override
+    V value_at(int i)
+    {
+        int n = this.keys.length;
+        return (V) ((i < n) ? this.values[i] : this.stash_values[i - n]);
+    }
+
+    @Override
+    void set_value_at(int i, V value)
+    {
+        int n = this.keys.length;
+        if(i < n) { this.values[i] = value; }
+        else { this.stash_values[i - n] = value; }
+    }
+
+    /*
+     * En la tabla, libera la casilla. En el depósito, mueve a la casilla
+     * liberada el último par del depósito (que el iterador todavía no
+     * visitó).
+     */
+    @Override
+    void remove_at(int i)
+    {
+        int n = this.keys.length;
+        if(i < n)
+        {
+            this.keys[i] = null;
+            this.values[i] = null;
+        }
+        else
+        {
+            int s = i - n;
+            int last = --this.stash_count;
+            this.stash_keys[s] = this.stash_keys[last];
+            this.stash_values[s] = this.stash_values[last];
+            this.stash_hashes[s] = this.stash_hashes[last];
+            this.stash_keys[last] = null;
+            this.stash_values[last] = null;
+        }
+        this.count--;
+        this.modCount++;
+    }
+
+
+    //************************ Métodos privados.
+
+    /*
+     * Crea una tabla vacía de buckets cubetas, con semillas nuevas.
+     */
+    private void init(int buckets)
+    {
+        this.keys = new Object[buckets * BUCKET_SIZE];
+        this.values = new Object[buckets * BUCKET_SIZE];
+        this.hashes = new int[buckets * BUCKET_SIZE];
+        this.mask = buckets - 1;
+        this.stash_keys = new Object[STASH_SIZE];
+        this.stash_values = new Object[STASH_SIZE];
+        this.stash_hashes = new int[STASH_SIZE];
+        this.stash_count = 0;
+        this.stash_limit = STASH_SIZE;
+        this.seeds = new int[this.ways];
+        for(int w = 0; w < this.ways; w++) { this.seeds[w] = this.next_random(); }
+    }
+
+    /*
+     * Retorna la cantidad de cubetas (potencia de dos) para guardar n pares
+     * sin superar el factor de carga.
+     */
+    private int buckets_for(int n)
+    {
+        long slots = (long) Math.ceil(n / this.load_factor);
+        long buckets = Math.max(1, (slots + BUCKET_SIZE - 1) / BUCKET_SIZE);
+        if(buckets > (1 << 28)) throw new IllegalStateException("capacidad excesiva: " + n);
+
+        int b = 1;
+        while(b < buckets) { b <<= 1; }
+        return b;
+    }
+
+    /*
+     * Retorna la cubeta de la función hash número w para el hashCode() hc.
+     */
+    private int bucket(int hc, int w)
+    {
+        return TSBHashTableDA.spread(hc ^ this.seeds[w]) & this.mask;
+    }
+
+    /*
+     * Inserta un par cuya clave no está en la tabla (no cambia count). Si no
+     * hay lugar ni en la tabla ni en el depósito, reconstruye la tabla con
+     * semillas nuevas (y, si eso no alcanza, más grande).
+     */
+    private void insert(K key, V value, int hc)
+    {
+        Object homeless[] = this.cuckoo_insert(key, value, hc);
+        if(homeless == null) { return; }
+
+        if(this.stash_count < this.stash_limit)
+        {
+            this.stash((K) homeless[0], (V) homeless[1], (Integer) homeless[2]);
+            return;
+        }
+        this.rebuild(this.mask + 1);
+        this.stash_or_insert((K) homeless[0], (V) homeless[1], (Integer) homeless[2]);
+    }
+
+    /*
+     * Coloca el par en una casilla libre de sus cubetas o desplazando pares
+     * (a lo sumo MAX_EVICTIONS veces). Retorna null si lo logró, o el par que
+     * quedó sin lugar ({clave, valor, hash}), que puede ser otro.
+     */
+    private Object[] cuckoo_insert(Object key, Object value, int hc)
+    {
+        for(int e = 0; ; e++)
+        {
+            // una casilla libre en alguna de las cubetas candidatas...
+            for(int w = 0; w < this.ways; w++)
+            {
+                int base = this.bucket(hc, w) * BUCKET_SIZE;
+                for(int i = base; i < base + BUCKET_SIZE; i++)
+                {
+                    if(this.keys[i] == null)
+                    {
+                        this.keys[i] = key;
+                        this.values[i] = value;
+                        this.hashes[i] = hc;
+                        return null;
+                    }
+                }
+            }
+            if(e == MAX_EVICTIONS) { return new Object[]{key, value, hc}; }
+
+            // desplazar un par elegido al azar de una de las cubetas...
+            int r = this.next_random() >>> 1;
+            int i = this.bucket(hc, r % this.ways) * BUCKET_SIZE + (r / this.ways) % BUCKET_SIZE;
+            Object k = this.keys[i];
+            Object v = this.values[i];
+            int h = this.hashes[i];
+            this.keys[i] = key;
+            this.values[i] = value;
+            this.hashes[i] = hc;
+            key = k;
+            value = v;
+            hc = h;
+        }
+    }
+
+    /*
+     * Agrega el par al depósito (agrandándolo si hace falta).
+     */
+    private void stash(K key, V value, int hc)
+    {
+        if(this.stash_count == this.stash_keys.length)
+        {
+            int n = 2 * this.stash_keys.length;
+            this.stash_keys = Arrays.copyOf(this.stash_keys, n);
+            this.stash_values = Arrays.copyOf(this.stash_values, n);
+            this.stash_hashes = Arrays.copyOf(this.stash_hashes, n);
+        }
+        this.stash_keys[this.stash_count] = key;
+        this.stash_values[this.stash_count] = value;
+        this.stash_hashes[this.stash_count] = hc;
+        this.stash_count++;
+    }
+
+    /*
+     * Inserta el par en la tabla o, si no hay lugar, en el depósito.
+     */
+    private void stash_or_insert(K key, V value, int hc)
+    {
+        Object homeless[] = this.cuckoo_insert(key, value, hc);
+        if(homeless != null) { this.stash((K) homeless[0], (V) homeless[1], (Integer) homeless[2]); }
+    }
+
+    /*
+     * Reconstruye la tabla con buckets cubetas y semillas nuevas. Si después
+     * de reinsertar todos los pares el depósito quedó lleno, prueba con otras
+     * semillas y, después de MAX_RESEEDS intentos, con el doble de cubetas. Si
+     * aun así el depósito no se vacía (claves con el mismo hashCode()), se
+     * acepta un depósito más grande hasta la próxima reconstrucción.
+     */
+    private void rebuild(int buckets)
+    {
+        Object old_keys[] = this.keys;
+        Object old_values[] = this.values;
+        int old_hashes[] = this.hashes;
+        Object old_stash_keys[] = this.stash_keys;
+        Object old_stash_values[] = this.stash_values;
+        int old_stash_hashes[] = this.stash_hashes;
+        int old_stash_count = this.stash_count;
+
+        for(int attempt = 1; ; attempt++)
+        {
+            this.rehash_count++;
+            this.init(buckets);
+            for(int i = 0; i < old_keys.length; i++)
+            {
+                if(old_keys[i] != null) { this.stash_or_insert((K) old_keys[i], (V) old_values[i], old_hashes[i]); }
+            }
+            for(int s = 0; s < old_stash_count; s++)
+            {
+                this.stash_or_insert((K) old_stash_keys[s], (V) old_stash_values[s], old_stash_hashes[s]);
+            }
+
+            if(this.stash_count < STASH_SIZE) { break; }
+            if(attempt == 2 * MAX_RESEEDS)
+            {
+                this.stash_limit = 2 * this.stash_count;
+                break;
+            }
+            if(attempt % MAX_RESEEDS == 0) { buckets *= 2; }
+        }
+        this.modCount++;
+    }
+
+    /*
+     * Generador xorshift: retorna el próximo número pseudo-aleatorio.
+     */
+    private int next_random()
+    {
+        int x = this.random;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        this.random = x;
+        return x;
+    }
+
+    /*
+     * Serializa la tabla: los atributos no transient (capacidad inicial,
+     * factor de carga y funciones hash), la cantidad de pares y los pares.
+     */
+    private void writeObject(ObjectOutputStream s) throws IOException
+    {
+        s.defaultWriteObject();
+        this.write_pairs(s);
+    }
+
+    /*
+     * Reconstruye la tabla a partir de lo escrito por writeObject().
+     */
+    private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException
+    {
+        s.defaultReadObject();
+        if(!(this.load_factor > 0 && this.load_factor < 1))
+            throw new InvalidObjectException("factor de carga inválido: " + this.load_factor);
+        if(this.ways < 2 || this.ways > 4)
+            throw new InvalidObjectException("cantidad de funciones hash inválida: " + this.ways);
+
+        int n = read_count(s);
+        this.random = 0x9E3779B9;
+        this.init(this.buckets_for(Math.max(n, this.initial_capacity)));
+        this.read_pairs(s, n);
+    }
+}
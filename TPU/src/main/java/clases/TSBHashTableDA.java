@@ -1,17 +1,27 @@
 package clases;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 
 /**
  * Clase para emular la funcionalidad de la clase java.util.Hashtable, pero implementada
  * en base al modelo de Resolución de Colisiones por Direccionamiento Abierto. Modelo para
  * aplicar de base para el desarrollo del TPU.
- * 
+ *
  * Tecnología de Software de Base - Trabajo Práctico Único [Etapa 1]
  * Tablas Hash (Implementación por Direccionamiento Abierto)
- * 
+ *
  * @author Grupo 31 - Falco, Gonzalo - Marzo, Lautaro - Pesetti, Sabrina - Vela, Azul
  * @version Octubre de 2022.
  * @param <K> el tipo de los objetos que serán usados como clave en la tabla.
@@ -26,21 +36,86 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
     public static final int CLOSED = 1;
     public static final int TOMBSTONE = 2;
 
+    // modos de cálculo de la capacidad y de la exploración de la tabla...
+    // PRIME_MODE: capacidades primas, índice por resto y exploración cuadrática.
+    // POWER_OF_TWO_MODE: capacidades potencia de dos, índice por máscara de bits
+    // sobre el hash mezclado y exploración por números triangulares.
+    public static final int PRIME_MODE = 0;
+    public static final int POWER_OF_TWO_MODE = 1;
+
+    // cantidad de casillas de la tabla anterior que cada operación migra a la
+    // tabla nueva durante un rehash incremental...
+    private static final int MIGRATION_STEP = 16;
+
+    // true para contar las casillas que revisa cada get() y put() (ver
+    // stats()). Se lee una sola vez, al cargar la clase: como es static final,
+    // si vale false el compilador JIT elimina el conteo y no cuesta nada...
+    static final boolean PROBE_COUNTERS = Boolean.getBoolean("clases.TSBHashTableDA.probeCounters");
+
+    // cantidad de casillas revisadas a partir de la cual una búsqueda emite un
+    // LongProbeEvent, si no se indica otra con setLongProbeThreshold()...
+    private static final int DEFAULT_LONG_PROBE_THRESHOLD = Integer.getInteger("clases.TSBHashTableDA.longProbeThreshold", 32);
+
     //************************ Atributos privados (estructurales).
 
-    // la tabla hash: el arreglo que contiene todos los objetos...
-    // private Map.Entry<K, V> table[]; //sabri
-    private Object table[];
+    /*
+     * La tabla, la cantidad de objetos y el estado de un rehash incremental no
+     * se serializan con el mecanismo por defecto: writeObject() escribe sólo
+     * count y los pares vivos, y readObject() reconstruye la tabla (ver más
+     * abajo).
+     */
+
+    // la tabla hash: arreglos paralelos de claves, valores y estados...
+    private transient Slots table;
 
     // el tamaño inicial de la tabla (tamaño con el que fue creada)...
     private int initial_capacity;
 
     // la cantidad de objetos que contiene la tabla...
-    private int count;
+    private transient int count;
 
     // el factor de carga para calcular si hace falta un rehashing...
     private float load_factor;
 
+    // el modo de capacidad y exploración (PRIME_MODE o POWER_OF_TWO_MODE)...
+    private int hash_mode;
+
+    // la cantidad de casillas en estado TOMBSTONE...
+    private transient int tombstones;
+
+    // proporción de casillas TOMBSTONE a partir de la cual se limpia la tabla...
+    private float tombstone_threshold = 0.25f;
+
+    // true si el rehash se hace de a poco, repartido entre las operaciones...
+    private boolean incremental_rehash;
+
+    // casillas revisadas a partir de las cuales se emite un LongProbeEvent...
+    private int long_probe_threshold = DEFAULT_LONG_PROBE_THRESHOLD;
+
+    // durante un rehash incremental: la tabla anterior (null si no hay una
+    // migración en curso) y el índice de su próxima casilla a migrar...
+    private transient Slots old_table;
+    private transient int migrate_index;
+
+
+    //************************ Atributos privados (estadísticas).
+
+    // cantidad de rehash (cambios de tamaño) y de limpiezas de la tabla...
+    private transient int rehash_count;
+    private transient int compaction_count;
+
+    // contadores en vivo (sólo si PROBE_COUNTERS): casillas revisadas por la
+    // última búsqueda, y cantidad de get()/put() y casillas que revisaron...
+    private transient int last_probes;
+    private transient long gets;
+    private transient long get_probes;
+    private transient long puts;
+    private transient long put_probes;
+
+    // el evento de JFR del rehash en curso (null si no hay uno o si JFR no
+    // lo está registrando)...
+    private transient RehashEvent rehash_event;
+
 
     //************************ Atributos privados (para gestionar las vistas).
 
@@ -96,36 +171,53 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
      */
     public TSBHashTableDA(int initial_capacity, float load_factor)
     {
+        this(initial_capacity, load_factor, PRIME_MODE);
+    }
+
+    /**
+     * Crea una tabla vacía, con la capacidad inicial, el factor de carga y el
+     * modo de capacidad indicados. En PRIME_MODE la tabla se comporta como la
+     * creada con TSBHashTableDA(int, float). En POWER_OF_TWO_MODE la capacidad
+     * se ajusta a la primera potencia de dos mayor o igual a initial_capacity,
+     * el índice inicial se obtiene con una máscara de bits sobre el hash
+     * mezclado (finalizador de MurmurHash3), la exploración avanza por números
+     * triangulares (1, 3, 6, 10, ...), que recorren todas las casillas de una
+     * tabla de tamaño potencia de dos, y el rehash duplica la capacidad. Ni la
+     * búsqueda ni el rehash hacen entonces divisiones, cálculos en coma
+     * flotante ni búsqueda de primos. Un modo desconocido se toma como
+     * PRIME_MODE.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     * @param load_factor el factor de carga de la tabla.
+     * @param hash_mode el modo de capacidad: PRIME_MODE o POWER_OF_TWO_MODE.
+     */
+    public TSBHashTableDA(int initial_capacity, float load_factor, int hash_mode)
+    {
+        if(hash_mode != POWER_OF_TWO_MODE) { hash_mode = PRIME_MODE; }
+        this.hash_mode = hash_mode;
+
         if(load_factor <= 0 || load_factor > 0.5) { load_factor = 0.5f; }
         if(initial_capacity <= 0) { initial_capacity = 11; }
-        else
-        {
-            if(!isPrime(initial_capacity))
-            {
-                initial_capacity = nextPrime(initial_capacity);
-            }
-        }
+        initial_capacity = this.adjust_capacity(initial_capacity);
 
-        //this.table = new Map.Entry[initial_capacity]; //sabri
-        this.table = new Object[initial_capacity];
-        for(int i=0; i<table.length; i++)
-        {
-            table[i] = new Entry<K, V>(null, null);
-        }
+        // los arreglos se crean vacíos: todas las casillas quedan en OPEN...
+        this.table = new Slots(initial_capacity);
 
         this.initial_capacity = initial_capacity;
         this.load_factor = load_factor;
         this.count = 0;
+        this.tombstones = 0;
         this.modCount = 0;
     }
 
     /**
-     * Crea una tabla a partir del contenido del Map especificado.
+     * Crea una tabla a partir del contenido del Map especificado. La tabla se
+     * crea directamente con capacidad suficiente para todos los objetos de t
+     * (con factor de carga 0.5f), por lo que la carga no provoca rehash.
      * @param t el Map a partir del cual se creará la tabla.
      */
     public TSBHashTableDA(Map<? extends K,? extends V> t)
     {
-        this(11, 0.5f);
+        this(capacity_for(t.size(), 0.5f), 0.5f);
         this.putAll(t);
     }
 
@@ -192,11 +284,23 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
         if(key == null)
             throw new NullPointerException("get(): parámetro null");
 
-        //calculo el indice
-        int mi = this.h((K) key);
-        Map.Entry<K,V> aux = search_for_entry((K) key, mi);
-        if (aux != null)
-            return aux.getValue();
+        //calculo el hash y el indice
+        int hc = key.hashCode();
+        if(this.old_table != null) { this.migrate_step(); }
+
+        int pos = search_for_index(this.table, (K) key, hc);
+        if(PROBE_COUNTERS) { this.gets++; this.get_probes += this.last_probes; }
+        if (pos != -1)
+            return (V) this.table.values[pos];
+
+        // durante un rehash incremental la clave puede no haber sido migrada aún...
+        if(this.old_table != null)
+        {
+            pos = search_for_index(this.old_table, (K) key, hc);
+            if(PROBE_COUNTERS) { this.get_probes += this.last_probes; }
+            if(pos != -1)
+                return (V) this.old_table.values[pos];
+        }
         return null;
     }
 
@@ -218,27 +322,19 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
 
         if(key == null || value == null) throw new NullPointerException("put(): parámetro null");
 
-        int ik = this.h(key);
-
-        V old = null;
-        Map.Entry<K, V> x = this.search_for_entry((K)key, ik);
-        if(x != null)
-        {
-            old = x.getValue();
-            x.setValue(value);
-        }
-        else
+        // una sola exploración: encuentra la clave o la casilla donde insertarla...
+        int hc = key.hashCode();
+        int x = this.locate(key, hc);
+        if(x >= 0)
         {
-            if(this.load_level() >= this.load_factor) { this.rehash(); }
-            int pos = search_for_OPEN(this.table, this.h(key));
-            Map.Entry<K, V> entry = new Entry<>(key, value, CLOSED);
-            table[pos] = entry;
-
-            this.count++;
-            this.modCount++;
+            V old = (V) this.table.values[x];
+            this.table.own(Slots.VALUES);
+            this.table.values[x] = value;
+            return old;
         }
 
-        return old;
+        this.insert(-x - 1, key, value, hc);
+        return null;
     }
 
     /**
@@ -261,21 +357,27 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
         if(key == null)
             throw new NullPointerException("remove(): parámetro null");
 
-        int mi = this.h((K) key);
-        V old = null;
+        int hc = key.hashCode();
+        if(this.old_table != null) { this.migrate_step(); }
 
-        int pos  = search_for_index((K) key, mi);
+        int pos  = search_for_index(this.table, (K) key, hc);
         if (pos != -1)
         {
-            Entry<K,V> aux = ((Entry)table[pos]);
-            old = aux.getValue();
-            ((Entry)table[pos]).setState(TOMBSTONE);
-            count--;
-            modCount++;
-            return (V) old; //sabri
+            V old = (V) this.table.values[pos];
+            remove_at(this.table, pos);
+            return old;
+        }
+        if(this.old_table != null)
+        {
+            pos = search_for_index(this.old_table, (K) key, hc);
+            if(pos != -1)
+            {
+                V old = (V) this.old_table.values[pos];
+                remove_at(this.old_table, pos);
+                return old;
+            }
         }
-        //return (V) old;
-        return null;//sabri
+        return null;
     }
 
     /**
@@ -293,6 +395,9 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
         {
             throw new NullPointerException("El parámetro no puede ser null");
         }
+
+        // agrandar la tabla una sola vez, antes de insertar...
+        this.ensure_capacity(m.size());
         for(Map.Entry<? extends K, ? extends V> e : m.entrySet())
         {
             if(e!=null) {
@@ -301,6 +406,139 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
         }
     }
 
+    /*
+     * Los métodos siguientes redefinen los métodos default de Map (que
+     * combinan get() y put(), explorando la tabla dos o tres veces): cada uno
+     * hace una única exploración con locate(), que encuentra la clave o la
+     * casilla en la que habría que insertarla. Si la función que reciben
+     * modifica la estructura de la tabla, se lanza
+     * ConcurrentModificationException.
+     */
+
+    /**
+     * Asocia value con key sólo si key no está en la tabla.
+     * @param key la clave.
+     * @param value el valor.
+     * @return el valor que ya estaba asociado a key, o null si se insertó.
+     * @throws NullPointerException si key es null o value es null.
+     */
+    @Override
+    public V putIfAbsent(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("putIfAbsent(): parámetro null");
+
+        int hc = key.hashCode();
+        int x = this.locate(key, hc);
+        if(x >= 0) { return (V) this.table.values[x]; }
+
+        this.insert(-x - 1, key, value, hc);
+        return null;
+    }
+
+    /**
+     * Si key no está en la tabla, calcula su valor con la función indicada y
+     * lo inserta (si no es null).
+     * @param key la clave.
+     * @param mapping_function la función que calcula el valor.
+     * @return el valor asociado a key (el existente o el calculado), o null.
+     * @throws NullPointerException si key es null o la función es null.
+     */
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mapping_function)
+    {
+        if(key == null || mapping_function == null) throw new NullPointerException("computeIfAbsent(): parámetro null");
+
+        int hc = key.hashCode();
+        int x = this.locate(key, hc);
+        if(x >= 0) { return (V) this.table.values[x]; }
+
+        int mc = this.modCount;
+        V value = mapping_function.apply(key);
+        this.check_modCount(mc);
+        if(value != null) { this.insert(-x - 1, key, value, hc); }
+        return value;
+    }
+
+    /**
+     * Si key está en la tabla, calcula su nuevo valor con la función indicada
+     * (si el resultado es null, elimina la clave).
+     * @param key la clave.
+     * @param remapping_function la función que calcula el nuevo valor.
+     * @return el nuevo valor asociado a key, o null.
+     * @throws NullPointerException si key es null o la función es null.
+     */
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remapping_function)
+    {
+        if(key == null || remapping_function == null) throw new NullPointerException("computeIfPresent(): parámetro null");
+
+        int hc = key.hashCode();
+        int x = this.locate(key, hc);
+        if(x < 0) { return null; }
+
+        int mc = this.modCount;
+        V value = remapping_function.apply(key, (V) this.table.values[x]);
+        this.check_modCount(mc);
+        this.replace_at(x, value);
+        return value;
+    }
+
+    /**
+     * Calcula el nuevo valor de key a partir de su valor actual (o null si no
+     * está en la tabla). Si el resultado es null, elimina la clave.
+     * @param key la clave.
+     * @param remapping_function la función que calcula el nuevo valor.
+     * @return el nuevo valor asociado a key, o null.
+     * @throws NullPointerException si key es null o la función es null.
+     */
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping_function)
+    {
+        if(key == null || remapping_function == null) throw new NullPointerException("compute(): parámetro null");
+
+        int hc = key.hashCode();
+        int x = this.locate(key, hc);
+        V old = (x >= 0) ? (V) this.table.values[x] : null;
+
+        int mc = this.modCount;
+        V value = remapping_function.apply(key, old);
+        this.check_modCount(mc);
+
+        if(x >= 0) { this.replace_at(x, value); }
+        else if(value != null) { this.insert(-x - 1, key, value, hc); }
+        return value;
+    }
+
+    /**
+     * Si key no está en la tabla la asocia con value; si está, combina su
+     * valor actual con value usando la función indicada (si el resultado es
+     * null, elimina la clave).
+     * @param key la clave.
+     * @param value el valor a insertar o combinar.
+     * @param remapping_function la función que combina los valores.
+     * @return el nuevo valor asociado a key, o null.
+     * @throws NullPointerException si algún parámetro es null.
+     */
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remapping_function)
+    {
+        if(key == null || value == null || remapping_function == null) throw new NullPointerException("merge(): parámetro null");
+
+        int hc = key.hashCode();
+        int x = this.locate(key, hc);
+        if(x < 0)
+        {
+            this.insert(-x - 1, key, value, hc);
+            return value;
+        }
+
+        int mc = this.modCount;
+        V result = remapping_function.apply((V) this.table.values[x], value);
+        this.check_modCount(mc);
+        this.replace_at(x, result);
+        return result;
+    }
+
     /**
      * Elimina el contenido de la tabla, de forma de dejarla vacía. En esta
      * implementación además, el arreglo de soporte vuelve a tener el tamaño que
@@ -309,13 +547,14 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
     @Override
     public void clear()
     {
-        this.table = new Object[initial_capacity];
-        for(int i=0; i<table.length; i++)
-        {
-            table[i]= new Entry<K, V>(null, null);
-        }
+        this.table.release();
+        this.table = new Slots(initial_capacity);
+        this.old_table = null;
+        this.migrate_index = 0;
+        this.rehash_event = null;
         this.count = 0;
-        this.modCount = 0;
+        this.tombstones = 0;
+        this.modCount++;
     }
 
     /**
@@ -407,10 +646,14 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
     //************************ Redefinición de métodos heredados desde Object.
 
     /**
-     * Retorna una copia superficial de la tabla. Las listas de desborde o
-     * buckets que conforman la tabla se clonan ellas mismas, pero no se clonan
-     * los objetos que esas listas contienen: en cada bucket de la tabla se
-     * almacenan las direcciones de los mismos objetos que contiene la original.
+     * Retorna una copia superficial de la tabla, en tiempo constante: la copia
+     * y la original comparten los arreglos de soporte hasta que una de las dos
+     * los modifica, y recién entonces esa tabla copia (sólo) los arreglos que
+     * va a modificar (copy-on-write). Así cada tabla ve sólo sus propios
+     * cambios. La otra tabla queda como única dueña de los arreglos originales
+     * y los modifica sin copiarlos. No se clonan los objetos que esos arreglos contienen: en cada
+     * casilla se almacenan las direcciones de los mismos objetos que contiene
+     * la original.
      * @return una copia superficial de la tabla.
      * @throws java.lang.CloneNotSupportedException si la clase no implementa la
      *         interface Cloneable.
@@ -419,13 +662,9 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
     protected Object clone() //throws CloneNotSupportedException
     {
         try {
+            this.complete_rehash();
             TSBHashTableDA<K, V> t = (TSBHashTableDA<K, V>) super.clone();
-            t.table = new Object[this.table.length];
-            //t.table = new Object[this.table.length];
-            //t.putAll(this);
-            for (int i = 0; i < this.table.length; i++) {
-                t.table[i] = this.table[i];
-            }
+            t.table = this.table.share();
             t.keySet = null;
             t.entrySet = null;
             t.values = null;
@@ -437,19 +676,19 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
         }
         return null;
     }
-    /*
-        /**
-         * Determina si esta tabla es igual al objeto especificado.
-         * @param obj el objeto a comparar con esta tabla.
-         * @return true si los objetos son iguales.
-         */
-    /*
+
+    /**
+     * Determina si esta tabla es igual al objeto especificado.
+     * @param obj el objeto a comparar con esta tabla.
+     * @return true si los objetos son iguales.
+     */
     @Override
     public boolean equals(Object obj)
     {
+        if(this == obj) { return true; }
         if(!(obj instanceof Map)) { return false; }
 
-        Map<K, V> t = (Map<K, V>) obj;
+        Map<?, ?> t = (Map<?, ?>) obj;
         if(t.size() != this.size()) { return false; }
 
         try
@@ -458,40 +697,22 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
             while(i.hasNext())
             {
                 Map.Entry<K, V> e = i.next();
-                K key = e.getKey();
-                V value = e.getValue();
-                // hash
-                if(t.get(key) == null) { return false; }
-                else
-                {
-                    if(!value.equals(t.get(key))) { return false; } //agregar comparación de hashcode
-                }
+                Object other = t.get(e.getKey());
+                if(other == null || !e.getValue().equals(other)) { return false; }
             }
         }
-
         catch (ClassCastException | NullPointerException e)
         {
-            System.out.println("Acá entró al catch");
-            e.printStackTrace();
-            //return false;
+            return false;
         }
 
         return true;
     }
-*/
+
     /**
      * Retorna un hash code para la tabla completa.
      * @return un hash code para la tabla.
      */
-    /*
-    @Override
-    public int hashCode()
-    {
-        // HACER...
-        int hc = super.hashCode();
-        return hc;
-    }
-*/
     @Override
     public int hashCode()
     {
@@ -512,14 +733,14 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
     @Override
     public String toString()
     {
-        // REVISAR... Asegúrense de que funciona bien...
+        this.complete_rehash();
         StringBuilder cad = new StringBuilder("[");
-        for(int i = 0; i < this.table.length; i++)
+        Slots t = this.table;
+        for(int i = 0; i < t.length(); i++)
         {
-            Entry<K, V> entry = (Entry<K, V>) table[i];
-            if(entry.getState() == CLOSED)
+            if(t.states[i] == CLOSED)
             {
-                cad.append(entry.toString());
+                cad.append("(").append(t.keys[i]).append(", ").append(t.values[i]).append(")");
                 cad.append(" ");
             }
         }
@@ -537,259 +758,1339 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
      * @param value el objeto a buscar en la tabla.
      * @return true si alguna clave está asociada efectivamente a ese value.
      */
-
-    public boolean contains(Object value) {
-        if(value == null) return false;
-        System.out.println("Método contains");
-        for (int i = 0; i < this.table.length; i++)
-        {
-            Entry<K, V> entry = (Entry<K, V>) this.table[i];
-            if(entry.getState()==CLOSED){
-                if(value==entry.getValue()) return true;}
-        }
-        return false;
-    }
-    /*
     public boolean contains(Object value)
     {
-        if (value == null)
-        {
-            throw new NullPointerException("El parametro no puede ser null.");
-        }
+        if(value == null) return false;
 
-        Iterator<Map.Entry<K,V>> i = this.entrySet().iterator();
-        while(i.hasNext())
+        this.complete_rehash();
+        Slots t = this.table;
+        for(int i = 0; i < t.length(); i++)
         {
-            Map.Entry<K, V> e = i.next();
-            if(e!=null){
-            V val = e.getValue();
-            if(val.equals(value)) return true;}
+            if(t.states[i] == CLOSED && value.equals(t.values[i])) return true;
         }
         return false;
     }
-    /*
-    @Override
-    public boolean contains(Object o)
+
+    /**
+     * Retorna la proporción de casillas de la tabla que están en estado
+     * TOMBSTONE (casillas liberadas por remove() que siguen alargando las
+     * secuencias de exploración), como un número entre 0 y 1.
+     * @return la proporción de casillas TOMBSTONE.
+     */
+    public float tombstoneRatio()
     {
-        if(o == null) { return false; }
-        if(!((Entry) o instanceof Entry)) { return false; }
+        return (float) this.tombstones / this.table.length();
+    }
 
-        Entry<K, V> entry = (Entry<K,V>)o;
-        K key = entry.getKey();
-        Object t[] = TSBHashTableDA.this.table;
+    /**
+     * Retorna la proporción de casillas TOMBSTONE a partir de la cual una
+     * inserción limpia la tabla (ver compact()).
+     * @return el umbral de limpieza.
+     */
+    public float getTombstoneThreshold()
+    {
+        return this.tombstone_threshold;
+    }
 
-        for (int i = 0; i < t.length; i++) {
-            Entry<K, V> x = (Entry<K,V>)t[i];
-            if (key.equals(x.getKey())) {
-                if (x.estado == 1) {
-                    return false;
-                } else {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }*/
+    /**
+     * Cambia la proporción de casillas TOMBSTONE a partir de la cual una
+     * inserción limpia la tabla sin cambiar su tamaño (ver compact()). Si el
+     * valor indicado es negativo, cero o mayor a 1, se ajustará a 0.25f.
+     * @param tombstone_threshold el nuevo umbral de limpieza.
+     */
+    public void setTombstoneThreshold(float tombstone_threshold)
+    {
+        if(tombstone_threshold <= 0 || tombstone_threshold > 1) { tombstone_threshold = 0.25f; }
+        this.tombstone_threshold = tombstone_threshold;
+    }
 
     /**
-     * Incrementa el tamaño de la tabla y reorganiza su contenido. Se invoca
-     * automaticamente cuando se detecta que la cantidad promedio de nodos por
-     * lista supera a cierto el valor critico dado por (10 * load_factor). Si el
-     * valor de load_factor es 0.8, esto implica que el límite antes de invocar
-     * rehash es de 8 nodos por lista en promedio, aunque seria aceptable hasta
-     * unos 10 nodos por lista.
+     * Determina si la tabla hace el rehash de forma incremental.
+     * @return true si el rehash es incremental.
      */
-    protected void rehash()
+    public boolean isIncrementalRehash()
     {
-        int old_length = this.table.length;
+        return this.incremental_rehash;
+    }
 
-        // nuevo tamaño: primer primo mayor o igual al 50% del anterior...
-        int new_length = nextPrime((int)(old_length * 1.5f));
+    /**
+     * Activa o desactiva el rehash incremental. Con el rehash incremental, el
+     * rehash (y la limpieza de compact()) no mueve todos los objetos de una
+     * vez: crea los arreglos nuevos y mantiene vivos a los anteriores, y cada
+     * get(), put() o remove() posterior migra unas pocas casillas de la tabla
+     * anterior a la nueva. Mientras dura la migración, las búsquedas revisan
+     * ambas tablas. Así ninguna operación individual paga el costo completo
+     * del rehash, a cambio de que las operaciones sean algo más lentas hasta
+     * que la migración termina. Las vistas, contains(), toString() y clone()
+     * terminan la migración pendiente antes de recorrer la tabla. Al
+     * desactivarlo, se termina la migración pendiente (si la hubiera).
+     * @param incremental_rehash true para activar el rehash incremental.
+     */
+    public void setIncrementalRehash(boolean incremental_rehash)
+    {
+        this.incremental_rehash = incremental_rehash;
+        if(!incremental_rehash) { this.complete_rehash(); }
+    }
 
-        // crear el nuevo arreglo de tamaño new_length...
-        Object temp[] = new Object[new_length];
-        for(int j=0; j<temp.length; j++) { temp[j] = new Entry<>(null, null); }
+    /**
+     * Reorganiza el contenido de la tabla sin cambiar su tamaño, eliminando
+     * todas las casillas TOMBSTONE: cada objeto vuelve a insertarse en una
+     * tabla nueva del mismo tamaño, lo que acorta las secuencias de
+     * exploración. Se invoca automaticamente al insertar una clave nueva si la
+     * proporción de casillas TOMBSTONE supera el umbral de limpieza.
+     */
+    public void compact()
+    {
+        this.resize(this.table.length());
+    }
 
-        // notificación fail-fast iterator... la tabla cambió su estructura...
-        this.modCount++;
+    /**
+     * Retorna una instantánea de la ocupación de la tabla y de la longitud de
+     * sus secuencias de exploración (ver TableStats). Los histogramas se
+     * calculan recorriendo la secuencia de exploración de cada clave y la de
+     * cada casilla inicial posible, por lo que el costo es proporcional a la
+     * capacidad de la tabla multiplicada por la longitud de exploración: es un
+     * método de diagnóstico, no para invocar en cada operación. Si hay un
+     * rehash incremental en curso, primero se termina la migración.
+     * @return las estadísticas de la tabla.
+     */
+    public TableStats stats()
+    {
+        this.complete_rehash();
+        Slots t = this.table;
+        int n = t.length();
 
-        // recorrer el viejo arreglo y redistribuir los objetos que tenia...
-        for(int i=0; i<this.table.length; i++)
+        long successful[] = new long[2];
+        long unsuccessful[] = new long[2];
+        for(int i = 0; i < n; i++)
         {
-            // obtener un objeto de la vieja lista...
-            Entry<K, V> x = (Entry<K, V>) table[i];
-
-            // si la casilla está cerrada...
-            if(x.getState() == CLOSED)
+            // búsqueda exitosa de la clave de la casilla i...
+            if(t.states[i] == CLOSED)
             {
-                // ...obtener el valor de dispersión en el nuevo arreglo...
-                K key = x.getKey();
-                int ik = this.h(key, temp.length);
-                int y = search_for_OPEN(temp, ik);
-
-                // ...insertar en el nuevo arreglo
-                temp[y] = x;
+                int y = this.h(t.hashes[i], n);
+                int j = 0;
+                while(y != i) { j++; y = next_probe(y, j, n); }
+                successful = add_to_histogram(successful, j + 1);
             }
+
+            // búsqueda sin éxito que empieza en la casilla i...
+            int y = i;
+            int j = 0;
+            while(t.states[y] != OPEN && j < n - 1) { j++; y = next_probe(y, j, n); }
+            unsuccessful = add_to_histogram(unsuccessful, j + 1);
         }
 
-        // cambiar la referencia table para que apunte a temp...
-        this.table = temp;
+        return new TableStats(n, this.count, this.tombstones, this.load_level(), this.load_factor, this.hash_mode,
+                              trim_histogram(successful), trim_histogram(unsuccessful), longest_cluster(t),
+                              this.rehash_count, this.compaction_count,
+                              this.gets, this.get_probes, this.puts, this.put_probes);
     }
 
-
-    //************************ Métodos privados.
-
-    /*
-     * Función hash. Toma una clave entera k y calcula y retorna un índice
-     * válido para esa clave para entrar en la tabla.
+    /**
+     * Pone en cero los contadores de casillas revisadas por get() y put()
+     * que informa stats() (sólo se llevan si la clase se cargó con la
+     * propiedad de sistema -Dclases.TSBHashTableDA.probeCounters=true).
      */
-    private int h(int k)
+    public void resetProbeCounters()
     {
-        return h(k, this.table.length);
+        this.gets = 0;
+        this.get_probes = 0;
+        this.puts = 0;
+        this.put_probes = 0;
     }
 
-    /*
-     * Función hash. Toma un objeto key que representa una clave y calcula y
-     * retorna un índice válido para esa clave para entrar en la tabla.
+    /**
+     * Retorna la cantidad de casillas revisadas a partir de la cual una
+     * búsqueda emite un evento de JFR LongProbeEvent.
+     * @return el umbral de exploración larga.
      */
-    private int h(K key)
+    public int getLongProbeThreshold()
     {
-        return h(key.hashCode(), this.table.length);
+        return this.long_probe_threshold;
     }
 
-    /*
-     * Función hash. Toma un objeto key que representa una clave y un tamaño de
-     * tabla t, y calcula y retorna un índice válido para esa clave dedo ese
-     * tamaño.
+    /**
+     * Cambia la cantidad de casillas revisadas a partir de la cual una
+     * búsqueda emite un evento de JFR LongProbeEvent (por defecto 32, o el
+     * valor de la propiedad de sistema clases.TSBHashTableDA.longProbeThreshold).
+     * El evento incluye la identidad de la tabla y la traza de pila, y sólo se
+     * emite si una grabación de JFR lo tiene habilitado. Si el valor indicado
+     * es menor a 1, se ajustará al valor por defecto.
+     * @param long_probe_threshold el nuevo umbral de exploración larga.
      */
-    private int h(K key, int t)
+    public void setLongProbeThreshold(int long_probe_threshold)
     {
-        return h(key.hashCode(), t);
+        if(long_probe_threshold < 1) { long_probe_threshold = DEFAULT_LONG_PROBE_THRESHOLD; }
+        this.long_probe_threshold = long_probe_threshold;
     }
 
-    /*
-     * Función hash. Toma una clave entera k y un tamaño de tabla t, y calcula y
-     * retorna un índice válido para esa clave dado ese tamaño.
+    /**
+     * Inserta en la tabla los pares (keys[i], values[i]). Es más rápido que
+     * invocar a put() para cada par: la tabla se agranda una sola vez (si hace
+     * falta) antes de empezar, y cada par se ubica directamente en la primera
+     * casilla abierta de su secuencia de exploración, sin buscar antes la
+     * clave. Por eso el que invoca a este método debe garantizar que las
+     * claves son distintas entre sí y que ninguna está ya en la tabla: si no,
+     * la tabla queda con claves repetidas.
+     * @param keys las claves a insertar (distintas y ausentes de la tabla).
+     * @param values los valores asociados a cada clave.
+     * @throws NullPointerException si algún arreglo, clave o valor es null.
+     * @throws IllegalArgumentException si los arreglos tienen distinto largo.
      */
-    private int h(int k, int t)
-    {
-        if(k < 0) k *= -1;
-        return k % t;
-    }
-
-    private boolean isPrime(int n)
+    public void bulkLoad(K keys[], V values[])
     {
-        // negativos no admitidos en este contexto...
-        if(n < 0) return false;
+        if(keys == null || values == null) throw new NullPointerException("bulkLoad(): parámetro null");
+        if(keys.length != values.length) throw new IllegalArgumentException("bulkLoad(): los arreglos tienen distinto largo");
+        for(int i = 0; i < keys.length; i++)
+        {
+            if(keys[i] == null || values[i] == null) throw new NullPointerException("bulkLoad(): par " + i + " null");
+        }
 
-        if(n == 1) return false;
-        if(n == 2) return true;
-        if(n % 2 == 0) return false;
+        this.ensure_capacity(keys.length);
+        this.complete_rehash();
 
-        int raiz = (int) Math.pow(n, 0.5);
-        for(int div = 3;  div <= raiz; div += 2)
+        Slots t = this.table;
+        t.own(Slots.ALL);
+        for(int i = 0; i < keys.length; i++)
         {
-            if(n % div == 0) return false;
+            int hc = keys[i].hashCode();
+            int pos = search_for_OPEN(t, this.h(hc, t.length()));
+            t.keys[pos] = keys[i];
+            t.values[pos] = values[i];
+            t.hashes[pos] = hc;
+            t.states[pos] = CLOSED;
         }
-
-        return true;
+        this.count += keys.length;
+        this.modCount++;
     }
 
-    private int nextPrime (int n)
+    /**
+     * Construye en paralelo (con el ForkJoinPool común) una tabla con los
+     * pares (keys[i], values[i]). Ver parallelBuild(Object[], Object[],
+     * float, int, ForkJoinPool).
+     * @param keys las claves a insertar.
+     * @param values los valores asociados a cada clave.
+     * @param <K> el tipo de las claves.
+     * @param <V> el tipo de los valores.
+     * @return la tabla construida (con factor de carga 0.5f y PRIME_MODE).
+     */
+    public static <K,V> TSBHashTableDA<K,V> parallelBuild(K keys[], V values[])
     {
-        if(n % 2 == 0) n++;
-        for(; !isPrime(n); n+=2);
-        return n;
+        return parallelBuild(keys, values, 0.5f, PRIME_MODE, ForkJoinPool.commonPool());
     }
 
     /**
-     * Calcula el nivel de carga de la tabla, como un número en coma flotante entre 0 y 1.
-     * Si este valor se multiplica por 100, el resultado es el porcentaje de ocupación de la
-     * tabla.
-     * @return el nivel de ocupación de la tabla.
+     * Construye en paralelo una tabla con los pares (keys[i], values[i]),
+     * usando los hilos del pool indicado. El resultado es el mismo que se
+     * obtendría invocando a put() para cada par en orden (si una clave se
+     * repite queda asociada a su último valor), pero la tabla se crea desde
+     * el principio con la capacidad final (sin rehash) y el trabajo se
+     * reparte entre los hilos:
+     *
+     *  1. los hashCode() de las claves (y sus casillas iniciales) se calculan
+     *     en paralelo, por rangos del arreglo de entrada;
+     *  2. las claves se reparten en particiones según su casilla inicial: cada
+     *     partición es un rango contiguo de casillas de la tabla;
+     *  3. cada partición ubica sus claves en paralelo con las demás, siguiendo
+     *     la exploración normal, mientras la secuencia no salga de su rango de
+     *     casillas (así ninguna escribe las casillas de otra);
+     *  4. las claves cuya secuencia se salió de su partición se insertan al
+     *     final, de a una, con la tabla ya completa.
+     *
+     * @param keys las claves a insertar.
+     * @param values los valores asociados a cada clave.
+     * @param load_factor el factor de carga de la tabla.
+     * @param hash_mode PRIME_MODE o POWER_OF_TWO_MODE.
+     * @param pool el pool de hilos a usar.
+     * @param <K> el tipo de las claves.
+     * @param <V> el tipo de los valores.
+     * @return la tabla construida.
+     * @throws NullPointerException si algún arreglo, clave o valor es null.
+     * @throws IllegalArgumentException si los arreglos tienen distinto largo.
      */
-    private float load_level()
+    public static <K,V> TSBHashTableDA<K,V> parallelBuild(K keys[], V values[], float load_factor, int hash_mode, ForkJoinPool pool)
     {
-        return (float) this.count / this.table.length;
+        if(keys == null || values == null || pool == null) throw new NullPointerException("parallelBuild(): parámetro null");
+        if(keys.length != values.length) throw new IllegalArgumentException("parallelBuild(): los arreglos tienen distinto largo");
+
+        TSBHashTableDA<K,V> t = new TSBHashTableDA<>(11, load_factor, hash_mode);
+        int n = keys.length;
+        t.table = new Slots(t.adjust_capacity(capacity_for(n, t.load_factor)));
+
+        // 1. hashes y casillas iniciales, en paralelo...
+        int hashes[] = new int[n];
+        int homes[] = new int[n];
+        pool.invoke(t.new HashTask(keys, values, hashes, homes, 0, n));
+
+        // 2. reparto de los índices de entrada por partición (conservando el
+        //    orden de entrada dentro de cada partición)...
+        int length = t.table.length();
+        int partitions = (int) Math.min(length, Math.max(1, pool.getParallelism() * 8L));
+        int start[] = new int[partitions + 1];
+        for(int i = 0; i < n; i++) { start[partition_of(homes[i], length, partitions) + 1]++; }
+        for(int p = 0; p < partitions; p++) { start[p + 1] += start[p]; }
+        int order[] = new int[n];
+        int next[] = Arrays.copyOf(start, partitions);
+        for(int i = 0; i < n; i++) { order[next[partition_of(homes[i], length, partitions)]++] = i; }
+
+        // 3. ubicación de cada partición, en paralelo...
+        boolean overflow[] = new boolean[n];
+        int placed[] = new int[partitions];
+        pool.invoke(t.new PlaceTask(keys, values, hashes, homes, order, start, overflow, placed, 0, partitions));
+
+        int count = 0;
+        for(int c : placed) { count += c; }
+        t.count = count;
+
+        // 4. las claves que se salieron de su partición, de a una y en orden...
+        for(int k = 0; k < n; k++)
+        {
+            int i = order[k];
+            if(!overflow[i]) { continue; }
+
+            int x = t.search_for_index(t.table, keys[i], hashes[i]);
+            if(x != -1)
+            {
+                t.table.values[x] = values[i];
+                continue;
+            }
+            int y = t.search_for_OPEN(t.table, homes[i]);
+            t.table.keys[y] = keys[i];
+            t.table.values[y] = values[i];
+            t.table.hashes[y] = hashes[i];
+            t.table.states[y] = CLOSED;
+            t.count++;
+        }
+        return t;
     }
 
-    /*
-     * Busca en la tabla un objeto Entry cuya clave coincida con key, a partir
-     * de la posición ik. Si lo encuentra, retorna ese objeto Entry. Si no lo
-     * encuentra, retorna null. Aplica exploración cuadrática.
+    /**
+     * Incrementa el tamaño de la tabla y reorganiza su contenido. Se invoca
+     * automaticamente cuando se detecta que el nivel de carga de la tabla
+     * (casillas cerradas y TOMBSTONE sobre el total de casillas) alcanza el
+     * valor de load_factor. El nuevo tamaño es el primer número primo mayor o
+     * igual al 150% del tamaño anterior (en POWER_OF_TWO_MODE, el doble del
+     * anterior).
      */
-    private Map.Entry<K, V> search_for_entry(K key, int ik)
+    protected void rehash()
     {
-        int pos = search_for_index(key, ik);
-        return pos != -1 ? (Map.Entry<K, V>) table[pos] : null;
+        // nuevo tamaño: primer primo mayor o igual al 150% del anterior (o el
+        // doble del anterior, si la tabla es de tamaño potencia de dos)...
+        this.resize(this.next_length(this.table.length()));
     }
 
     /*
-     * Busca en la tabla un objeto Entry cuya clave coincida con key, a partir
-     * de la posición ik. Si lo encuentra, retorna su posicíón. Si no lo encuentra,
-     * retorna -1. Aplica exploración cuadrática.
+     * Igual que get(), pero sin efectos colaterales: no avanza la migración de
+     * un rehash incremental, y lee una sola vez las referencias a las tablas.
+     * Lo usa TSBStampedHashTableDA para sus lecturas optimistas (sin lock):
+     * si un escritor modifica la tabla durante la búsqueda el resultado puede
+     * ser incorrecto (o puede lanzarse una excepción), y el llamador debe
+     * validarlo antes de usarlo.
      */
-    private int search_for_index(K key, int ik)
+    V peek(Object key)
     {
-        for(int j=0; ;j++)
-        {
-            int y = ik + (int)Math.pow(j, 2);
-            y %= table.length;
+        int hc = key.hashCode();
+        Slots t = this.table;
+        Slots old = this.old_table;
 
-            Entry<K, V> entry = (Entry<K, V>) table[y];
-            if(entry.getState() == OPEN || entry.getState() == TOMBSTONE) { return -1; } //check sabri
-            if(key.equals(entry.getKey())) { return y; }
-        }
-    }
+        int pos = search_for_index(t, (K) key, hc);
+        if(pos != -1) { return (V) t.values[pos]; }
 
-    /*
-     * Retorna el índice de la primera casilla abierta, a partir de la posición ik,
-     * en la tabla t. Aplica exploración cuadrática.
-     */
-    private int search_for_OPEN(Object t[], int ik)
-    {
-        for(int j=0; ;j++)
+        if(old != null)
         {
-            int y = ik + (int)Math.pow(j, 2);
-            y %= t.length;
-
-            Entry<K, V> entry = (Entry<K, V>) t[y];
-            if(entry.getState() == OPEN) { return y; }
+            pos = search_for_index(old, (K) key, hc);
+            if(pos != -1) { return (V) old.values[pos]; }
         }
+        return null;
     }
 
-    //************************ Clases Internas.
+
+    //************************ Métodos privados.
 
     /*
-     * Clase interna que representa los pares de objetos que se almacenan en la
-     * tabla hash: son instancias de esta clase las que realmente se guardan en
-     * en cada una de las listas del arreglo table que se usa como soporte de
-     * la tabla. Lanzará una IllegalArgumentException si alguno de los dos
-     * parámetros es null.
+     * Crea arreglos nuevos de tamaño new_length y redistribuye en ellos todos
+     * los objetos de la tabla. Las casillas TOMBSTONE no se copian. Con rehash
+     * incremental, sólo se crean los arreglos nuevos: la redistribución queda
+     * a cargo de migrate_step().
      */
-    private class Entry<K, V> implements Map.Entry<K, V>
+    private void resize(int new_length)
     {
-        private K key;
-        private V value;
-        private int state;
+        // si quedaba una migración en curso, se termina antes de empezar otra...
+        this.complete_rehash();
 
-        public Entry(K key, V value)
-        {
-            this(key, value, OPEN);
-        }
+        int old_length = this.table.length();
+        if(new_length == old_length) { this.compaction_count++; }
+        else { this.rehash_count++; }
 
-        public Entry(K key, V value, int state)
+        // el evento de JFR empieza acá y termina con el último par migrado...
+        RehashEvent e = new RehashEvent();
+        if(e.isEnabled())
         {
-            this.key = key;
-            this.value = value;
-            this.state = state;
+            e.begin();
+            e.tableId = System.identityHashCode(this);
+            e.oldLength = old_length;
+            e.newLength = new_length;
+            e.compaction = (new_length == old_length);
+            this.rehash_event = e;
         }
 
-        public Entry() {
-            this.state=OPEN;
-        }
+        // crear los nuevos arreglos de tamaño new_length (todos en OPEN)...
+        Slots temp = new Slots(new_length);
 
-        @Override
+        // notificación fail-fast iterator... la tabla cambió su estructura...
+        this.modCount++;
+
+        Slots old = this.table;
+        this.table = temp;
+        this.tombstones = 0;
+
+        // una tabla compartida con un clon no se migra de a poco: la migración
+        // escribe en la tabla anterior, y eso obligaría a copiarla entera...
+        if(this.incremental_rehash && !old.isShared())
+        {
+            this.old_table = old;
+            this.migrate_index = 0;
+            if(this.rehash_event != null) { this.rehash_event.incremental = true; }
+            return;
+        }
+
+        // recorrer los viejos arreglos y redistribuir los objetos que tenian...
+        for(int i=0; i<old_length; i++)
+        {
+            // si la casilla está cerrada, insertarla en el nuevo arreglo...
+            if(old.states[i] == CLOSED) { this.move_slot(old, i, temp); }
+        }
+        old.release();
+        this.end_rehash_event();
+    }
+
+    /*
+     * Termina y emite el evento de JFR del rehash en curso (si lo hay).
+     */
+    private void end_rehash_event()
+    {
+        RehashEvent e = this.rehash_event;
+        if(e == null) { return; }
+
+        this.rehash_event = null;
+        e.end();
+        if(e.shouldCommit()) { e.commit(); }
+    }
+
+    /*
+     * Inserta en la tabla to el objeto de la casilla cerrada i de la tabla
+     * from. El valor de dispersión en to se obtiene con el hash guardado en la
+     * casilla, sin volver a invocar a hashCode(). Retorna la casilla de to en
+     * la que quedó.
+     */
+    private int move_slot(Slots from, int i, Slots to)
+    {
+        int hc = from.hashes[i];
+        int y = search_for_OPEN(to, this.h(hc, to.length()));
+
+        to.keys[y] = from.keys[i];
+        to.values[y] = from.values[i];
+        to.hashes[y] = hc;
+        to.states[y] = CLOSED;
+        if(this.rehash_event != null) { this.rehash_event.entriesMoved++; }
+        return y;
+    }
+
+    /*
+     * Migra a la tabla nueva las próximas MIGRATION_STEP casillas de la tabla
+     * anterior. Las casillas migradas quedan en TOMBSTONE (no en OPEN) para no
+     * cortar las búsquedas de las claves que todavía no se migraron. Cuando se
+     * llega al final de la tabla anterior, la migración termina.
+     */
+    private void migrate_step()
+    {
+        this.migrate(Math.min(this.migrate_index + MIGRATION_STEP, this.old_table.length()));
+    }
+
+    /*
+     * Termina de una vez la migración en curso (si la hubiera).
+     */
+    private void complete_rehash()
+    {
+        if(this.old_table != null) { this.migrate(this.old_table.length()); }
+    }
+
+    /*
+     * Migra las casillas de la tabla anterior desde migrate_index hasta end
+     * (sin incluirlo).
+     */
+    private void migrate(int end)
+    {
+        Slots old = this.old_table;
+        for(int i = this.migrate_index; i < end; i++)
+        {
+            if(old.states[i] == CLOSED)
+            {
+                this.move_slot(old, i, this.table);
+                old.keys[i] = null;
+                old.values[i] = null;
+                old.states[i] = TOMBSTONE;
+            }
+        }
+        this.migrate_index = end;
+        if(end == old.length())
+        {
+            this.old_table = null;
+            this.end_rehash_event();
+        }
+    }
+
+    /*
+     * Función hash. Toma una clave entera k y calcula y retorna un índice
+     * válido para esa clave para entrar en la tabla.
+     */
+    private int h(int k)
+    {
+        return h(k, this.table.length());
+    }
+
+    /*
+     * Función hash. Toma un objeto key que representa una clave y calcula y
+     * retorna un índice válido para esa clave para entrar en la tabla.
+     */
+    private int h(K key)
+    {
+        return h(key.hashCode(), this.table.length());
+    }
+
+    /*
+     * Función hash. Toma un objeto key que representa una clave y un tamaño de
+     * tabla t, y calcula y retorna un índice válido para esa clave dedo ese
+     * tamaño.
+     */
+    private int h(K key, int t)
+    {
+        return h(key.hashCode(), t);
+    }
+
+    /*
+     * Función hash. Toma una clave entera k y un tamaño de tabla t, y calcula y
+     * retorna un índice válido para esa clave dado ese tamaño. En PRIME_MODE se
+     * toma el resto del valor absoluto de k (sin signo: el valor absoluto de
+     * Integer.MIN_VALUE es negativo); en POWER_OF_TWO_MODE se mezclan los bits
+     * de k y se toman los bits bajos con una máscara.
+     */
+    private int h(int k, int t)
+    {
+        if(this.hash_mode == POWER_OF_TWO_MODE) { return spread(k) & (t - 1); }
+        return (k & 0x7fffffff) % t;
+    }
+
+    /*
+     * Mezclador de bits (finalizador de MurmurHash3): cada bit de k influye en
+     * todos los bits del resultado, de forma que la máscara de los bits bajos
+     * no descarte la información de los bits altos del hashCode().
+     */
+    static int spread(int k)
+    {
+        k ^= k >>> 16;
+        k *= 0x85ebca6b;
+        k ^= k >>> 13;
+        k *= 0xc2b2ae35;
+        k ^= k >>> 16;
+        return k;
+    }
+
+    /*
+     * Ajusta una capacidad pedida al modo de la tabla: el primer primo mayor o
+     * igual a n, o la primera potencia de dos mayor o igual a n.
+     */
+    private int adjust_capacity(int n)
+    {
+        if(this.hash_mode == POWER_OF_TWO_MODE)
+        {
+            if(n <= 2) { return 2; }
+            if(n > (1 << 30)) { return 1 << 30; }
+            return Integer.highestOneBit(n - 1) << 1;
+        }
+        return isPrime(n) ? n : nextPrime(n);
+    }
+
+    /*
+     * Capacidad mínima para que una tabla con factor de carga load_factor
+     * pueda contener n objetos sin hacer rehash.
+     */
+    private static int capacity_for(int n, float load_factor)
+    {
+        return (int) Math.min(1 << 30, Math.max(11, (long) (n / load_factor) + 1));
+    }
+
+    /*
+     * Agranda la tabla (con un único resize()) si no alcanza para agregar n
+     * objetos nuevos sin llegar al factor de carga.
+     */
+    private void ensure_capacity(int n)
+    {
+        long needed = (long) this.count + this.tombstones + n;
+        if(needed < this.load_factor * this.table.length()) { return; }
+
+        int c = capacity_for((int) Math.min(Integer.MAX_VALUE, (long) this.count + n), this.load_factor);
+        this.resize(Math.max(this.table.length(), this.adjust_capacity(c)));
+    }
+
+    /*
+     * Partición (de 0 a partitions - 1) a la que pertenece la casilla y de
+     * una tabla de tamaño length: la tabla se divide en partitions rangos
+     * contiguos de casillas de (casi) el mismo tamaño.
+     */
+    private static int partition_of(int y, int length, int partitions)
+    {
+        return (int) ((long) y * partitions / length);
+    }
+
+    /*
+     * Calcula el tamaño que tendrá la tabla en el próximo rehash.
+     */
+    private int next_length(int old_length)
+    {
+        if(this.hash_mode == POWER_OF_TWO_MODE) { return old_length << 1; }
+        return nextPrime((int)(old_length * 1.5f));
+    }
+
+    static boolean isPrime(int n)
+    {
+        // negativos no admitidos en este contexto...
+        if(n < 0) return false;
+
+        if(n == 1) return false;
+        if(n == 2) return true;
+        if(n % 2 == 0) return false;
+
+        int raiz = (int) Math.pow(n, 0.5);
+        for(int div = 3;  div <= raiz; div += 2)
+        {
+            if(n % div == 0) return false;
+        }
+
+        return true;
+    }
+
+    static int nextPrime (int n)
+    {
+        if(n % 2 == 0) n++;
+        for(; !isPrime(n); n+=2);
+        return n;
+    }
+
+    /**
+     * Calcula el nivel de carga de la tabla, como un número en coma flotante entre 0 y 1.
+     * Si este valor se multiplica por 100, el resultado es el porcentaje de ocupación de la
+     * tabla. Las casillas TOMBSTONE cuentan como ocupadas: no están disponibles para
+     * search_for_OPEN() y alargan las secuencias de exploración igual que las cerradas.
+     * @return el nivel de ocupación de la tabla.
+     */
+    private float load_level()
+    {
+        return (float) (this.count + this.tombstones) / this.table.length();
+    }
+
+    /*
+     * Nivel de carga que tendría la tabla con un par más (ver insert()).
+     */
+    private float next_load_level()
+    {
+        return (float) (this.count + this.tombstones + 1) / this.table.length();
+    }
+
+    /*
+     * Suma 1 en la posición p del histograma h (agrandándolo si hace falta) y
+     * retorna el histograma.
+     */
+    private static long[] add_to_histogram(long h[], int p)
+    {
+        if(p >= h.length) { h = Arrays.copyOf(h, Math.max(p + 1, 2 * h.length)); }
+        h[p]++;
+        return h;
+    }
+
+    /*
+     * Retorna el histograma h sin las posiciones vacías del final.
+     */
+    private static long[] trim_histogram(long h[])
+    {
+        int end = h.length;
+        while(end > 0 && h[end - 1] == 0) { end--; }
+        return Arrays.copyOf(h, end);
+    }
+
+    /*
+     * Retorna la mayor cantidad de casillas no abiertas (cerradas o TOMBSTONE)
+     * consecutivas de la tabla t, considerándola circular.
+     */
+    private static int longest_cluster(Slots t)
+    {
+        int n = t.length();
+        int longest = 0, run = 0, first = -1;
+        for(int i = 0; i < n; i++)
+        {
+            if(t.states[i] != OPEN) { run++; continue; }
+            if(first == -1) { first = run; }
+            longest = Math.max(longest, run);
+            run = 0;
+        }
+
+        // sin casillas abiertas toda la tabla es un grupo; si no, el grupo
+        // del final continúa con el del principio...
+        if(first == -1) { return n; }
+        return Math.max(longest, run + first);
+    }
+
+    /*
+     * Busca la clave key (con hashCode() hc) para una operación que puede
+     * modificarla o insertarla. Si la encuentra retorna su casilla (un número
+     * mayor o igual a 0) en la tabla actual; si no, retorna -(pos + 1), donde
+     * pos es la casilla en la que habría que insertarla (ver find_slot()).
+     * Durante un rehash incremental avanza la migración y, si la clave sigue
+     * en la tabla anterior, la migra en el momento para poder retornar su
+     * casilla en la tabla actual.
+     */
+    private int locate(K key, int hc)
+    {
+        if(this.old_table != null) { this.migrate_step(); }
+
+        int x = this.find_slot(this.table, key, hc);
+        if(PROBE_COUNTERS) { this.puts++; this.put_probes += this.last_probes; }
+        if(x >= 0 || this.old_table == null) { return x; }
+
+        Slots old = this.old_table;
+        int o = search_for_index(old, key, hc);
+        if(PROBE_COUNTERS) { this.put_probes += this.last_probes; }
+        if(o == -1) { return x; }
+
+        this.table.own(Slots.ALL);
+        int y = this.move_slot(old, o, this.table);
+        old.keys[o] = null;
+        old.values[o] = null;
+        old.states[o] = TOMBSTONE;
+        return y;
+    }
+
+    /*
+     * Como search_for_index(), pero si no encuentra la clave retorna
+     * -(pos + 1), donde pos es la primera casilla TOMBSTONE que encontró en la
+     * secuencia de exploración (que se puede reutilizar) o, si no encontró
+     * ninguna, la casilla OPEN que cortó la búsqueda. Así la inserción no
+     * necesita una segunda exploración.
+     */
+    private int find_slot(Slots t, K key, int hc)
+    {
+        int n = t.length();
+        int y = this.h(hc, n);
+        int free = -1;
+        for(int j=0; j<n; j++)
+        {
+            if(j > 0) { y = next_probe(y, j, n); }
+
+            byte state = t.states[y];
+            if(state == OPEN) { return this.probed(t, j + 1, -((free != -1) ? free : y) - 1); }
+            if(state == TOMBSTONE)
+            {
+                if(free == -1) { free = y; }
+            }
+            else if(t.hashes[y] == hc)
+            {
+                Object k = t.keys[y];
+                if(k == key || key.equals(k)) { return this.probed(t, j + 1, y); }
+            }
+        }
+        return this.probed(t, n, -((free != -1) ? free : search_for_OPEN(t, this.h(hc, n))) - 1);
+    }
+
+    /*
+     * Inserta el par (key, value) en la casilla pos de la tabla actual,
+     * obtenida con locate() para una clave que no está en la tabla. Si pos es
+     * una casilla TOMBSTONE se reutiliza (el nivel de carga no cambia). Si es
+     * una casilla OPEN, primero se limpia la tabla (si hay demasiadas tumbas)
+     * o se agranda (si con el par nuevo se superaría el factor de carga), y en
+     * ese caso se busca la casilla abierta en la tabla nueva. Se controla la
+     * carga que tendrá la tabla después de insertar y no la que tiene antes:
+     * en PRIME_MODE la exploración cuadrática visita sólo (n + 1) / 2 casillas
+     * distintas, y con un par de más podrían quedar todas ocupadas, dejando a
+     * find_slot() y a search_for_OPEN() sin casilla abierta que encontrar.
+     */
+    private void insert(int pos, K key, V value, int hc)
+    {
+        // la migración incremental (por ejemplo, un get() dentro de la función
+        // de computeIfAbsent()) pudo haber ocupado la casilla mientras tanto...
+        if(this.table.states[pos] == CLOSED) { pos = search_for_OPEN(this.table, this.h(hc)); }
+
+        if(this.table.states[pos] == TOMBSTONE)
+        {
+            this.tombstones--;
+        }
+        else if(this.tombstones > this.tombstone_threshold * this.table.length() || this.next_load_level() > this.load_factor)
+        {
+            // demasiadas tumbas: limpiar sin cambiar el tamaño; tabla llena: crecer...
+            if(this.tombstones > this.tombstone_threshold * this.table.length()) { this.compact(); }
+            while(this.next_load_level() > this.load_factor) { this.rehash(); }
+            pos = search_for_OPEN(this.table, this.h(hc));
+        }
+
+        this.table.own(Slots.ALL);
+        this.table.keys[pos] = key;
+        this.table.values[pos] = value;
+        this.table.hashes[pos] = hc;
+        this.table.states[pos] = CLOSED;
+
+        this.count++;
+        this.modCount++;
+    }
+
+    /*
+     * Reemplaza el valor de la casilla cerrada pos de la tabla actual por
+     * value, o la libera si value es null.
+     */
+    private void replace_at(int pos, V value)
+    {
+        if(value == null)
+        {
+            this.remove_at(this.table, pos);
+            return;
+        }
+        this.table.own(Slots.VALUES);
+        this.table.values[pos] = value;
+    }
+
+    /*
+     * Reemplaza por value el valor de la clave key, que un Entry vio en la
+     * casilla index de la tabla actual, y retorna el valor anterior. Si desde
+     * entonces un rehash o una compactación movió el par, vuelve a buscar la
+     * clave (también en la tabla anterior, si hay un rehash incremental en
+     * curso).
+     * @throws IllegalStateException si la clave ya no está en la tabla.
+     */
+    private Object set_entry_value(Object key, int index, Object value)
+    {
+        Slots t = this.table;
+        if(index >= t.length() || t.states[index] != CLOSED || t.keys[index] != key)
+        {
+            int hc = key.hashCode();
+            index = search_for_index(t, (K) key, hc);
+            if(index == -1 && this.old_table != null)
+            {
+                t = this.old_table;
+                index = search_for_index(t, (K) key, hc);
+            }
+            if(index == -1) throw new IllegalStateException("setValue(): el par ya no está en la tabla...");
+        }
+
+        t.own(Slots.VALUES);
+        Object old = t.values[index];
+        t.values[index] = value;
+        return old;
+    }
+
+    /*
+     * Lanza ConcurrentModificationException si la estructura de la tabla
+     * cambió desde que modCount valía expected (la función que recibió
+     * compute() o alguna de sus variantes modificó la tabla).
+     */
+    private void check_modCount(int expected)
+    {
+        if(this.modCount != expected)
+        {
+            throw new ConcurrentModificationException("la función modificó la tabla...");
+        }
+    }
+
+    /*
+     * Busca en la tabla una casilla cerrada cuya clave coincida con key, a
+     * partir de la posición que le asigna h(). Si la encuentra, retorna su posicíón. Si no la
+     * encuentra, retorna -1. Aplica exploración cuadrática. Las casillas
+     * TOMBSTONE no cortan la búsqueda (la clave pudo quedar más allá de una
+     * casilla que luego se liberó): la corta la primera casilla OPEN. El valor
+     * hc es key.hashCode(): sólo se invoca a equals() en las casillas cuyo hash
+     * guardado coincide con hc (y cuya clave no es el mismo objeto que key).
+     * La búsqueda se hace en la tabla t (la actual o, durante un rehash
+     * incremental, la anterior).
+     */
+    private int search_for_index(Slots t, K key, int hc)
+    {
+        int n = t.length();
+        int y = this.h(hc, n);
+        for(int j=0; j<n; j++)
+        {
+            if(j > 0) { y = next_probe(y, j, n); }
+
+            byte state = t.states[y];
+            if(state == OPEN) { return this.probed(t, j + 1, -1); }
+            if(state == CLOSED && t.hashes[y] == hc)
+            {
+                Object k = t.keys[y];
+                if(k == key || key.equals(k)) { return this.probed(t, j + 1, y); }
+            }
+        }
+        return this.probed(t, n, -1);
+    }
+
+    /*
+     * Registra que una búsqueda en la tabla t revisó probes casillas, y
+     * retorna result (el resultado de la búsqueda). Guarda probes para los
+     * contadores en vivo (si PROBE_COUNTERS) y, si se alcanzó el umbral, emite
+     * un LongProbeEvent. Con los contadores desactivados y búsquedas cortas,
+     * sólo cuesta una comparación.
+     */
+    private int probed(Slots t, int probes, int result)
+    {
+        if(PROBE_COUNTERS) { this.last_probes = probes; }
+        if(probes >= this.long_probe_threshold) { this.long_probe(t, probes); }
+        return result;
+    }
+
+    /*
+     * Emite un LongProbeEvent (si JFR lo está registrando).
+     */
+    private void long_probe(Slots t, int probes)
+    {
+        LongProbeEvent e = new LongProbeEvent();
+        if(!e.shouldCommit()) { return; }
+
+        e.tableId = System.identityHashCode(this);
+        e.probes = probes;
+        e.threshold = this.long_probe_threshold;
+        e.length = t.length();
+        e.count = this.count;
+        e.commit();
+    }
+
+    /*
+     * Retorna el índice de la primera casilla abierta, a partir de la posición ik,
+     * en la tabla t. Aplica exploración cuadrática (o triangular, en
+     * POWER_OF_TWO_MODE).
+     */
+    private int search_for_OPEN(Slots t, int ik)
+    {
+        int n = t.length();
+        int y = ik;
+        for(int j=0; ;j++)
+        {
+            if(j > 0) { y = next_probe(y, j, n); }
+
+            if(t.states[y] == OPEN) { return y; }
+        }
+    }
+
+    /*
+     * Retorna la casilla número j (j > 0) de una secuencia de exploración en
+     * una tabla de tamaño n, a partir de la casilla número j-1 (que es y). En
+     * PRIME_MODE la secuencia es cuadrática (ik + j^2): como j^2 = (j-1)^2 +
+     * (2j - 1), se avanza 2j - 1 casillas sin multiplicar, dividir ni usar coma
+     * flotante. En POWER_OF_TWO_MODE la secuencia es triangular (ik + j(j+1)/2),
+     * que en tablas de tamaño potencia de dos recorre todas las casillas: se
+     * avanza j casillas y se aplica la máscara.
+     */
+    private int next_probe(int y, int j, int n)
+    {
+        if(this.hash_mode == POWER_OF_TWO_MODE) { return (y + j) & (n - 1); }
+        return quadratic_probe(y, j, n);
+    }
+
+    /*
+     * Paso j de la exploración cuadrática en una tabla de tamaño n, a partir
+     * de la casilla y (ver next_probe()). Lo comparten las variantes de esta
+     * tabla que conservan su esquema de exploración.
+     */
+    static int quadratic_probe(int y, int j, int n)
+    {
+        int d = 2 * j - 1;
+        while(d >= n) { d -= n; }
+        return (y >= n - d) ? y - (n - d) : y + d;
+    }
+
+    /*
+     * Libera la casilla cerrada de índice pos de la tabla t: la marca como
+     * TOMBSTONE (para no cortar las secuencias de exploración que pasan por
+     * ella) y suelta las referencias a la clave y al valor que contenía.
+     */
+    private void remove_at(Slots t, int pos)
+    {
+        t.own(Slots.KEYS | Slots.VALUES | Slots.STATES);
+        t.keys[pos] = null;
+        t.values[pos] = null;
+        t.states[pos] = TOMBSTONE;
+        this.count--;
+        if(t == this.table) { this.tombstones++; }
+        this.modCount++;
+    }
+
+    /*
+     * Serializa la tabla: los atributos no transient (capacidad inicial,
+     * factor de carga, modo, umbral de limpieza y modo de rehash), la cantidad
+     * de pares y luego cada clave seguida de su valor. No se escriben las
+     * casillas abiertas ni las TOMBSTONE, ni los hashes: el tamaño depende de
+     * count y no de la capacidad. No modifica la tabla (si hay un rehash
+     * incremental en curso, escribe los pares de las dos tablas).
+     */
+    private void writeObject(ObjectOutputStream s) throws IOException
+    {
+        s.defaultWriteObject();
+        s.writeInt(this.count);
+        this.write_pairs(s, this.table);
+        if(this.old_table != null) { this.write_pairs(s, this.old_table); }
+    }
+
+    private void write_pairs(ObjectOutputStream s, Slots t) throws IOException
+    {
+        for(int i = 0; i < t.length(); i++)
+        {
+            if(t.states[i] == CLOSED)
+            {
+                s.writeObject(t.keys[i]);
+                s.writeObject(t.values[i]);
+            }
+        }
+    }
+
+    /*
+     * Reconstruye la tabla serializada por writeObject(). La tabla se crea
+     * desde el principio con capacidad suficiente para los count pares (sin
+     * superar el factor de carga), por lo que no hay rehash mientras se
+     * cargan; y como las claves son distintas, cada par se ubica directamente
+     * en la primera casilla abierta de su secuencia, sin buscar la clave.
+     */
+    private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException
+    {
+        s.defaultReadObject();
+        if(this.hash_mode != PRIME_MODE && this.hash_mode != POWER_OF_TWO_MODE)
+            throw new InvalidObjectException("modo de hash desconocido: " + this.hash_mode);
+        // los mismos límites que el constructor: con exploración cuadrática en
+        // una tabla de tamaño primo, una carga mayor a 0.5 puede dejar sin
+        // casillas libres la secuencia de exploración de una clave...
+        if(!(this.load_factor > 0 && this.load_factor <= 0.5))
+            throw new InvalidObjectException("factor de carga inválido: " + this.load_factor);
+        if(this.initial_capacity <= 0)
+            throw new InvalidObjectException("capacidad inicial inválida: " + this.initial_capacity);
+        if(!(this.tombstone_threshold > 0 && this.tombstone_threshold <= 1))
+            throw new InvalidObjectException("umbral de limpieza inválido: " + this.tombstone_threshold);
+        if(this.long_probe_threshold < 1) { this.long_probe_threshold = DEFAULT_LONG_PROBE_THRESHOLD; }
+
+        int n = s.readInt();
+        if(n < 0) throw new InvalidObjectException("cantidad de pares inválida: " + n);
+
+        long needed = (long) (n / this.load_factor) + 1;
+        int capacity = this.adjust_capacity((int) Math.min(Integer.MAX_VALUE - 2, Math.max(this.initial_capacity, needed)));
+        this.table = new Slots(capacity);
+        for(int i = 0; i < n; i++)
+        {
+            K key = (K) s.readObject();
+            V value = (V) s.readObject();
+            if(key == null || value == null) throw new InvalidObjectException("par con clave o valor null");
+
+            int hc = key.hashCode();
+            int pos = search_for_OPEN(this.table, this.h(hc));
+            this.table.keys[pos] = key;
+            this.table.values[pos] = value;
+            this.table.hashes[pos] = hc;
+            this.table.states[pos] = CLOSED;
+        }
+        this.count = n;
+    }
+
+    //************************ Clases Internas.
+
+    /*
+     * Tareas de parallelBuild(). HashTask calcula el hashCode() y la casilla
+     * inicial de las claves del rango [lo, hi) de la entrada, dividiendo el
+     * rango en dos mientras sea más grande que HASH_TASK_SIZE.
+     */
+    private static final int HASH_TASK_SIZE = 1 << 14;
+
+    private class HashTask extends RecursiveAction
+    {
+        private final Object keys[];
+        private final Object values[];
+        private final int hashes[];
+        private final int homes[];
+        private final int lo;
+        private final int hi;
+
+        HashTask(Object keys[], Object values[], int hashes[], int homes[], int lo, int hi)
+        {
+            this.keys = keys;
+            this.values = values;
+            this.hashes = hashes;
+            this.homes = homes;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if(hi - lo > HASH_TASK_SIZE)
+            {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new HashTask(keys, values, hashes, homes, lo, mid),
+                          new HashTask(keys, values, hashes, homes, mid, hi));
+                return;
+            }
+
+            int length = TSBHashTableDA.this.table.length();
+            for(int i = lo; i < hi; i++)
+            {
+                if(keys[i] == null || values[i] == null) throw new NullPointerException("parallelBuild(): par " + i + " null");
+                hashes[i] = keys[i].hashCode();
+                homes[i] = h(hashes[i], length);
+            }
+        }
+    }
+
+    /*
+     * PlaceTask ubica las claves de las particiones [plo, phi). Las claves de
+     * la partición p son order[start[p]] ... order[start[p + 1] - 1], en orden
+     * de entrada. Cada clave se busca y se inserta como en put(), pero sólo
+     * mientras su secuencia de exploración no salga del rango de casillas de
+     * su partición: si sale, se marca en overflow y queda para el final. En
+     * placed[p] queda la cantidad de claves distintas ubicadas en p.
+     */
+    private class PlaceTask extends RecursiveAction
+    {
+        private final Object keys[];
+        private final Object values[];
+        private final int hashes[];
+        private final int homes[];
+        private final int order[];
+        private final int start[];
+        private final boolean overflow[];
+        private final int placed[];
+        private final int plo;
+        private final int phi;
+
+        PlaceTask(Object keys[], Object values[], int hashes[], int homes[], int order[], int start[],
+                  boolean overflow[], int placed[], int plo, int phi)
+        {
+            this.keys = keys;
+            this.values = values;
+            this.hashes = hashes;
+            this.homes = homes;
+            this.order = order;
+            this.start = start;
+            this.overflow = overflow;
+            this.placed = placed;
+            this.plo = plo;
+            this.phi = phi;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if(phi - plo > 1)
+            {
+                int mid = (plo + phi) >>> 1;
+                invokeAll(new PlaceTask(keys, values, hashes, homes, order, start, overflow, placed, plo, mid),
+                          new PlaceTask(keys, values, hashes, homes, order, start, overflow, placed, mid, phi));
+                return;
+            }
+
+            Slots t = TSBHashTableDA.this.table;
+            int n = t.length();
+            int partitions = placed.length;
+
+            // rango de casillas [first, last] de la partición plo...
+            int first = (int) (((long) plo * n + partitions - 1) / partitions);
+            int last = (int) (((long) (plo + 1) * n + partitions - 1) / partitions) - 1;
+
+            int c = 0;
+            for(int k = start[plo]; k < start[plo + 1]; k++)
+            {
+                int i = order[k];
+                int y = homes[i];
+                for(int j = 1; ; j++)
+                {
+                    byte state = t.states[y];
+                    if(state == OPEN)
+                    {
+                        t.keys[y] = keys[i];
+                        t.values[y] = values[i];
+                        t.hashes[y] = hashes[i];
+                        t.states[y] = CLOSED;
+                        c++;
+                        break;
+                    }
+                    if(t.hashes[y] == hashes[i] && keys[i].equals(t.keys[y]))
+                    {
+                        t.values[y] = values[i];
+                        break;
+                    }
+
+                    y = next_probe(y, j, n);
+                    if(y < first || y > last)
+                    {
+                        overflow[i] = true;
+                        break;
+                    }
+                }
+            }
+            placed[plo] = c;
+        }
+    }
+
+    /*
+     * Clase interna que representa el soporte de la tabla: en lugar de un
+     * arreglo de objetos Entry (uno por casilla, aunque la casilla esté vacía),
+     * la tabla se guarda en arreglos paralelos. La casilla i está formada por
+     * keys[i], values[i], hashes[i] y states[i], y su estado es OPEN, CLOSED o
+     * TOMBSTONE. Una tabla vacía sólo ocupa los arreglos (en null y en OPEN), y
+     * una búsqueda lee el estado y la clave sin pasar por un objeto intermedio.
+     * En hashes[i] se guarda el hashCode() completo de la clave de una casilla
+     * cerrada: la búsqueda compara primero los hashes (y sólo invoca a equals()
+     * si coinciden), y el rehash no necesita volver a invocar a hashCode().
+     *
+     * Los arreglos pueden estar compartidos con el Slots de un clon (ver
+     * clone() y share()): antes de escribir en un arreglo, la tabla invoca a
+     * own(), que lo copia si está compartido. Cada bit de shared indica un
+     * arreglo que puede estar compartido, y users cuenta cuántos Slots usan
+     * cada arreglo (el contador es el mismo objeto en todos ellos): el que
+     * copia un arreglo lo descuenta, así que cuando sólo queda un Slots usándolo
+     * ese lo modifica sin copiarlo. Después de un clone() copia sólo la primera
+     * de las dos tablas que escribe.
+     */
+    private static final class Slots
+    {
+        // bits de shared (y parámetros de own()) para cada arreglo...
+        static final int KEYS = 1;
+        static final int VALUES = 2;
+        static final int HASHES = 4;
+        static final int STATES = 8;
+        static final int ALL = KEYS | VALUES | HASHES | STATES;
+
+        private Object keys[];
+        private Object values[];
+        private int hashes[];
+        private byte states[];
+
+        // arreglos compartidos con otro Slots...
+        private int shared;
+
+        // cantidad de Slots que usan cada arreglo, por número de bit (null
+        // hasta el primer share())...
+        private AtomicInteger users[];
+
+        Slots(int length)
+        {
+            this.keys = new Object[length];
+            this.values = new Object[length];
+            this.hashes = new int[length];
+            this.states = new byte[length];
+        }
+
+        private Slots(Slots other)
+        {
+            this.keys = other.keys;
+            this.values = other.values;
+            this.hashes = other.hashes;
+            this.states = other.states;
+            this.users = other.users.clone();
+        }
+
+        int length()
+        {
+            return states.length;
+        }
+
+        /*
+         * Retorna un Slots nuevo que comparte los arreglos de este (en tiempo
+         * constante). A partir de aquí los dos los consideran compartidos.
+         */
+        Slots share()
+        {
+            if(users == null)
+            {
+                users = new AtomicInteger[]{ new AtomicInteger(1), new AtomicInteger(1), new AtomicInteger(1), new AtomicInteger(1) };
+            }
+            for(AtomicInteger u : users) { u.incrementAndGet(); }
+
+            Slots other = new Slots(this);
+            this.shared = ALL;
+            other.shared = ALL;
+            return other;
+        }
+
+        /*
+         * Determina si algún arreglo está compartido con otro Slots.
+         */
+        boolean isShared()
+        {
+            for(int b = 0; b < 4; b++)
+            {
+                if((shared & (1 << b)) != 0 && users[b].get() > 1) { return true; }
+            }
+            return false;
+        }
+
+        /*
+         * Copia los arreglos indicados (una combinación de KEYS, VALUES,
+         * HASHES y STATES) que estén compartidos, para poder escribir en ellos.
+         * Un arreglo que ya no usa ningún otro Slots no se copia.
+         */
+        void own(int arrays)
+        {
+            int s = shared & arrays;
+            if(s == 0) { return; }
+
+            for(int b = 0; b < 4; b++)
+            {
+                if((s & (1 << b)) == 0 || users[b].get() == 1) { continue; }
+
+                switch(1 << b)
+                {
+                    case KEYS: keys = keys.clone(); break;
+                    case VALUES: values = values.clone(); break;
+                    case HASHES: hashes = hashes.clone(); break;
+                    default: states = states.clone();
+                }
+
+                // se descuenta después de copiar: el que vea el contador en 1
+                // ya puede escribir en el arreglo original...
+                users[b].decrementAndGet();
+                users[b] = new AtomicInteger(1);
+            }
+            shared &= ~s;
+        }
+
+        /*
+         * Descuenta los arreglos compartidos cuando la tabla deja de usar este
+         * Slots (lo reemplazó al redimensionarse o al vaciarse), para que el
+         * otro Slots no tenga que copiarlos. El Slots no se usa más.
+         */
+        void release()
+        {
+            for(int b = 0; b < 4; b++)
+            {
+                if((shared & (1 << b)) != 0) { users[b].decrementAndGet(); }
+            }
+            shared = 0;
+        }
+    }
+
+    /*
+     * Clase interna que representa los pares de objetos que se almacenan en la
+     * tabla hash. La tabla no guarda instancias de esta clase: se crean sólo
+     * cuando la vista entrySet() entrega un par, y cada una recuerda la casilla
+     * de la que salió para que setValue() modifique el valor en la tabla (o lo
+     * busque de nuevo, si el par se movió). Lanzará una
+     * IllegalArgumentException si se intenta asignar un valor null, y una
+     * IllegalStateException si el par ya no está en la tabla.
+     */
+    private class Entry<K, V> implements Map.Entry<K, V>
+    {
+        private K key;
+        private V value;
+        private int index;
+
+        public Entry(K key, V value, int index)
+        {
+            this.key = key;
+            this.value = value;
+            this.index = index;
+        }
+
+        @Override
         public K getKey()
         {
             return key;
@@ -801,8 +2102,6 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
             return value;
         }
 
-        public int getState() { return state; }
-
         @Override
         public V setValue(V value)
         {
@@ -811,19 +2110,11 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
                 throw new IllegalArgumentException("setValue(): parámetro null...");
             }
 
-            V old = this.value;
+            V old = (V) TSBHashTableDA.this.set_entry_value(key, index, value);
             this.value = value;
             return old;
         }
 
-        public void setState(int ns)
-        {
-            if(ns >= 0 && ns < 3)
-            {
-                state = ns;
-            }
-        }
-
         @Override
         public int hashCode()
         {
@@ -855,7 +2146,7 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
     }
 
     /*
-     * Clase interna que representa una vista de todas los Claves mapeadas en la
+     * Clase interna que representa una vista de todos los Claves mapeadas en la
      * tabla: si la vista cambia, cambia también la tabla que le da respaldo, y
      * viceversa. La vista es stateless: no mantiene estado alguno (es decir, no
      * contiene datos ella misma, sino que accede y gestiona directamente datos
@@ -872,6 +2163,13 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
             return new KeySetIterator();
         }
 
+        @Override
+        public Spliterator<K> spliterator()
+        {
+            TSBHashTableDA.this.complete_rehash();
+            return new KeySpliterator(0, TSBHashTableDA.this.table.length(), TSBHashTableDA.this.count, true);
+        }
+
         @Override
         public int size()
         {
@@ -898,28 +2196,31 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
 
         private class KeySetIterator implements Iterator<K>
         {
-            // REVISAR y HACER... Agregar los atributos que necesiten...
-
             // flag para controlar si remove() está bien invocado...
             private boolean next_ok;
 
             // el valor que debería tener el modCount de la tabla completa...
             private int expected_modCount;
 
+            // índice de la próxima casilla a revisar en el arreglo...
+            private int next_entry;
+
+            // índice de la casilla retornada por la última invocación a next()...
             private int current_entry;
-            private int last_entry;
 
             /*
-             * Crea un iterador comenzando en la primera lista. Activa el
+             * Crea un iterador comenzando en la primera casilla. Activa el
              * mecanismo fail-fast.
              */
             public KeySetIterator()
             {
-                // HACER...
+                // con rehash incremental, todos los objetos deben estar en la tabla actual...
+                TSBHashTableDA.this.complete_rehash();
+
                 next_ok = false;
                 expected_modCount = TSBHashTableDA.this.modCount;
-                current_entry = 0;
-                last_entry = 0;
+                next_entry = 0;
+                current_entry = -1;
             }
 
             /*
@@ -927,106 +2228,59 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
              * sido retornado por next().
              */
             @Override
-            public boolean hasNext() {
-                Object table[] = TSBHashTableDA.this.table;
-
-                if (TSBHashTableDA.this.isEmpty()) {
-                    return false;
-                }
-                if (current_entry >= table.length) {
-                    return false;
-                }
-
-                Entry<K, V> entry = (Entry<K, V>) table[current_entry];
-                if ( entry.getState() == TOMBSTONE) {
-                    int next_entry = current_entry + 1;
-                    entry = (Entry<K, V>) table[next_entry];
-                    while (next_entry < table.length-1 && (entry.getState() == CLOSED || entry.getState() == OPEN)) {
-                        next_entry++;
-                        entry = (Entry<K, V>) table[next_entry];
-                    }
-                    if (next_entry == table.length-1) {
-                        return false;
-                    }
+            public boolean hasNext()
+            {
+                byte states[] = TSBHashTableDA.this.table.states;
+                while(next_entry < states.length && states[next_entry] != CLOSED)
+                {
+                    next_entry++;
                 }
-                return true;
+                return next_entry < states.length;
             }
 
             /*
              * Retorna el siguiente elemento disponible en la tabla.
              */
             @Override
-            public K next() {
-                if (TSBHashTableDA.this.modCount != expected_modCount) {
+            public K next()
+            {
+                if(TSBHashTableDA.this.modCount != expected_modCount)
+                {
                     throw new ConcurrentModificationException("next(): modificacion inesperada de tabla...");
                 }
 
-                if (!hasNext()) {
+                if(!hasNext())
+                {
                     throw new NoSuchElementException("next(): no existe el elemento pedido...");
                 }
 
-                Object table[] = TSBHashTableDA.this.table;
-
-                Entry<K, V> entry = (Entry<K, V>) table[current_entry];
-                int next = current_entry;
-                if (entry.getState() == OPEN || entry.getState() == CLOSED) {
-                    last_entry = current_entry;
-                    next++;
-                    entry = (Entry<K, V>) table[next];
-                    while (entry.getState() == OPEN || entry.getState() == CLOSED) {
-                        next++;
-                        entry = (Entry<K, V>) table[next];
-                    }
-                }
-
-                if (next==current_entry) {
-                    next++;
-                    entry = (Entry<K, V>) table[next];
-                    while (entry.getState() == OPEN || entry.getState() == CLOSED) {
-                        next++;
-                        entry = (Entry<K, V>) table[next];
-                    }
-                }
-
+                current_entry = next_entry++;
                 next_ok = true;
 
-                current_entry = next;
-                entry = (Entry<K, V>) table[current_entry];
-                K key = entry.getKey();
-                return key;
+                return (K) TSBHashTableDA.this.table.keys[current_entry];
             }
 
             /*
-             * Remueve el elemento actual de la tabla, dejando el iterador en la
-             * posición anterior al que fue removido. El elemento removido es el
+             * Remueve el elemento actual de la tabla. El elemento removido es el
              * que fue retornado la última vez que se invocó a next(). El método
              * sólo puede ser invocado una vez por cada invocación a next().
              */
             @Override
             public void remove()
             {
-                // REVISAR Y HACER...
-
                 if(!next_ok)
                 {
                     throw new IllegalStateException("remove(): debe invocar a next() antes de remove()...");
                 }
 
-                TSBHashTableDA.this.table[current_entry] = new Entry<>();
-
-                if (last_entry != current_entry) {
-                    current_entry = last_entry;
-                }
+                // la casilla queda marcada como tumba para no cortar las secuencias de exploración...
+                TSBHashTableDA.this.remove_at(TSBHashTableDA.this.table, current_entry);
 
                 // avisar que el remove() válido para next() ya se activó...
                 next_ok = false;
 
-                // la tabla tiene un elementon menos...
-                TSBHashTableDA.this.count--;
-
                 // fail_fast iterator...
-                TSBHashTableDA.this.modCount++;
-                expected_modCount++;
+                expected_modCount = TSBHashTableDA.this.modCount;
             }
         }
     }
@@ -1050,43 +2304,42 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
             return new EntrySetIterator();
         }
 
+        @Override
+        public Spliterator<Map.Entry<K, V>> spliterator()
+        {
+            TSBHashTableDA.this.complete_rehash();
+            return new EntrySpliterator(0, TSBHashTableDA.this.table.length(), TSBHashTableDA.this.count, true);
+        }
+
         /*
          * Verifica si esta vista (y por lo tanto la tabla) contiene al par
-         * que entra como parámetro (que debe ser de la clase Entry).
+         * que entra como parámetro.
          */
         @Override
         public boolean contains(Object o)
         {
             if(o == null) { return false; }
-            if(!(o instanceof Entry)) { return false; }
-
-            Map.Entry<K, V> entry = (Map.Entry<K,V>)o;
-            K key = entry.getKey();
-            //int index = TSBHashTableDA.this.h(key);
-            if(TSBHashTableDA.this.containsKey(key)){
-                V val = TSBHashTableDA.this.get(key);
-                return val==entry.getValue();
-            }
+            if(!(o instanceof Map.Entry)) { return false; }
 
-            return false;
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>)o;
+            Object key = entry.getKey();
+            if(key == null) { return false; }
+
+            V val = TSBHashTableDA.this.get(key);
+            return val != null && val.equals(entry.getValue());
         }
 
         /*
          * Elimina de esta vista (y por lo tanto de la tabla) al par que entra
-         * como parámetro (y que debe ser de tipo Entry).
+         * como parámetro.
          */
         @Override
         public boolean remove(Object o)
         {
-            Map.Entry<K, V> entry = (Map.Entry<K, V>) o;
-            K key = entry.getKey();
-            if(TSBHashTableDA.this.remove(key)!=null)
-            {
-                TSBHashTableDA.this.count--;
-                TSBHashTableDA.this.modCount++;
-                return true;
-            }
-            return false;
+            if(!this.contains(o)) { return false; }
+
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return TSBHashTableDA.this.remove(entry.getKey()) != null;
         }
 
         @Override
@@ -1103,27 +2356,31 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
 
         private class EntrySetIterator implements Iterator<Map.Entry<K, V>>
         {
-            // REVISAR y HACER... Agregar los atributos que necesiten...
-
             // flag para controlar si remove() está bien invocado...
             private boolean next_ok;
 
             // el valor que debería tener el modCount de la tabla completa...
             private int expected_modCount;
 
+            // índice de la próxima casilla a revisar en el arreglo...
+            private int next_entry;
+
+            // índice de la casilla retornada por la última invocación a next()...
             private int current_entry;
-            private int last_entry;
 
             /*
-             * Crea un iterador comenzando en la primera lista. Activa el
+             * Crea un iterador comenzando en la primera casilla. Activa el
              * mecanismo fail-fast.
              */
             public EntrySetIterator()
             {
-                current_entry = 0;
-                last_entry = 0;
+                // con rehash incremental, todos los objetos deben estar en la tabla actual...
+                TSBHashTableDA.this.complete_rehash();
+
                 next_ok = false;
                 expected_modCount = TSBHashTableDA.this.modCount;
+                next_entry = 0;
+                current_entry = -1;
             }
 
             /*
@@ -1133,91 +2390,59 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
             @Override
             public boolean hasNext()
             {
-                // variable auxiliar t para simplificar accesos...
-                Object table[] =  TSBHashTableDA.this.table;
-                if(TSBHashTableDA.this.isEmpty()) { return false; }
-                if(current_entry >= table.length) { return false; }
-
-                Entry<K, V> entry = (Entry<K, V>) table[current_entry];
-                if ( entry.getState() == TOMBSTONE) {
-                    int next_entry = current_entry + 1;
-                    entry = (Entry<K, V>) table[next_entry];
-
-                    while (next_entry < table.length-1 && (entry.getState() == OPEN || entry.getState() == CLOSED)) {
-                        next_entry++;
-                        entry = (Entry<K, V>) table[next_entry];
-                    }
-                    if (next_entry == table.length-1) {
-                        return false;
-                    }
+                byte states[] = TSBHashTableDA.this.table.states;
+                while(next_entry < states.length && states[next_entry] != CLOSED)
+                {
+                    next_entry++;
                 }
-
-                return true;
+                return next_entry < states.length;
             }
 
-
             /*
-             * Retorna el siguiente elemento disponible en la tabla.
+             * Retorna el siguiente elemento disponible en la tabla. El par se
+             * crea en este momento a partir de la casilla correspondiente.
              */
             @Override
-            public Entry<K, V> next() {
-                if (TSBHashTableDA.this.modCount != expected_modCount) {
+            public Map.Entry<K, V> next()
+            {
+                if(TSBHashTableDA.this.modCount != expected_modCount)
+                {
                     throw new ConcurrentModificationException("next(): modificacion inesperada de tabla...");
                 }
 
-                if (!hasNext()) {
+                if(!hasNext())
+                {
                     throw new NoSuchElementException("next(): no existe el elemento pedido...");
                 }
 
-                Object table[] = TSBHashTableDA.this.table;
-
-                Entry<K, V> entry = (Entry<K, V>) table[current_entry];
-                int next = current_entry;
-                if (entry.getState() == OPEN || entry.getState() == CLOSED){
-                    last_entry = current_entry;
-                    next++;
-                    entry = (Entry<K, V>) table[next];
-                    while (entry.getState() == OPEN || entry.getState() == CLOSED){
-                        next++;
-                        entry = (Entry<K, V>) table[next];
-                    }
-                }
-
-                if (next==current_entry) {
-                    next++;
-                    entry = (Entry<K, V>) table[next];
-                    while (entry.getState() == OPEN || entry.getState() == CLOSED) {
-                        next++;
-                        entry = (Entry<K, V>) table[next];
-                    }
-                }
+                current_entry = next_entry++;
                 next_ok = true;
-                current_entry = next;
-                entry = (Entry<K, V>) table[current_entry];
-                Entry e = entry;
-                return e;
+
+                Slots t = TSBHashTableDA.this.table;
+                return new Entry<>((K) t.keys[current_entry], (V) t.values[current_entry], current_entry);
             }
 
+            /*
+             * Remueve el elemento actual de la tabla. El elemento removido es el
+             * que fue retornado la última vez que se invocó a next(). El método
+             * sólo puede ser invocado una vez por cada invocación a next().
+             */
             @Override
-            public void remove() {
-                if (!next_ok) {
+            public void remove()
+            {
+                if(!next_ok)
+                {
                     throw new IllegalStateException("remove(): debe invocar a next() antes de remove()...");
                 }
 
-                //Entry<K, V> garbage = (Entry<K, V>) TSBHashTableDA.this.table[current_entry];
-                TSBHashTableDA.this.table[current_entry] = new Entry<>();
-                // retomar acá
-
-                if (last_entry != current_entry) {
-                    current_entry = last_entry;
-                }
+                // la casilla queda marcada como tumba para no cortar las secuencias de exploración...
+                TSBHashTableDA.this.remove_at(TSBHashTableDA.this.table, current_entry);
 
+                // avisar que el remove() válido para next() ya se activó...
                 next_ok = false;
 
-                TSBHashTableDA.this.count--;
-
-                TSBHashTableDA.this.modCount++;
-                expected_modCount++;
+                // fail_fast iterator...
+                expected_modCount = TSBHashTableDA.this.modCount;
             }
         }
     }
@@ -1240,6 +2465,13 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
             return new ValueCollectionIterator();
         }
 
+        @Override
+        public Spliterator<V> spliterator()
+        {
+            TSBHashTableDA.this.complete_rehash();
+            return new ValueSpliterator(0, TSBHashTableDA.this.table.length(), TSBHashTableDA.this.count, true);
+        }
+
         @Override
         public int size()
         {
@@ -1260,29 +2492,31 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
 
         private class ValueCollectionIterator implements Iterator<V>
         {
-            // REVISAR y HACER... Agregar los atributos que necesiten...
-
             // flag para controlar si remove() está bien invocado...
             private boolean next_ok;
 
             // el valor que debería tener el modCount de la tabla completa...
             private int expected_modCount;
 
+            // índice de la próxima casilla a revisar en el arreglo...
+            private int next_entry;
+
+            // índice de la casilla retornada por la última invocación a next()...
             private int current_entry;
-            private int last_entry;
 
             /*
-             * Crea un iterador comenzando en la primera lista. Activa el
+             * Crea un iterador comenzando en la primera casilla. Activa el
              * mecanismo fail-fast.
              */
             public ValueCollectionIterator()
             {
-                // HACER...
+                // con rehash incremental, todos los objetos deben estar en la tabla actual...
+                TSBHashTableDA.this.complete_rehash();
 
                 next_ok = false;
                 expected_modCount = TSBHashTableDA.this.modCount;
-                current_entry = 0;
-                last_entry = 0;
+                next_entry = 0;
+                current_entry = -1;
             }
 
             /*
@@ -1292,107 +2526,248 @@ public class TSBHashTableDA<K,V> implements Map<K,V>, Cloneable, Serializable
             @Override
             public boolean hasNext()
             {
-                Object table[] = TSBHashTableDA.this.table;
-
-                if (TSBHashTableDA.this.isEmpty()) {
-                    return false;
-                }
-                if (current_entry >= table.length) {
-                    return false;
-                }
-
-                Entry<K, V> entry = (Entry<K, V>) table[current_entry];
-                if (entry.getState() == TOMBSTONE) {
-                    int next_entry = current_entry + 1;
-                    entry = (Entry<K, V>) table[next_entry];
-                    while (next_entry < table.length-1 && (entry.getState() == CLOSED || entry.getState() == OPEN)) {
-                        next_entry++;
-                        entry = (Entry<K, V>) table[next_entry];
-                    }
-                    if (next_entry == table.length-1) {
-                        return false;
-                    }
+                byte states[] = TSBHashTableDA.this.table.states;
+                while(next_entry < states.length && states[next_entry] != CLOSED)
+                {
+                    next_entry++;
                 }
-
-                return true;
+                return next_entry < states.length;
             }
 
             /*
              * Retorna el siguiente elemento disponible en la tabla.
              */
             @Override
-            public V next(){
-                if (TSBHashTableDA.this.modCount != expected_modCount) {
+            public V next()
+            {
+                if(TSBHashTableDA.this.modCount != expected_modCount)
+                {
                     throw new ConcurrentModificationException("next(): modificacion inesperada de tabla en uso...");
                 }
 
-                if (!hasNext()) {
+                if(!hasNext())
+                {
                     throw new NoSuchElementException("next(): no existe el elemento solicitado...");
                 }
 
-                Object table[] = TSBHashTableDA.this.table;
-
-                Entry<K, V> entry = (Entry<K, V>) table[current_entry];
-                int next = current_entry;
-                if (entry.getState() == CLOSED || entry.getState() == OPEN) {
-                    last_entry = current_entry;
-
-                    next++;
-                    entry = (Entry<K, V>) table[next];
-                    while (entry.getState() == CLOSED || entry.getState() == OPEN) {
-                        next++;
-                        entry = (Entry<K, V>) table[next];
-                    }
-                }
-
-                if (next==current_entry) {
-                    next++;
-                    entry = (Entry<K, V>) table[next];
-                    while (entry.getState() == CLOSED || entry.getState() == OPEN) {
-                        next++;
-                        entry = (Entry<K, V>) table[next];
-                    }
-                }
-
+                current_entry = next_entry++;
                 next_ok = true;
 
-                current_entry = next;
-                entry = (Entry<K, V>) table[current_entry];
-                V val = entry.getValue();
-                return val;
+                return (V) TSBHashTableDA.this.table.values[current_entry];
             }
 
             /*
-             * Remueve el elemento actual de la tabla, dejando el iterador en la
-             * posición anterior al que fue removido. El elemento removido es el
+             * Remueve el elemento actual de la tabla. El elemento removido es el
              * que fue retornado la última vez que se invocó a next(). El método
              * sólo puede ser invocado una vez por cada invocación a next().
              */
             @Override
             public void remove()
             {
-                // HACER...
-
                 if(!next_ok)
                 {
                     throw new IllegalStateException("remove(): debe invocar a next() antes de remove()...");
                 }
 
-                TSBHashTableDA.this.table[current_entry] = new Entry<>();
+                // la casilla queda marcada como tumba para no cortar las secuencias de exploración...
+                TSBHashTableDA.this.remove_at(TSBHashTableDA.this.table, current_entry);
 
-                if (last_entry != current_entry) {
-                    current_entry = last_entry;
-                }
                 // avisar que el remove() válido para next() ya se activó...
                 next_ok = false;
 
-                // la tabla tiene un elementon menos...
-                TSBHashTableDA.this.count--;
-
                 // fail_fast iterator...
-                TSBHashTableDA.this.modCount++;
-                expected_modCount++;
+                expected_modCount = TSBHashTableDA.this.modCount;
+            }
+        }
+    }
+
+    /*
+     * Spliterator de las vistas: recorre las casillas cerradas del rango de
+     * índices [index, fence) de la tabla. trySplit() parte el rango por la
+     * mitad (sin recorrerlo), por lo que las vistas se pueden procesar en
+     * paralelo con parallelStream(). El Spliterator de la vista completa es
+     * SIZED (su estimación es exactamente count); las mitades que resultan de
+     * partirlo sólo estiman su tamaño (la mitad del que las generó). Igual que
+     * los iteradores, es fail-fast: lanza ConcurrentModificationException si
+     * la tabla cambió durante el recorrido. Las subclases definen el objeto
+     * que se retorna para cada casilla y sus características.
+     */
+    private abstract class TableSpliterator<T> implements Spliterator<T>
+    {
+        // próxima casilla a revisar y límite (excluido) del rango...
+        int index;
+        final int fence;
+
+        // tamaño estimado del rango, y si es exacto (sólo mientras el rango
+        // cubre la tabla completa: al dividirlo, est pasa a ser una estimación)...
+        int est;
+        boolean sized;
+
+        // el valor que debería tener el modCount de la tabla completa...
+        final int expected_modCount;
+
+        TableSpliterator(int index, int fence, int est, boolean sized)
+        {
+            this.index = index;
+            this.fence = fence;
+            this.est = est;
+            this.sized = sized;
+            this.expected_modCount = TSBHashTableDA.this.modCount;
+        }
+
+        /*
+         * Retorna el objeto de la casilla cerrada i de la tabla t.
+         */
+        abstract T element(Slots t, int i);
+
+        /*
+         * Crea un Spliterator del mismo tipo para el rango [lo, hi).
+         */
+        abstract TableSpliterator<T> create(int lo, int hi, int est);
+
+        @Override
+        public TableSpliterator<T> trySplit()
+        {
+            int lo = index;
+            int mid = (lo + fence) >>> 1;
+            if(lo >= mid) { return null; }
+
+            index = mid;
+            est >>>= 1;
+            sized = false;
+            return create(lo, mid, est);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action)
+        {
+            if(action == null) throw new NullPointerException("tryAdvance(): parámetro null");
+
+            Slots t = TSBHashTableDA.this.table;
+            while(index < fence)
+            {
+                int i = index++;
+                if(t.states[i] == CLOSED)
+                {
+                    action.accept(element(t, i));
+                    check_modCount();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action)
+        {
+            if(action == null) throw new NullPointerException("forEachRemaining(): parámetro null");
+
+            Slots t = TSBHashTableDA.this.table;
+            int hi = fence;
+            for(int i = index; i < hi; i++)
+            {
+                if(t.states[i] == CLOSED) { action.accept(element(t, i)); }
             }
+            index = hi;
+            check_modCount();
+        }
+
+        @Override
+        public long estimateSize()
+        {
+            return est;
+        }
+
+        @Override
+        public int characteristics()
+        {
+            return sized ? Spliterator.SIZED : 0;
+        }
+
+        private void check_modCount()
+        {
+            if(TSBHashTableDA.this.modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("la tabla fue modificada durante el recorrido...");
+            }
+        }
+    }
+
+    private final class KeySpliterator extends TableSpliterator<K>
+    {
+        KeySpliterator(int index, int fence, int est, boolean sized)
+        {
+            super(index, fence, est, sized);
+        }
+
+        @Override
+        K element(Slots t, int i)
+        {
+            return (K) t.keys[i];
+        }
+
+        @Override
+        TableSpliterator<K> create(int lo, int hi, int est)
+        {
+            return new KeySpliterator(lo, hi, est, false);
+        }
+
+        @Override
+        public int characteristics()
+        {
+            return super.characteristics() | Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+    }
+
+    private final class ValueSpliterator extends TableSpliterator<V>
+    {
+        ValueSpliterator(int index, int fence, int est, boolean sized)
+        {
+            super(index, fence, est, sized);
+        }
+
+        @Override
+        V element(Slots t, int i)
+        {
+            return (V) t.values[i];
+        }
+
+        @Override
+        TableSpliterator<V> create(int lo, int hi, int est)
+        {
+            return new ValueSpliterator(lo, hi, est, false);
+        }
+
+        @Override
+        public int characteristics()
+        {
+            return super.characteristics() | Spliterator.NONNULL;
+        }
+    }
+
+    private final class EntrySpliterator extends TableSpliterator<Map.Entry<K, V>>
+    {
+        EntrySpliterator(int index, int fence, int est, boolean sized)
+        {
+            super(index, fence, est, sized);
+        }
+
+        @Override
+        Map.Entry<K, V> element(Slots t, int i)
+        {
+            return new Entry<>((K) t.keys[i], (V) t.values[i], i);
+        }
+
+        @Override
+        TableSpliterator<Map.Entry<K, V>> create(int lo, int hi, int est)
+        {
+            return new EntrySpliterator(lo, hi, est, false);
+        }
+
+        @Override
+        public int characteristics()
+        {
+            return super.characteristics() | Spliterator.DISTINCT | Spliterator.NONNULL;
         }
     }
 }
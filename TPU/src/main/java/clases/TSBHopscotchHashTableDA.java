@@ -0,0 +1,475 @@
+package clases;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+
+/**
+ * Tabla hash con hopscotch hashing. Cada par está a menos de NEIGHBORHOOD
+ * casillas de su casilla de origen (la que le asigna la función hash), y
+ * cada casilla de origen tiene un mapa de bits (hop) que indica cuáles de
+ * las NEIGHBORHOOD casillas siguientes guardan pares con ese origen. Una
+ * búsqueda sólo revisa esas casillas, que son contiguas y casi siempre
+ * están en las primeras posiciones del vecindario: lee una o dos líneas de
+ * caché, mientras que la exploración cuadrática de TSBHashTableDA salta
+ * cada vez más lejos en tablas de millones de casillas.
+ *
+ * Para insertar se busca la primera casilla libre a partir del origen; si
+ * queda fuera del vecindario, se la va acercando moviendo hacia ella algún
+ * par que pueda ocuparla sin salir del vecindario de su propio origen, hasta
+ * que la casilla libre queda dentro del vecindario de la clave nueva. Como
+ * cada par está siempre en su vecindario, al eliminar basta con liberar la
+ * casilla y apagar su bit: no hacen falta TOMBSTONEs. Con vecindarios de
+ * 64 casillas (un long por mapa de bits) la tabla funciona con factores de
+ * carga de hasta 0.9 casi sin recurrir al depósito; con 32 casillas, en
+ * tablas de millones de casillas las inserciones empiezan a fallar cerca de
+ * 0.82. Se admiten factores de hasta 0.95, aunque cerca de ese límite la
+ * tabla puede crecer antes de alcanzarlo.
+ *
+ * Si no se encuentra lugar (la casilla libre está demasiado lejos, o nadie
+ * puede moverse), el par va a un pequeño depósito (stash) que las búsquedas
+ * revisan sólo si no está vacío; cuando el depósito se llena, la tabla
+ * crece al doble. El tamaño de la tabla es siempre una potencia de dos.
+ *
+ * No se admiten claves ni valores null.
+ *
+ * @author Grupo 31 - Falco, Gonzalo - Marzo, Lautaro - Pesetti, Sabrina - Vela, Azul
+ * @version Octubre de 2022.
+ * @param <K> el tipo de los objetos que serán usados como clave en la tabla.
+ * @param <V> el tipo de los objetos que serán los valores de la tabla.
+ */
+public class TSBHopscotchHashTableDA<K,V> extends AbstractTSBHashTableDA<K,V>
+{
+    //************************ Constantes (privadas o públicas).
+
+    // casillas del vecindario de cada origen (los bits de un long)...
+    public static final int NEIGHBORHOOD = 64;
+
+    // casillas que se revisan buscando una casilla libre al insertar...
+    private static final int ADD_RANGE = 4096;
+
+    // capacidad inicial del depósito...
+    private static final int STASH_SIZE = 4;
+
+
+    //************************ Atributos privados (estructurales).
+
+    // las casillas: claves (null si la casilla está libre), valores y el
+    // hashCode() mezclado de cada clave...
+    private transient Object keys[];
+    private transient Object values[];
+    private transient int hashes[];
+
+    // los mapas de bits: el bit j de hop[b] indica que la casilla b + j
+    // guarda un par con origen b...
+    private transient long hop[];
+
+    // máscara para obtener el índice de una casilla (tamaño - 1)...
+    private transient int mask;
+
+    // el depósito de los pares que no encontraron lugar en su vecindario...
+    private transient Object stash_keys[];
+    private transient Object stash_values[];
+    private transient int stash_hashes[];
+    private transient int stash_count;
+
+    // cantidad de pares en el depósito a partir de la cual la tabla crece...
+    private transient int stash_limit;
+
+    // el tamaño inicial y el factor de carga...
+    private int initial_capacity;
+    private float load_factor;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea una tabla vacía, con capacidad inicial para 16 pares y factor de
+     * carga 0.9f.
+     */
+    public TSBHopscotchHashTableDA()
+    {
+        this(16, 0.9f);
+    }
+
+    /**
+     * Crea una tabla vacía con la capacidad inicial indicada y factor de
+     * carga 0.9f.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     */
+    public TSBHopscotchHashTableDA(int initial_capacity)
+    {
+        this(initial_capacity, 0.9f);
+    }
+
+    /**
+     * Crea una tabla vacía con la capacidad inicial y el factor de carga
+     * indicados. Si la capacidad es menor o igual a cero, se usa 16. Si el
+     * factor de carga no es mayor a 0 y menor o igual a 0.95f, se usa 0.9f.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     * @param load_factor el factor de carga de la tabla.
+     */
+    public TSBHopscotchHashTableDA(int initial_capacity, float load_factor)
+    {
+        if(initial_capacity <= 0) { initial_capacity = 16; }
+        if(load_factor <= 0 || load_factor > 0.95f) { load_factor = 0.9f; }
+
+        this.initial_capacity = initial_capacity;
+        this.load_factor = load_factor;
+        this.init(this.length_for(initial_capacity));
+    }
+
+
+    //************************ Implementación de métodos especificados por Map.
+
+    /**
+     * Asocia el valor value con la clave key. Si la clave ya estaba en la
+     * tabla, reemplaza su valor.
+     * @param key la clave.
+     * @param value el valor.
+     * @return el valor anterior asociado a key, o null si no estaba.
+     * @throws NullPointerException si key o value es null.
+     */
+    @Override
+    public V put(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("put(): parámetro null");
+
+        int h = TSBHashTableDA.spread(key.hashCode());
+        int i = this.find(key, h);
+        if(i >= 0)
+        {
+            V old = this.value_at(i);
+            this.set_value_at(i, value);
+            return old;
+        }
+
+        if(this.count + 1 > this.load_factor * this.keys.length)
+        {
+            this.resize(2 * this.keys.length);
+        }
+        if(!this.place(key, value, h))
+        {
+            if(this.stash_count >= this.stash_limit)
+            {
+                this.resize(2 * this.keys.length);
+                if(!this.place(key, value, h)) { this.stash(key, value, h); }
+            }
+            else
+            {
+                this.stash(key, value, h);
+            }
+        }
+        this.count++;
+        this.modCount++;
+        return null;
+    }
+
+    /**
+     * Elimina todos los pares de la tabla, y la deja con su tamaño inicial.
+     */
+    @Override
+    public void clear()
+    {
+        this.init(this.length_for(this.initial_capacity));
+        this.count = 0;
+        this.modCount++;
+    }
+
+
+    //************************ Métodos específicos de la clase.
+
+    /**
+     * @return la cantidad de casillas de la tabla (sin contar el depósito).
+     */
+    public int capacity()
+    {
+        return this.keys.length;
+    }
+
+    /**
+     * @return el factor de carga de la tabla.
+     */
+    public float getLoadFactor()
+    {
+        return this.load_factor;
+    }
+
+    /**
+     * @return la cantidad de pares guardados en el depósito.
+     */
+    public int stashSize()
+    {
+        return this.stash_count;
+    }
+
+
+    //************************ Acceso a las casillas.
+
+    /*
+     * Las casillas 0 a capacity() - 1 son las de la tabla; las siguientes,
+     * las del depósito.
+     */
+    @Override
+    int index_of(Object key, int hc)
+    {
+        return this.find(key, TSBHashTableDA.spread(hc));
+    }
+
+    @Override
+    int length()
+    {
+        return this.keys.length + this.stash_count;
+    }
+
+    @Override
+    boolean is_closed(int i)
+    {
+        return i >= this.keys.length || this.keys[i] != null;
+    }
+
+    @Override
+    K key_at(int i)
+    {
+        int n = this.keys.length;
+        return (K) ((i < n) ? this.keys[i] : this.stash_keys[i - n]);
+    }
+
+    @Override
+    V value_at(int i)
+    {
+        int n = this.keys.length;
+        return (V) ((i < n) ? this.values[i] : this.stash_values[i - n]);
+    }
+
+    @Override
+    void set_value_at(int i, V value)
+    {
+        int n = this.keys.length;
+        if(i < n) { this.values[i] = value; }
+        else { this.stash_values[i - n] = value; }
+    }
+
+    /*
+     * En la tabla sólo se libera la casilla (los demás pares no se mueven).
+     * En el depósito, el último par pasa al lugar del eliminado, que el
+     * iterador vuelve a visitar.
+     */
+    @Override
+    void remove_at(int i)
+    {
+        int n = this.keys.length;
+        if(i < n)
+        {
+            int b = this.hashes[i] & this.mask;
+            this.hop[b] &= ~(1L << ((i - b) & this.mask));
+            this.keys[i] = null;
+            this.values[i] = null;
+        }
+        else
+        {
+            int s = i - n;
+            int last = --this.stash_count;
+            this.stash_keys[s] = this.stash_keys[last];
+            this.stash_values[s] = this.stash_values[last];
+            this.stash_hashes[s] = this.stash_hashes[last];
+            this.stash_keys[last] = null;
+            this.stash_values[last] = null;
+        }
+        this.count--;
+        this.modCount++;
+    }
+
+
+    //************************ Métodos privados.
+
+    /*
+     * Retorna la casilla de la clave key (de hash mezclado h), o -1 si no
+     * está.
+     */
+    private int find(Object key, int h)
+    {
+        int b = h & this.mask;
+        for(long bits = this.hop[b]; bits != 0; bits &= bits - 1)
+        {
+            int i = (b + Long.numberOfTrailingZeros(bits)) & this.mask;
+            Object k = this.keys[i];
+            if(this.hashes[i] == h && (k == key || key.equals(k))) { return i; }
+        }
+        for(int s = 0; s < this.stash_count; s++)
+        {
+            Object k = this.stash_keys[s];
+            if(this.stash_hashes[s] == h && (k == key || key.equals(k))) { return this.keys.length + s; }
+        }
+        return -1;
+    }
+
+    /*
+     * Coloca el par en el vecindario de su origen, acercando una casilla
+     * libre si hace falta. Retorna false si no encuentra lugar.
+     */
+    private boolean place(Object key, Object value, int h)
+    {
+        int b = h & this.mask;
+        int range = Math.min(ADD_RANGE, this.keys.length);
+        int d = 0;
+        while(d < range && this.keys[(b + d) & this.mask] != null) { d++; }
+        if(d == range) { return false; }
+
+        while(d >= NEIGHBORHOOD)
+        {
+            int moved = this.hop_closer((b + d) & this.mask);
+            if(moved == 0) { return false; }
+            d -= moved;
+        }
+
+        int i = (b + d) & this.mask;
+        this.keys[i] = key;
+        this.values[i] = value;
+        this.hashes[i] = h;
+        this.hop[b] |= 1L << d;
+        return true;
+    }
+
+    /*
+     * Busca, entre las NEIGHBORHOOD - 1 casillas anteriores a la casilla
+     * libre free, el par más lejano que pueda pasar a free sin salir del
+     * vecindario de su origen, y lo mueve. Retorna cuántas casillas se
+     * acercó la casilla libre, o 0 si ningún par puede moverse.
+     */
+    private int hop_closer(int free)
+    {
+        for(int k = NEIGHBORHOOD - 1; k > 0; k--)
+        {
+            int c = (free - k) & this.mask;
+            long bits = this.hop[c] & ((1L << k) - 1);
+            if(bits != 0)
+            {
+                int j = Long.numberOfTrailingZeros(bits);
+                int src = (c + j) & this.mask;
+                this.keys[free] = this.keys[src];
+                this.values[free] = this.values[src];
+                this.hashes[free] = this.hashes[src];
+                this.keys[src] = null;
+                this.values[src] = null;
+                this.hop[c] = (this.hop[c] & ~(1L << j)) | (1L << k);
+                return k - j;
+            }
+        }
+        return 0;
+    }
+
+    /*
+     * Agrega el par al depósito, agrandándolo si está lleno.
+     */
+    private void stash(Object key, Object value, int h)
+    {
+        if(this.stash_count == this.stash_keys.length)
+        {
+            int n = 2 * this.stash_keys.length;
+            this.stash_keys = Arrays.copyOf(this.stash_keys, n);
+            this.stash_values = Arrays.copyOf(this.stash_values, n);
+            this.stash_hashes = Arrays.copyOf(this.stash_hashes, n);
+        }
+        this.stash_keys[this.stash_count] = key;
+        this.stash_values[this.stash_count] = value;
+        this.stash_hashes[this.stash_count] = h;
+        this.stash_count++;
+    }
+
+    /*
+     * Crea una tabla vacía de length casillas, con el depósito vacío.
+     */
+    private void init(int length)
+    {
+        this.keys = new Object[length];
+        this.values = new Object[length];
+        this.hashes = new int[length];
+        this.hop = new long[length];
+        this.mask = length - 1;
+        this.stash_keys = new Object[STASH_SIZE];
+        this.stash_values = new Object[STASH_SIZE];
+        this.stash_hashes = new int[STASH_SIZE];
+        this.stash_count = 0;
+        this.stash_limit = STASH_SIZE;
+    }
+
+    /*
+     * Retorna el tamaño de tabla (potencia de dos, al menos NEIGHBORHOOD)
+     * para guardar n pares sin superar el factor de carga.
+     */
+    private int length_for(int n)
+    {
+        long needed = (long) Math.ceil(n / this.load_factor) + 1;
+        if(needed > (1 << 30)) throw new IllegalStateException("capacidad excesiva: " + n);
+
+        int length = NEIGHBORHOOD;
+        while(length < needed) { length <<= 1; }
+        return length;
+    }
+
+    /*
+     * Crea una tabla de length casillas y reinserta en ella todos los pares
+     * (los de la tabla y los del depósito). Los que no encuentran lugar
+     * quedan en el depósito nuevo; si son muchos (claves con el mismo
+     * hashCode(), por ejemplo), el límite del depósito se agranda para no
+     * volver a crecer enseguida.
+     */
+    private void resize(int length)
+    {
+        Object old_keys[] = this.keys;
+        Object old_values[] = this.values;
+        int old_hashes[] = this.hashes;
+        Object old_stash_keys[] = this.stash_keys;
+        Object old_stash_values[] = this.stash_values;
+        int old_stash_hashes[] = this.stash_hashes;
+        int old_stash_count = this.stash_count;
+
+        this.init(length);
+        for(int i = 0; i < old_keys.length; i++)
+        {
+            if(old_keys[i] != null) { this.place_or_stash(old_keys[i], old_values[i], old_hashes[i]); }
+        }
+        for(int s = 0; s < old_stash_count; s++)
+        {
+            this.place_or_stash(old_stash_keys[s], old_stash_values[s], old_stash_hashes[s]);
+        }
+        this.stash_limit = Math.max(STASH_SIZE, 2 * this.stash_count);
+        this.modCount++;
+    }
+
+    /*
+     * Coloca el par en su vecindario o, si no hay lugar, en el depósito.
+     */
+    private void place_or_stash(Object key, Object value, int h)
+    {
+        if(!this.place(key, value, h)) { this.stash(key, value, h); }
+    }
+
+    /*
+     * Serializa la tabla: los atributos no transient (capacidad inicial y
+     * factor de carga), la cantidad de pares y los pares.
+     */
+    private void writeObject(ObjectOutputStream s) throws IOException
+    {
+        s.defaultWriteObject();
+        this.write_pairs(s);
+    }
+
+    /*
+     * Reconstruye la tabla a partir de lo escrito por writeObject().
+     */
+    private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException
+    {
+        s.defaultReadObject();
+        if(!(this.load_factor > 0 && this.load_factor <= 0.95f))
+            throw new InvalidObjectException("factor de carga inválido: " + this.load_factor);
+
+        int n = read_count(s);
+        this.init(this.length_for(Math.max(n, this.initial_capacity)));
+        this.read_pairs(s, n);
+    }
+}
@@ -0,0 +1,652 @@
+package clases;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.*;
+
+
+/**
+ * Tabla hash de claves int: la especialización de TSBHashTableDA para claves
+ * enteras. Las claves se guardan en un int[] y get(int), put(int, V),
+ * remove(int) y containsKey(int) no crean ningún Integer: no hay una
+ * asignación por operación ni hay que seguir una referencia para comparar
+ * claves. Tampoco hace falta un arreglo de hashes: comparar claves int es
+ * tan barato como comparar sus hashes.
+ *
+ * El esquema es el mismo que el de TSBHashTableDA en PRIME_MODE: tamaño
+ * primo, índice inicial igual al resto de la clave (sin signo) por el tamaño,
+ * exploración cuadrática, casillas OPEN, CLOSED o TOMBSTONE, factor de carga
+ * de hasta 0.5 (las TOMBSTONE cuentan como ocupadas), limpieza sin cambiar
+ * el tamaño cuando las TOMBSTONE superan el 25% de la tabla y rehash al
+ * primer primo mayor o igual al 150% del tamaño anterior. Como el hashCode()
+ * de un Integer es su valor, cada clave queda en la misma casilla que en un
+ * TSBHashTableDA de igual tamaño.
+ *
+ * Para usar la tabla donde se espera un Map, asMap() retorna una vista
+ * Map&lt;Integer, V&gt; respaldada por la tabla (que sí crea un Integer por
+ * clave que retorna). No se admiten valores null.
+ *
+ * @author Grupo 31 - Falco, Gonzalo - Marzo, Lautaro - Pesetti, Sabrina - Vela, Azul
+ * @version Octubre de 2022.
+ * @param <V> el tipo de los objetos que serán los valores de la tabla.
+ */
+public class TSBIntHashTableDA<V> implements Serializable
+{
+    //************************ Constantes (privadas o públicas).
+
+    // estados en los que puede quedar una casilla...
+    private static final byte OPEN = 0;
+    private static final byte CLOSED = 1;
+    private static final byte TOMBSTONE = 2;
+
+    // proporción de casillas TOMBSTONE a partir de la cual se limpia la tabla...
+    private static final float TOMBSTONE_THRESHOLD = 0.25f;
+
+
+    //************************ Atributos privados (estructurales).
+
+    // la tabla hash: arreglos paralelos de claves, valores y estados...
+    private transient int keys[];
+    private transient Object values[];
+    private transient byte states[];
+
+    // el tamaño inicial de la tabla (tamaño con el que fue creada)...
+    private int initial_capacity;
+
+    // el factor de carga para calcular si hace falta un rehashing...
+    private float load_factor;
+
+    // la cantidad de objetos y de casillas TOMBSTONE...
+    private transient int count;
+    private transient int tombstones;
+
+    // control de iteración fail-fast (de la vista asMap())...
+    private transient int modCount;
+
+    // la vista Map (se crea la primera vez que se pide)...
+    private transient Map<Integer, V> map_view = null;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea una tabla vacía, con capacidad inicial igual a 11 y con factor de
+     * carga igual a 0.5f.
+     */
+    public TSBIntHashTableDA()
+    {
+        this(11, 0.5f);
+    }
+
+    /**
+     * Crea una tabla vacía, con la capacidad inicial indicada y con factor de
+     * carga igual a 0.5f.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     */
+    public TSBIntHashTableDA(int initial_capacity)
+    {
+        this(initial_capacity, 0.5f);
+    }
+
+    /**
+     * Crea una tabla vacía, con la capacidad inicial y el factor de carga
+     * indicados. Si la capacidad inicial es menor o igual a 0, la tabla será
+     * creada de tamaño 11; si no es un número primo, se ajustará al primer
+     * primo mayor. Si el factor de carga es negativo, cero o mayor a 0.5, se
+     * ajustará a 0.5f.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     * @param load_factor el factor de carga de la tabla.
+     */
+    public TSBIntHashTableDA(int initial_capacity, float load_factor)
+    {
+        if(load_factor <= 0 || load_factor > 0.5) { load_factor = 0.5f; }
+        if(initial_capacity <= 0) { initial_capacity = 11; }
+        else if(!TSBHashTableDA.isPrime(initial_capacity)) { initial_capacity = TSBHashTableDA.nextPrime(initial_capacity); }
+
+        this.initial_capacity = initial_capacity;
+        this.load_factor = load_factor;
+        this.init(initial_capacity);
+    }
+
+
+    //************************ Operaciones con claves int.
+
+    /**
+     * Retorna la cantidad de elementos contenidos en la tabla.
+     * @return la cantidad de elementos de la tabla.
+     */
+    public int size()
+    {
+        return this.count;
+    }
+
+    /**
+     * Determina si la tabla está vacía (no contiene ningún elemento).
+     * @return true si la tabla está vacía.
+     */
+    public boolean isEmpty()
+    {
+        return this.count == 0;
+    }
+
+    /**
+     * Determina si la clave key está en la tabla.
+     * @param key la clave a verificar.
+     * @return true si la clave está en la tabla.
+     */
+    public boolean containsKey(int key)
+    {
+        return this.search_for_index(key) != -1;
+    }
+
+    /**
+     * Determina si alguna clave de la tabla está asociada al objeto value.
+     * @param value el objeto a buscar.
+     * @return true si alguna clave está asociada a value.
+     */
+    public boolean containsValue(Object value)
+    {
+        if(value == null) { return false; }
+        for(int i = 0; i < this.states.length; i++)
+        {
+            if(this.states[i] == CLOSED && value.equals(this.values[i])) { return true; }
+        }
+        return false;
+    }
+
+    /**
+     * Retorna el objeto al cual está asociada la clave key en la tabla, o null
+     * si la tabla no contiene ningún objeto asociado a esa clave.
+     * @param key la clave a buscar.
+     * @return el objeto asociado a la clave, o null si no está.
+     */
+    public V get(int key)
+    {
+        int pos = this.search_for_index(key);
+        return (pos != -1) ? (V) this.values[pos] : null;
+    }
+
+    /**
+     * Retorna el objeto al cual está asociada la clave key en la tabla, o
+     * default_value si la tabla no contiene esa clave.
+     * @param key la clave a buscar.
+     * @param default_value el objeto a retornar si la clave no está.
+     * @return el objeto asociado a la clave, o default_value si no está.
+     */
+    public V getOrDefault(int key, V default_value)
+    {
+        int pos = this.search_for_index(key);
+        return (pos != -1) ? (V) this.values[pos] : default_value;
+    }
+
+    /**
+     * Asocia el valor value con la clave key. Si la tabla contenía un valor
+     * para esa clave, el valor anterior es reemplazado por el nuevo (y el
+     * tamaño de la tabla no cambia). Una sola exploración encuentra la clave
+     * o la casilla donde insertarla.
+     * @param key la clave.
+     * @param value el objeto a asociar con la clave.
+     * @return el objeto anteriormente asociado a la clave, o null si la clave
+     *         no estaba en la tabla.
+     * @throws NullPointerException si value es null.
+     */
+    public V put(int key, V value)
+    {
+        if(value == null) throw new NullPointerException("put(): parámetro null");
+
+        int x = this.find_slot(key);
+        if(x >= 0)
+        {
+            V old = (V) this.values[x];
+            this.values[x] = value;
+            return old;
+        }
+
+        this.insert(-x - 1, key, value);
+        return null;
+    }
+
+    /**
+     * Elimina de la tabla la clave key (y su valor asociado). El método no
+     * hace nada si la clave no está en la tabla.
+     * @param key la clave a eliminar.
+     * @return el objeto al cual la clave estaba asociada, o null si la clave
+     *         no estaba en la tabla.
+     */
+    public V remove(int key)
+    {
+        int pos = this.search_for_index(key);
+        if(pos == -1) { return null; }
+
+        V old = (V) this.values[pos];
+        this.remove_at(pos);
+        return old;
+    }
+
+    /**
+     * Elimina el contenido de la tabla, y la deja con su tamaño inicial.
+     */
+    public void clear()
+    {
+        this.init(this.initial_capacity);
+        this.modCount++;
+    }
+
+
+    //************************ Métodos específicos de la clase.
+
+    /**
+     * Retorna una vista Map&lt;Integer, V&gt; de la tabla. La vista está
+     * respaldada por la tabla: los cambios en una se reflejan en la otra. Sus
+     * operaciones desempaquetan la clave y delegan en las operaciones int de
+     * la tabla; sus iteradores son fail-fast y admiten remove().
+     * @return la vista Map de la tabla.
+     */
+    public Map<Integer, V> asMap()
+    {
+        if(this.map_view == null) { this.map_view = new MapView(); }
+        return this.map_view;
+    }
+
+    /**
+     * @return la cantidad de casillas de la tabla.
+     */
+    public int capacity()
+    {
+        return this.states.length;
+    }
+
+    /**
+     * Retorna la proporción de casillas de la tabla que están en estado
+     * TOMBSTONE, como un número entre 0 y 1.
+     * @return la proporción de casillas TOMBSTONE.
+     */
+    public float tombstoneRatio()
+    {
+        return (float) this.tombstones / this.states.length;
+    }
+
+    /**
+     * Reorganiza el contenido de la tabla sin cambiar su tamaño, eliminando
+     * todas las casillas TOMBSTONE. Se invoca automaticamente al insertar una
+     * clave nueva si las casillas TOMBSTONE superan el 25% de la tabla.
+     */
+    public void compact()
+    {
+        this.resize(this.states.length);
+    }
+
+    @Override
+    public String toString()
+    {
+        return this.asMap().toString();
+    }
+
+
+    //************************ Métodos privados.
+
+    /*
+     * Crea una tabla vacía de length casillas (todas en OPEN).
+     */
+    private void init(int length)
+    {
+        this.keys = new int[length];
+        this.values = new Object[length];
+        this.states = new byte[length];
+        this.count = 0;
+        this.tombstones = 0;
+    }
+
+    /*
+     * Función hash: el resto del valor de la clave (sin signo) por el tamaño
+     * de la tabla, igual que TSBHashTableDA en PRIME_MODE con un Integer.
+     */
+    private int h(int key)
+    {
+        return (key & 0x7fffffff) % this.states.length;
+    }
+
+    /*
+     * Busca la clave key y retorna su casilla, o -1 si no está. Las casillas
+     * TOMBSTONE no cortan la búsqueda: la corta la primera casilla OPEN.
+     */
+    private int search_for_index(int key)
+    {
+        int n = this.states.length;
+        int y = this.h(key);
+        for(int j = 1; j <= n; j++)
+        {
+            byte state = this.states[y];
+            if(state == OPEN) { return -1; }
+            if(state == CLOSED && this.keys[y] == key) { return y; }
+            y = TSBHashTableDA.quadratic_probe(y, j, n);
+        }
+        return -1;
+    }
+
+    /*
+     * Como search_for_index(), pero si no encuentra la clave retorna
+     * -(pos + 1), donde pos es la primera casilla TOMBSTONE de la secuencia
+     * de exploración o, si no hubo ninguna, la casilla OPEN que cortó la
+     * búsqueda.
+     */
+    private int find_slot(int key)
+    {
+        int n = this.states.length;
+        int y = this.h(key);
+        int free = -1;
+        for(int j = 1; j <= n; j++)
+        {
+            byte state = this.states[y];
+            if(state == OPEN) { return -((free != -1) ? free : y) - 1; }
+            if(state == TOMBSTONE)
+            {
+                if(free == -1) { free = y; }
+            }
+            else if(this.keys[y] == key) { return y; }
+            y = TSBHashTableDA.quadratic_probe(y, j, n);
+        }
+        return -((free != -1) ? free : this.search_for_OPEN(this.h(key))) - 1;
+    }
+
+    /*
+     * Retorna la primera casilla abierta de la secuencia de exploración que
+     * empieza en la casilla y.
+     */
+    private int search_for_OPEN(int y)
+    {
+        int n = this.states.length;
+        for(int j = 1; this.states[y] != OPEN; j++)
+        {
+            y = TSBHashTableDA.quadratic_probe(y, j, n);
+        }
+        return y;
+    }
+
+    /*
+     * Inserta el par (key, value) en la casilla pos, obtenida con find_slot()
+     * para una clave que no está en la tabla. Si pos es una TOMBSTONE se
+     * reutiliza; si es una casilla OPEN, primero se limpia la tabla (si hay
+     * demasiadas tumbas) o se agranda (si con el par nuevo se superaría el
+     * factor de carga), y en ese caso se busca la casilla abierta en la tabla
+     * nueva. Como en TSBHashTableDA, se controla la carga que tendrá la tabla
+     * después de insertar: la exploración cuadrática visita sólo (n + 1) / 2
+     * casillas, que con un par de más podrían quedar todas ocupadas.
+     */
+    private void insert(int pos, int key, V value)
+    {
+        if(this.states[pos] == TOMBSTONE)
+        {
+            this.tombstones--;
+        }
+        else if(this.tombstones > TOMBSTONE_THRESHOLD * this.states.length || this.next_load_level() > this.load_factor)
+        {
+            if(this.tombstones > TOMBSTONE_THRESHOLD * this.states.length) { this.compact(); }
+            while(this.next_load_level() > this.load_factor) { this.rehash(); }
+            pos = this.search_for_OPEN(this.h(key));
+        }
+
+        this.keys[pos] = key;
+        this.values[pos] = value;
+        this.states[pos] = CLOSED;
+        this.count++;
+        this.modCount++;
+    }
+
+    /*
+     * Libera la casilla cerrada pos: la marca como TOMBSTONE y suelta la
+     * referencia al valor.
+     */
+    private void remove_at(int pos)
+    {
+        this.values[pos] = null;
+        this.states[pos] = TOMBSTONE;
+        this.count--;
+        this.tombstones++;
+        this.modCount++;
+    }
+
+    /*
+     * Nivel de carga que tendría la tabla con un par más: las TOMBSTONE
+     * cuentan como ocupadas.
+     */
+    private float next_load_level()
+    {
+        return (float) (this.count + this.tombstones + 1) / this.states.length;
+    }
+
+    /*
+     * Incrementa el tamaño de la tabla al primer primo mayor o igual al 150%
+     * del anterior, y reorganiza su contenido.
+     */
+    private void rehash()
+    {
+        this.resize(TSBHashTableDA.nextPrime((int) (this.states.length * 1.5f)));
+    }
+
+    /*
+     * Crea arreglos nuevos de tamaño new_length y redistribuye en ellos todos
+     * los pares. Las casillas TOMBSTONE no se copian.
+     */
+    private void resize(int new_length)
+    {
+        int old_keys[] = this.keys;
+        Object old_values[] = this.values;
+        byte old_states[] = this.states;
+        int old_count = this.count;
+
+        this.init(new_length);
+        for(int i = 0; i < old_states.length; i++)
+        {
+            if(old_states[i] != CLOSED) { continue; }
+
+            int y = this.search_for_OPEN(this.h(old_keys[i]));
+            this.keys[y] = old_keys[i];
+            this.values[y] = old_values[i];
+            this.states[y] = CLOSED;
+        }
+        this.count = old_count;
+        this.modCount++;
+    }
+
+    /*
+     * Serializa la tabla: los atributos no transient (capacidad inicial y
+     * factor de carga), la cantidad de pares y luego cada clave seguida de su
+     * valor.
+     */
+    private void writeObject(ObjectOutputStream s) throws IOException
+    {
+        s.defaultWriteObject();
+        s.writeInt(this.count);
+        for(int i = 0; i < this.states.length; i++)
+        {
+            if(this.states[i] == CLOSED)
+            {
+                s.writeInt(this.keys[i]);
+                s.writeObject(this.values[i]);
+            }
+        }
+    }
+
+    /*
+     * Reconstruye la tabla a partir de lo escrito por writeObject(), con
+     * capacidad suficiente para todos los pares (sin rehash durante la carga).
+     */
+    private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException
+    {
+        s.defaultReadObject();
+        if(!(this.load_factor > 0 && this.load_factor <= 0.5f))
+            throw new InvalidObjectException("factor de carga inválido: " + this.load_factor);
+
+        int n = s.readInt();
+        if(n < 0) throw new InvalidObjectException("cantidad de pares inválida: " + n);
+
+        int length = (int) Math.min(1 << 30, Math.max(this.initial_capacity, (long) (n / this.load_factor) + 1));
+        this.init(TSBHashTableDA.isPrime(length) ? length : TSBHashTableDA.nextPrime(length));
+        for(int i = 0; i < n; i++)
+        {
+            int key = s.readInt();
+            V value = (V) s.readObject();
+            if(value == null) throw new InvalidObjectException("valor null");
+            this.put(key, value);
+        }
+    }
+
+
+    //************************ Clases Internas.
+
+    /*
+     * Vista Map<Integer, V> de la tabla. Una clave que no es un Integer
+     * (incluido null) nunca está en la tabla.
+     */
+    private class MapView extends AbstractMap<Integer, V>
+    {
+        // la vista de pares (se crea la primera vez que se pide)...
+        private Set<Map.Entry<Integer, V>> entry_set = null;
+
+        @Override
+        public int size()
+        {
+            return count;
+        }
+
+        @Override
+        public boolean containsKey(Object key)
+        {
+            return (key instanceof Integer) && TSBIntHashTableDA.this.containsKey((Integer) key);
+        }
+
+        @Override
+        public boolean containsValue(Object value)
+        {
+            return TSBIntHashTableDA.this.containsValue(value);
+        }
+
+        @Override
+        public V get(Object key)
+        {
+            return (key instanceof Integer) ? TSBIntHashTableDA.this.get((Integer) key) : null;
+        }
+
+        @Override
+        public V getOrDefault(Object key, V default_value)
+        {
+            return (key instanceof Integer) ? TSBIntHashTableDA.this.getOrDefault((Integer) key, default_value) : default_value;
+        }
+
+        @Override
+        public V put(Integer key, V value)
+        {
+            return TSBIntHashTableDA.this.put(key, value);
+        }
+
+        @Override
+        public V remove(Object key)
+        {
+            return (key instanceof Integer) ? TSBIntHashTableDA.this.remove((Integer) key) : null;
+        }
+
+        @Override
+        public void clear()
+        {
+            TSBIntHashTableDA.this.clear();
+        }
+
+        @Override
+        public Set<Map.Entry<Integer, V>> entrySet()
+        {
+            if(this.entry_set == null)
+            {
+                this.entry_set = new AbstractSet<Map.Entry<Integer, V>>()
+                {
+                    @Override
+                    public Iterator<Map.Entry<Integer, V>> iterator()
+                    {
+                        return new EntryIterator();
+                    }
+
+                    @Override
+                    public int size()
+                    {
+                        return count;
+                    }
+
+                    @Override
+                    public void clear()
+                    {
+                        TSBIntHashTableDA.this.clear();
+                    }
+                };
+            }
+            return this.entry_set;
+        }
+    }
+
+    /*
+     * Iterador de los pares de la tabla, en orden de casillas. remove() deja
+     * una TOMBSTONE (sin limpiar la tabla), así que ninguna casilla cambia de
+     * lugar mientras dura la iteración.
+     */
+    private class EntryIterator implements Iterator<Map.Entry<Integer, V>>
+    {
+        // la casilla a partir de la cual buscar el próximo par...
+        private int next_slot;
+
+        // la casilla retornada por la última invocación a next(), o -1...
+        private int current_slot = -1;
+
+        // el valor que debería tener modCount de la tabla...
+        private int expected_modCount = modCount;
+
+        @Override
+        public boolean hasNext()
+        {
+            check_modCount();
+            while(next_slot < states.length && states[next_slot] != CLOSED) { next_slot++; }
+            return next_slot < states.length;
+        }
+
+        @Override
+        public Map.Entry<Integer, V> next()
+        {
+            if(!hasNext()) { throw new NoSuchElementException("next(): no existe el elemento pedido..."); }
+
+            current_slot = next_slot++;
+            return new AbstractMap.SimpleEntry<Integer, V>(keys[current_slot], (V) values[current_slot])
+            {
+                private final int slot = current_slot;
+
+                @Override
+                public V setValue(V value)
+                {
+                    if(value == null) throw new NullPointerException("setValue(): parámetro null");
+                    check_modCount();
+                    values[slot] = value;
+                    return super.setValue(value);
+                }
+            };
+        }
+
+        @Override
+        public void remove()
+        {
+            if(current_slot == -1) { throw new IllegalStateException("remove(): debe invocar a next() antes de remove()..."); }
+            check_modCount();
+
+            remove_at(current_slot);
+            current_slot = -1;
+            expected_modCount = modCount;
+        }
+
+        private void check_modCount()
+        {
+            if(modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("la tabla fue modificada durante la iteración");
+            }
+        }
+    }
+}
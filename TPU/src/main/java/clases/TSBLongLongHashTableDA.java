@@ -0,0 +1,526 @@
+package clases;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ConcurrentModificationException;
+
+
+/**
+ * Tabla hash de claves long a valores long, para contadores y traducción de
+ * ids. Las claves y los valores se guardan en dos long[] y el estado de cada
+ * casilla en dos mapas de bits (casilla ocupada y casilla TOMBSTONE), de
+ * forma que cada casilla ocupa 16 bytes más 2 bits, sin ningún objeto por
+ * par: un TSBHashTableDA&lt;Long, Long&gt; necesita dos Long (16 bytes cada
+ * uno) más las casillas de referencias, hashes y estados de una tabla con
+ * factor de carga 0.5. Ningún valor de clave queda reservado: los mapas de
+ * bits distinguen las casillas libres de las ocupadas.
+ *
+ * El tamaño es una potencia de dos, el índice inicial se obtiene mezclando
+ * los bits de la clave (finalizador de MurmurHash3 de 64 bits) y la
+ * exploración es triangular, como en TSBHashTableDA en POWER_OF_TWO_MODE. El
+ * factor de carga es 0.75 por defecto (las TOMBSTONE cuentan como
+ * ocupadas); cuando las TOMBSTONE superan el 25% de la tabla, una inserción
+ * la limpia sin cambiar el tamaño.
+ *
+ * Como ningún long queda libre para indicar "no está", los métodos que
+ * buscan una clave reciben el valor a retornar si la clave no está
+ * (getOrDefault()) o retornan un boolean (containsKey(), remove()).
+ *
+ * @author Grupo 31 - Falco, Gonzalo - Marzo, Lautaro - Pesetti, Sabrina - Vela, Azul
+ * @version Octubre de 2022.
+ */
+public class TSBLongLongHashTableDA implements Serializable
+{
+    //************************ Constantes (privadas o públicas).
+
+    // proporción de casillas TOMBSTONE a partir de la cual se limpia la tabla...
+    private static final float TOMBSTONE_THRESHOLD = 0.25f;
+
+
+    //************************ Atributos privados (estructurales).
+
+    // la tabla hash: claves, valores y los mapas de bits de casillas
+    // ocupadas y TOMBSTONE (el bit i del mapa corresponde a la casilla i)...
+    private transient long keys[];
+    private transient long values[];
+    private transient long closed[];
+    private transient long deleted[];
+
+    // máscara para obtener el índice de una casilla (tamaño - 1)...
+    private transient int mask;
+
+    // el tamaño inicial de la tabla y el factor de carga...
+    private int initial_capacity;
+    private float load_factor;
+
+    // la cantidad de pares y de casillas TOMBSTONE...
+    private transient int count;
+    private transient int tombstones;
+
+    // control de modificaciones durante forEach()...
+    private transient int modCount;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea una tabla vacía, con capacidad inicial para 16 pares y factor de
+     * carga 0.75f.
+     */
+    public TSBLongLongHashTableDA()
+    {
+        this(16, 0.75f);
+    }
+
+    /**
+     * Crea una tabla vacía con la capacidad inicial indicada y factor de
+     * carga 0.75f.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     */
+    public TSBLongLongHashTableDA(int initial_capacity)
+    {
+        this(initial_capacity, 0.75f);
+    }
+
+    /**
+     * Crea una tabla vacía con la capacidad inicial y el factor de carga
+     * indicados. Si la capacidad es menor o igual a cero, se usa 16. Si el
+     * factor de carga no es mayor a 0 y menor o igual a 0.9f, se usa 0.75f.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     * @param load_factor el factor de carga de la tabla.
+     */
+    public TSBLongLongHashTableDA(int initial_capacity, float load_factor)
+    {
+        if(initial_capacity <= 0) { initial_capacity = 16; }
+        if(load_factor <= 0 || load_factor > 0.9f) { load_factor = 0.75f; }
+
+        this.initial_capacity = initial_capacity;
+        this.load_factor = load_factor;
+        this.init(this.length_for(initial_capacity));
+    }
+
+
+    //************************ Operaciones de la tabla.
+
+    /**
+     * Retorna la cantidad de pares contenidos en la tabla.
+     * @return la cantidad de pares de la tabla.
+     */
+    public int size()
+    {
+        return this.count;
+    }
+
+    /**
+     * Determina si la tabla está vacía (no contiene ningún par).
+     * @return true si la tabla está vacía.
+     */
+    public boolean isEmpty()
+    {
+        return this.count == 0;
+    }
+
+    /**
+     * Determina si la clave key está en la tabla.
+     * @param key la clave a verificar.
+     * @return true si la clave está en la tabla.
+     */
+    public boolean containsKey(long key)
+    {
+        return this.search_for_index(key) != -1;
+    }
+
+    /**
+     * Retorna el valor asociado a la clave key, o default_value si la clave
+     * no está en la tabla.
+     * @param key la clave a buscar.
+     * @param default_value el valor a retornar si la clave no está.
+     * @return el valor asociado a la clave, o default_value si no está.
+     */
+    public long getOrDefault(long key, long default_value)
+    {
+        int pos = this.search_for_index(key);
+        return (pos != -1) ? this.values[pos] : default_value;
+    }
+
+    /**
+     * Asocia el valor value con la clave key. Si la clave ya estaba en la
+     * tabla, reemplaza su valor.
+     * @param key la clave.
+     * @param value el valor.
+     * @return el valor anterior asociado a key, o 0 si la clave no estaba
+     *         (para distinguir ambos casos, usar containsKey()).
+     */
+    public long put(long key, long value)
+    {
+        int x = this.find_slot(key);
+        if(x >= 0)
+        {
+            long old = this.values[x];
+            this.values[x] = value;
+            return old;
+        }
+
+        this.insert(-x - 1, key, value);
+        return 0;
+    }
+
+    /**
+     * Suma delta al valor asociado a la clave key, con una sola exploración.
+     * Si la clave no estaba, la agrega con valor delta (como si su valor
+     * anterior fuera 0).
+     * @param key la clave.
+     * @param delta el valor a sumar.
+     * @return el valor asociado a key después de la suma.
+     */
+    public long addTo(long key, long delta)
+    {
+        int x = this.find_slot(key);
+        if(x >= 0)
+        {
+            return this.values[x] += delta;
+        }
+
+        this.insert(-x - 1, key, delta);
+        return delta;
+    }
+
+    /**
+     * Elimina de la tabla la clave key (y su valor asociado).
+     * @param key la clave a eliminar.
+     * @return true si la clave estaba en la tabla.
+     */
+    public boolean remove(long key)
+    {
+        int pos = this.search_for_index(key);
+        if(pos == -1) { return false; }
+
+        clear_bit(this.closed, pos);
+        set_bit(this.deleted, pos);
+        this.count--;
+        this.tombstones++;
+        this.modCount++;
+        return true;
+    }
+
+    /**
+     * Elimina todos los pares de la tabla, y la deja con su tamaño inicial.
+     */
+    public void clear()
+    {
+        this.init(this.length_for(this.initial_capacity));
+        this.modCount++;
+    }
+
+    /**
+     * Invoca a action con cada par de la tabla, en orden de casillas, sin
+     * crear ningún objeto. La acción puede cambiar valores con put() o
+     * addTo() sobre claves que ya están, pero no agregar ni eliminar claves.
+     * @param action la acción a realizar con cada par.
+     * @throws NullPointerException si action es null.
+     * @throws ConcurrentModificationException si action agregó o eliminó
+     *         claves.
+     */
+    public void forEach(LongLongConsumer action)
+    {
+        if(action == null) throw new NullPointerException("forEach(): parámetro null");
+
+        int expected_modCount = this.modCount;
+        long k[] = this.keys;
+        long v[] = this.values;
+        long c[] = this.closed;
+        for(int w = 0; w < c.length; w++)
+        {
+            for(long bits = c[w]; bits != 0; bits &= bits - 1)
+            {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                action.accept(k[i], v[i]);
+            }
+            if(this.modCount != expected_modCount)
+                throw new ConcurrentModificationException("la tabla fue modificada durante forEach()");
+        }
+    }
+
+
+    //************************ Métodos específicos de la clase.
+
+    /**
+     * @return la cantidad de casillas de la tabla.
+     */
+    public int capacity()
+    {
+        return this.keys.length;
+    }
+
+    /**
+     * @return el factor de carga de la tabla.
+     */
+    public float getLoadFactor()
+    {
+        return this.load_factor;
+    }
+
+    /**
+     * Reorganiza el contenido de la tabla sin cambiar su tamaño, eliminando
+     * todas las casillas TOMBSTONE.
+     */
+    public void compact()
+    {
+        this.resize(this.keys.length);
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder cad = new StringBuilder("{");
+        this.forEach((k, v) ->
+        {
+            if(cad.length() > 1) { cad.append(", "); }
+            cad.append(k).append('=').append(v);
+        });
+        return cad.append('}').toString();
+    }
+
+
+    //************************ Métodos privados.
+
+    /*
+     * Crea una tabla vacía de length casillas.
+     */
+    private void init(int length)
+    {
+        this.keys = new long[length];
+        this.values = new long[length];
+        this.closed = new long[(length + 63) >>> 6];
+        this.deleted = new long[(length + 63) >>> 6];
+        this.mask = length - 1;
+        this.count = 0;
+        this.tombstones = 0;
+    }
+
+    /*
+     * Retorna el tamaño de tabla (potencia de dos) para guardar n pares sin
+     * superar el factor de carga.
+     */
+    private int length_for(int n)
+    {
+        long needed = (long) Math.ceil(n / this.load_factor) + 1;
+        if(needed > (1 << 30)) throw new IllegalStateException("capacidad excesiva: " + n);
+
+        int length = 2;
+        while(length < needed) { length <<= 1; }
+        return length;
+    }
+
+    /*
+     * Mezclador de bits (finalizador de MurmurHash3 de 64 bits): cada bit de
+     * la clave influye en los bits bajos, que son los que toma la máscara.
+     */
+    private static long spread(long k)
+    {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    /*
+     * Función hash: índice inicial de la clave key.
+     */
+    private int h(long key)
+    {
+        return (int) spread(key) & this.mask;
+    }
+
+    /*
+     * Lectura y escritura del bit i de un mapa de bits.
+     */
+    private static boolean bit(long map[], int i)
+    {
+        return (map[i >>> 6] & (1L << i)) != 0;
+    }
+
+    private static void set_bit(long map[], int i)
+    {
+        map[i >>> 6] |= 1L << i;
+    }
+
+    private static void clear_bit(long map[], int i)
+    {
+        map[i >>> 6] &= ~(1L << i);
+    }
+
+    /*
+     * Busca la clave key y retorna su casilla, o -1 si no está. Las casillas
+     * TOMBSTONE no cortan la búsqueda: la corta la primera casilla libre.
+     */
+    private int search_for_index(long key)
+    {
+        int y = this.h(key);
+        for(int j = 1; j <= this.keys.length; j++)
+        {
+            if(bit(this.closed, y))
+            {
+                if(this.keys[y] == key) { return y; }
+            }
+            else if(!bit(this.deleted, y)) { return -1; }
+            y = (y + j) & this.mask;
+        }
+        return -1;
+    }
+
+    /*
+     * Como search_for_index(), pero si no encuentra la clave retorna
+     * -(pos + 1), donde pos es la primera casilla TOMBSTONE de la secuencia
+     * de exploración o, si no hubo ninguna, la casilla libre que cortó la
+     * búsqueda.
+     */
+    private int find_slot(long key)
+    {
+        int y = this.h(key);
+        int free = -1;
+        for(int j = 1; j <= this.keys.length; j++)
+        {
+            if(bit(this.closed, y))
+            {
+                if(this.keys[y] == key) { return y; }
+            }
+            else if(!bit(this.deleted, y)) { return -((free != -1) ? free : y) - 1; }
+            else if(free == -1) { free = y; }
+            y = (y + j) & this.mask;
+        }
+        return -((free != -1) ? free : this.search_for_OPEN(this.h(key))) - 1;
+    }
+
+    /*
+     * Retorna la primera casilla libre (ni ocupada ni TOMBSTONE) de la
+     * secuencia de exploración que empieza en la casilla y.
+     */
+    private int search_for_OPEN(int y)
+    {
+        for(int j = 1; bit(this.closed, y) || bit(this.deleted, y); j++)
+        {
+            y = (y + j) & this.mask;
+        }
+        return y;
+    }
+
+    /*
+     * Inserta el par en la casilla pos, obtenida con find_slot() para una
+     * clave que no está en la tabla. Si pos es una TOMBSTONE se reutiliza;
+     * si no, primero se limpia la tabla (si hay demasiadas tumbas) o se
+     * agranda (si se alcanzó el factor de carga), y en ese caso se busca la
+     * casilla libre en la tabla nueva.
+     */
+    private void insert(int pos, long key, long value)
+    {
+        if(bit(this.deleted, pos))
+        {
+            clear_bit(this.deleted, pos);
+            this.tombstones--;
+        }
+        else if(this.count + this.tombstones + 1 > this.load_factor * this.keys.length)
+        {
+            int length = this.keys.length;
+            if(this.tombstones <= TOMBSTONE_THRESHOLD * length) { length <<= 1; }
+            this.resize(length);
+            pos = this.search_for_OPEN(this.h(key));
+        }
+
+        this.keys[pos] = key;
+        this.values[pos] = value;
+        set_bit(this.closed, pos);
+        this.count++;
+        this.modCount++;
+    }
+
+    /*
+     * Crea una tabla de length casillas y reinserta en ella todos los pares.
+     * Las casillas TOMBSTONE no se copian.
+     */
+    private void resize(int length)
+    {
+        long old_keys[] = this.keys;
+        long old_values[] = this.values;
+        long old_closed[] = this.closed;
+        int old_count = this.count;
+
+        this.init(length);
+        for(int w = 0; w < old_closed.length; w++)
+        {
+            for(long bits = old_closed[w]; bits != 0; bits &= bits - 1)
+            {
+                int i = (w << 6) + Long.numberOfTrailingZeros(bits);
+                int y = this.search_for_OPEN(this.h(old_keys[i]));
+                this.keys[y] = old_keys[i];
+                this.values[y] = old_values[i];
+                set_bit(this.closed, y);
+            }
+        }
+        this.count = old_count;
+        this.modCount++;
+    }
+
+    /*
+     * Serializa la tabla: los atributos no transient (capacidad inicial y
+     * factor de carga), la cantidad de pares y luego cada clave seguida de su
+     * valor.
+     */
+    private void writeObject(ObjectOutputStream s) throws IOException
+    {
+        s.defaultWriteObject();
+        s.writeInt(this.count);
+        for(int i = 0; i < this.keys.length; i++)
+        {
+            if(bit(this.closed, i))
+            {
+                s.writeLong(this.keys[i]);
+                s.writeLong(this.values[i]);
+            }
+        }
+    }
+
+    /*
+     * Reconstruye la tabla a partir de lo escrito por writeObject(), con
+     * capacidad suficiente para todos los pares.
+     */
+    private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException
+    {
+        s.defaultReadObject();
+        if(!(this.load_factor > 0 && this.load_factor <= 0.9f))
+            throw new InvalidObjectException("factor de carga inválido: " + this.load_factor);
+
+        int n = s.readInt();
+        if(n < 0) throw new InvalidObjectException("cantidad de pares inválida: " + n);
+
+        this.init(this.length_for(Math.max(n, this.initial_capacity)));
+        for(int i = 0; i < n; i++)
+        {
+            long key = s.readLong();
+            this.put(key, s.readLong());
+        }
+    }
+
+
+    //************************ Clases Internas.
+
+    /**
+     * Acción que recibe un par (clave, valor) de tipo long, sin crear
+     * objetos (ver forEach()).
+     */
+    @FunctionalInterface
+    public interface LongLongConsumer
+    {
+        /**
+         * Realiza la acción con un par de la tabla.
+         * @param key la clave.
+         * @param value el valor.
+         */
+        void accept(long key, long value);
+    }
+}
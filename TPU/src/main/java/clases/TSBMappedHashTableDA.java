@@ -0,0 +1,871 @@
+package clases;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+
+/**
+ * Tabla hash con direccionamiento abierto guardada en un archivo mapeado en
+ * memoria: el contenido persiste entre ejecuciones, y reabrir la tabla no
+ * requiere volver a insertar los pares.
+ *
+ * El archivo comienza con una cabecera de HEADER_BYTES bytes (capacidad,
+ * cantidad de pares y de casillas TOMBSTONE, factor de carga, modo de hash y
+ * ancho de las claves y los valores) seguida de las casillas, todas del mismo
+ * tamaño: [estado][hash][long. clave][long. valor][clave][valor], con
+ * key_width bytes reservados para la clave y value_width para el valor. Las
+ * claves y los valores se serializan con un TSBOffHeapHashTableDA.Codec y no
+ * pueden ocupar más que el ancho reservado. Las casillas se ubican con el
+ * mismo esquema que TSBHashTableDA (PRIME_MODE o POWER_OF_TWO_MODE) y con el
+ * mismo límite de carga: en PRIME_MODE la exploración cuadrática visita sólo
+ * la mitad de las casillas, así que el factor de carga no puede superar 0.5;
+ * en POWER_OF_TWO_MODE la exploración triangular las visita todas y el
+ * factor de carga puede llegar hasta casi 1.
+ *
+ * open() sólo lee la cabecera y mapea el archivo: el sistema operativo trae
+ * a memoria cada página recién cuando una búsqueda la toca. Las búsquedas y
+ * las modificaciones trabajan directamente sobre la región mapeada. El
+ * rehash (y la compactación de casillas TOMBSTONE) escribe la tabla nueva en
+ * un archivo temporal en el mismo directorio y lo mueve sobre el original de
+ * forma atómica, por lo que ante una caída el archivo queda con la tabla
+ * anterior o con la nueva, nunca con una mezcla. flush() fuerza la escritura
+ * a disco de las modificaciones; close() la fuerza y desmapea el archivo.
+ *
+ * La tabla no es segura para el uso concurrente desde varios hilos ni desde
+ * varios procesos. No se admiten claves ni valores null.
+ *
+ * @author Grupo 31 - Falco, Gonzalo - Marzo, Lautaro - Pesetti, Sabrina - Vela, Azul
+ * @version Octubre de 2022.
+ * @param <K> el tipo de los objetos que serán usados como clave en la tabla.
+ * @param <V> el tipo de los objetos que serán los valores de la tabla.
+ */
+public class TSBMappedHashTableDA<K,V> extends AbstractMap<K,V> implements AutoCloseable
+{
+    //************************ Constantes (privadas o públicas).
+
+    // estados en los que puede quedar una casilla...
+    private static final byte OPEN = 0;
+    private static final byte CLOSED = 1;
+    private static final byte TOMBSTONE = 2;
+
+    // identificación del formato del archivo...
+    private static final int MAGIC = 0x54534248;
+    private static final int VERSION = 1;
+
+    /**
+     * Tamaño de la cabecera del archivo, en bytes.
+     */
+    public static final int HEADER_BYTES = 64;
+
+    // posición de cada campo de la cabecera...
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 4;
+    private static final int H_CAPACITY = 8;
+    private static final int H_COUNT = 12;
+    private static final int H_TOMBSTONES = 16;
+    private static final int H_LOAD_FACTOR = 20;
+    private static final int H_HASH_MODE = 24;
+    private static final int H_KEY_WIDTH = 28;
+    private static final int H_VALUE_WIDTH = 32;
+
+    // cabecera de cada casilla: estado (1), hash (4), long. clave (2), long. valor (2)...
+    private static final int S_HASH = 1;
+    private static final int S_KEY_LENGTH = 5;
+    private static final int S_VALUE_LENGTH = 7;
+    private static final int SLOT_HEADER = 9;
+
+    // ancho máximo de una clave o un valor (su longitud se guarda en 2 bytes)...
+    private static final int MAX_WIDTH = 0xffff;
+
+    // tamaño máximo de cada región mapeada (un MappedByteBuffer no puede
+    // superar los 2 GB, así que las casillas se reparten en varias regiones)...
+    private static final int REGION_BYTES = 1 << 30;
+
+    //************************ Atributos privados (estructurales).
+
+    // el archivo y los codecs para serializar claves y valores...
+    private final Path file;
+    private final TSBOffHeapHashTableDA.Codec<K> key_codec;
+    private final TSBOffHeapHashTableDA.Codec<V> value_codec;
+
+    // parámetros de la tabla (copiados de la cabecera)...
+    private final int key_width;
+    private final int value_width;
+    private final int slot_bytes;
+    private final int slots_per_region;
+    private final float load_factor;
+    private final int hash_mode;
+    private int capacity;
+    private int count;
+    private int tombstones;
+
+    // la cabecera y las regiones con las casillas, mapeadas en memoria...
+    private MappedByteBuffer header;
+    private MappedByteBuffer regions[];
+
+    // true si ya se invocó a close()...
+    private boolean closed;
+
+    // control de iteración fail-fast...
+    private int modCount;
+
+    // vista de pares (se crea la primera vez que se pide)...
+    private transient Set<Map.Entry<K,V>> entrySet = null;
+
+
+    //************************ Constructores.
+
+    /*
+     * Crea el objeto a partir de la cabecera de un archivo ya creado y lo
+     * mapea. Se usa desde create() y open().
+     */
+    private TSBMappedHashTableDA(Path file, TSBOffHeapHashTableDA.Codec<K> key_codec, TSBOffHeapHashTableDA.Codec<V> value_codec) throws IOException
+    {
+        this.file = file;
+        this.key_codec = key_codec;
+        this.value_codec = value_codec;
+
+        ByteBuffer h = ByteBuffer.allocate(HEADER_BYTES);
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            while(h.hasRemaining() && channel.read(h) >= 0) { }
+        }
+        if(h.position() < HEADER_BYTES || h.getInt(H_MAGIC) != MAGIC)
+            throw new IOException(file + " no es un archivo de TSBMappedHashTableDA");
+        if(h.getInt(H_VERSION) != VERSION)
+            throw new IOException(file + ": versión de formato no soportada: " + h.getInt(H_VERSION));
+
+        this.key_width = h.getInt(H_KEY_WIDTH);
+        this.value_width = h.getInt(H_VALUE_WIDTH);
+        this.load_factor = h.getFloat(H_LOAD_FACTOR);
+        this.hash_mode = h.getInt(H_HASH_MODE);
+        if(this.hash_mode != TSBHashTableDA.PRIME_MODE && this.hash_mode != TSBHashTableDA.POWER_OF_TWO_MODE)
+            throw new IOException(file + ": modo de hash desconocido: " + this.hash_mode);
+        if(!valid_load_factor(this.load_factor, this.hash_mode))
+            throw new IOException(file + ": factor de carga inválido: " + this.load_factor);
+        this.slot_bytes = SLOT_HEADER + this.key_width + this.value_width;
+        this.slots_per_region = REGION_BYTES / this.slot_bytes;
+        this.map();
+    }
+
+    /**
+     * Crea un archivo nuevo con una tabla vacía y la abre. Si el archivo ya
+     * existe se lanza una excepción.
+     * @param file el archivo a crear.
+     * @param key_codec el codec de las claves.
+     * @param value_codec el codec de los valores.
+     * @param key_width la cantidad máxima de bytes de una clave serializada.
+     * @param value_width la cantidad máxima de bytes de un valor serializado.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     * @param load_factor el factor de carga de la tabla: si es menor o igual
+     *        a 0, mayor a 0.5 en PRIME_MODE o mayor o igual a 1 en
+     *        POWER_OF_TWO_MODE, se usa 0.5f.
+     * @param hash_mode TSBHashTableDA.PRIME_MODE o TSBHashTableDA.POWER_OF_TWO_MODE.
+     * @param <K> el tipo de las claves.
+     * @param <V> el tipo de los valores.
+     * @return la tabla creada.
+     * @throws IOException si no se puede crear el archivo.
+     * @throws IllegalArgumentException si algún ancho o el modo no es válido.
+     */
+    public static <K,V> TSBMappedHashTableDA<K,V> create(Path file, TSBOffHeapHashTableDA.Codec<K> key_codec, TSBOffHeapHashTableDA.Codec<V> value_codec,
+                                                         int key_width, int value_width,
+                                                         int initial_capacity, float load_factor, int hash_mode) throws IOException
+    {
+        if(key_codec == null || value_codec == null) throw new NullPointerException("create(): codec null");
+        if(key_width <= 0 || key_width > MAX_WIDTH || value_width <= 0 || value_width > MAX_WIDTH)
+            throw new IllegalArgumentException("create(): ancho de clave o valor fuera de rango");
+        if(hash_mode != TSBHashTableDA.PRIME_MODE && hash_mode != TSBHashTableDA.POWER_OF_TWO_MODE)
+            throw new IllegalArgumentException("create(): modo de hash desconocido: " + hash_mode);
+
+        if(!valid_load_factor(load_factor, hash_mode)) { load_factor = 0.5f; }
+        if(initial_capacity <= 0) { initial_capacity = 11; }
+
+        write_empty(file, adjust_capacity(initial_capacity, hash_mode), load_factor, hash_mode, key_width, value_width,
+                    StandardOpenOption.CREATE_NEW);
+        return new TSBMappedHashTableDA<>(file, key_codec, value_codec);
+    }
+
+    /**
+     * Crea un archivo nuevo con una tabla vacía de capacidad inicial 11,
+     * factor de carga 0.5f y PRIME_MODE.
+     * @param file el archivo a crear.
+     * @param key_codec el codec de las claves.
+     * @param value_codec el codec de los valores.
+     * @param key_width la cantidad máxima de bytes de una clave serializada.
+     * @param value_width la cantidad máxima de bytes de un valor serializado.
+     * @param <K> el tipo de las claves.
+     * @param <V> el tipo de los valores.
+     * @return la tabla creada.
+     * @throws IOException si no se puede crear el archivo.
+     */
+    public static <K,V> TSBMappedHashTableDA<K,V> create(Path file, TSBOffHeapHashTableDA.Codec<K> key_codec, TSBOffHeapHashTableDA.Codec<V> value_codec,
+                                                         int key_width, int value_width) throws IOException
+    {
+        return create(file, key_codec, value_codec, key_width, value_width, 11, 0.5f, TSBHashTableDA.PRIME_MODE);
+    }
+
+    /**
+     * Abre una tabla guardada en un archivo. Sólo se lee la cabecera: el
+     * resto del archivo se mapea y se trae a memoria a medida que se usa.
+     * @param file el archivo de la tabla.
+     * @param key_codec el codec de las claves (el mismo con el que se creó).
+     * @param value_codec el codec de los valores (el mismo con el que se creó).
+     * @param <K> el tipo de las claves.
+     * @param <V> el tipo de los valores.
+     * @return la tabla abierta.
+     * @throws IOException si el archivo no existe o no tiene el formato esperado.
+     */
+    public static <K,V> TSBMappedHashTableDA<K,V> open(Path file, TSBOffHeapHashTableDA.Codec<K> key_codec, TSBOffHeapHashTableDA.Codec<V> value_codec) throws IOException
+    {
+        if(key_codec == null || value_codec == null) throw new NullPointerException("open(): codec null");
+        return new TSBMappedHashTableDA<>(file, key_codec, value_codec);
+    }
+
+
+    //************************ Implementación de métodos especificados por Map.
+
+    /**
+     * Retorna la cantidad de elementos contenidos en la tabla.
+     * @return la cantidad de elementos de la tabla.
+     */
+    @Override
+    public int size()
+    {
+        this.check_open();
+        return this.count;
+    }
+
+    /**
+     * Determina si la tabla está vacía (no contiene ningún elemento).
+     * @return true si la tabla está vacía.
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return this.size() == 0;
+    }
+
+    /**
+     * Determina si la clave key está en la tabla.
+     * @param key la clave a verificar.
+     * @return true si la clave está en la tabla.
+     * @throws NullPointerException si la clave es null.
+     */
+    @Override
+    public boolean containsKey(Object key)
+    {
+        if(key == null) throw new NullPointerException("containsKey(): parámetro null");
+        this.check_open();
+
+        byte kb[] = this.key_codec.encode((K) key);
+        return kb.length <= this.key_width && this.search_for_index(kb, TSBOffHeapHashTableDA.hash(kb)) != -1;
+    }
+
+    /**
+     * Retorna el objeto al cual está asociada la clave key en la tabla, o null
+     * si la tabla no contiene ningún objeto asociado a esa clave.
+     * @param key la clave que será buscada en la tabla.
+     * @return el objeto asociado a la clave especificada, o null.
+     * @throws NullPointerException si key es null.
+     */
+    @Override
+    public V get(Object key)
+    {
+        if(key == null) throw new NullPointerException("get(): parámetro null");
+        this.check_open();
+
+        byte kb[] = this.key_codec.encode((K) key);
+        if(kb.length > this.key_width) { return null; }
+
+        int pos = this.search_for_index(kb, TSBOffHeapHashTableDA.hash(kb));
+        if(pos == -1) { return null; }
+        return this.value_codec.decode(this.read_value(pos));
+    }
+
+    /**
+     * Asocia el valor (value) especificado con la clave (key) especificada,
+     * escribiendo directamente en la región mapeada.
+     * @param key la clave del objeto que se quiere agregar a la tabla.
+     * @param value el objeto que se quiere agregar a la tabla.
+     * @return el objeto anteriormente asociado a la clave, o null.
+     * @throws NullPointerException si key es null o value es null.
+     * @throws IllegalArgumentException si la clave o el valor serializados
+     *         superan el ancho reservado.
+     * @throws UncheckedIOException si falla el rehash.
+     */
+    @Override
+    public V put(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("put(): parámetro null");
+        this.check_open();
+
+        byte kb[] = this.key_codec.encode(key);
+        byte vb[] = this.value_codec.encode(value);
+        if(kb.length > this.key_width) throw new IllegalArgumentException("put(): la clave ocupa más de " + this.key_width + " bytes");
+        if(vb.length > this.value_width) throw new IllegalArgumentException("put(): el valor ocupa más de " + this.value_width + " bytes");
+
+        int h = TSBOffHeapHashTableDA.hash(kb);
+        int pos = this.search_for_index(kb, h);
+        if(pos != -1)
+        {
+            V old = this.value_codec.decode(this.read_value(pos));
+            this.write_value(pos, vb);
+            this.modCount++;
+            return old;
+        }
+
+        if(this.tombstones > this.capacity / 4) { this.resize(this.capacity); }
+        if((float) (this.count + this.tombstones + 1) / this.capacity >= this.load_factor) { this.rehash(); }
+
+        pos = this.search_for_OPEN(h);
+        ByteBuffer r = this.region(pos);
+        int s = this.offset(pos);
+        if(r.get(s) == TOMBSTONE) { this.tombstones--; }
+        r.putInt(s + S_HASH, h);
+        this.write_key(pos, kb);
+        this.write_value(pos, vb);
+        r.put(s, CLOSED);
+
+        this.count++;
+        this.write_counters();
+        this.modCount++;
+        return null;
+    }
+
+    /**
+     * Elimina de la tabla la clave key (y su correspondiente valor asociado).
+     * @param key la clave a eliminar.
+     * @return el objeto al cual la clave estaba asociada, o null.
+     * @throws NullPointerException si key es null.
+     */
+    @Override
+    public V remove(Object key)
+    {
+        if(key == null) throw new NullPointerException("remove(): parámetro null");
+        this.check_open();
+
+        byte kb[] = this.key_codec.encode((K) key);
+        if(kb.length > this.key_width) { return null; }
+
+        int pos = this.search_for_index(kb, TSBOffHeapHashTableDA.hash(kb));
+        if(pos == -1) { return null; }
+
+        V old = this.value_codec.decode(this.read_value(pos));
+        this.remove_at(pos);
+        return old;
+    }
+
+    /**
+     * Elimina el contenido de la tabla: la reemplaza (de forma atómica) por
+     * una tabla vacía de la misma capacidad.
+     * @throws UncheckedIOException si no se puede escribir el archivo nuevo.
+     */
+    @Override
+    public void clear()
+    {
+        this.check_open();
+        try
+        {
+            Path tmp = this.temp_file();
+            write_empty(tmp, this.capacity, this.load_factor, this.hash_mode, this.key_width, this.value_width,
+                        StandardOpenOption.CREATE_NEW);
+            this.swap(tmp);
+        }
+        catch(IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        this.modCount++;
+    }
+
+    /**
+     * Retorna una vista de todos los pares de la tabla. Cada par retornado
+     * por el iterador se deserializa en el momento; su setValue() escribe en
+     * la tabla. El iterador es fail-fast.
+     * @return un conjunto a modo de vista de todos los pares de la tabla.
+     */
+    @Override
+    public Set<Map.Entry<K, V>> entrySet()
+    {
+        if(this.entrySet == null) { this.entrySet = new EntrySet(); }
+        return this.entrySet;
+    }
+
+
+    //************************ Métodos específicos de la clase.
+
+    /**
+     * Fuerza la escritura a disco de todas las modificaciones hechas sobre
+     * la región mapeada.
+     */
+    public void flush()
+    {
+        this.check_open();
+        for(MappedByteBuffer r : this.regions) { r.force(); }
+        this.header.force();
+    }
+
+    /**
+     * Fuerza la escritura a disco y desmapea el archivo. Después de invocarlo
+     * cualquier operación lanza IllegalStateException; invocarlo más de una
+     * vez no tiene efecto.
+     */
+    @Override
+    public void close()
+    {
+        if(this.closed) { return; }
+        this.flush();
+        this.unmap();
+        this.closed = true;
+        this.modCount++;
+    }
+
+    /**
+     * Determina si ya se invocó a close().
+     * @return true si la tabla está cerrada.
+     */
+    public boolean isClosed()
+    {
+        return this.closed;
+    }
+
+    /**
+     * Retorna el archivo en el que se guarda la tabla.
+     * @return el archivo de la tabla.
+     */
+    public Path getFile()
+    {
+        return this.file;
+    }
+
+    /**
+     * Retorna la capacidad actual de la tabla (cantidad de casillas).
+     * @return la capacidad de la tabla.
+     */
+    public int capacity()
+    {
+        this.check_open();
+        return this.capacity;
+    }
+
+    /**
+     * Reconstruye la tabla con la misma capacidad, eliminando todas las
+     * casillas TOMBSTONE. Se invoca automaticamente al insertar una clave nueva
+     * si las casillas TOMBSTONE superan la cuarta parte de la tabla.
+     * @throws UncheckedIOException si no se puede escribir el archivo nuevo.
+     */
+    public void compact()
+    {
+        this.check_open();
+        this.resize(this.capacity);
+    }
+
+
+    //************************ Métodos privados.
+
+    /*
+     * Crea (o reemplaza, según option) el archivo file con la cabecera de una
+     * tabla vacía y todas sus casillas en estado OPEN (el archivo se extiende
+     * con ceros).
+     */
+    private static void write_empty(Path file, int capacity, float load_factor, int hash_mode,
+                                    int key_width, int value_width, StandardOpenOption option) throws IOException
+    {
+        long slot_bytes = SLOT_HEADER + key_width + value_width;
+
+        ByteBuffer h = ByteBuffer.allocate(HEADER_BYTES);
+        h.putInt(H_MAGIC, MAGIC);
+        h.putInt(H_VERSION, VERSION);
+        h.putInt(H_CAPACITY, capacity);
+        h.putInt(H_COUNT, 0);
+        h.putInt(H_TOMBSTONES, 0);
+        h.putFloat(H_LOAD_FACTOR, load_factor);
+        h.putInt(H_HASH_MODE, hash_mode);
+        h.putInt(H_KEY_WIDTH, key_width);
+        h.putInt(H_VALUE_WIDTH, value_width);
+
+        try(FileChannel channel = FileChannel.open(file, option, StandardOpenOption.WRITE))
+        {
+            while(h.hasRemaining()) { channel.write(h); }
+
+            // el último byte del archivo: el resto queda en cero (OPEN)...
+            channel.write(ByteBuffer.allocate(1), HEADER_BYTES + capacity * slot_bytes - 1);
+        }
+    }
+
+    /*
+     * Lee la cabecera del archivo y mapea la cabecera y las casillas.
+     */
+    private void map() throws IOException
+    {
+        try(FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            this.capacity = this.header.getInt(H_CAPACITY);
+            this.count = this.header.getInt(H_COUNT);
+            this.tombstones = this.header.getInt(H_TOMBSTONES);
+
+            long expected = HEADER_BYTES + (long) this.capacity * this.slot_bytes;
+            if(channel.size() < expected) throw new IOException(this.file + " está truncado");
+
+            int n = (this.capacity + this.slots_per_region - 1) / this.slots_per_region;
+            this.regions = new MappedByteBuffer[n];
+            for(int i = 0; i < n; i++)
+            {
+                long first = (long) i * this.slots_per_region;
+                long slots = Math.min(this.slots_per_region, this.capacity - first);
+                this.regions[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                                              HEADER_BYTES + first * this.slot_bytes, slots * this.slot_bytes);
+            }
+        }
+    }
+
+    private void unmap()
+    {
+        TSBOffHeapHashTableDA.free(this.header);
+        for(MappedByteBuffer r : this.regions) { TSBOffHeapHashTableDA.free(r); }
+        this.header = null;
+        this.regions = null;
+    }
+
+    private void check_open()
+    {
+        if(this.closed) throw new IllegalStateException("la tabla está cerrada");
+    }
+
+    private void write_counters()
+    {
+        this.header.putInt(H_COUNT, this.count);
+        this.header.putInt(H_TOMBSTONES, this.tombstones);
+    }
+
+    /*
+     * Incrementa el tamaño de la tabla (igual que TSBHashTableDA.rehash()).
+     */
+    private void rehash()
+    {
+        long n = (this.hash_mode == TSBHashTableDA.POWER_OF_TWO_MODE) ?
+                 (long) this.capacity << 1 : TSBHashTableDA.nextPrime((int) Math.min(Integer.MAX_VALUE - 2, this.capacity * 1.5f));
+        if(n > Integer.MAX_VALUE - 2) throw new IllegalStateException("rehash(): la tabla no puede crecer más");
+        this.resize((int) n);
+    }
+
+    /*
+     * Escribe en un archivo temporal una tabla de new_capacity casillas con
+     * todos los pares vivos (copiando cada casilla tal cual, con su hash),
+     * fuerza su escritura a disco y la mueve sobre el archivo original.
+     */
+    private void resize(int new_capacity)
+    {
+        try
+        {
+            Path tmp = this.temp_file();
+            write_empty(tmp, new_capacity, this.load_factor, this.hash_mode, this.key_width, this.value_width,
+                        StandardOpenOption.CREATE_NEW);
+
+            TSBMappedHashTableDA<K,V> t = new TSBMappedHashTableDA<>(tmp, this.key_codec, this.value_codec);
+            byte slot[] = new byte[this.slot_bytes];
+            for(int i = 0; i < this.capacity; i++)
+            {
+                ByteBuffer r = this.region(i);
+                int s = this.offset(i);
+                if(r.get(s) != CLOSED) { continue; }
+
+                ByteBuffer src = r.duplicate();
+                src.position(s);
+                src.get(slot);
+
+                int pos = t.search_for_OPEN(r.getInt(s + S_HASH));
+                ByteBuffer dst = t.region(pos).duplicate();
+                dst.position(t.offset(pos));
+                dst.put(slot);
+            }
+            t.count = this.count;
+            t.write_counters();
+            t.close();
+
+            this.swap(tmp);
+        }
+        catch(IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        this.modCount++;
+    }
+
+    /*
+     * Reemplaza el archivo de la tabla por tmp (moviéndolo de forma atómica)
+     * y vuelve a mapearlo.
+     */
+    private void swap(Path tmp) throws IOException
+    {
+        this.flush();
+        this.unmap();
+        try
+        {
+            Files.move(tmp, this.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally
+        {
+            this.map();
+        }
+    }
+
+    private Path temp_file() throws IOException
+    {
+        Path tmp = this.file.resolveSibling(this.file.getFileName() + ".rehash");
+        Files.deleteIfExists(tmp);
+        return tmp;
+    }
+
+    /*
+     * Determina si load_factor es un factor de carga admitido en hash_mode:
+     * en PRIME_MODE, hasta 0.5 (la exploración cuadrática visita sólo
+     * (n + 1) / 2 casillas); en POWER_OF_TWO_MODE, menor a 1.
+     */
+    private static boolean valid_load_factor(float load_factor, int hash_mode)
+    {
+        float max = (hash_mode == TSBHashTableDA.PRIME_MODE) ? 0.5f : Math.nextDown(1f);
+        return load_factor > 0 && load_factor <= max;
+    }
+
+    private static int adjust_capacity(int n, int hash_mode)
+    {
+        if(hash_mode == TSBHashTableDA.POWER_OF_TWO_MODE)
+        {
+            if(n <= 2) { return 2; }
+            if(n > (1 << 30)) { return 1 << 30; }
+            return Integer.highestOneBit(n - 1) << 1;
+        }
+        return TSBHashTableDA.isPrime(n) ? n : TSBHashTableDA.nextPrime(n);
+    }
+
+    /*
+     * Casilla inicial y paso j de la secuencia de exploración, con el mismo
+     * esquema que TSBHashTableDA.
+     */
+    private int home(int h)
+    {
+        if(this.hash_mode == TSBHashTableDA.POWER_OF_TWO_MODE) { return h & (this.capacity - 1); }
+        return (h & 0x7fffffff) % this.capacity;
+    }
+
+    private int next_probe(int y, int j)
+    {
+        if(this.hash_mode == TSBHashTableDA.POWER_OF_TWO_MODE) { return (y + j) & (this.capacity - 1); }
+        return TSBHashTableDA.quadratic_probe(y, j, this.capacity);
+    }
+
+    /*
+     * Busca la clave serializada kb (cuyo hash es h) y retorna la casilla en
+     * la que está, o -1 si no está.
+     */
+    private int search_for_index(byte kb[], int h)
+    {
+        int y = this.home(h);
+        for(int j = 1; j <= this.capacity; j++)
+        {
+            ByteBuffer r = this.region(y);
+            int s = this.offset(y);
+            byte state = r.get(s);
+            if(state == OPEN) { return -1; }
+            if(state == CLOSED && r.getInt(s + S_HASH) == h && this.key_equals(r, s, kb)) { return y; }
+            y = this.next_probe(y, j);
+        }
+        return -1;
+    }
+
+    /*
+     * Retorna la primera casilla abierta o TOMBSTONE de la secuencia de
+     * exploración del hash h.
+     */
+    private int search_for_OPEN(int h)
+    {
+        int y = this.home(h);
+        for(int j = 1; ; j++)
+        {
+            if(this.region(y).get(this.offset(y)) != CLOSED) { return y; }
+            y = this.next_probe(y, j);
+        }
+    }
+
+    private void remove_at(int pos)
+    {
+        this.region(pos).put(this.offset(pos), TOMBSTONE);
+        this.count--;
+        this.tombstones++;
+        this.write_counters();
+        this.modCount++;
+    }
+
+    private MappedByteBuffer region(int pos)
+    {
+        return this.regions[pos / this.slots_per_region];
+    }
+
+    private int offset(int pos)
+    {
+        return (pos % this.slots_per_region) * this.slot_bytes;
+    }
+
+    private boolean key_equals(ByteBuffer r, int s, byte kb[])
+    {
+        if((r.getShort(s + S_KEY_LENGTH) & 0xffff) != kb.length) { return false; }
+
+        int off = s + SLOT_HEADER;
+        for(int i = 0; i < kb.length; i++)
+        {
+            if(r.get(off + i) != kb[i]) { return false; }
+        }
+        return true;
+    }
+
+    private byte[] read_key(int pos)
+    {
+        ByteBuffer r = this.region(pos).duplicate();
+        int s = this.offset(pos);
+        byte kb[] = new byte[r.getShort(s + S_KEY_LENGTH) & 0xffff];
+        r.position(s + SLOT_HEADER);
+        r.get(kb);
+        return kb;
+    }
+
+    private byte[] read_value(int pos)
+    {
+        ByteBuffer r = this.region(pos).duplicate();
+        int s = this.offset(pos);
+        byte vb[] = new byte[r.getShort(s + S_VALUE_LENGTH) & 0xffff];
+        r.position(s + SLOT_HEADER + this.key_width);
+        r.get(vb);
+        return vb;
+    }
+
+    private void write_key(int pos, byte kb[])
+    {
+        ByteBuffer r = this.region(pos).duplicate();
+        int s = this.offset(pos);
+        r.putShort(s + S_KEY_LENGTH, (short) kb.length);
+        r.position(s + SLOT_HEADER);
+        r.put(kb);
+    }
+
+    private void write_value(int pos, byte vb[])
+    {
+        ByteBuffer r = this.region(pos).duplicate();
+        int s = this.offset(pos);
+        r.putShort(s + S_VALUE_LENGTH, (short) vb.length);
+        r.position(s + SLOT_HEADER + this.key_width);
+        r.put(vb);
+    }
+
+
+    //************************ Clases Internas.
+
+    /*
+     * Vista de todos los pares de la tabla.
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>>
+    {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator()
+        {
+            return new EntrySetIterator();
+        }
+
+        @Override
+        public int size()
+        {
+            return TSBMappedHashTableDA.this.size();
+        }
+
+        @Override
+        public void clear()
+        {
+            TSBMappedHashTableDA.this.clear();
+        }
+    }
+
+    private class EntrySetIterator implements Iterator<Map.Entry<K, V>>
+    {
+        // la casilla a partir de la cual buscar el próximo par...
+        private int next_slot;
+
+        // la casilla retornada por la última invocación a next(), o -1...
+        private int current_slot = -1;
+
+        // el valor que debería tener modCount de la tabla...
+        private int expected_modCount;
+
+        public EntrySetIterator()
+        {
+            check_open();
+            expected_modCount = modCount;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            check_modCount();
+            while(next_slot < capacity && region(next_slot).get(offset(next_slot)) != CLOSED)
+            {
+                next_slot++;
+            }
+            return next_slot < capacity;
+        }
+
+        @Override
+        public Map.Entry<K, V> next()
+        {
+            if(!hasNext()) { throw new NoSuchElementException("next(): no existe el elemento pedido..."); }
+
+            current_slot = next_slot++;
+            K key = key_codec.decode(read_key(current_slot));
+            V value = value_codec.decode(read_value(current_slot));
+            return new AbstractMap.SimpleEntry<K, V>(key, value)
+            {
+                private final int slot = current_slot;
+
+                @Override
+                public V setValue(V value)
+                {
+                    if(value == null) throw new NullPointerException("setValue(): parámetro null");
+                    byte vb[] = value_codec.encode(value);
+                    if(vb.length > value_width) throw new IllegalArgumentException("setValue(): el valor ocupa más de " + value_width + " bytes");
+                    check_modCount();
+
+                    V old = super.setValue(value);
+                    write_value(slot, vb);
+                    return old;
+                }
+            };
+        }
+
+        @Override
+        public void remove()
+        {
+            if(current_slot == -1) { throw new IllegalStateException("remove(): debe invocar a next() antes de remove()..."); }
+            check_modCount();
+
+            remove_at(current_slot);
+            current_slot = -1;
+            expected_modCount = modCount;
+        }
+
+        private void check_modCount()
+        {
+            check_open();
+            if(modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("la tabla fue modificada durante la iteración");
+            }
+        }
+    }
+}
@@ -0,0 +1,925 @@
+package clases;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+
+/**
+ * Tabla hash con direccionamiento abierto cuyo contenido vive fuera del heap
+ * de Java: no crea un objeto por par, por lo que millones de pares no le
+ * agregan trabajo al garbage collector.
+ *
+ * Las claves y los valores se serializan con un Codec (ver STRING_CODEC y
+ * BYTES_CODEC) y se guardan en una arena: una lista de ByteBuffer directos
+ * de ARENA_CHUNK bytes (o más, para registros grandes) en los que cada par
+ * ocupa un registro [long. clave][long. valor][clave][valor]. El índice
+ * también es un ByteBuffer directo, con una casilla de SLOT_BYTES bytes por
+ * posición: la dirección del registro en la arena, el hash de la clave y el
+ * estado de la casilla (OPEN, CLOSED o TOMBSTONE). El índice usa el mismo
+ * esquema que TSBHashTableDA: tamaño primo y exploración cuadrática, y por
+ * eso el mismo factor de carga máximo de 0.5 (la exploración cuadrática sólo
+ * visita la mitad de las casillas de una tabla de tamaño primo).
+ *
+ * Dos claves son iguales si sus bytes serializados son iguales: en una tabla
+ * de byte[] se compara el contenido de los arreglos, no su identidad.
+ *
+ * Reemplazar un valor por otro de distinto tamaño o eliminar un par deja su
+ * registro como basura en la arena (ver garbageBytes()); cuando la basura
+ * supera a los bytes vivos la tabla se compacta, copiando sólo los
+ * registros vivos a una arena nueva.
+ *
+ * close() libera inmediatamente la memoria reservada; después de invocarlo
+ * cualquier operación lanza IllegalStateException. La tabla no es segura
+ * para el uso concurrente desde varios hilos. No se admiten claves ni
+ * valores null.
+ *
+ * @author Grupo 31 - Falco, Gonzalo - Marzo, Lautaro - Pesetti, Sabrina - Vela, Azul
+ * @version Octubre de 2022.
+ * @param <K> el tipo de los objetos que serán usados como clave en la tabla.
+ * @param <V> el tipo de los objetos que serán los valores de la tabla.
+ */
+public class TSBOffHeapHashTableDA<K,V> extends AbstractMap<K,V> implements AutoCloseable
+{
+    //************************ Constantes (privadas o públicas).
+
+    // estados en los que puede quedar una casilla del índice...
+    private static final byte OPEN = 0;
+    private static final byte CLOSED = 1;
+    private static final byte TOMBSTONE = 2;
+
+    // bytes por casilla del índice: dirección (8), hash (4), estado (1) y relleno...
+    private static final int SLOT_BYTES = 16;
+    private static final int HASH_OFFSET = 8;
+    private static final int STATE_OFFSET = 12;
+
+    // cantidad máxima de casillas que entran en un único ByteBuffer...
+    private static final int MAX_SLOTS = Integer.MAX_VALUE / SLOT_BYTES;
+
+    // bytes de la cabecera de cada registro: longitud de la clave y del valor...
+    private static final int RECORD_HEADER = 8;
+
+    /**
+     * Tamaño de cada bloque de la arena (1 MB).
+     */
+    public static final int ARENA_CHUNK = 1 << 20;
+
+    /**
+     * Codec para claves o valores String (en UTF-8).
+     */
+    public static final Codec<String> STRING_CODEC = new Codec<String>()
+    {
+        @Override
+        public byte[] encode(String value)
+        {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(byte[] bytes)
+        {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * Codec para claves o valores byte[]: los arreglos se copian tal cual.
+     */
+    public static final Codec<byte[]> BYTES_CODEC = new Codec<byte[]>()
+    {
+        @Override
+        public byte[] encode(byte[] value)
+        {
+            return value;
+        }
+
+        @Override
+        public byte[] decode(byte[] bytes)
+        {
+            return bytes;
+        }
+    };
+
+    //************************ Atributos privados (estructurales).
+
+    // codecs para serializar claves y valores...
+    private final Codec<K> key_codec;
+    private final Codec<V> value_codec;
+
+    // el índice: capacity casillas de SLOT_BYTES bytes cada una...
+    private ByteBuffer index;
+    private int capacity;
+
+    // la arena en la que se guardan los registros...
+    private ArrayList<ByteBuffer> chunks;
+
+    // el tamaño inicial de la tabla (para clear())...
+    private final int initial_capacity;
+
+    // el factor de carga para calcular si hay que hacer rehashing...
+    private final float load_factor;
+
+    // la cantidad de pares y de casillas TOMBSTONE del índice...
+    private int count;
+    private int tombstones;
+
+    // bytes de la arena ocupados por registros vivos y por basura...
+    private long live_bytes;
+    private long garbage_bytes;
+
+    // true si ya se invocó a close()...
+    private boolean closed;
+
+    // control de iteración fail-fast...
+    private int modCount;
+
+    // vista de pares (se crea la primera vez que se pide)...
+    private transient Set<Map.Entry<K,V>> entrySet = null;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea una tabla vacía con capacidad inicial igual a 11 y factor de carga
+     * igual a 0.5f, que serializa claves y valores con los codecs indicados.
+     * @param key_codec el codec de las claves.
+     * @param value_codec el codec de los valores.
+     */
+    public TSBOffHeapHashTableDA(Codec<K> key_codec, Codec<V> value_codec)
+    {
+        this(key_codec, value_codec, 11, 0.5f);
+    }
+
+    /**
+     * Crea una tabla vacía con la capacidad inicial y el factor de carga
+     * indicados, que serializa claves y valores con los codecs indicados. Si
+     * la capacidad inicial es menor o igual a 0 se usa 11; si el factor de
+     * carga es menor o igual a 0 o mayor a 0.5 se usa 0.5f: con más carga, la
+     * secuencia de exploración cuadrática de una clave podría no tener
+     * ninguna casilla libre.
+     * @param key_codec el codec de las claves.
+     * @param value_codec el codec de los valores.
+     * @param initial_capacity la capacidad inicial del índice.
+     * @param load_factor el factor de carga del índice.
+     * @throws NullPointerException si algún codec es null.
+     */
+    public TSBOffHeapHashTableDA(Codec<K> key_codec, Codec<V> value_codec, int initial_capacity, float load_factor)
+    {
+        if(key_codec == null || value_codec == null) throw new NullPointerException("TSBOffHeapHashTableDA(): codec null");
+
+        if(load_factor <= 0 || load_factor > 0.5) { load_factor = 0.5f; }
+        if(initial_capacity <= 0) { initial_capacity = 11; }
+        else
+        {
+            if(initial_capacity > MAX_SLOTS) { initial_capacity = MAX_SLOTS; }
+            else if(!TSBHashTableDA.isPrime(initial_capacity)) { initial_capacity = TSBHashTableDA.nextPrime(initial_capacity); }
+        }
+
+        this.key_codec = key_codec;
+        this.value_codec = value_codec;
+        this.initial_capacity = initial_capacity;
+        this.load_factor = load_factor;
+        this.allocate(initial_capacity);
+    }
+
+    /**
+     * Crea una tabla vacía de String a String.
+     * @return la tabla creada.
+     */
+    public static TSBOffHeapHashTableDA<String, String> forStrings()
+    {
+        return new TSBOffHeapHashTableDA<>(STRING_CODEC, STRING_CODEC);
+    }
+
+    /**
+     * Crea una tabla vacía de byte[] a byte[].
+     * @return la tabla creada.
+     */
+    public static TSBOffHeapHashTableDA<byte[], byte[]> forBytes()
+    {
+        return new TSBOffHeapHashTableDA<>(BYTES_CODEC, BYTES_CODEC);
+    }
+
+
+    //************************ Implementación de métodos especificados por Map.
+
+    /**
+     * Retorna la cantidad de elementos contenidos en la tabla.
+     * @return la cantidad de elementos de la tabla.
+     */
+    @Override
+    public int size()
+    {
+        this.check_open();
+        return this.count;
+    }
+
+    /**
+     * Determina si la tabla está vacía (no contiene ningún elemento).
+     * @return true si la tabla está vacía.
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return this.size() == 0;
+    }
+
+    /**
+     * Determina si la clave key está en la tabla.
+     * @param key la clave a verificar.
+     * @return true si la clave está en la tabla.
+     * @throws NullPointerException si la clave es null.
+     * @throws ClassCastException si la clase de key no es compatible con el
+     *         codec de claves.
+     */
+    @Override
+    public boolean containsKey(Object key)
+    {
+        if(key == null) throw new NullPointerException("containsKey(): parámetro null");
+        this.check_open();
+
+        byte kb[] = this.key_codec.encode((K) key);
+        return this.search_for_index(kb, hash(kb)) != -1;
+    }
+
+    /**
+     * Retorna el objeto al cual está asociada la clave key en la tabla, o null
+     * si la tabla no contiene ningún objeto asociado a esa clave. El valor
+     * retornado es una copia nueva, deserializada desde la arena.
+     * @param key la clave que será buscada en la tabla.
+     * @return el objeto asociado a la clave especificada, o null.
+     * @throws NullPointerException si key es null.
+     * @throws ClassCastException si la clase de key no es compatible con el
+     *         codec de claves.
+     */
+    @Override
+    public V get(Object key)
+    {
+        if(key == null) throw new NullPointerException("get(): parámetro null");
+        this.check_open();
+
+        byte kb[] = this.key_codec.encode((K) key);
+        int pos = this.search_for_index(kb, hash(kb));
+        if(pos == -1) { return null; }
+        return this.value_codec.decode(this.read_value(this.address(pos)));
+    }
+
+    /**
+     * Asocia el valor (value) especificado con la clave (key) especificada.
+     * Si el nuevo valor ocupa los mismos bytes que el anterior se sobrescribe
+     * en su lugar; si no, se escribe un registro nuevo y el anterior queda
+     * como basura.
+     * @param key la clave del objeto que se quiere agregar a la tabla.
+     * @param value el objeto que se quiere agregar a la tabla.
+     * @return el objeto anteriormente asociado a la clave, o null.
+     * @throws NullPointerException si key es null o value es null.
+     */
+    @Override
+    public V put(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("put(): parámetro null");
+        this.check_open();
+
+        byte kb[] = this.key_codec.encode(key);
+        byte vb[] = this.value_codec.encode(value);
+        int h = hash(kb);
+
+        int pos = this.search_for_index(kb, h);
+        if(pos != -1)
+        {
+            V old = this.value_codec.decode(this.read_value(this.address(pos)));
+            this.replace_at(pos, kb, vb);
+            this.compact_if_needed();
+            return old;
+        }
+
+        if(this.tombstones > this.capacity / 4) { this.resize(this.capacity); }
+        if((float) (this.count + this.tombstones + 1) / this.capacity >= this.load_factor) { this.rehash(); }
+
+        this.place(h, this.append(kb, vb));
+        this.count++;
+        this.modCount++;
+        return null;
+    }
+
+    /**
+     * Elimina de la tabla la clave key (y su correspondiente valor asociado).
+     * El registro del par queda como basura en la arena.
+     * @param key la clave a eliminar.
+     * @return el objeto al cual la clave estaba asociada, o null.
+     * @throws NullPointerException si key es null.
+     */
+    @Override
+    public V remove(Object key)
+    {
+        if(key == null) throw new NullPointerException("remove(): parámetro null");
+        this.check_open();
+
+        byte kb[] = this.key_codec.encode((K) key);
+        int pos = this.search_for_index(kb, hash(kb));
+        if(pos == -1) { return null; }
+
+        V old = this.value_codec.decode(this.read_value(this.address(pos)));
+        this.remove_at(pos);
+        this.compact_if_needed();
+        return old;
+    }
+
+    /**
+     * Elimina el contenido de la tabla y libera la memoria que ocupaba,
+     * volviendo a la capacidad inicial.
+     */
+    @Override
+    public void clear()
+    {
+        this.check_open();
+        this.release();
+        this.allocate(this.initial_capacity);
+        this.modCount++;
+    }
+
+    /**
+     * Retorna una vista de todos los pares de la tabla. Cada par retornado
+     * por el iterador se deserializa en el momento; su setValue() actualiza
+     * la tabla. El iterador es fail-fast.
+     * @return un conjunto a modo de vista de todos los pares de la tabla.
+     */
+    @Override
+    public Set<Map.Entry<K, V>> entrySet()
+    {
+        if(this.entrySet == null) { this.entrySet = new EntrySet(); }
+        return this.entrySet;
+    }
+
+
+    //************************ Métodos específicos de la clase.
+
+    /**
+     * Libera la memoria fuera del heap que ocupa la tabla. Después de
+     * invocarlo cualquier operación lanza IllegalStateException; invocarlo más
+     * de una vez no tiene efecto.
+     */
+    @Override
+    public void close()
+    {
+        if(this.closed) { return; }
+        this.release();
+        this.closed = true;
+        this.modCount++;
+    }
+
+    /**
+     * Determina si ya se invocó a close().
+     * @return true si la tabla está cerrada.
+     */
+    public boolean isClosed()
+    {
+        return this.closed;
+    }
+
+    /**
+     * Retorna la cantidad total de bytes fuera del heap reservados por la
+     * tabla: el índice más todos los bloques de la arena.
+     * @return los bytes reservados.
+     */
+    public long allocatedBytes()
+    {
+        this.check_open();
+        long total = this.indexBytes();
+        for(ByteBuffer c : this.chunks) { total += c.capacity(); }
+        return total;
+    }
+
+    /**
+     * Retorna la cantidad de bytes reservados por el índice.
+     * @return los bytes del índice.
+     */
+    public long indexBytes()
+    {
+        this.check_open();
+        return (long) this.capacity * SLOT_BYTES;
+    }
+
+    /**
+     * Retorna la cantidad de bytes de la arena ocupados por registros vivos
+     * (cabecera, clave y valor de cada par de la tabla).
+     * @return los bytes ocupados por registros vivos.
+     */
+    public long liveBytes()
+    {
+        this.check_open();
+        return this.live_bytes;
+    }
+
+    /**
+     * Retorna la cantidad de bytes de la arena ocupados por registros de
+     * pares eliminados o reemplazados, que se recuperan con compact().
+     * @return los bytes de basura de la arena.
+     */
+    public long garbageBytes()
+    {
+        this.check_open();
+        return this.garbage_bytes;
+    }
+
+    /**
+     * Reconstruye el índice con la misma capacidad (eliminando las casillas
+     * TOMBSTONE) y copia los registros vivos a una arena nueva (eliminando la
+     * basura). Se invoca automaticamente cuando la basura supera a los bytes
+     * vivos.
+     */
+    public void compact()
+    {
+        this.check_open();
+        this.resize(this.capacity);
+    }
+
+    /**
+     * Retorna la capacidad actual del índice (cantidad de casillas).
+     * @return la capacidad del índice.
+     */
+    public int capacity()
+    {
+        this.check_open();
+        return this.capacity;
+    }
+
+
+    //************************ Métodos privados.
+
+    /*
+     * Reserva un índice vacío de la capacidad indicada y una arena vacía.
+     */
+    private void allocate(int capacity)
+    {
+        this.capacity = capacity;
+        this.index = ByteBuffer.allocateDirect(capacity * SLOT_BYTES).order(ByteOrder.nativeOrder());
+        this.chunks = new ArrayList<>();
+        this.count = 0;
+        this.tombstones = 0;
+        this.live_bytes = 0;
+        this.garbage_bytes = 0;
+    }
+
+    /*
+     * Libera el índice y todos los bloques de la arena.
+     */
+    private void release()
+    {
+        free(this.index);
+        for(ByteBuffer c : this.chunks) { free(c); }
+        this.index = null;
+        this.chunks = null;
+    }
+
+    private void check_open()
+    {
+        if(this.closed) throw new IllegalStateException("la tabla está cerrada");
+    }
+
+    /*
+     * Incrementa el tamaño del índice (al primer primo mayor o igual al 150%
+     * del anterior) y reorganiza su contenido.
+     */
+    private void rehash()
+    {
+        long n = TSBHashTableDA.nextPrime((int) Math.min(MAX_SLOTS, this.capacity * 1.5f));
+        if(n > MAX_SLOTS || n <= this.capacity) throw new IllegalStateException("rehash(): el índice no puede crecer más");
+        this.resize((int) n);
+    }
+
+    /*
+     * Crea un índice de new_capacity casillas y una arena nueva, y copia a
+     * ellos todos los pares vivos. Al terminar no hay casillas TOMBSTONE ni
+     * basura en la arena.
+     */
+    private void resize(int new_capacity)
+    {
+        ByteBuffer old_index = this.index;
+        int old_capacity = this.capacity;
+        ArrayList<ByteBuffer> old_chunks = this.chunks;
+        int old_count = this.count;
+
+        this.allocate(new_capacity);
+        for(int i = 0; i < old_capacity; i++)
+        {
+            int s = i * SLOT_BYTES;
+            if(old_index.get(s + STATE_OFFSET) != CLOSED) { continue; }
+
+            long address = old_index.getLong(s);
+            ByteBuffer c = old_chunks.get((int) (address >>> 32));
+            int off = (int) address;
+            int length = RECORD_HEADER + c.getInt(off) + c.getInt(off + 4);
+
+            this.place(old_index.getInt(s + HASH_OFFSET), this.copy_record(c, off, length));
+        }
+        this.count = old_count;
+        this.modCount++;
+
+        free(old_index);
+        for(ByteBuffer c : old_chunks) { free(c); }
+    }
+
+    /*
+     * Ubica la dirección address (de un registro cuya clave tiene hash h) en
+     * la primera casilla abierta o TOMBSTONE de su secuencia de exploración.
+     * Sólo debe invocarse si la clave no está en la tabla.
+     */
+    private void place(int h, long address)
+    {
+        int n = this.capacity;
+        int y = (h & 0x7fffffff) % n;
+        for(int j = 1; ; j++)
+        {
+            int s = y * SLOT_BYTES;
+            byte state = this.index.get(s + STATE_OFFSET);
+            if(state != CLOSED)
+            {
+                if(state == TOMBSTONE) { this.tombstones--; }
+                this.index.putLong(s, address);
+                this.index.putInt(s + HASH_OFFSET, h);
+                this.index.put(s + STATE_OFFSET, CLOSED);
+                return;
+            }
+            y = TSBHashTableDA.quadratic_probe(y, j, n);
+        }
+    }
+
+    /*
+     * Busca la clave serializada kb (cuyo hash es h) y retorna la casilla del
+     * índice en la que está, o -1 si no está. Las casillas TOMBSTONE no cortan
+     * la búsqueda, y los bytes de la clave sólo se comparan si el hash coincide.
+     */
+    private int search_for_index(byte kb[], int h)
+    {
+        int n = this.capacity;
+        int y = (h & 0x7fffffff) % n;
+        for(int j = 1; j <= n; j++)
+        {
+            int s = y * SLOT_BYTES;
+            byte state = this.index.get(s + STATE_OFFSET);
+            if(state == OPEN) { return -1; }
+            if(state == CLOSED && this.index.getInt(s + HASH_OFFSET) == h && this.key_equals(this.index.getLong(s), kb))
+            {
+                return y;
+            }
+            y = TSBHashTableDA.quadratic_probe(y, j, n);
+        }
+        return -1;
+    }
+
+    /*
+     * Libera la casilla cerrada pos del índice: la marca como TOMBSTONE y su
+     * registro pasa a ser basura.
+     */
+    private void remove_at(int pos)
+    {
+        long address = this.address(pos);
+        int length = this.record_length(address);
+        this.live_bytes -= length;
+        this.garbage_bytes += length;
+
+        this.index.put(pos * SLOT_BYTES + STATE_OFFSET, TOMBSTONE);
+        this.count--;
+        this.tombstones++;
+        this.modCount++;
+    }
+
+    /*
+     * Reemplaza el valor del par de la casilla cerrada pos (cuya clave es kb)
+     * por vb: si ocupa los mismos bytes que el anterior se sobrescribe en su
+     * lugar, y si no se escribe un registro nuevo y el anterior pasa a ser
+     * basura. Las casillas del índice no cambian de lugar.
+     */
+    private void replace_at(int pos, byte kb[], byte vb[])
+    {
+        long address = this.address(pos);
+        if(this.value_length(address) == vb.length)
+        {
+            this.write_value(address, vb);
+        }
+        else
+        {
+            int length = this.record_length(address);
+            this.live_bytes -= length;
+            this.garbage_bytes += length;
+            this.index.putLong(pos * SLOT_BYTES, this.append(kb, vb));
+        }
+        this.modCount++;
+    }
+
+    /*
+     * Compacta la tabla si la basura de la arena supera a los bytes vivos (y
+     * a un bloque completo, para no compactar tablas chicas a cada rato).
+     * remove_at() y replace_at() no compactan por sí mismos, para que los
+     * iteradores puedan usarlos sin que las casillas cambien de lugar.
+     */
+    private void compact_if_needed()
+    {
+        if(this.garbage_bytes > Math.max(this.live_bytes, ARENA_CHUNK)) { this.resize(this.capacity); }
+    }
+
+    /*
+     * Hash de una clave serializada: polinomial en base 31 (como
+     * String.hashCode()) mezclado con el finalizador de MurmurHash3, para
+     * que claves con bytes parecidos no queden en casillas vecinas.
+     */
+    static int hash(byte kb[])
+    {
+        int h = 1;
+        for(byte b : kb) { h = 31 * h + b; }
+        return TSBHashTableDA.spread(h);
+    }
+
+    /*
+     * Escribe un registro nuevo con la clave kb y el valor vb al final de la
+     * arena y retorna su dirección.
+     */
+    private long append(byte kb[], byte vb[])
+    {
+        int length = RECORD_HEADER + kb.length + vb.length;
+        long address = this.reserve(length);
+
+        ByteBuffer c = this.chunk(address).duplicate();
+        c.position((int) address);
+        c.putInt(kb.length).putInt(vb.length).put(kb).put(vb);
+        this.live_bytes += length;
+        return address;
+    }
+
+    /*
+     * Copia el registro de length bytes que empieza en la posición off del
+     * bloque c al final de la arena y retorna su nueva dirección.
+     */
+    private long copy_record(ByteBuffer c, int off, int length)
+    {
+        long address = this.reserve(length);
+
+        ByteBuffer src = c.duplicate();
+        src.position(off).limit(off + length);
+        ByteBuffer dst = this.chunk(address).duplicate();
+        dst.position((int) address);
+        dst.put(src);
+        this.live_bytes += length;
+        return address;
+    }
+
+    /*
+     * Reserva length bytes al final de la arena (en el último bloque, o en un
+     * bloque nuevo si no entran) y retorna su dirección: el número de bloque
+     * en los 32 bits altos y la posición dentro del bloque en los bajos. Los
+     * bloques usan el orden de bytes por defecto, que es el que conservan las
+     * copias hechas con duplicate().
+     */
+    private long reserve(int length)
+    {
+        ByteBuffer last = this.chunks.isEmpty() ? null : this.chunks.get(this.chunks.size() - 1);
+        if(last == null || last.remaining() < length)
+        {
+            last = ByteBuffer.allocateDirect(Math.max(ARENA_CHUNK, length));
+            this.chunks.add(last);
+        }
+        int off = last.position();
+        last.position(off + length);
+        return ((long) (this.chunks.size() - 1) << 32) | off;
+    }
+
+    private ByteBuffer chunk(long address)
+    {
+        return this.chunks.get((int) (address >>> 32));
+    }
+
+    private long address(int pos)
+    {
+        return this.index.getLong(pos * SLOT_BYTES);
+    }
+
+    private int value_length(long address)
+    {
+        return this.chunk(address).getInt((int) address + 4);
+    }
+
+    private int record_length(long address)
+    {
+        ByteBuffer c = this.chunk(address);
+        int off = (int) address;
+        return RECORD_HEADER + c.getInt(off) + c.getInt(off + 4);
+    }
+
+    /*
+     * Compara la clave del registro de dirección address con kb.
+     */
+    private boolean key_equals(long address, byte kb[])
+    {
+        ByteBuffer c = this.chunk(address);
+        int off = (int) address;
+        if(c.getInt(off) != kb.length) { return false; }
+
+        off += RECORD_HEADER;
+        for(int i = 0; i < kb.length; i++)
+        {
+            if(c.get(off + i) != kb[i]) { return false; }
+        }
+        return true;
+    }
+
+    private byte[] read_key(long address)
+    {
+        ByteBuffer c = this.chunk(address).duplicate();
+        int off = (int) address;
+        byte kb[] = new byte[c.getInt(off)];
+        c.position(off + RECORD_HEADER);
+        c.get(kb);
+        return kb;
+    }
+
+    private byte[] read_value(long address)
+    {
+        ByteBuffer c = this.chunk(address).duplicate();
+        int off = (int) address;
+        byte vb[] = new byte[c.getInt(off + 4)];
+        c.position(off + RECORD_HEADER + c.getInt(off));
+        c.get(vb);
+        return vb;
+    }
+
+    private void write_value(long address, byte vb[])
+    {
+        ByteBuffer c = this.chunk(address).duplicate();
+        int off = (int) address;
+        c.position(off + RECORD_HEADER + c.getInt(off));
+        c.put(vb);
+    }
+
+    /*
+     * Libera inmediatamente la memoria de un ByteBuffer directo. Usa
+     * sun.misc.Unsafe.invokeCleaner() si está disponible; si no, la memoria
+     * se libera cuando el garbage collector recolecte el ByteBuffer. También
+     * desmapea un MappedByteBuffer (ver TSBMappedHashTableDA).
+     */
+    static void free(ByteBuffer buffer)
+    {
+        if(buffer == null || INVOKE_CLEANER == null) { return; }
+        try
+        {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        }
+        catch(ReflectiveOperationException | RuntimeException e)
+        {
+            // queda en manos del garbage collector...
+        }
+    }
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+    static
+    {
+        Object unsafe = null;
+        Method invoke_cleaner = null;
+        try
+        {
+            Class<?> c = Class.forName("sun.misc.Unsafe");
+            Field f = c.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            unsafe = f.get(null);
+            invoke_cleaner = c.getMethod("invokeCleaner", ByteBuffer.class);
+        }
+        catch(ReflectiveOperationException | RuntimeException e)
+        {
+            unsafe = null;
+            invoke_cleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invoke_cleaner;
+    }
+
+
+    //************************ Clases Internas.
+
+    /**
+     * Convierte claves o valores a bytes (y viceversa) para guardarlos fuera
+     * del heap. encode() no debe retornar null, y dos objetos iguales deben
+     * codificarse siempre con los mismos bytes.
+     * @param <T> el tipo de objeto que codifica.
+     */
+    public interface Codec<T>
+    {
+        /**
+         * Serializa un objeto.
+         * @param value el objeto (no null).
+         * @return los bytes que lo representan.
+         */
+        byte[] encode(T value);
+
+        /**
+         * Reconstruye un objeto a partir de los bytes que retornó encode().
+         * @param bytes los bytes del objeto.
+         * @return el objeto.
+         */
+        T decode(byte[] bytes);
+    }
+
+    /*
+     * Vista de todos los pares de la tabla.
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>>
+    {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator()
+        {
+            return new EntrySetIterator();
+        }
+
+        @Override
+        public int size()
+        {
+            return TSBOffHeapHashTableDA.this.size();
+        }
+
+        @Override
+        public void clear()
+        {
+            TSBOffHeapHashTableDA.this.clear();
+        }
+    }
+
+    private class EntrySetIterator implements Iterator<Map.Entry<K, V>>
+    {
+        // la casilla a partir de la cual buscar el próximo par...
+        private int next_slot;
+
+        // la casilla retornada por la última invocación a next(), o -1...
+        private int current_slot = -1;
+
+        // el valor que debería tener modCount de la tabla...
+        private int expected_modCount;
+
+        public EntrySetIterator()
+        {
+            check_open();
+            expected_modCount = modCount;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            check_modCount();
+            while(next_slot < capacity && index.get(next_slot * SLOT_BYTES + STATE_OFFSET) != CLOSED)
+            {
+                next_slot++;
+            }
+            return next_slot < capacity;
+        }
+
+        @Override
+        public Map.Entry<K, V> next()
+        {
+            if(!hasNext()) { throw new NoSuchElementException("next(): no existe el elemento pedido..."); }
+
+            current_slot = next_slot++;
+            long address = address(current_slot);
+            K key = key_codec.decode(read_key(address));
+            V value = value_codec.decode(read_value(address));
+            return new AbstractMap.SimpleEntry<K, V>(key, value)
+            {
+                private final int slot = current_slot;
+
+                @Override
+                public V setValue(V value)
+                {
+                    if(value == null) throw new NullPointerException("setValue(): parámetro null");
+                    check_modCount();
+                    V old = super.setValue(value);
+                    replace_at(slot, key_codec.encode(getKey()), value_codec.encode(value));
+                    expected_modCount = modCount;
+                    return old;
+                }
+            };
+        }
+
+        @Override
+        public void remove()
+        {
+            if(current_slot == -1) { throw new IllegalStateException("remove(): debe invocar a next() antes de remove()..."); }
+            check_modCount();
+
+            // sin compactar: las casillas no deben cambiar de lugar mientras
+            // dure la iteración...
+            remove_at(current_slot);
+            current_slot = -1;
+            expected_modCount = modCount;
+        }
+
+        private void check_modCount()
+        {
+            check_open();
+            if(modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("la tabla fue modificada durante la iteración");
+            }
+        }
+    }
+}
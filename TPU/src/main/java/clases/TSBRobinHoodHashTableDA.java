@@ -0,0 +1,397 @@
+package clases;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+
+/**
+ * Tabla hash con exploración lineal Robin Hood. Cada par está a una
+ * distancia d de su casilla de origen (la que le asigna la función hash), y
+ * al insertar, un par que ya viajó más casillas desplaza al que está más
+ * cerca de su origen ("le quita al rico para darle al pobre"). Así las
+ * distancias quedan parejas, y la tabla se mantiene rápida con factores de
+ * carga de 0.8 a 0.9, mientras que TSBHashTableDA no admite más de 0.5.
+ *
+ * La distancia de cada par no se guarda: se calcula con el hash guardado en
+ * su casilla (que es el hashCode() mezclado con TSBHashTableDA.spread(), una
+ * función biyectiva, de forma que comparar hashes mezclados equivale a
+ * comparar hashCode()). Una búsqueda sin éxito termina al encontrar una
+ * casilla libre o un par más cercano a su origen que la distancia recorrida
+ * (si la clave estuviera, habría desplazado a ese par). Al eliminar no se
+ * deja una TOMBSTONE: los pares siguientes del mismo grupo retroceden una
+ * casilla (backward-shift), hasta una casilla libre o un par que ya está en
+ * su origen. El tamaño de la tabla es siempre una potencia de dos.
+ *
+ * No se admiten claves ni valores null.
+ *
+ * @author Grupo 31 - Falco, Gonzalo - Marzo, Lautaro - Pesetti, Sabrina - Vela, Azul
+ * @version Octubre de 2022.
+ * @param <K> el tipo de los objetos que serán usados como clave en la tabla.
+ * @param <V> el tipo de los objetos que serán los valores de la tabla.
+ */
+public class TSBRobinHoodHashTableDA<K,V> extends AbstractTSBHashTableDA<K,V>
+{
+    //************************ Atributos privados (estructurales).
+
+    // las casillas: claves (null si la casilla está libre), valores y el
+    // hashCode() mezclado de cada clave...
+    private transient Object keys[];
+    private transient Object values[];
+    private transient int hashes[];
+
+    // máscara para obtener el índice de una casilla (tamaño - 1)...
+    private transient int mask;
+
+    // el tamaño inicial y el factor de carga...
+    private int initial_capacity;
+    private float load_factor;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea una tabla vacía, con capacidad inicial para 16 pares y factor de
+     * carga 0.875f.
+     */
+    public TSBRobinHoodHashTableDA()
+    {
+        this(16, 0.875f);
+    }
+
+    /**
+     * Crea una tabla vacía con la capacidad inicial indicada y factor de
+     * carga 0.875f.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     */
+    public TSBRobinHoodHashTableDA(int initial_capacity)
+    {
+        this(initial_capacity, 0.875f);
+    }
+
+    /**
+     * Crea una tabla vacía con la capacidad inicial y el factor de carga
+     * indicados. Si la capacidad es menor o igual a cero, se usa 16. Si el
+     * factor de carga no es mayor a 0 y menor o igual a 0.95f, se usa 0.875f.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     * @param load_factor el factor de carga de la tabla.
+     */
+    public TSBRobinHoodHashTableDA(int initial_capacity, float load_factor)
+    {
+        if(initial_capacity <= 0) { initial_capacity = 16; }
+        if(load_factor <= 0 || load_factor > 0.95f) { load_factor = 0.875f; }
+
+        this.initial_capacity = initial_capacity;
+        this.load_factor = load_factor;
+        this.init(this.length_for(initial_capacity));
+    }
+
+
+    //************************ Implementación de métodos especificados por Map.
+
+    /**
+     * Asocia el valor value con la clave key. Si la clave ya estaba en la
+     * tabla, reemplaza su valor. La búsqueda y la inserción se hacen en una
+     * sola pasada: la búsqueda termina donde la clave debería insertarse.
+     * @param key la clave.
+     * @param value el valor.
+     * @return el valor anterior asociado a key, o null si no estaba.
+     * @throws NullPointerException si key o value es null.
+     */
+    @Override
+    public V put(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("put(): parámetro null");
+
+        int h = TSBHashTableDA.spread(key.hashCode());
+        int i = h & this.mask;
+        for(int d = 0; ; d++)
+        {
+            Object k = this.keys[i];
+            if(k == null || this.distance(i) < d)
+            {
+                // la clave no está: va en esta casilla, desplazando a las que
+                // siguen (o, si la tabla tiene que crecer, en la tabla nueva)...
+                if(this.count + 1 > this.load_factor * this.keys.length)
+                {
+                    this.resize(2 * this.keys.length);
+                    i = h & this.mask;
+                    d = 0;
+                }
+                this.insert_at(i, d, key, value, h);
+                this.count++;
+                this.modCount++;
+                return null;
+            }
+            if(this.hashes[i] == h && (k == key || key.equals(k)))
+            {
+                V old = (V) this.values[i];
+                this.values[i] = value;
+                return old;
+            }
+            i = (i + 1) & this.mask;
+        }
+    }
+
+    /**
+     * Elimina todos los pares de la tabla, y la deja con su tamaño inicial.
+     */
+    @Override
+    public void clear()
+    {
+        this.init(this.length_for(this.initial_capacity));
+        this.count = 0;
+        this.modCount++;
+    }
+
+
+    //************************ Métodos específicos de la clase.
+
+    /**
+     * @return la cantidad de casillas de la tabla.
+     */
+    public int capacity()
+    {
+        return this.keys.length;
+    }
+
+    /**
+     * @return el factor de carga de la tabla.
+     */
+    public float getLoadFactor()
+    {
+        return this.load_factor;
+    }
+
+    /**
+     * Retorna la mayor distancia entre un par y su casilla de origen (la
+     * longitud de la búsqueda exitosa más larga, menos uno).
+     * @return la distancia máxima.
+     */
+    public int maxProbeDistance()
+    {
+        int max = 0;
+        for(int i = 0; i < this.keys.length; i++)
+        {
+            if(this.keys[i] != null) { max = Math.max(max, this.distance(i)); }
+        }
+        return max;
+    }
+
+    /**
+     * Retorna la distancia promedio entre los pares y su casilla de origen.
+     * @return la distancia promedio (0 si la tabla está vacía).
+     */
+    public double averageProbeDistance()
+    {
+        long sum = 0;
+        for(int i = 0; i < this.keys.length; i++)
+        {
+            if(this.keys[i] != null) { sum += this.distance(i); }
+        }
+        return (this.count == 0) ? 0 : (double) sum / this.count;
+    }
+
+
+    //************************ Acceso a las casillas.
+
+    @Override
+    int index_of(Object key, int hc)
+    {
+        Object k[] = this.keys;
+        int h = TSBHashTableDA.spread(hc);
+        int i = h & this.mask;
+        for(int d = 0; ; d++)
+        {
+            Object x = k[i];
+            if(x == null || this.distance(i) < d) { return -1; }
+            if(this.hashes[i] == h && (x == key || key.equals(x))) { return i; }
+            i = (i + 1) & this.mask;
+        }
+    }
+
+    @Override
+    int length()
+    {
+        return this.keys.length;
+    }
+
+    @Override
+    boolean is_closed(int i)
+    {
+        return this.keys[i] != null;
+    }
+
+    @Override
+    K key_at(int i)
+    {
+        return (K) this.keys[i];
+    }
+
+    @Override
+    V value_at(int i)
+    {
+        return (V) this.values[i];
+    }
+
+    @Override
+    void set_value_at(int i, V value)
+    {
+        this.values[i] = value;
+    }
+
+    /*
+     * Backward-shift: cada par siguiente del grupo que no está en su origen
+     * retrocede una casilla, y la última casilla movida queda libre.
+     */
+    @Override
+    void remove_at(int i)
+    {
+        int j = (i + 1) & this.mask;
+        while(this.keys[j] != null && this.distance(j) > 0)
+        {
+            this.keys[i] = this.keys[j];
+            this.values[i] = this.values[j];
+            this.hashes[i] = this.hashes[j];
+            i = j;
+            j = (j + 1) & this.mask;
+        }
+        this.keys[i] = null;
+        this.values[i] = null;
+        this.count--;
+        this.modCount++;
+    }
+
+    /*
+     * El recorrido empieza en una casilla libre: el backward-shift nunca
+     * mueve un par a una casilla libre, así que un par no visitado nunca pasa
+     * a una casilla ya recorrida.
+     */
+    @Override
+    int iteration_start()
+    {
+        for(int i = 0; i < this.keys.length; i++)
+        {
+            if(this.keys[i] == null) { return i; }
+        }
+        return 0;
+    }
+
+
+    //************************ Métodos privados.
+
+    /*
+     * Crea una tabla vacía de length casillas.
+     */
+    private void init(int length)
+    {
+        this.keys = new Object[length];
+        this.values = new Object[length];
+        this.hashes = new int[length];
+        this.mask = length - 1;
+    }
+
+    /*
+     * Retorna el tamaño de tabla (potencia de dos) para guardar n pares sin
+     * superar el factor de carga.
+     */
+    private int length_for(int n)
+    {
+        long needed = (long) Math.ceil(n / this.load_factor) + 1;
+        if(needed > (1 << 30)) throw new IllegalStateException("capacidad excesiva: " + n);
+
+        int length = 2;
+        while(length < needed) { length <<= 1; }
+        return length;
+    }
+
+    /*
+     * Retorna la distancia del par de la casilla ocupada i a su origen.
+     */
+    private int distance(int i)
+    {
+        return (i - this.hashes[i]) & this.mask;
+    }
+
+    /*
+     * Coloca el par en la casilla i, que está a distancia d de su origen. Si
+     * la casilla está ocupada, su par sigue buscando lugar más adelante,
+     * desplazando a su vez a los pares más cercanos a su origen.
+     */
+    private void insert_at(int i, int d, Object key, Object value, int h)
+    {
+        while(true)
+        {
+            Object k = this.keys[i];
+            if(k == null)
+            {
+                this.keys[i] = key;
+                this.values[i] = value;
+                this.hashes[i] = h;
+                return;
+            }
+
+            int dd = this.distance(i);
+            if(dd < d)
+            {
+                Object v = this.values[i];
+                int hh = this.hashes[i];
+                this.keys[i] = key;
+                this.values[i] = value;
+                this.hashes[i] = h;
+                key = k;
+                value = v;
+                h = hh;
+                d = dd;
+            }
+            i = (i + 1) & this.mask;
+            d++;
+        }
+    }
+
+    /*
+     * Crea una tabla de length casillas y reinserta en ella todos los pares.
+     */
+    private void resize(int length)
+    {
+        Object old_keys[] = this.keys;
+        Object old_values[] = this.values;
+        int old_hashes[] = this.hashes;
+
+        this.init(length);
+        for(int i = 0; i < old_keys.length; i++)
+        {
+            if(old_keys[i] != null)
+            {
+                int h = old_hashes[i];
+                this.insert_at(h & this.mask, 0, old_keys[i], old_values[i], h);
+            }
+        }
+        this.modCount++;
+    }
+
+    /*
+     * Serializa la tabla: los atributos no transient (capacidad inicial y
+     * factor de carga), la cantidad de pares y los pares.
+     */
+    private void writeObject(ObjectOutputStream s) throws IOException
+    {
+        s.defaultWriteObject();
+        this.write_pairs(s);
+    }
+
+    /*
+     * Reconstruye la tabla a partir de lo escrito por writeObject().
+     */
+    private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException
+    {
+        s.defaultReadObject();
+        if(!(this.load_factor > 0 && this.load_factor <= 0.95f))
+            throw new InvalidObjectException("factor de carga inválido: " + this.load_factor);
+
+        int n = read_count(s);
+        this.init(this.length_for(Math.max(n, this.initial_capacity)));
+        this.read_pairs(s, n);
+    }
+}
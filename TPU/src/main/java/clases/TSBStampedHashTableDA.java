@@ -0,0 +1,439 @@
+package clases;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+
+/**
+ * Envoltorio seguro para el uso concurrente de una tabla TSBHashTableDA,
+ * pensado para tablas en las que casi todas las operaciones son lecturas.
+ *
+ * Los escritores (put(), remove(), clear(), compute(), merge(), etc.) toman
+ * el lock exclusivo de un StampedLock. Las lecturas get() y containsKey() no
+ * toman ningún lock: obtienen un sello de lectura optimista, buscan la clave
+ * y validan el sello. Si entre tanto un escritor modificó la tabla (por
+ * ejemplo, haciendo un rehash()), el resultado se descarta y la búsqueda se
+ * repite; después de OPTIMISTIC_RETRIES intentos fallidos se toma el lock de
+ * lectura. Así los lectores no escriben ninguna variable compartida y no
+ * compiten entre sí, como ocurriría con un ReentrantReadWriteLock.
+ *
+ * Las vistas son instantáneas: el iterador copia el contenido de la tabla
+ * (con el lock exclusivo) al crearse, y nunca lanza
+ * ConcurrentModificationException. La tabla envuelta no debe usarse
+ * directamente mientras esté envuelta. No se admiten claves ni valores null.
+ *
+ * @author Grupo 31 - Falco, Gonzalo - Marzo, Lautaro - Pesetti, Sabrina - Vela, Azul
+ * @version Octubre de 2022.
+ * @param <K> el tipo de los objetos que serán usados como clave en la tabla.
+ * @param <V> el tipo de los objetos que serán los valores de la tabla.
+ */
+public class TSBStampedHashTableDA<K,V> extends AbstractMap<K,V> implements Serializable
+{
+    //************************ Constantes (privadas o públicas).
+
+    // lecturas optimistas a intentar antes de tomar el lock de lectura...
+    private static final int OPTIMISTIC_RETRIES = 2;
+
+    //************************ Atributos privados (estructurales).
+
+    // la tabla envuelta...
+    private final TSBHashTableDA<K,V> table;
+
+    // el lock que la protege...
+    private final StampedLock lock = new StampedLock();
+
+    // vista de pares (se crea la primera vez que se pide)...
+    private transient Set<Map.Entry<K,V>> entrySet = null;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea una tabla vacía, con capacidad inicial igual a 11 y con factor
+     * de carga igual a 0.5f.
+     */
+    public TSBStampedHashTableDA()
+    {
+        this(new TSBHashTableDA<>());
+    }
+
+    /**
+     * Crea una tabla vacía, con la capacidad inicial y el factor de carga
+     * indicados (con las mismas reglas que en TSBHashTableDA).
+     * @param initial_capacity la capacidad inicial de la tabla.
+     * @param load_factor el factor de carga de la tabla.
+     */
+    public TSBStampedHashTableDA(int initial_capacity, float load_factor)
+    {
+        this(new TSBHashTableDA<>(initial_capacity, load_factor));
+    }
+
+    /**
+     * Envuelve la tabla indicada. A partir de aquí la tabla sólo debe
+     * accederse a través de este objeto.
+     * @param table la tabla a envolver.
+     * @throws NullPointerException si table es null.
+     */
+    public TSBStampedHashTableDA(TSBHashTableDA<K,V> table)
+    {
+        if(table == null) throw new NullPointerException("TSBStampedHashTableDA(): parámetro null");
+        this.table = table;
+    }
+
+
+    //************************ Implementación de métodos especificados por Map.
+
+    /**
+     * Retorna la cantidad de elementos contenidos en la tabla.
+     * @return la cantidad de elementos de la tabla.
+     */
+    @Override
+    public int size()
+    {
+        long stamp = this.lock.tryOptimisticRead();
+        int n = this.table.size();
+        if(this.lock.validate(stamp)) { return n; }
+
+        stamp = this.lock.readLock();
+        try { return this.table.size(); }
+        finally { this.lock.unlockRead(stamp); }
+    }
+
+    /**
+     * Determina si la tabla está vacía (no contiene ningún elemento).
+     * @return true si la tabla está vacía.
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return this.size() == 0;
+    }
+
+    /**
+     * Determina si la clave key está en la tabla (con lectura optimista).
+     * @param key la clave a verificar.
+     * @return true si la clave está en la tabla.
+     * @throws NullPointerException si la clave es null.
+     */
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return this.get(key) != null;
+    }
+
+    /**
+     * Determina si alguna clave de la tabla está asociada al objeto value.
+     * Recorre toda la tabla con el lock exclusivo tomado.
+     * @param value el objeto a buscar en la tabla.
+     * @return true si alguna clave está asociada efectivamente a ese value.
+     */
+    @Override
+    public boolean containsValue(Object value)
+    {
+        long stamp = this.lock.writeLock();
+        try { return this.table.containsValue(value); }
+        finally { this.lock.unlockWrite(stamp); }
+    }
+
+    /**
+     * Retorna el objeto al cual está asociada la clave key en la tabla, o null
+     * si la tabla no contiene ningún objeto asociado a esa clave. La búsqueda
+     * se hace con lectura optimista, y sólo toma el lock de lectura si un
+     * escritor la invalidó OPTIMISTIC_RETRIES veces seguidas.
+     * @param key la clave que será buscada en la tabla.
+     * @return el objeto asociado a la clave especificada, o null.
+     * @throws NullPointerException si key es null.
+     */
+    @Override
+    public V get(Object key)
+    {
+        if(key == null) throw new NullPointerException("get(): parámetro null");
+
+        for(int i = 0; i < OPTIMISTIC_RETRIES; i++)
+        {
+            long stamp = this.lock.tryOptimisticRead();
+            if(stamp == 0) { break; }
+
+            V value;
+            try
+            {
+                value = this.table.peek(key);
+            }
+            catch(RuntimeException e)
+            {
+                // la tabla cambió en medio de la búsqueda: si el sello sigue
+                // siendo válido la excepción es genuina (la lanzó la clave)...
+                if(this.lock.validate(stamp)) { throw e; }
+                continue;
+            }
+            if(this.lock.validate(stamp)) { return value; }
+        }
+
+        long stamp = this.lock.readLock();
+        try { return this.table.peek(key); }
+        finally { this.lock.unlockRead(stamp); }
+    }
+
+    /**
+     * Asocia el valor (value) especificado con la clave (key) especificada.
+     * @param key la clave del objeto que se quiere agregar a la tabla.
+     * @param value el objeto que se quiere agregar a la tabla.
+     * @return el objeto anteriormente asociado a la clave, o null.
+     * @throws NullPointerException si key es null o value es null.
+     */
+    @Override
+    public V put(K key, V value)
+    {
+        long stamp = this.lock.writeLock();
+        try { return this.table.put(key, value); }
+        finally { this.lock.unlockWrite(stamp); }
+    }
+
+    /**
+     * Elimina de la tabla la clave key (y su correspondiente valor asociado).
+     * @param key la clave a eliminar.
+     * @return el objeto al cual la clave estaba asociada, o null.
+     * @throws NullPointerException si key es null.
+     */
+    @Override
+    public V remove(Object key)
+    {
+        long stamp = this.lock.writeLock();
+        try { return this.table.remove(key); }
+        finally { this.lock.unlockWrite(stamp); }
+    }
+
+    /**
+     * Copia en esta tabla todos los objetos contenidos en el map especificado,
+     * con el lock exclusivo tomado durante toda la copia.
+     * @param m el map cuyos objetos serán copiados en esta tabla.
+     * @throws NullPointerException si m es null.
+     */
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m)
+    {
+        long stamp = this.lock.writeLock();
+        try { this.table.putAll(m); }
+        finally { this.lock.unlockWrite(stamp); }
+    }
+
+    /**
+     * Elimina el contenido de la tabla.
+     */
+    @Override
+    public void clear()
+    {
+        long stamp = this.lock.writeLock();
+        try { this.table.clear(); }
+        finally { this.lock.unlockWrite(stamp); }
+    }
+
+    /**
+     * Retorna una vista de todos los pares de la tabla. Cada iterador
+     * recorre una copia del contenido tomada al crearse; su remove() y el
+     * setValue() de los pares que retorna actualizan la tabla.
+     * @return un conjunto a modo de vista de todos los pares de la tabla.
+     */
+    @Override
+    public Set<Map.Entry<K, V>> entrySet()
+    {
+        if(this.entrySet == null) { this.entrySet = new EntrySet(); }
+        return this.entrySet;
+    }
+
+    /*
+     * Las operaciones compuestas se ejecutan completas con el lock exclusivo
+     * tomado, por lo que son atómicas. Las funciones que reciben no deben
+     * modificar esta tabla.
+     */
+
+    @Override
+    public V putIfAbsent(K key, V value)
+    {
+        long stamp = this.lock.writeLock();
+        try { return this.table.putIfAbsent(key, value); }
+        finally { this.lock.unlockWrite(stamp); }
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mapping_function)
+    {
+        long stamp = this.lock.writeLock();
+        try { return this.table.computeIfAbsent(key, mapping_function); }
+        finally { this.lock.unlockWrite(stamp); }
+    }
+
+    @Override
+    public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remapping_function)
+    {
+        long stamp = this.lock.writeLock();
+        try { return this.table.computeIfPresent(key, remapping_function); }
+        finally { this.lock.unlockWrite(stamp); }
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping_function)
+    {
+        long stamp = this.lock.writeLock();
+        try { return this.table.compute(key, remapping_function); }
+        finally { this.lock.unlockWrite(stamp); }
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remapping_function)
+    {
+        long stamp = this.lock.writeLock();
+        try { return this.table.merge(key, value, remapping_function); }
+        finally { this.lock.unlockWrite(stamp); }
+    }
+
+    @Override
+    public boolean remove(Object key, Object value)
+    {
+        long stamp = this.lock.writeLock();
+        try
+        {
+            // TSBHashTableDA.remove(key, value) no compara el valor...
+            V old = this.table.get(key);
+            if(old == null || !old.equals(value)) { return false; }
+            this.table.remove(key);
+            return true;
+        }
+        finally { this.lock.unlockWrite(stamp); }
+    }
+
+    @Override
+    public boolean replace(K key, V old_value, V new_value)
+    {
+        long stamp = this.lock.writeLock();
+        try { return this.table.replace(key, old_value, new_value); }
+        finally { this.lock.unlockWrite(stamp); }
+    }
+
+    @Override
+    public V replace(K key, V value)
+    {
+        long stamp = this.lock.writeLock();
+        try { return this.table.replace(key, value); }
+        finally { this.lock.unlockWrite(stamp); }
+    }
+
+
+    //************************ Clases Internas.
+
+    /*
+     * Vista de todos los pares de la tabla, recorrida sobre una copia.
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>>
+    {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator()
+        {
+            return new EntrySetIterator();
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            if(!(o instanceof Map.Entry)) { return false; }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            if(e.getKey() == null) { return false; }
+            V v = TSBStampedHashTableDA.this.get(e.getKey());
+            return v != null && v.equals(e.getValue());
+        }
+
+        @Override
+        public int size()
+        {
+            return TSBStampedHashTableDA.this.size();
+        }
+
+        @Override
+        public void clear()
+        {
+            TSBStampedHashTableDA.this.clear();
+        }
+    }
+
+    private class EntrySetIterator implements Iterator<Map.Entry<K, V>>
+    {
+        // copia del contenido de la tabla...
+        private final Object keys[];
+        private final Object values[];
+
+        // posición del próximo par a retornar...
+        private int next_entry;
+
+        // la clave retornada por la última invocación a next()...
+        private K last_key;
+
+        public EntrySetIterator()
+        {
+            long stamp = TSBStampedHashTableDA.this.lock.writeLock();
+            try
+            {
+                int n = table.size();
+                keys = new Object[n];
+                values = new Object[n];
+                int i = 0;
+                for(Map.Entry<K, V> e : table.entrySet())
+                {
+                    keys[i] = e.getKey();
+                    values[i] = e.getValue();
+                    i++;
+                }
+            }
+            finally { TSBStampedHashTableDA.this.lock.unlockWrite(stamp); }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return next_entry < keys.length;
+        }
+
+        @Override
+        public Map.Entry<K, V> next()
+        {
+            if(!hasNext()) { throw new NoSuchElementException("next(): no existe el elemento pedido..."); }
+
+            K key = (K) keys[next_entry];
+            V value = (V) values[next_entry];
+            next_entry++;
+            last_key = key;
+            return new SnapshotEntry(key, value);
+        }
+
+        @Override
+        public void remove()
+        {
+            if(last_key == null) { throw new IllegalStateException("remove(): debe invocar a next() antes de remove()..."); }
+            TSBStampedHashTableDA.this.remove(last_key);
+            last_key = null;
+        }
+    }
+
+    /*
+     * Par retornado por el iterador: setValue() actualiza la tabla si la
+     * clave sigue presente.
+     */
+    private class SnapshotEntry extends AbstractMap.SimpleEntry<K, V>
+    {
+        SnapshotEntry(K key, V value)
+        {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value)
+        {
+            if(value == null) { throw new NullPointerException("setValue(): parámetro null"); }
+            V old = super.setValue(value);
+            TSBStampedHashTableDA.this.computeIfPresent(getKey(), (k, v) -> value);
+            return old;
+        }
+    }
+}
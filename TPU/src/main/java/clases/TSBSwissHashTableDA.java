@@ -0,0 +1,418 @@
+package clases;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+
+/**
+ * Tabla hash al estilo SwissTable: además de los arreglos de claves, valores
+ * y hashes, cada casilla tiene un byte de control que indica si está libre
+ * (EMPTY), si es una tumba (DELETED) o, si está ocupada, los 7 bits bajos del
+ * hash de su clave (h2). Los bytes de control se agrupan de a GROUP_SIZE en
+ * un long, y una búsqueda revisa un grupo entero con unas pocas operaciones
+ * sobre ese long (SWAR, "SIMD within a register"): obtiene de una vez las
+ * casillas del grupo cuyo h2 coincide con el de la clave buscada, y sólo
+ * lee las claves de esas casillas. Como h2 tiene 7 bits, en promedio sólo
+ * una de cada 128 casillas ocupadas que no son la buscada llega a compararse,
+ * y una búsqueda sin éxito casi nunca toca una clave.
+ *
+ * Los bits altos del hash (h1) eligen el primer grupo; si la clave no está
+ * en él y el grupo no tiene ninguna casilla libre, se sigue con otro grupo
+ * (exploración triangular sobre los grupos, que en una tabla de tamaño
+ * potencia de dos los recorre todos). Un grupo con alguna casilla libre
+ * termina la búsqueda. Al eliminar, la casilla vuelve a estar libre si su
+ * grupo tiene otra casilla libre (ninguna búsqueda pasó de largo por ese
+ * grupo); si no, queda como tumba. La tabla crece al doble cuando las
+ * casillas ocupadas y las tumbas llegan a 7/8 del total, o se limpia sin
+ * crecer si la mayoría de esas casillas son tumbas.
+ *
+ * No se admiten claves ni valores null.
+ *
+ * @author Grupo 31 - Falco, Gonzalo - Marzo, Lautaro - Pesetti, Sabrina - Vela, Azul
+ * @version Octubre de 2022.
+ * @param <K> el tipo de los objetos que serán usados como clave en la tabla.
+ * @param <V> el tipo de los objetos que serán los valores de la tabla.
+ */
+public class TSBSwissHashTableDA<K,V> extends AbstractTSBHashTableDA<K,V>
+{
+    //************************ Constantes (privadas o públicas).
+
+    // casillas (bytes de control) por grupo: las que entran en un long...
+    public static final int GROUP_SIZE = 8;
+
+    // bytes de control de una casilla libre y de una tumba (el bit alto en 1
+    // los distingue de las casillas ocupadas, que guardan h2 en 7 bits)...
+    static final int EMPTY = 0x80;
+    static final int DELETED = 0xFE;
+
+    // constantes de las operaciones SWAR: el bit bajo y el bit alto de cada
+    // byte del long...
+    private static final long LSB = 0x0101010101010101L;
+    private static final long MSB = 0x8080808080808080L;
+
+    // un grupo con todas sus casillas libres...
+    private static final long EMPTY_GROUP = EMPTY * LSB;
+
+
+    //************************ Atributos privados (estructurales).
+
+    // los bytes de control, de a GROUP_SIZE por long (el byte j del long g
+    // corresponde a la casilla g * GROUP_SIZE + j)...
+    private transient long ctrl[];
+
+    // las casillas: claves, valores y el hashCode() de cada clave (las
+    // búsquedas no lo leen, les alcanza con h2; se guarda para redimensionar
+    // sin volver a llamar a hashCode())...
+    private transient Object keys[];
+    private transient Object values[];
+    private transient int hashes[];
+
+    // máscara para obtener el número de grupo (grupos: potencia de dos)...
+    private transient int group_mask;
+
+    // la cantidad de tumbas...
+    private transient int deleted;
+
+    // el tamaño inicial...
+    private int initial_capacity;
+
+
+    //************************ Constructores.
+
+    /**
+     * Crea una tabla vacía, con capacidad inicial para 16 pares.
+     */
+    public TSBSwissHashTableDA()
+    {
+        this(16);
+    }
+
+    /**
+     * Crea una tabla vacía con la capacidad inicial indicada (si es menor o
+     * igual a cero, se usa 16). El factor de carga es fijo: 7/8.
+     * @param initial_capacity la capacidad inicial de la tabla.
+     */
+    public TSBSwissHashTableDA(int initial_capacity)
+    {
+        if(initial_capacity <= 0) { initial_capacity = 16; }
+        this.initial_capacity = initial_capacity;
+        this.init(this.groups_for(initial_capacity));
+    }
+
+
+    //************************ Implementación de métodos especificados por Map.
+
+    /**
+     * Asocia el valor value con la clave key. Si la clave ya estaba en la
+     * tabla, reemplaza su valor. La misma exploración que busca la clave
+     * recuerda la primera casilla libre o tumba en la que podría insertarse.
+     * @param key la clave.
+     * @param value el valor.
+     * @return el valor anterior asociado a key, o null si no estaba.
+     * @throws NullPointerException si key o value es null.
+     */
+    @Override
+    public V put(K key, V value)
+    {
+        if(key == null || value == null) throw new NullPointerException("put(): parámetro null");
+
+        int hc = key.hashCode();
+        int x = this.find(key, hc);
+        if(x >= 0)
+        {
+            V old = (V) this.values[x];
+            this.values[x] = value;
+            return old;
+        }
+
+        int i = -x - 1;
+        boolean reuse = this.control(i) == DELETED;
+        if(!reuse && (this.count + this.deleted + 1) * 8L > 7L * this.keys.length)
+        {
+            // muchas tumbas: limpiar sin crecer; si no, crecer al doble...
+            int groups = this.group_mask + 1;
+            this.resize((this.deleted > this.count) ? groups : 2 * groups);
+            i = this.find_free(TSBHashTableDA.spread(hc));
+        }
+        if(reuse) { this.deleted--; }
+
+        this.keys[i] = key;
+        this.values[i] = value;
+        this.hashes[i] = hc;
+        this.set_control(i, TSBHashTableDA.spread(hc) & 0x7F);
+        this.count++;
+        this.modCount++;
+        return null;
+    }
+
+    /**
+     * Elimina todos los pares de la tabla, y la deja con su tamaño inicial.
+     */
+    @Override
+    public void clear()
+    {
+        this.init(this.groups_for(this.initial_capacity));
+        this.count = 0;
+        this.modCount++;
+    }
+
+
+    //************************ Métodos específicos de la clase.
+
+    /**
+     * @return la cantidad de casillas de la tabla.
+     */
+    public int capacity()
+    {
+        return this.keys.length;
+    }
+
+    /**
+     * @return la cantidad de casillas marcadas como tumba.
+     */
+    public int deletedCount()
+    {
+        return this.deleted;
+    }
+
+
+    //************************ Acceso a las casillas.
+
+    @Override
+    int index_of(Object key, int hc)
+    {
+        int x = this.find(key, hc);
+        return (x >= 0) ? x : -1;
+    }
+
+    @Override
+    int length()
+    {
+        return this.keys.length;
+    }
+
+    @Override
+    boolean is_closed(int i)
+    {
+        return this.control(i) < EMPTY;
+    }
+
+    @Override
+    K key_at(int i)
+    {
+        return (K) this.keys[i];
+    }
+
+    @Override
+    V value_at(int i)
+    {
+        return (V) this.values[i];
+    }
+
+    @Override
+    void set_value_at(int i, V value)
+    {
+        this.values[i] = value;
+    }
+
+    @Override
+    void remove_at(int i)
+    {
+        this.keys[i] = null;
+        this.values[i] = null;
+        if(match_empty(this.ctrl[i / GROUP_SIZE]) != 0)
+        {
+            this.set_control(i, EMPTY);
+        }
+        else
+        {
+            this.set_control(i, DELETED);
+            this.deleted++;
+        }
+        this.count--;
+        this.modCount++;
+    }
+
+
+    //************************ Operaciones SWAR sobre un grupo.
+
+    /*
+     * Retorna un long con el bit alto encendido en cada byte del grupo g igual
+     * a h2 (0 a 127). Puede marcar de más algún byte (si el byte anterior
+     * coincide, el préstamo de la resta se propaga), pero nunca de menos: el
+     * que lo usa compara después las claves.
+     */
+    static long match(long g, int h2)
+    {
+        long x = g ^ (LSB * h2);
+        return (x - LSB) & ~x & MSB;
+    }
+
+    /*
+     * Retorna un long con el bit alto encendido en cada byte EMPTY del grupo
+     * g (EMPTY es el único byte de control con el bit alto en 1 y el bit 1 en
+     * 0).
+     */
+    static long match_empty(long g)
+    {
+        return g & (~g << 6) & MSB;
+    }
+
+    /*
+     * Retorna un long con el bit alto encendido en cada byte EMPTY o DELETED
+     * del grupo g.
+     */
+    static long match_free(long g)
+    {
+        return g & MSB;
+    }
+
+
+    //************************ Métodos privados.
+
+    /*
+     * Busca la clave key. Si la encuentra retorna su casilla; si no, retorna
+     * -(pos + 1), donde pos es la primera casilla libre o tumba de la
+     * secuencia de exploración.
+     */
+    private int find(Object key, int hc)
+    {
+        int h = TSBHashTableDA.spread(hc);
+        int h2 = h & 0x7F;
+        int g = (h >>> 7) & this.group_mask;
+        int free = -1;
+        for(int step = 1; ; step++)
+        {
+            long group = this.ctrl[g];
+            int base = g * GROUP_SIZE;
+
+            for(long m = match(group, h2); m != 0; m &= m - 1)
+            {
+                int i = base + (Long.numberOfTrailingZeros(m) >>> 3);
+                Object k = this.keys[i];
+                if(k == key || key.equals(k)) { return i; }
+            }
+
+            if(free == -1)
+            {
+                long f = match_free(group);
+                if(f != 0) { free = base + (Long.numberOfTrailingZeros(f) >>> 3); }
+            }
+            if(match_empty(group) != 0) { return -free - 1; }
+
+            g = (g + step) & this.group_mask;
+        }
+    }
+
+    /*
+     * Retorna la primera casilla libre (o tumba) de la secuencia de
+     * exploración del hash mezclado h.
+     */
+    private int find_free(int h)
+    {
+        int g = (h >>> 7) & this.group_mask;
+        for(int step = 1; ; step++)
+        {
+            long f = match_free(this.ctrl[g]);
+            if(f != 0) { return g * GROUP_SIZE + (Long.numberOfTrailingZeros(f) >>> 3); }
+            g = (g + step) & this.group_mask;
+        }
+    }
+
+    /*
+     * Retorna el byte de control de la casilla i (0 a 255).
+     */
+    private int control(int i)
+    {
+        return (int) (this.ctrl[i / GROUP_SIZE] >>> ((i % GROUP_SIZE) * 8)) & 0xFF;
+    }
+
+    /*
+     * Cambia el byte de control de la casilla i.
+     */
+    private void set_control(int i, int c)
+    {
+        int shift = (i % GROUP_SIZE) * 8;
+        int g = i / GROUP_SIZE;
+        this.ctrl[g] = (this.ctrl[g] & ~(0xFFL << shift)) | ((long) c << shift);
+    }
+
+    /*
+     * Crea una tabla vacía de groups grupos.
+     */
+    private void init(int groups)
+    {
+        this.ctrl = new long[groups];
+        Arrays.fill(this.ctrl, EMPTY_GROUP);
+        this.keys = new Object[groups * GROUP_SIZE];
+        this.values = new Object[groups * GROUP_SIZE];
+        this.hashes = new int[groups * GROUP_SIZE];
+        this.group_mask = groups - 1;
+        this.deleted = 0;
+    }
+
+    /*
+     * Retorna la cantidad de grupos (potencia de dos) para guardar n pares
+     * sin superar 7/8 de las casillas.
+     */
+    private int groups_for(int n)
+    {
+        long slots = (8L * n + 6) / 7 + 1;
+        long needed = (slots + GROUP_SIZE - 1) / GROUP_SIZE;
+        if(needed > (1 << 27)) throw new IllegalStateException("capacidad excesiva: " + n);
+
+        int groups = 1;
+        while(groups < needed) { groups <<= 1; }
+        return groups;
+    }
+
+    /*
+     * Crea una tabla de groups grupos y reinserta en ella todos los pares
+     * (las tumbas no se copian).
+     */
+    private void resize(int groups)
+    {
+        Object old_keys[] = this.keys;
+        Object old_values[] = this.values;
+        int old_hashes[] = this.hashes;
+        long old_ctrl[] = this.ctrl;
+
+        this.init(groups);
+        for(int i = 0; i < old_keys.length; i++)
+        {
+            int c = (int) (old_ctrl[i / GROUP_SIZE] >>> ((i % GROUP_SIZE) * 8)) & 0xFF;
+            if(c < EMPTY)
+            {
+                int j = this.find_free(TSBHashTableDA.spread(old_hashes[i]));
+                this.keys[j] = old_keys[i];
+                this.values[j] = old_values[i];
+                this.hashes[j] = old_hashes[i];
+                this.set_control(j, c);
+            }
+        }
+        this.modCount++;
+    }
+
+    /*
+     * Serializa la tabla: la capacidad inicial, la cantidad de pares y los
+     * pares.
+     */
+    private void writeObject(ObjectOutputStream s) throws IOException
+    {
+        s.defaultWriteObject();
+        this.write_pairs(s);
+    }
+
+    /*
+     * Reconstruye la tabla a partir de lo escrito por writeObject().
+     */
+    private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException
+    {
+        s.defaultReadObject();
+        int n = read_count(s);
+        this.init(this.groups_for(Math.max(n, this.initial_capacity)));
+        this.read_pairs(s, n);
+    }
+}
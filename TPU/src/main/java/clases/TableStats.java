@@ -0,0 +1,289 @@
+package clases;
+
+
+/**
+ * Instantánea de la ocupación y de las secuencias de exploración de una tabla
+ * TSBHashTableDA, obtenida con TSBHashTableDA.stats(). Sirve para ajustar el
+ * factor de carga y el modo de exploración de cada tabla: muestra cuántas
+ * casillas hay que revisar para encontrar una clave presente (búsqueda
+ * exitosa) o para descartar una ausente (búsqueda sin éxito), y cuán largos
+ * son los grupos de casillas ocupadas.
+ *
+ * Los histogramas se indexan por la longitud de la secuencia de exploración
+ * (la cantidad de casillas revisadas, que es al menos 1): la posición p
+ * contiene la cantidad de búsquedas que revisaron exactamente p casillas. El
+ * histograma de búsquedas exitosas tiene una entrada por cada clave de la
+ * tabla; el de búsquedas sin éxito, una por cada casilla en la que puede
+ * empezar una búsqueda (hasta la primera casilla OPEN).
+ *
+ * Los contadores de exploraciones de get() y put() sólo se llevan si la
+ * tabla se cargó con la propiedad de sistema
+ * -Dclases.TSBHashTableDA.probeCounters=true; si no, valen 0.
+ *
+ * @author Grupo 31 - Falco, Gonzalo - Marzo, Lautaro - Pesetti, Sabrina - Vela, Azul
+ * @version Octubre de 2022.
+ */
+public final class TableStats
+{
+    //************************ Atributos privados.
+
+    // tamaño de la tabla, casillas cerradas y casillas TOMBSTONE...
+    private final int capacity;
+    private final int count;
+    private final int tombstones;
+
+    // nivel de carga y factor de carga de la tabla...
+    private final float load_level;
+    private final float load_factor;
+
+    // PRIME_MODE o POWER_OF_TWO_MODE...
+    private final int hash_mode;
+
+    // histogramas de longitudes de exploración...
+    private final long successful[];
+    private final long unsuccessful[];
+
+    // la mayor cantidad de casillas no abiertas consecutivas...
+    private final int longest_cluster;
+
+    // cantidad de rehash y de limpiezas hechas desde que se creó la tabla...
+    private final int rehash_count;
+    private final int compaction_count;
+
+    // contadores en vivo (ver TSBHashTableDA.PROBE_COUNTERS)...
+    private final long gets;
+    private final long get_probes;
+    private final long puts;
+    private final long put_probes;
+
+
+    //************************ Constructores.
+
+    /*
+     * Lo invoca TSBHashTableDA.stats(). Los histogramas no se copian.
+     */
+    TableStats(int capacity, int count, int tombstones, float load_level, float load_factor, int hash_mode,
+               long successful[], long unsuccessful[], int longest_cluster, int rehash_count, int compaction_count,
+               long gets, long get_probes, long puts, long put_probes)
+    {
+        this.capacity = capacity;
+        this.count = count;
+        this.tombstones = tombstones;
+        this.load_level = load_level;
+        this.load_factor = load_factor;
+        this.hash_mode = hash_mode;
+        this.successful = successful;
+        this.unsuccessful = unsuccessful;
+        this.longest_cluster = longest_cluster;
+        this.rehash_count = rehash_count;
+        this.compaction_count = compaction_count;
+        this.gets = gets;
+        this.get_probes = get_probes;
+        this.puts = puts;
+        this.put_probes = put_probes;
+    }
+
+
+    //************************ Métodos de consulta.
+
+    /**
+     * @return la cantidad de casillas de la tabla.
+     */
+    public int getCapacity()
+    {
+        return this.capacity;
+    }
+
+    /**
+     * @return la cantidad de pares de la tabla.
+     */
+    public int getCount()
+    {
+        return this.count;
+    }
+
+    /**
+     * @return la cantidad de casillas en estado TOMBSTONE.
+     */
+    public int getTombstones()
+    {
+        return this.tombstones;
+    }
+
+    /**
+     * @return el nivel de carga (casillas cerradas y TOMBSTONE sobre el total).
+     */
+    public float getLoadLevel()
+    {
+        return this.load_level;
+    }
+
+    /**
+     * @return el factor de carga de la tabla.
+     */
+    public float getLoadFactor()
+    {
+        return this.load_factor;
+    }
+
+    /**
+     * @return el modo de la tabla (PRIME_MODE o POWER_OF_TWO_MODE).
+     */
+    public int getHashMode()
+    {
+        return this.hash_mode;
+    }
+
+    /**
+     * Retorna una copia del histograma de longitudes de exploración de las
+     * búsquedas exitosas (una por cada clave de la tabla).
+     * @return el histograma (la posición p cuenta las búsquedas de p casillas).
+     */
+    public long[] getSuccessfulProbeHistogram()
+    {
+        return this.successful.clone();
+    }
+
+    /**
+     * Retorna una copia del histograma de longitudes de exploración de las
+     * búsquedas sin éxito (una por cada casilla inicial posible).
+     * @return el histograma (la posición p cuenta las búsquedas de p casillas).
+     */
+    public long[] getUnsuccessfulProbeHistogram()
+    {
+        return this.unsuccessful.clone();
+    }
+
+    /**
+     * @return la longitud promedio de exploración de una búsqueda exitosa.
+     */
+    public double averageSuccessfulProbes()
+    {
+        return average(this.successful);
+    }
+
+    /**
+     * @return la longitud promedio de exploración de una búsqueda sin éxito.
+     */
+    public double averageUnsuccessfulProbes()
+    {
+        return average(this.unsuccessful);
+    }
+
+    /**
+     * @return la longitud máxima de exploración de una búsqueda exitosa.
+     */
+    public int maxSuccessfulProbes()
+    {
+        return Math.max(this.successful.length - 1, 0);
+    }
+
+    /**
+     * @return la longitud máxima de exploración de una búsqueda sin éxito.
+     */
+    public int maxUnsuccessfulProbes()
+    {
+        return Math.max(this.unsuccessful.length - 1, 0);
+    }
+
+    /**
+     * @return la mayor cantidad de casillas consecutivas (cerradas o
+     * TOMBSTONE) sin ninguna casilla OPEN en el medio.
+     */
+    public int getLongestCluster()
+    {
+        return this.longest_cluster;
+    }
+
+    /**
+     * @return la cantidad de veces que la tabla cambió de tamaño.
+     */
+    public int getRehashCount()
+    {
+        return this.rehash_count;
+    }
+
+    /**
+     * @return la cantidad de veces que la tabla se limpió sin cambiar de
+     * tamaño (ver TSBHashTableDA.compact()).
+     */
+    public int getCompactionCount()
+    {
+        return this.compaction_count;
+    }
+
+    /**
+     * @return la cantidad de get() contados (0 si los contadores están
+     * desactivados).
+     */
+    public long getGets()
+    {
+        return this.gets;
+    }
+
+    /**
+     * @return la cantidad total de casillas revisadas por los get() contados.
+     */
+    public long getGetProbes()
+    {
+        return this.get_probes;
+    }
+
+    /**
+     * @return la cantidad de put() (y putIfAbsent(), compute(), merge(), etc.)
+     * contados (0 si los contadores están desactivados).
+     */
+    public long getPuts()
+    {
+        return this.puts;
+    }
+
+    /**
+     * @return la cantidad total de casillas revisadas por los put() contados.
+     */
+    public long getPutProbes()
+    {
+        return this.put_probes;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder cad = new StringBuilder("TableStats[");
+        cad.append("capacity=").append(this.capacity);
+        cad.append(", count=").append(this.count);
+        cad.append(", tombstones=").append(this.tombstones);
+        cad.append(", loadLevel=").append(this.load_level);
+        cad.append(", successful(avg=").append(String.format("%.3f", this.averageSuccessfulProbes()));
+        cad.append(", max=").append(this.maxSuccessfulProbes()).append(")");
+        cad.append(", unsuccessful(avg=").append(String.format("%.3f", this.averageUnsuccessfulProbes()));
+        cad.append(", max=").append(this.maxUnsuccessfulProbes()).append(")");
+        cad.append(", longestCluster=").append(this.longest_cluster);
+        cad.append(", rehashes=").append(this.rehash_count);
+        cad.append(", compactions=").append(this.compaction_count);
+        if(this.gets > 0 || this.puts > 0)
+        {
+            cad.append(", gets=").append(this.gets).append("/").append(this.get_probes);
+            cad.append(", puts=").append(this.puts).append("/").append(this.put_probes);
+        }
+        cad.append("]");
+        return cad.toString();
+    }
+
+
+    //************************ Métodos privados.
+
+    /*
+     * Promedio de las longitudes de un histograma (0 si está vacío).
+     */
+    private static double average(long histogram[])
+    {
+        long n = 0, sum = 0;
+        for(int p = 0; p < histogram.length; p++)
+        {
+            n += histogram[p];
+            sum += p * histogram[p];
+        }
+        return (n == 0) ? 0 : (double) sum / n;
+    }
+}
@@ -0,0 +1,208 @@
+package clases;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+// Los tests del contrato de Map que comparten todas las subclases de
+// AbstractTSBHashTableDA. Cada test de una tabla concreta hereda de esta
+// clase, implementa create() y agrega sólo los tests propios de su motor.
+public abstract class AbstractTSBHashTableDATest {
+
+    protected AbstractTSBHashTableDA<String, Integer> table;
+
+    // una tabla vacía de la implementación a probar...
+    protected abstract <K, V> AbstractTSBHashTableDA<K, V> create(int initialCapacity);
+
+    @Before
+    public void setup() {
+        table = create(16);
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        assertNull(table.put("a", 1));
+        assertEquals(Integer.valueOf(1), table.put("a", 2));
+        assertEquals(Integer.valueOf(2), table.get("a"));
+        assertTrue(table.containsKey("a"));
+        assertFalse(table.containsKey("b"));
+        assertEquals(1, table.size());
+        assertEquals(Integer.valueOf(2), table.remove("a"));
+        assertNull(table.remove("a"));
+        assertTrue(table.isEmpty());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenPutCalledWithNullKey_throwException() {
+        table.put(null, 1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenPutCalledWithNullValue_throwException() {
+        table.put("a", null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenGetCalledWithNull_throwException() {
+        table.get(null);
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        assertAgainstHashMap(create(1), 200000);
+    }
+
+    @Test
+    public void whenKeysShareHashCode_theyAreStillFound() {
+        AbstractTSBHashTableDA<CollidingKey, Integer> ht = create(16);
+        for (int i = 0; i < 100; i++) {
+            ht.put(new CollidingKey(i), i);
+        }
+        for (int i = 0; i < 100; i += 3) {
+            assertEquals(Integer.valueOf(i), ht.remove(new CollidingKey(i)));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 3 == 0 ? null : Integer.valueOf(i), ht.get(new CollidingKey(i)));
+        }
+        assertNull(ht.put(new CollidingKey(0), -1));
+        assertEquals(67, ht.size());
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        AbstractTSBHashTableDA<Integer, Integer> ht = create(16);
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            ht.put(i, i);
+            expected.add(i);
+        }
+        Set<Integer> seen = new HashSet<>();
+        Iterator<Integer> it = ht.keySet().iterator();
+        while (it.hasNext()) {
+            Integer k = it.next();
+            assertTrue(seen.add(k));
+            if (k % 2 == 0) {
+                it.remove();
+                expected.remove(k);
+            }
+        }
+        assertEquals(1000, seen.size());
+        assertEquals(expected, ht.keySet());
+    }
+
+    @Test
+    public void whenTableGrowsAfterIteration_entrySetValueWritesItsOwnKey() {
+        AbstractTSBHashTableDA<Integer, Integer> ht = create(16);
+        for (int i = 0; i < 200; i++) {
+            ht.put(i, i);
+        }
+        List<Map.Entry<Integer, Integer>> entries = new ArrayList<>(ht.entrySet());
+        for (int i = 200; i < 20000; i++) {
+            ht.put(i, i);
+        }
+        for (Map.Entry<Integer, Integer> e : entries) {
+            assertEquals(e.getKey(), e.setValue(-e.getKey()));
+        }
+        for (int i = 0; i < 20000; i++) {
+            assertEquals(Integer.valueOf(i < 200 ? -i : i), ht.get(i));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void whenPairWasRemoved_entrySetValueThrowsException() {
+        table.put("a", 1);
+        Map.Entry<String, Integer> e = table.entrySet().iterator().next();
+        table.remove("a");
+        e.setValue(2);
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void whenTableIsModifiedDuringIteration_exceptionIsThrown() {
+        table.put("a", 1);
+        table.put("b", 2);
+        for (String k : table.keySet()) {
+            table.put(k + k, 0);
+        }
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            table.put("k" + i, i);
+        }
+        AbstractTSBHashTableDA<String, Integer> copy = serializedCopy(table);
+        assertEquals(table, copy);
+        copy.put("nueva", -1);
+        assertEquals(1001, copy.size());
+    }
+
+    @Test
+    public void testClear() {
+        table.put("a", 1);
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertNull(table.get("a"));
+        table.put("b", 2);
+        assertEquals(Integer.valueOf(2), table.get("b"));
+    }
+
+    // operaciones al azar sobre ht y sobre un HashMap, comparando cada resultado...
+    protected static void assertAgainstHashMap(Map<Integer, Integer> ht, int operations) {
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(31);
+        for (int i = 0; i < operations; i++) {
+            int key = random.nextInt(50000);
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.put(key, i), ht.put(key, i));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), ht.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), ht.get(key));
+            }
+        }
+        assertEquals(expected.size(), ht.size());
+        assertEquals(expected, ht);
+        assertEquals(ht, expected);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static <T> T serializedCopy(T object) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (T) in.readObject();
+        }
+    }
+
+    // claves distintas con el mismo hashCode()...
+    protected static final class CollidingKey implements Serializable {
+        final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+
+        @Override
+        public String toString() {
+            return "k" + id;
+        }
+    }
+}
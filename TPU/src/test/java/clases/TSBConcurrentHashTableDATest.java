@@ -0,0 +1,151 @@
+package clases;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class TSBConcurrentHashTableDATest {
+
+    private TSBConcurrentHashTableDA<String, Integer> table;
+
+    @Before
+    public void setup() {
+        table = new TSBConcurrentHashTableDA<>();
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        assertNull(table.put("a", 1));
+        assertEquals(Integer.valueOf(1), table.put("a", 2));
+        assertEquals(Integer.valueOf(2), table.get("a"));
+        assertTrue(table.containsKey("a"));
+        assertTrue(table.containsValue(2));
+        assertEquals(1, table.size());
+        assertEquals(Integer.valueOf(2), table.remove("a"));
+        assertNull(table.get("a"));
+        assertTrue(table.isEmpty());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenNullKeyIsPut_exceptionIsThrown() {
+        table.put(null, 1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenNullValueIsPut_exceptionIsThrown() {
+        table.put("a", null);
+    }
+
+    @Test
+    public void testConditionalOperations() {
+        assertNull(table.putIfAbsent("a", 1));
+        assertEquals(Integer.valueOf(1), table.putIfAbsent("a", 2));
+        assertFalse(table.replace("a", 2, 3));
+        assertTrue(table.replace("a", 1, 3));
+        assertEquals(Integer.valueOf(3), table.replace("a", 4));
+        assertNull(table.replace("b", 4));
+        assertFalse(table.remove("a", 3));
+        assertTrue(table.remove("a", 4));
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    public void testComputeAndMerge() {
+        assertEquals(Integer.valueOf(1), table.computeIfAbsent("a", k -> 1));
+        assertEquals(Integer.valueOf(1), table.computeIfAbsent("a", k -> 2));
+        assertEquals(Integer.valueOf(11), table.computeIfPresent("a", (k, v) -> v + 10));
+        assertNull(table.computeIfPresent("b", (k, v) -> 0));
+        assertEquals(Integer.valueOf(5), table.compute("b", (k, v) -> v == null ? 5 : v + 1));
+        assertEquals(Integer.valueOf(6), table.merge("b", 1, Integer::sum));
+        assertNull(table.merge("b", 1, (a, b) -> null));
+        assertFalse(table.containsKey("b"));
+        assertEquals(Collections.singletonMap("a", 11), table);
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        Map<String, Integer> expected = new HashMap<>();
+        Random random = new Random(31);
+        for (int i = 0; i < 20000; i++) {
+            String key = "k" + random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), table.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), table.put(key, i));
+            }
+        }
+        assertEquals(expected, table);
+        assertEquals(table, expected);
+        assertEquals(expected.hashCode(), table.hashCode());
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        for (int i = 0; i < 100; i++) {
+            table.put("k" + i, i);
+        }
+        Iterator<Map.Entry<String, Integer>> it = table.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getValue() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(50, table.size());
+        for (Integer v : table.values()) {
+            assertEquals(1, v % 2);
+        }
+    }
+
+    @Test
+    public void whenManyThreadsMerge_noUpdateIsLost() throws Exception {
+        final int threads = 8;
+        final int increments = 10000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < increments; i++) {
+                    table.merge("k" + (i % 100), 1, Integer::sum);
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        pool.shutdown();
+
+        assertEquals(100, table.size());
+        for (Integer v : table.values()) {
+            assertEquals(Integer.valueOf(threads * increments / 100), v);
+        }
+    }
+
+    @Test
+    public void whenThreadsInsertDisjointKeys_allKeysArePresent() throws Exception {
+        final int threads = 4;
+        final int keys = 20000;
+        Thread workers[] = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < keys; i++) {
+                    assertNull(table.putIfAbsent(id + "-" + i, i));
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+
+        assertEquals(threads * keys, table.size());
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < keys; i++) {
+                assertEquals(Integer.valueOf(i), table.get(t + "-" + i));
+            }
+        }
+    }
+}
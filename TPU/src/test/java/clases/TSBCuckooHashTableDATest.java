@@ -0,0 +1,102 @@
+package clases;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TSBCuckooHashTableDATest extends AbstractTSBHashTableDATest {
+
+    @Override
+    protected <K, V> AbstractTSBHashTableDA<K, V> create(int initialCapacity) {
+        return new TSBCuckooHashTableDA<>(initialCapacity);
+    }
+
+    @Test
+    public void testAgainstHashMapWithEachWayCount() {
+        for (int ways = 2; ways <= 4; ways++) {
+            TSBCuckooHashTableDA<Integer, Integer> ht = new TSBCuckooHashTableDA<>(1, 0.9f, ways);
+            assertEquals(ways, ht.getWays());
+            assertAgainstHashMap(ht, 200000);
+        }
+    }
+
+    @Test
+    public void whenTableIsFull_itGrowsAndKeepsAllPairs() {
+        TSBCuckooHashTableDA<Integer, Integer> ht = new TSBCuckooHashTableDA<>(16, 0.95f, 2);
+        for (int i = 0; i < 100000; i++) {
+            ht.put(i, -i);
+        }
+        assertEquals(100000, ht.size());
+        assertTrue(ht.size() <= 0.95f * ht.capacity() + ht.stashSize());
+        assertTrue(ht.getRehashCount() > 0);
+        for (int i = 0; i < 100000; i++) {
+            assertEquals(Integer.valueOf(-i), ht.get(i));
+        }
+    }
+
+    @Test
+    public void whenKeysShareHashCode_theyAreKeptInTheStash() {
+        TSBCuckooHashTableDA<CollidingKey, Integer> ht = new TSBCuckooHashTableDA<>();
+        for (int i = 0; i < 50; i++) {
+            ht.put(new CollidingKey(i), i);
+        }
+        assertEquals(50, ht.size());
+        assertTrue(ht.stashSize() >= 50 - 2 * TSBCuckooHashTableDA.BUCKET_SIZE);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(Integer.valueOf(i), ht.get(new CollidingKey(i)));
+        }
+        for (int i = 0; i < 50; i += 2) {
+            assertEquals(Integer.valueOf(i), ht.remove(new CollidingKey(i)));
+        }
+        assertEquals(25, ht.size());
+        for (int i = 1; i < 50; i += 2) {
+            assertEquals(Integer.valueOf(i), ht.get(new CollidingKey(i)));
+        }
+    }
+
+    @Test
+    public void whenStashPairIsMovedByRemove_entrySetValueWritesItsOwnKey() {
+        TSBCuckooHashTableDA<CollidingKey, Integer> ht = new TSBCuckooHashTableDA<>();
+        for (int i = 0; i < 50; i++) {
+            ht.put(new CollidingKey(i), i);
+        }
+        List<Map.Entry<CollidingKey, Integer>> entries = new ArrayList<>(ht.entrySet());
+        for (int i = 0; i < 50; i += 5) {
+            ht.remove(new CollidingKey(i));
+        }
+        for (Map.Entry<CollidingKey, Integer> e : entries) {
+            if (e.getKey().id % 5 != 0) {
+                assertEquals(Integer.valueOf(e.getKey().id), e.setValue(-e.getKey().id));
+            }
+        }
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i % 5 == 0 ? null : Integer.valueOf(-i), ht.get(new CollidingKey(i)));
+        }
+    }
+
+    @Test
+    public void whenKeysAreInTheStash_entryIteratorRemovesAndSetsValues() {
+        TSBCuckooHashTableDA<CollidingKey, Integer> ht = new TSBCuckooHashTableDA<>();
+        Map<CollidingKey, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 30; i++) {
+            ht.put(new CollidingKey(i), i);
+            expected.put(new CollidingKey(i), i);
+        }
+        int seen = 0;
+        Iterator<Map.Entry<CollidingKey, Integer>> it = ht.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<CollidingKey, Integer> e = it.next();
+            seen++;
+            if (e.getValue() % 3 == 0) {
+                it.remove();
+                expected.remove(e.getKey());
+            } else {
+                e.setValue(-e.getValue());
+                expected.put(e.getKey(), e.getValue());
+            }
+        }
+        assertEquals(30, seen);
+        assertEquals(expected, ht);
+    }
+}
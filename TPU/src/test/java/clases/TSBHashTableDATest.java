@@ -2,7 +2,15 @@ package clases;
 import org.junit.Before;
 import org.junit.Test;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 
@@ -266,9 +274,865 @@ public class TSBHashTableDATest {
     }
 
 
+    @Test
+    public void testIteratorRemove() {
+        addTestData();
+        Iterator<String> it = table.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().equals("c")) {
+                it.remove();
+            }
+        }
+        assertEquals(4, table.size());
+        assertFalse(table.containsKey("c"));
+        for (String key : List.of("a", "b", "d", "e")) {
+            assertTrue(table.containsKey(key));
+        }
+    }
+
+    @Test
+    public void whenCollidingKeyIsRemoved_laterKeysAreStillFound() {
+        TSBHashTableDA<Integer, String> ht = new TSBHashTableDA<>(11, 0.5f);
+        ht.put(1, "a");
+        ht.put(12, "b");
+        ht.put(23, "c");
+        ht.remove(12);
+        assertEquals("c", ht.get(23));
+        assertNull(ht.get(12));
+        ht.put(12, "d");
+        assertEquals(3, ht.size());
+        assertEquals("d", ht.get(12));
+    }
+
+    @Test
+    public void testEntrySetValue() {
+        addTestData();
+        for (Map.Entry<String, Integer> entry : table.entrySet()) {
+            entry.setValue(entry.getValue() * 10);
+        }
+        assertEquals(Integer.valueOf(10), table.get("a"));
+        assertEquals(Integer.valueOf(50), table.get("e"));
+        assertEquals(5, table.size());
+    }
+
+    @Test
+    public void whenPairsAreMoved_entrySetValueStillWritesThrough() {
+        for (boolean incremental : new boolean[]{false, true}) {
+            TSBHashTableDA<String, Integer> ht = new TSBHashTableDA<>(11, 0.5f);
+            ht.setIncrementalRehash(incremental);
+            for (int i = 0; i < 5; i++) {
+                ht.put("k" + i, i);
+            }
+            List<Map.Entry<String, Integer>> entries = new ArrayList<>(ht.entrySet());
+            for (int i = 5; i < 1000; i++) {
+                ht.put("k" + i, i);
+            }
+            for (Map.Entry<String, Integer> e : entries) {
+                assertEquals(e.getValue(), e.setValue(-e.getValue()));
+            }
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(Integer.valueOf(i < 5 ? -i : i), ht.get("k" + i));
+            }
+
+            entries = new ArrayList<>(ht.entrySet());
+            for (int i = 5; i < 1000; i++) {
+                ht.remove("k" + i);
+            }
+            ht.compact();
+            for (Map.Entry<String, Integer> e : entries) {
+                if (ht.containsKey(e.getKey())) {
+                    e.setValue(100);
+                }
+            }
+            for (int i = 0; i < 5; i++) {
+                assertEquals(Integer.valueOf(100), ht.get("k" + i));
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void whenPairWasRemoved_entrySetValueThrowsException() {
+        addTestData();
+        Map.Entry<String, Integer> e = table.entrySet().iterator().next();
+        table.remove(e.getKey());
+        e.setValue(0);
+    }
+
+    @Test
+    public void testEntrySetRemove() {
+        addTestData();
+        assertFalse(table.entrySet().remove(new AbstractMap.SimpleEntry<>("a", 2)));
+        assertTrue(table.entrySet().remove(new AbstractMap.SimpleEntry<>("a", 1)));
+        assertEquals(4, table.size());
+        assertFalse(table.containsKey("a"));
+    }
+
+    @Test
+    public void whenTableIsRehashed_hashCodeIsNotCalledAgain() {
+        TSBHashTableDA<CountingKey, Integer> ht = new TSBHashTableDA<>(11, 0.5f);
+        CountingKey keys[] = new CountingKey[200];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new CountingKey(i);
+            ht.put(keys[i], i);
+        }
+        int total = 0;
+        for (CountingKey key : keys) {
+            assertEquals("hashCode() sólo debería invocarse en el put", 1, key.hashCodeCalls);
+            total += key.equalsCalls;
+        }
+        assertEquals("equals() no debería invocarse con claves distintas", 0, total);
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(Integer.valueOf(i), ht.get(new CountingKey(i)));
+        }
+    }
+
+    @Test
+    public void testPowerOfTwoMode() {
+        TSBHashTableDA<Integer, Integer> ht = new TSBHashTableDA<>(10, 0.5f, TSBHashTableDA.POWER_OF_TWO_MODE);
+        for (int i = 0; i < 5000; i++) {
+            assertNull(ht.put(i * 16, i));
+        }
+        assertEquals(5000, ht.size());
+        for (int i = 0; i < 5000; i += 2) {
+            assertEquals(Integer.valueOf(i), ht.remove(i * 16));
+        }
+        assertEquals(2500, ht.size());
+        for (int i = 0; i < 5000; i++) {
+            assertEquals(i % 2 == 0 ? null : Integer.valueOf(i), ht.get(i * 16));
+        }
+        assertEquals(2500, ht.keySet().size());
+    }
+
+    @Test
+    public void whenHashCodeIsMinValue_keyIsStored() {
+        TSBHashTableDA<Integer, String> ht = new TSBHashTableDA<>();
+        ht.put(Integer.MIN_VALUE, "min");
+        ht.put(-7, "neg");
+        assertEquals("min", ht.get(Integer.MIN_VALUE));
+        assertEquals("neg", ht.get(-7));
+    }
+
+    @Test
+    public void whenKeysChurn_tombstonesAreCleanedUp() {
+        TSBHashTableDA<Integer, Integer> ht = new TSBHashTableDA<>(101, 0.5f);
+        for (int i = 0; i < 20; i++) {
+            ht.put(-i - 1, i);
+        }
+        for (int i = 0; i < 100000; i++) {
+            ht.put(i, i);
+            ht.remove(i);
+            assertTrue(ht.tombstoneRatio() <= ht.getTombstoneThreshold() + 0.01f);
+        }
+        assertEquals(20, ht.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Integer.valueOf(i), ht.get(-i - 1));
+        }
+    }
+
+    @Test
+    public void testCompact() {
+        addTestData();
+        table.remove("a");
+        table.remove("b");
+        assertTrue(table.tombstoneRatio() > 0);
+        table.compact();
+        assertEquals(0, table.tombstoneRatio(), 0);
+        assertEquals(3, table.size());
+        assertEquals(Integer.valueOf(3), table.get("c"));
+        assertEquals(Integer.valueOf(5), table.get("e"));
+    }
+
+    @Test
+    public void testTombstoneThreshold() {
+        table.setTombstoneThreshold(0.1f);
+        assertEquals(0.1f, table.getTombstoneThreshold(), 0);
+        table.setTombstoneThreshold(-1);
+        assertEquals(0.25f, table.getTombstoneThreshold(), 0);
+    }
+
+    @Test
+    public void testIncrementalRehashAgainstHashMap() {
+        TSBHashTableDA<Integer, Integer> ht = new TSBHashTableDA<>(11, 0.5f);
+        ht.setIncrementalRehash(true);
+        assertTrue(ht.isIncrementalRehash());
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            int key = random.nextInt(50000);
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.put(key, i), ht.put(key, i));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), ht.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), ht.get(key));
+            }
+            assertEquals(expected.size(), ht.size());
+        }
+        assertEquals(expected, ht);
+        assertEquals(expected.keySet(), ht.keySet());
+    }
+
+    @Test
+    public void whenIncrementalRehashIsTurnedOff_migrationIsCompleted() {
+        TSBHashTableDA<Integer, Integer> ht = new TSBHashTableDA<>(11, 0.5f);
+        ht.setIncrementalRehash(true);
+        for (int i = 0; i < 1000; i++) {
+            ht.put(i, i);
+        }
+        ht.setIncrementalRehash(false);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), ht.get(i));
+        }
+        assertTrue(ht.contains(999));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        TSBHashTableDA<String, Integer> ht = new TSBHashTableDA<>(11, 0.5f, TSBHashTableDA.POWER_OF_TWO_MODE);
+        for (int i = 0; i < 1000; i++) {
+            ht.put("k" + i, i);
+        }
+        for (int i = 0; i < 1000; i += 3) {
+            ht.remove("k" + i);
+        }
+
+        TSBHashTableDA<String, Integer> copy = roundTrip(ht);
+        assertEquals(ht, copy);
+        assertEquals(ht.size(), copy.size());
+        assertEquals(0.0f, copy.tombstoneRatio(), 0.0f);
+
+        // la copia sigue funcionando normalmente...
+        copy.put("nueva", -1);
+        assertEquals(Integer.valueOf(-1), copy.get("nueva"));
+        assertNull(copy.get("k0"));
+        assertEquals(Integer.valueOf(1), copy.get("k1"));
+    }
+
+    @Test
+    public void whenSerializedDuringIncrementalRehash_allPairsAreKept() throws Exception {
+        TSBHashTableDA<Integer, Integer> ht = new TSBHashTableDA<>();
+        ht.setIncrementalRehash(true);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            ht.put(i, i);
+            expected.put(i, i);
+        }
+        TSBHashTableDA<Integer, Integer> copy = roundTrip(ht);
+        assertEquals(expected, copy);
+        assertTrue(copy.isIncrementalRehash());
+    }
+
+    @Test
+    public void whenTableIsEmpty_serializationIsSmall() throws Exception {
+        TSBHashTableDA<String, Integer> big = new TSBHashTableDA<>(100000);
+        TSBHashTableDA<String, Integer> small = new TSBHashTableDA<>(11);
+        assertEquals(serialize(small).length, serialize(big).length);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void whenStreamHasInvalidAttributes_readObjectFails() throws Exception {
+        Object[][] invalid = {
+            {"load_factor", 0.9f}, {"load_factor", 0f},
+            {"initial_capacity", 0}, {"tombstone_threshold", 1.5f}
+        };
+        for (Object[] attribute : invalid) {
+            TSBHashTableDA<String, Integer> ht = new TSBHashTableDA<>(11, 0.5f, TSBHashTableDA.PRIME_MODE);
+            for (int i = 0; i < 100; i++) {
+                ht.put("k" + i, i);
+            }
+            java.lang.reflect.Field f = TSBHashTableDA.class.getDeclaredField((String) attribute[0]);
+            f.setAccessible(true);
+            f.set(ht, attribute[1]);
+            try {
+                roundTrip(ht);
+                fail(attribute[0] + " = " + attribute[1] + " no debería aceptarse");
+            } catch (InvalidObjectException expected) {
+            }
+        }
+    }
+
+    private static <T> T roundTrip(T object) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialize(object)))) {
+            return (T) in.readObject();
+        }
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void whenCloneIsModified_originalIsNotAffected() {
+        addTestData();
+        TSBHashTableDA<String, Integer> other = (TSBHashTableDA<String, Integer>) table.clone();
+
+        // setValue() y remove() en el clon...
+        for (Map.Entry<String, Integer> e : other.entrySet()) {
+            e.setValue(e.getValue() * 10);
+        }
+        other.remove("a");
+        assertEquals(Integer.valueOf(1), table.get("a"));
+        assertEquals(Integer.valueOf(2), table.get("b"));
+        assertEquals(Integer.valueOf(20), other.get("b"));
+
+        // y en la original...
+        table.put("c", -3);
+        table.remove("d");
+        assertEquals(Integer.valueOf(30), other.get("c"));
+        assertEquals(Integer.valueOf(40), other.get("d"));
+        assertEquals(4, table.size());
+        assertEquals(4, other.size());
+    }
+
+    @Test
+    public void whenCloneIsCloned_eachCopyIsIsolated() {
+        TSBHashTableDA<Integer, Integer> ht = new TSBHashTableDA<>();
+        ht.setIncrementalRehash(true);
+        for (int i = 0; i < 100; i++) {
+            ht.put(i, i);
+        }
+        TSBHashTableDA<Integer, Integer> first = (TSBHashTableDA<Integer, Integer>) ht.clone();
+        TSBHashTableDA<Integer, Integer> second = (TSBHashTableDA<Integer, Integer>) first.clone();
+
+        // provoca rehash en la original mientras comparte sus arreglos...
+        for (int i = 100; i < 1000; i++) {
+            ht.put(i, i);
+        }
+        first.put(0, -1);
+        second.remove(1);
+
+        assertEquals(1000, ht.size());
+        assertEquals(Integer.valueOf(0), ht.get(0));
+        assertEquals(Integer.valueOf(1), ht.get(1));
+        assertEquals(100, first.size());
+        assertEquals(Integer.valueOf(-1), first.get(0));
+        assertEquals(Integer.valueOf(1), first.get(1));
+        assertEquals(99, second.size());
+        assertEquals(Integer.valueOf(0), second.get(0));
+        assertNull(second.get(1));
+        assertNull(first.get(500));
+    }
+
+    @Test
+    public void whenOneCopyHasCopiedTheArrays_theOtherWritesInPlace() throws Exception {
+        TSBHashTableDA<Integer, Integer> ht = new TSBHashTableDA<>();
+        for (int i = 0; i < 100; i++) {
+            ht.put(i, i);
+        }
+        Object original = valuesArray(ht);
+        TSBHashTableDA<Integer, Integer> first = (TSBHashTableDA<Integer, Integer>) ht.clone();
+        TSBHashTableDA<Integer, Integer> second = (TSBHashTableDA<Integer, Integer>) ht.clone();
+
+        // las dos primeras que escriben copian; la última ya es la única dueña...
+        first.put(0, -1);
+        assertNotSame(original, valuesArray(first));
+        second.put(0, -2);
+        assertNotSame(original, valuesArray(second));
+        ht.put(0, -3);
+        assertSame(original, valuesArray(ht));
+
+        // una tabla que crece suelta los arreglos compartidos...
+        TSBHashTableDA<Integer, Integer> third = (TSBHashTableDA<Integer, Integer>) ht.clone();
+        for (int i = 100; i < 1000; i++) {
+            ht.put(i, i);
+        }
+        third.put(1, -1);
+        assertSame(original, valuesArray(third));
+
+        assertEquals(Integer.valueOf(-1), first.get(0));
+        assertEquals(Integer.valueOf(-2), second.get(0));
+        assertEquals(Integer.valueOf(-3), ht.get(0));
+        assertEquals(Integer.valueOf(1), ht.get(1));
+        assertEquals(Integer.valueOf(-3), third.get(0));
+        assertEquals(Integer.valueOf(-1), third.get(1));
+    }
+
+    private static Object valuesArray(TSBHashTableDA<?, ?> ht) throws Exception {
+        java.lang.reflect.Field table = TSBHashTableDA.class.getDeclaredField("table");
+        table.setAccessible(true);
+        Object slots = table.get(ht);
+        java.lang.reflect.Field values = slots.getClass().getDeclaredField("values");
+        values.setAccessible(true);
+        return values.get(slots);
+    }
+
+    @Test
+    public void whenMapIsLoaded_tableIsResizedOnlyOnce() {
+        Map<Integer, Integer> source = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            source.put(i, i);
+        }
+        RehashCountingTable<Integer, Integer> ht = new RehashCountingTable<>();
+        ht.putAll(source);
+        assertEquals(0, ht.rehashes);
+        assertEquals(source, ht);
+
+        // una segunda carga con claves nuevas tampoco necesita rehash...
+        Map<Integer, Integer> more = new HashMap<>();
+        for (int i = 10000; i < 30000; i++) {
+            more.put(i, i);
+        }
+        ht.putAll(more);
+        assertEquals(0, ht.rehashes);
+        assertEquals(30000, ht.size());
+
+        assertEquals(source, new TSBHashTableDA<>(source));
+    }
+
+    @Test
+    public void testBulkLoad() {
+        Integer keys[] = new Integer[20000];
+        String values[] = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i * 7;
+            values[i] = "v" + i;
+        }
+        RehashCountingTable<Integer, String> ht = new RehashCountingTable<>();
+        ht.put(-1, "previo");
+        ht.bulkLoad(keys, values);
+        assertEquals(0, ht.rehashes);
+        assertEquals(keys.length + 1, ht.size());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(values[i], ht.get(keys[i]));
+        }
+        assertEquals("previo", ht.get(-1));
+
+        // la tabla sigue funcionando normalmente...
+        ht.put(7, "nuevo");
+        assertEquals(keys.length + 1, ht.size());
+        assertEquals("nuevo", ht.get(7));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenBulkLoadArraysDiffer_exceptionIsThrown() {
+        new TSBHashTableDA<Integer, Integer>().bulkLoad(new Integer[]{1, 2}, new Integer[]{1});
+    }
+
+    static class RehashCountingTable<K, V> extends TSBHashTableDA<K, V> {
+        int rehashes;
+
+        @Override
+        protected void rehash() {
+            rehashes++;
+            super.rehash();
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void whenProbeSequenceIsFull_putStillFindsASlot() {
+        // en 11 casillas, la secuencia cuadrática de la clave 11 visita sólo
+        // las casillas 0, 1, 4, 9, 5 y 3...
+        TSBHashTableDA<Integer, String> ht = new TSBHashTableDA<>();
+        for (int k : new int[]{0, 1, 4, 9, 5, 3}) {
+            ht.put(k, "v" + k);
+        }
+        assertNull(ht.put(11, "v11"));
+        assertEquals(7, ht.size());
+        assertEquals("v11", ht.get(11));
+    }
+
+    @Test(timeout = 60000)
+    public void testMixedOperationsAgainstHashMapOnSmallTables() {
+        for (int mode : new int[]{TSBHashTableDA.PRIME_MODE, TSBHashTableDA.POWER_OF_TWO_MODE}) {
+            for (int capacity : new int[]{1, 2, 3, 5, 11}) {
+                for (boolean incremental : new boolean[]{false, true}) {
+                    TSBHashTableDA<Integer, Integer> ht = new TSBHashTableDA<>(capacity, 0.5f, mode);
+                    ht.setIncrementalRehash(incremental);
+                    Map<Integer, Integer> expected = new HashMap<>();
+                    Random random = new Random(capacity * 31 + mode);
+                    for (int i = 0; i < 20000; i++) {
+                        Integer key = random.nextInt(64);
+                        switch (random.nextInt(5)) {
+                            case 0:
+                                assertEquals(expected.put(key, i), ht.put(key, i));
+                                break;
+                            case 1:
+                                assertEquals(expected.remove(key), ht.remove(key));
+                                break;
+                            case 2:
+                                assertEquals(expected.putIfAbsent(key, i), ht.putIfAbsent(key, i));
+                                break;
+                            case 3:
+                                assertEquals(expected.merge(key, i, Integer::sum), ht.merge(key, i, Integer::sum));
+                                break;
+                            default:
+                                assertEquals(expected.computeIfAbsent(key, k -> -k), ht.computeIfAbsent(key, k -> -k));
+                        }
+                    }
+                    assertEquals(expected, ht);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParallelBuild() {
+        Random random = new Random(31);
+        Integer keys[] = new Integer[100000];
+        Integer values[] = new Integer[keys.length];
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            // con repetidos: queda el último valor, como con put()...
+            keys[i] = random.nextInt(60000);
+            values[i] = i;
+            expected.put(keys[i], values[i]);
+        }
+
+        for (int mode : new int[]{TSBHashTableDA.PRIME_MODE, TSBHashTableDA.POWER_OF_TWO_MODE}) {
+            for (int threads : new int[]{1, 3, 8}) {
+                java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(threads);
+                try {
+                    TSBHashTableDA<Integer, Integer> ht = TSBHashTableDA.parallelBuild(keys, values, 0.5f, mode, pool);
+                    assertEquals(expected.size(), ht.size());
+                    assertEquals(expected, ht);
+                    ht.put(-1, -1);
+                    assertEquals(Integer.valueOf(-1), ht.get(-1));
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void whenAllKeysCollide_parallelBuildStillPlacesThem() {
+        CollidingKey keys[] = new CollidingKey[500];
+        String values[] = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new CollidingKey(i);
+            values[i] = "v" + i;
+        }
+        TSBHashTableDA<CollidingKey, String> ht = TSBHashTableDA.parallelBuild(keys, values);
+        assertEquals(keys.length, ht.size());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(values[i], ht.get(keys[i]));
+        }
+    }
+
+    @Test
+    public void testSpliterators() {
+        TSBHashTableDA<Integer, Integer> ht = new TSBHashTableDA<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            ht.put(i, i * 2);
+            expected.put(i, i * 2);
+        }
+
+        Spliterator<Integer> keys = ht.keySet().spliterator();
+        assertTrue(keys.hasCharacteristics(Spliterator.SIZED | Spliterator.DISTINCT | Spliterator.NONNULL));
+        assertEquals(100000, keys.getExactSizeIfKnown());
+        Spliterator<Integer> half = keys.trySplit();
+        assertNotNull(half);
+        assertFalse(half.hasCharacteristics(Spliterator.SIZED));
+        assertFalse(keys.hasCharacteristics(Spliterator.SIZED));
+        assertEquals(-1, keys.getExactSizeIfKnown());
+        long[] counted = new long[2];
+        half.forEachRemaining(k -> counted[0]++);
+        keys.forEachRemaining(k -> counted[1]++);
+        assertEquals(100000, counted[0] + counted[1]);
+        assertFalse(ht.values().spliterator().hasCharacteristics(Spliterator.DISTINCT));
+
+        long sum = ht.keySet().parallelStream().mapToLong(Integer::longValue).sum();
+        assertEquals(100000L * 99999 / 2, sum);
+        assertEquals(expected.values().stream().mapToLong(Integer::longValue).sum(),
+                ht.values().parallelStream().mapToLong(Integer::longValue).sum());
+        Map<Integer, Integer> collected = ht.entrySet().parallelStream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        assertEquals(expected, collected);
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void whenTableIsModifiedDuringForEach_exceptionIsThrown() {
+        addTestData();
+        table.keySet().spliterator().forEachRemaining(k -> table.put(k + k, 0));
+    }
+
+    @Test
+    public void testMergeAgainstHashMap() {
+        for (int mode : new int[]{TSBHashTableDA.PRIME_MODE, TSBHashTableDA.POWER_OF_TWO_MODE}) {
+            for (boolean incremental : new boolean[]{false, true}) {
+                TSBHashTableDA<Integer, Integer> ht = new TSBHashTableDA<>(11, 0.5f, mode);
+                ht.setIncrementalRehash(incremental);
+                Map<Integer, Integer> expected = new HashMap<>();
+                Random random = new Random(42);
+                for (int i = 0; i < 100000; i++) {
+                    int key = random.nextInt(5000);
+                    switch (random.nextInt(6)) {
+                        case 0:
+                            assertEquals(expected.merge(key, 1, Integer::sum), ht.merge(key, 1, Integer::sum));
+                            break;
+                        case 1:
+                            assertEquals(expected.putIfAbsent(key, i), ht.putIfAbsent(key, i));
+                            break;
+                        case 2:
+                            assertEquals(expected.computeIfAbsent(key, k -> k * 2), ht.computeIfAbsent(key, k -> k * 2));
+                            break;
+                        case 3:
+                            assertEquals(expected.computeIfPresent(key, (k, v) -> v % 3 == 0 ? null : v + 1),
+                                    ht.computeIfPresent(key, (k, v) -> v % 3 == 0 ? null : v + 1));
+                            break;
+                        case 4:
+                            assertEquals(expected.compute(key, (k, v) -> v == null ? Integer.valueOf(0) : v % 2 == 0 ? null : v - 1),
+                                    ht.compute(key, (k, v) -> v == null ? Integer.valueOf(0) : v % 2 == 0 ? null : v - 1));
+                            break;
+                        default:
+                            assertEquals(expected.remove(key), ht.remove(key));
+                    }
+                    assertEquals(expected.size(), ht.size());
+                }
+                assertEquals(expected, ht);
+            }
+        }
+    }
+
+    @Test
+    public void whenKeyIsReinserted_tombstoneIsReused() {
+        addTestData();
+        table.remove("a");
+        assertTrue(table.tombstoneRatio() > 0);
+        assertNull(table.putIfAbsent("a", 10));
+        assertEquals(0, table.tombstoneRatio(), 0);
+        table.remove("b");
+        assertEquals(Integer.valueOf(7), table.merge("b", 7, Integer::sum));
+        assertEquals(0, table.tombstoneRatio(), 0);
+        assertEquals(5, table.size());
+        assertEquals(Integer.valueOf(10), table.get("a"));
+    }
+
+    @Test
+    public void testCompute() {
+        addTestData();
+        assertEquals(Integer.valueOf(1), table.putIfAbsent("a", 9));
+        assertEquals(Integer.valueOf(1), table.computeIfAbsent("a", k -> 9));
+        assertNull(table.computeIfAbsent("x", k -> null));
+        assertFalse(table.containsKey("x"));
+        assertNull(table.computeIfPresent("x", (k, v) -> 9));
+        assertNull(table.compute("b", (k, v) -> null));
+        assertFalse(table.containsKey("b"));
+        assertNull(table.merge("c", 1, (a, b) -> null));
+        assertFalse(table.containsKey("c"));
+        assertEquals(Integer.valueOf(5), table.merge("d", 1, Integer::sum));
+        assertEquals(3, table.size());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenMergeCalledWithNullValue_throwException() {
+        table.merge("a", null, Integer::sum);
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void whenComputeFunctionModifiesTable_exceptionIsThrown() {
+        table.computeIfAbsent("a", k -> table.put("b", 2));
+    }
+
+    @Test
+    public void testStats() {
+        TableStats empty = table.stats();
+        assertEquals(11, empty.getCapacity());
+        assertEquals(0, empty.getCount());
+        assertEquals(0, empty.getSuccessfulProbeHistogram().length);
+        assertEquals(1.0, empty.averageUnsuccessfulProbes(), 0);
+        assertEquals(0, empty.getLongestCluster());
+
+        TSBHashTableDA<Integer, Integer> ht = new TSBHashTableDA<>(11, 0.5f);
+        for (int i = 0; i < 1000; i++) {
+            ht.put(i * 7, i);
+        }
+        for (int i = 0; i < 100; i++) {
+            ht.remove(i * 7);
+        }
+        TableStats stats = ht.stats();
+        assertEquals(900, stats.getCount());
+        assertEquals(100, stats.getTombstones());
+        assertEquals(1000f / stats.getCapacity(), stats.getLoadLevel(), 0.0001f);
+        assertTrue(stats.getRehashCount() > 0);
+        assertEquals(0, stats.getCompactionCount());
+        long keys = 0;
+        for (long c : stats.getSuccessfulProbeHistogram()) {
+            keys += c;
+        }
+        assertEquals(900, keys);
+        long starts = 0;
+        for (long c : stats.getUnsuccessfulProbeHistogram()) {
+            starts += c;
+        }
+        assertEquals(stats.getCapacity(), starts);
+        assertTrue(stats.averageSuccessfulProbes() >= 1);
+        assertTrue(stats.averageUnsuccessfulProbes() >= stats.averageSuccessfulProbes() - 1);
+        assertTrue(stats.getLongestCluster() >= 1);
+
+        ht.compact();
+        assertEquals(1, ht.stats().getCompactionCount());
+        assertEquals(0, ht.stats().getTombstones());
+    }
+
+    @Test
+    public void whenKeysCollide_statsShowLongProbes() {
+        TSBHashTableDA<Integer, Integer> ht = new TSBHashTableDA<>(101, 0.5f);
+        for (int i = 0; i < 10; i++) {
+            ht.put(i * 101, i);
+        }
+        TableStats stats = ht.stats();
+        assertEquals(10, stats.maxSuccessfulProbes());
+        assertEquals(5.5, stats.averageSuccessfulProbes(), 0.0001);
+        assertEquals(11, stats.maxUnsuccessfulProbes());
+    }
+
+    @Test
+    public void testProbeCounters() {
+        addTestData();
+        table.get("a");
+        table.get("x");
+        TableStats stats = table.stats();
+        if (TSBHashTableDA.PROBE_COUNTERS) {
+            assertEquals(2, stats.getGets());
+            assertTrue(stats.getGetProbes() >= 2);
+            assertEquals(5, stats.getPuts());
+            table.resetProbeCounters();
+            assertEquals(0, table.stats().getGets());
+        } else {
+            assertEquals(0, stats.getGets());
+            assertEquals(0, stats.getPutProbes());
+        }
+    }
+
+    @Test
+    public void whenTableIsRehashed_jfrEventsAreRecorded() throws Exception {
+        TSBHashTableDA<Integer, Integer> ht = new TSBHashTableDA<>(11, 0.5f);
+        List<RecordedEvent> events = record(RehashEvent.NAME, () -> {
+            for (int i = 0; i < 100; i++) {
+                ht.put(i, i);
+            }
+            ht.compact();
+        });
+        List<RecordedEvent> mine = new ArrayList<>();
+        for (RecordedEvent e : events) {
+            if (e.getInt("tableId") == System.identityHashCode(ht)) {
+                mine.add(e);
+            }
+        }
+        assertEquals(ht.stats().getRehashCount() + 1, mine.size());
+        RecordedEvent first = mine.get(0);
+        assertEquals(11, first.getInt("oldLength"));
+        assertTrue(first.getInt("newLength") > 11);
+        assertFalse(first.getBoolean("compaction"));
+        RecordedEvent last = mine.get(mine.size() - 1);
+        assertTrue(last.getBoolean("compaction"));
+        assertEquals(100, last.getInt("entriesMoved"));
+    }
+
+    @Test
+    public void whenRehashIsIncremental_jfrEventCoversTheMigration() throws Exception {
+        TSBHashTableDA<Integer, Integer> ht = new TSBHashTableDA<>(11, 0.5f);
+        ht.setIncrementalRehash(true);
+        for (int i = 0; i < 500; i++) {
+            ht.put(i, i);
+        }
+        ht.setIncrementalRehash(false);
+        List<RecordedEvent> events = record(RehashEvent.NAME, () -> {
+            ht.setIncrementalRehash(true);
+            for (int i = 500; i < 2000; i++) {
+                ht.put(i, i);
+            }
+            ht.setIncrementalRehash(false);
+        });
+        assertFalse(events.isEmpty());
+        int moved = 0;
+        for (RecordedEvent e : events) {
+            assertTrue(e.getBoolean("incremental"));
+            assertTrue(e.getInt("entriesMoved") > 0);
+            moved += e.getInt("entriesMoved");
+        }
+        assertTrue(moved >= 500);
+    }
+
+    @Test
+    public void whenProbeIsLong_jfrEventIsRecorded() throws Exception {
+        TSBHashTableDA<Integer, Integer> ht = new TSBHashTableDA<>(101, 0.5f);
+        ht.setLongProbeThreshold(5);
+        assertEquals(5, ht.getLongProbeThreshold());
+        for (int i = 0; i < 8; i++) {
+            ht.put(i * 101, i);
+        }
+        List<RecordedEvent> events = record(LongProbeEvent.NAME, () -> {
+            ht.get(0);
+            ht.get(7 * 101);
+            ht.get(8 * 101);
+        });
+        assertEquals(2, events.size());
+        assertEquals(8, events.get(0).getInt("probes"));
+        assertEquals(9, events.get(1).getInt("probes"));
+        assertEquals(5, events.get(0).getInt("threshold"));
+        assertEquals(System.identityHashCode(ht), events.get(0).getInt("tableId"));
+        ht.setLongProbeThreshold(0);
+        assertEquals(32, ht.getLongProbeThreshold());
+    }
+
+    private static List<RecordedEvent> record(String event, Runnable action) throws IOException {
+        Path file = Files.createTempFile("tsb", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(event).withoutThreshold();
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
 //    Object clone()
 
 
+    static class CollidingKey {
+        final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CollidingKey && ((CollidingKey) obj).id == id;
+        }
+    }
+
+    static class CountingKey {
+        final int id;
+        int hashCodeCalls;
+        int equalsCalls;
+
+        CountingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            hashCodeCalls++;
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            equalsCalls++;
+            return obj instanceof CountingKey && ((CountingKey) obj).id == id;
+        }
+    }
+
     class EntryVerifier {
         List<Entry> entries;
 
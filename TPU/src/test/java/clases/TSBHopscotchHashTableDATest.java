@@ -0,0 +1,100 @@
+package clases;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TSBHopscotchHashTableDATest extends AbstractTSBHashTableDATest {
+
+    @Override
+    protected <K, V> AbstractTSBHashTableDA<K, V> create(int initialCapacity) {
+        return new TSBHopscotchHashTableDA<>(initialCapacity);
+    }
+
+    @Test
+    public void whenLoadFactorIsInvalid_defaultIsUsed() {
+        assertEquals(0.9f, new TSBHopscotchHashTableDA<>(16, 0.99f).getLoadFactor(), 0);
+        assertEquals(0.95f, new TSBHopscotchHashTableDA<>(16, 0.95f).getLoadFactor(), 0);
+    }
+
+    @Test
+    public void testAgainstHashMapWithEachLoadFactor() {
+        for (float lf : new float[]{0.5f, 0.8f, 0.95f}) {
+            TSBHopscotchHashTableDA<Integer, Integer> ht = new TSBHopscotchHashTableDA<>(1, lf);
+            assertAgainstHashMap(ht, 200000);
+            assertTrue(ht.size() <= lf * ht.capacity() + ht.stashSize());
+        }
+    }
+
+    @Test
+    public void whenTableIsAlmostFull_keysStayInTheirNeighborhood() {
+        TSBHopscotchHashTableDA<Integer, Integer> ht = new TSBHopscotchHashTableDA<>(1 << 16, 0.9f);
+        int capacity = ht.capacity();
+        int n = (int) (0.9f * capacity) - 1;
+        for (int i = 0; i < n; i++) {
+            ht.put(i * 7919, i);
+        }
+        assertEquals(capacity, ht.capacity());
+        assertEquals(0, ht.stashSize());
+        for (int i = 0; i < n; i += 2) {
+            assertEquals(Integer.valueOf(i), ht.remove(i * 7919));
+        }
+        for (int i = 0; i < n; i++) {
+            assertEquals(i % 2 == 0 ? null : Integer.valueOf(i), ht.get(i * 7919));
+        }
+    }
+
+    @Test
+    public void whenKeysShareHashCode_theyAreKeptInTheStash() {
+        TSBHopscotchHashTableDA<CollidingKey, Integer> ht = new TSBHopscotchHashTableDA<>();
+        for (int i = 0; i < 100; i++) {
+            ht.put(new CollidingKey(i), i);
+        }
+        assertEquals(100, ht.size());
+        assertEquals(100 - TSBHopscotchHashTableDA.NEIGHBORHOOD, ht.stashSize());
+        for (int i = 0; i < 100; i += 3) {
+            assertEquals(Integer.valueOf(i), ht.remove(new CollidingKey(i)));
+        }
+        Iterator<CollidingKey> it = ht.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().id % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(33, ht.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 3 == 0 || i % 2 == 0 ? null : Integer.valueOf(i), ht.get(new CollidingKey(i)));
+        }
+    }
+
+    @Test
+    public void whenPairsHopToFreeSlots_entrySetValueWritesItsOwnKey() {
+        TSBHopscotchHashTableDA<Integer, Integer> ht = new TSBHopscotchHashTableDA<>(1 << 12, 0.95f);
+        int capacity = ht.capacity();
+        int n = (int) (0.95f * capacity) - 1;
+        for (int i = 0; i < n / 2; i++) {
+            ht.put(i * 7919, i);
+        }
+        List<Map.Entry<Integer, Integer>> entries = new ArrayList<>(ht.entrySet());
+        for (int i = n / 2; i < n; i++) {
+            ht.put(i * 7919, i);
+        }
+        assertEquals(capacity, ht.capacity());
+        for (Map.Entry<Integer, Integer> e : entries) {
+            assertEquals(Integer.valueOf(e.getKey() / 7919), e.setValue(-e.getKey() / 7919));
+        }
+        for (int i = 0; i < n; i++) {
+            assertEquals(Integer.valueOf(i < n / 2 ? -i : i), ht.get(i * 7919));
+        }
+    }
+
+    @Test
+    public void whenSerialized_loadFactorIsKept() throws Exception {
+        TSBHopscotchHashTableDA<String, Integer> ht = new TSBHopscotchHashTableDA<>(16, 0.8f);
+        ht.put("a", 1);
+        TSBHopscotchHashTableDA<String, Integer> copy = serializedCopy(ht);
+        assertEquals(ht, copy);
+        assertEquals(0.8f, copy.getLoadFactor(), 0);
+    }
+}
@@ -0,0 +1,203 @@
+package clases;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TSBIntHashTableDATest {
+
+    private TSBIntHashTableDA<String> table;
+
+    @Before
+    public void setup() {
+        table = new TSBIntHashTableDA<>();
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        assertNull(table.put(1, "a"));
+        assertEquals("a", table.put(1, "b"));
+        assertEquals("b", table.get(1));
+        assertTrue(table.containsKey(1));
+        assertFalse(table.containsKey(2));
+        assertEquals("x", table.getOrDefault(2, "x"));
+        assertTrue(table.containsValue("b"));
+        assertEquals(1, table.size());
+        assertEquals("b", table.remove(1));
+        assertNull(table.remove(1));
+        assertTrue(table.isEmpty());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenPutCalledWithNullValue_throwException() {
+        table.put(1, null);
+    }
+
+    @Test
+    public void testExtremeKeys() {
+        int keys[] = {0, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, 11, -11};
+        for (int k : keys) {
+            table.put(k, "v" + k);
+        }
+        for (int k : keys) {
+            assertEquals("v" + k, table.get(k));
+        }
+        assertEquals(keys.length, table.size());
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        TSBIntHashTableDA<Integer> ht = new TSBIntHashTableDA<>(1);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(31);
+        for (int i = 0; i < 300000; i++) {
+            int key = random.nextInt(50000) - 25000;
+            switch (random.nextInt(3)) {
+                case 0:
+                    assertEquals(expected.put(key, i), ht.put(key, i));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), ht.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), ht.get(key));
+            }
+        }
+        assertEquals(expected.size(), ht.size());
+        assertTrue(ht.size() <= 0.5f * ht.capacity());
+        assertEquals(expected, ht.asMap());
+        assertEquals(ht.asMap(), expected);
+    }
+
+    @Test(timeout = 10000)
+    public void whenProbeSequenceIsFull_putStillFindsASlot() {
+        // en 11 casillas, la secuencia cuadrática de 11 visita sólo 0, 1, 4, 9, 5 y 3...
+        for (int k : new int[]{0, 1, 4, 9, 5, 3}) {
+            table.put(k, "v" + k);
+        }
+        assertNull(table.put(11, "v11"));
+        assertEquals(7, table.size());
+        assertEquals("v11", table.get(11));
+        assertTrue(table.size() <= 0.5f * table.capacity());
+    }
+
+    @Test(timeout = 30000)
+    public void testMapViewAgainstHashMapOnTinyTable() {
+        Map<Integer, Integer> ht = new TSBIntHashTableDA<Integer>(3).asMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20000; i++) {
+            Integer key = random.nextInt(32);
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.put(key, i), ht.put(key, i));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key), ht.remove(key));
+                    break;
+                case 2:
+                    assertEquals(expected.putIfAbsent(key, i), ht.putIfAbsent(key, i));
+                    break;
+                default:
+                    assertEquals(expected.merge(key, i, Integer::sum), ht.merge(key, i, Integer::sum));
+            }
+        }
+        assertEquals(expected, ht);
+    }
+
+    @Test
+    public void whenKeysAreChurned_tombstonesAreCleanedUp() {
+        TSBIntHashTableDA<Integer> ht = new TSBIntHashTableDA<>(1000);
+        int capacity = ht.capacity();
+        for (int i = 0; i < 100000; i++) {
+            ht.put(i, i);
+            if (i >= 100) {
+                ht.remove(i - 100);
+            }
+        }
+        assertEquals(100, ht.size());
+        assertEquals(capacity, ht.capacity());
+        assertTrue(ht.tombstoneRatio() <= 0.25f);
+        ht.compact();
+        assertEquals(0, ht.tombstoneRatio(), 0);
+        assertEquals(Integer.valueOf(99999), ht.get(99999));
+    }
+
+    @Test
+    public void testMapView() {
+        Map<Integer, String> map = table.asMap();
+        map.put(1, "a");
+        table.put(2, "b");
+        assertEquals(2, map.size());
+        assertEquals("b", map.get(2));
+        assertNull(map.get("2"));
+        assertNull(map.get(null));
+        assertFalse(map.containsKey(null));
+        assertEquals("a", map.remove(1));
+        assertFalse(table.containsKey(1));
+        assertEquals("{2=b}", table.toString());
+        assertSame(map, table.asMap());
+    }
+
+    @Test
+    public void testMapViewIterator() {
+        Map<Integer, String> expected = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            table.put(i, "v" + i);
+            expected.put(i, "v" + i);
+        }
+        Iterator<Map.Entry<Integer, String>> it = table.asMap().entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, String> e = it.next();
+            if (e.getKey() % 2 == 0) {
+                it.remove();
+                expected.remove(e.getKey());
+            } else {
+                e.setValue("w" + e.getKey());
+                expected.put(e.getKey(), "w" + e.getKey());
+            }
+        }
+        assertEquals(expected, table.asMap());
+        assertEquals("w1", table.get(1));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void whenTableIsModifiedDuringIteration_exceptionIsThrown() {
+        table.put(1, "a");
+        table.put(2, "b");
+        for (Integer k : table.asMap().keySet()) {
+            table.put(k + 100, "c");
+        }
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            table.put(i * 31, "v" + i);
+        }
+        table.remove(0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(table);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            TSBIntHashTableDA<String> copy = (TSBIntHashTableDA<String>) in.readObject();
+            assertEquals(table.asMap(), copy.asMap());
+            copy.put(-1, "nueva");
+            assertEquals(1000, copy.size());
+        }
+    }
+
+    @Test
+    public void testClear() {
+        table.put(1, "a");
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertNull(table.get(1));
+        table.put(2, "b");
+        assertEquals("b", table.get(2));
+    }
+}
@@ -0,0 +1,148 @@
+package clases;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TSBLongLongHashTableDATest {
+
+    private TSBLongLongHashTableDA table;
+
+    @Before
+    public void setup() {
+        table = new TSBLongLongHashTableDA();
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        assertEquals(0, table.put(1L, 10L));
+        assertEquals(10, table.put(1L, 20L));
+        assertEquals(20, table.getOrDefault(1L, -1));
+        assertEquals(-1, table.getOrDefault(2L, -1));
+        assertTrue(table.containsKey(1L));
+        assertFalse(table.containsKey(2L));
+        assertEquals(1, table.size());
+        assertTrue(table.remove(1L));
+        assertFalse(table.remove(1L));
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    public void testExtremeKeys() {
+        long keys[] = {0, -1, Long.MIN_VALUE, Long.MAX_VALUE, 1L << 32, 1L << 40};
+        for (long k : keys) {
+            table.put(k, ~k);
+        }
+        for (long k : keys) {
+            assertEquals(~k, table.getOrDefault(k, 7));
+        }
+        assertEquals(keys.length, table.size());
+        assertFalse(table.containsKey(2));
+    }
+
+    @Test
+    public void testAddTo() {
+        assertEquals(5, table.addTo(42L, 5));
+        assertEquals(3, table.addTo(42L, -2));
+        assertEquals(3, table.getOrDefault(42L, 0));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        TSBLongLongHashTableDA ht = new TSBLongLongHashTableDA(1, 0.9f);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(31);
+        for (int i = 0; i < 300000; i++) {
+            long key = (random.nextInt(50000) - 25000) * 0x100000001L;
+            switch (random.nextInt(4)) {
+                case 0:
+                    Long old = expected.put(key, (long) i);
+                    assertEquals(old == null ? 0 : old, ht.put(key, i));
+                    break;
+                case 1:
+                    assertEquals(expected.remove(key) != null, ht.remove(key));
+                    break;
+                case 2:
+                    assertEquals((long) expected.merge(key, 3L, Long::sum), ht.addTo(key, 3));
+                    break;
+                default:
+                    assertEquals((long) expected.getOrDefault(key, -1L), ht.getOrDefault(key, -1));
+            }
+        }
+        assertEquals(expected.size(), ht.size());
+        assertTrue(ht.size() <= 0.9f * ht.capacity());
+        assertEquals(expected, toMap(ht));
+    }
+
+    @Test
+    public void whenKeysAreChurned_tombstonesAreCleanedUp() {
+        TSBLongLongHashTableDA ht = new TSBLongLongHashTableDA(1000);
+        int capacity = ht.capacity();
+        for (long i = 0; i < 100000; i++) {
+            ht.put(i, i);
+            if (i >= 100) {
+                assertTrue(ht.remove(i - 100));
+            }
+        }
+        assertEquals(100, ht.size());
+        assertEquals(capacity, ht.capacity());
+        assertEquals(99999, ht.getOrDefault(99999, -1));
+    }
+
+    @Test
+    public void testForEachUpdatesValues() {
+        for (long i = 0; i < 100; i++) {
+            table.put(i, i);
+        }
+        table.forEach((k, v) -> table.addTo(k, 1));
+        for (long i = 0; i < 100; i++) {
+            assertEquals(i + 1, table.getOrDefault(i, -1));
+        }
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void whenTableIsModifiedDuringForEach_exceptionIsThrown() {
+        table.put(1, 1);
+        table.put(2, 2);
+        table.forEach((k, v) -> table.put(k + 100, v));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        for (long i = 0; i < 1000; i++) {
+            table.put(i * 31, i);
+        }
+        table.remove(0);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(table);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            TSBLongLongHashTableDA copy = (TSBLongLongHashTableDA) in.readObject();
+            assertEquals(999, copy.size());
+            assertEquals(toMap(table), toMap(copy));
+            assertEquals(5, copy.getOrDefault(155, -1));
+        }
+    }
+
+    @Test
+    public void testClear() {
+        table.put(1, 1);
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertFalse(table.containsKey(1));
+        assertEquals("{}", table.toString());
+        table.put(2, 3);
+        assertEquals("{2=3}", table.toString());
+    }
+
+    private static Map<Long, Long> toMap(TSBLongLongHashTableDA ht) {
+        Map<Long, Long> map = new HashMap<>();
+        ht.forEach((k, v) -> assertNull(map.put(k, v)));
+        return map;
+    }
+}
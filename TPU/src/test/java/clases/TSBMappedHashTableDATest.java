@@ -0,0 +1,189 @@
+package clases;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TSBMappedHashTableDATest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+    private TSBMappedHashTableDA<String, String> table;
+
+    @Before
+    public void setup() throws IOException {
+        file = folder.getRoot().toPath().resolve("tabla.tsb");
+        table = TSBMappedHashTableDA.create(file, TSBOffHeapHashTableDA.STRING_CODEC, TSBOffHeapHashTableDA.STRING_CODEC, 16, 32);
+    }
+
+    @After
+    public void tearDown() {
+        table.close();
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        assertNull(table.put("a", "uno"));
+        assertEquals("uno", table.put("a", "dos"));
+        assertEquals("dos", table.get("a"));
+        assertTrue(table.containsKey("a"));
+        assertEquals(1, table.size());
+        assertEquals("dos", table.remove("a"));
+        assertNull(table.get("a"));
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    public void whenTableIsReopened_contentIsPreserved() throws IOException {
+        for (int i = 0; i < 1000; i++) {
+            table.put("k" + i, "v" + i);
+        }
+        table.remove("k0");
+        table.close();
+
+        table = TSBMappedHashTableDA.open(file, TSBOffHeapHashTableDA.STRING_CODEC, TSBOffHeapHashTableDA.STRING_CODEC);
+        assertEquals(999, table.size());
+        assertNull(table.get("k0"));
+        for (int i = 1; i < 1000; i++) {
+            assertEquals("v" + i, table.get("k" + i));
+        }
+    }
+
+    @Test
+    public void whenTableIsRehashed_fileIsSwappedAtomically() throws IOException {
+        int capacity = table.capacity();
+        for (int i = 0; i < 100; i++) {
+            table.put("k" + i, "v" + i);
+        }
+        assertTrue(table.capacity() > capacity);
+        assertTrue(Files.exists(file));
+        assertFalse(Files.exists(file.resolveSibling("tabla.tsb.rehash")));
+        assertEquals(TSBMappedHashTableDA.HEADER_BYTES + (long) table.capacity() * (9 + 16 + 32), Files.size(file));
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        Map<String, String> expected = new HashMap<>();
+        Random random = new Random(31);
+        for (int i = 0; i < 20000; i++) {
+            String key = "k" + random.nextInt(2000);
+            int op = random.nextInt(3);
+            if (op == 0) {
+                assertEquals(expected.remove(key), table.remove(key));
+            } else {
+                String value = "v" + random.nextInt();
+                assertEquals(expected.put(key, value), table.put(key, value));
+            }
+        }
+        assertEquals(expected, table);
+        assertEquals(table, expected);
+    }
+
+    @Test
+    public void testPowerOfTwoMode() throws IOException {
+        Path other = folder.getRoot().toPath().resolve("pow2.tsb");
+        try (TSBMappedHashTableDA<String, String> t = TSBMappedHashTableDA.create(other,
+                TSBOffHeapHashTableDA.STRING_CODEC, TSBOffHeapHashTableDA.STRING_CODEC, 16, 16,
+                10, 0.5f, TSBHashTableDA.POWER_OF_TWO_MODE)) {
+            assertEquals(16, t.capacity());
+            for (int i = 0; i < 1000; i++) {
+                t.put("k" + i, "v" + i);
+            }
+            assertEquals(2048, t.capacity());
+            for (int i = 0; i < 1000; i++) {
+                assertEquals("v" + i, t.get("k" + i));
+            }
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void whenPrimeModeLoadFactorIsAboveHalf_itIsCapped() throws IOException {
+        Path other = folder.getRoot().toPath().resolve("carga.tsb");
+        try (TSBMappedHashTableDA<String, String> t = TSBMappedHashTableDA.create(other,
+                TSBOffHeapHashTableDA.STRING_CODEC, TSBOffHeapHashTableDA.STRING_CODEC, 16, 16,
+                3, 0.9f, TSBHashTableDA.PRIME_MODE)) {
+            Map<String, String> expected = new HashMap<>();
+            Random random = new Random(10);
+            for (int i = 0; i < 5000; i++) {
+                String key = "k" + random.nextInt(40);
+                if (random.nextBoolean()) {
+                    assertEquals(expected.put(key, "v" + i), t.put(key, "v" + i));
+                } else {
+                    assertEquals(expected.remove(key), t.remove(key));
+                }
+                assertTrue(t.size() <= 0.5f * t.capacity());
+            }
+            assertEquals(expected, t);
+        }
+    }
+
+    @Test
+    public void testPowerOfTwoModeAcceptsHighLoadFactor() throws IOException {
+        Path other = folder.getRoot().toPath().resolve("pow2-carga.tsb");
+        try (TSBMappedHashTableDA<String, String> t = TSBMappedHashTableDA.create(other,
+                TSBOffHeapHashTableDA.STRING_CODEC, TSBOffHeapHashTableDA.STRING_CODEC, 16, 16,
+                16, 0.9f, TSBHashTableDA.POWER_OF_TWO_MODE)) {
+            for (int i = 0; i < 14; i++) {
+                t.put("k" + i, "v" + i);
+            }
+            assertEquals(16, t.capacity());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void whenHeaderLoadFactorIsInvalid_openFails() throws IOException {
+        table.close();
+        // el factor de carga está en el byte 20 de la cabecera...
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putFloat(0, 0.9f), 20);
+        }
+        table = TSBMappedHashTableDA.open(file, TSBOffHeapHashTableDA.STRING_CODEC, TSBOffHeapHashTableDA.STRING_CODEC);
+    }
+
+    @Test
+    public void testIteratorAndClear() {
+        for (int i = 0; i < 100; i++) {
+            table.put("k" + i, "v" + i);
+        }
+        Iterator<Map.Entry<String, String>> it = table.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, String> e = it.next();
+            if (e.getKey().hashCode() % 2 == 0) {
+                it.remove();
+            } else {
+                e.setValue("x");
+            }
+        }
+        for (Map.Entry<String, String> e : table.entrySet()) {
+            assertEquals("x", e.getValue());
+        }
+        table.clear();
+        assertTrue(table.isEmpty());
+        assertNull(table.get("k1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenValueIsTooWide_exceptionIsThrown() {
+        table.put("a", "un valor de más de treinta y dos bytes");
+    }
+
+    @Test(expected = IOException.class)
+    public void whenFileIsNotATable_openFails() throws IOException {
+        Path other = folder.newFile("otro.txt").toPath();
+        Files.write(other, "hola".getBytes());
+        TSBMappedHashTableDA.open(other, TSBOffHeapHashTableDA.STRING_CODEC, TSBOffHeapHashTableDA.STRING_CODEC);
+    }
+}
@@ -0,0 +1,166 @@
+package clases;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TSBOffHeapHashTableDATest {
+
+    private TSBOffHeapHashTableDA<String, String> table;
+
+    @Before
+    public void setup() {
+        table = TSBOffHeapHashTableDA.forStrings();
+    }
+
+    @After
+    public void tearDown() {
+        table.close();
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        assertNull(table.put("a", "uno"));
+        assertEquals("uno", table.put("a", "dos"));
+        assertEquals("dos", table.put("a", "tres"));
+        assertEquals("tres", table.get("a"));
+        assertTrue(table.containsKey("a"));
+        assertFalse(table.containsKey("b"));
+        assertEquals(1, table.size());
+        assertEquals("tres", table.remove("a"));
+        assertNull(table.get("a"));
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        Map<String, String> expected = new HashMap<>();
+        Random random = new Random(31);
+        for (int i = 0; i < 50000; i++) {
+            String key = "k" + random.nextInt(5000);
+            int op = random.nextInt(4);
+            if (op == 0) {
+                assertEquals(expected.remove(key), table.remove(key));
+            } else if (op == 1) {
+                assertEquals(expected.get(key), table.get(key));
+            } else {
+                String value = "v" + random.nextInt(1 << random.nextInt(20));
+                assertEquals(expected.put(key, value), table.put(key, value));
+            }
+        }
+        assertEquals(expected, table);
+        assertEquals(table, expected);
+    }
+
+    @Test
+    public void whenKeysAreByteArrays_contentIsCompared() {
+        try (TSBOffHeapHashTableDA<byte[], byte[]> bytes = TSBOffHeapHashTableDA.forBytes()) {
+            bytes.put("clave".getBytes(StandardCharsets.UTF_8), new byte[]{1, 2, 3});
+            assertArrayEquals(new byte[]{1, 2, 3}, bytes.get("clave".getBytes(StandardCharsets.UTF_8)));
+            assertNull(bytes.get("otra".getBytes(StandardCharsets.UTF_8)));
+            assertArrayEquals(new byte[]{1, 2, 3}, bytes.remove("clave".getBytes(StandardCharsets.UTF_8)));
+            assertTrue(bytes.isEmpty());
+        }
+    }
+
+    @Test
+    public void testMemoryAccounting() {
+        long empty = table.allocatedBytes();
+        assertEquals(table.indexBytes(), empty);
+
+        table.put("a", "12345");
+        assertEquals(8 + 1 + 5, table.liveBytes());
+        assertTrue(table.allocatedBytes() > empty);
+
+        // mismo tamaño: se sobrescribe en su lugar...
+        table.put("a", "54321");
+        assertEquals(0, table.garbageBytes());
+
+        // distinto tamaño: el registro anterior queda como basura...
+        table.put("a", "123");
+        assertEquals(8 + 1 + 5, table.garbageBytes());
+        assertEquals(8 + 1 + 3, table.liveBytes());
+
+        table.compact();
+        assertEquals(0, table.garbageBytes());
+        assertEquals("123", table.get("a"));
+    }
+
+    @Test(timeout = 30000)
+    public void whenLoadFactorIsAboveHalf_itIsCappedAndOperationsFinish() {
+        try (TSBOffHeapHashTableDA<String, String> ht = new TSBOffHeapHashTableDA<>(
+                TSBOffHeapHashTableDA.STRING_CODEC, TSBOffHeapHashTableDA.STRING_CODEC, 3, 0.9f)) {
+            Map<String, String> expected = new HashMap<>();
+            Random random = new Random(9);
+            for (int i = 0; i < 20000; i++) {
+                String key = "k" + random.nextInt(40);
+                if (random.nextBoolean()) {
+                    assertEquals(expected.put(key, "v" + i), ht.put(key, "v" + i));
+                } else {
+                    assertEquals(expected.remove(key), ht.remove(key));
+                }
+                assertTrue(ht.size() <= 0.5f * ht.capacity());
+            }
+            assertEquals(expected, ht);
+        }
+    }
+
+    @Test
+    public void whenGarbageGrows_arenaIsCompacted() {
+        char big[] = new char[1000];
+        Arrays.fill(big, 'x');
+        String value = new String(big);
+        for (int i = 0; i < 5000; i++) {
+            table.put("k" + (i % 10), value + i);
+        }
+        assertTrue(table.garbageBytes() <= Math.max(table.liveBytes(), TSBOffHeapHashTableDA.ARENA_CHUNK));
+        assertEquals(value + 4999, table.get("k9"));
+    }
+
+    @Test
+    public void testIterator() {
+        for (int i = 0; i < 100; i++) {
+            table.put("k" + i, "v" + i);
+        }
+        Iterator<Map.Entry<String, String>> it = table.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, String> e = it.next();
+            int i = Integer.parseInt(e.getKey().substring(1));
+            if (i % 2 == 0) {
+                it.remove();
+            } else {
+                e.setValue("impar-" + i);
+            }
+        }
+        assertEquals(50, table.size());
+        assertEquals("impar-1", table.get("k1"));
+        assertNull(table.get("k2"));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void whenTableIsModifiedWhileIterating_exceptionIsThrown() {
+        table.put("a", "1");
+        table.put("b", "2");
+        for (String k : table.keySet()) {
+            table.put(k + k, "x");
+        }
+    }
+
+    @Test
+    public void whenTableIsClosed_operationsFail() {
+        table.put("a", "1");
+        table.close();
+        assertTrue(table.isClosed());
+        try {
+            table.get("a");
+            fail();
+        } catch (IllegalStateException e) {
+            // esperado
+        }
+        table.close();
+    }
+}
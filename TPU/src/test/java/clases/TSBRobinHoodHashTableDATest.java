@@ -0,0 +1,82 @@
+package clases;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TSBRobinHoodHashTableDATest extends AbstractTSBHashTableDATest {
+
+    @Override
+    protected <K, V> AbstractTSBHashTableDA<K, V> create(int initialCapacity) {
+        return new TSBRobinHoodHashTableDA<>(initialCapacity);
+    }
+
+    @Test
+    public void whenLoadFactorIsInvalid_defaultIsUsed() {
+        assertEquals(0.875f, new TSBRobinHoodHashTableDA<>(16, 0.99f).getLoadFactor(), 0);
+        assertEquals(0.9f, new TSBRobinHoodHashTableDA<>(16, 0.9f).getLoadFactor(), 0);
+    }
+
+    @Test
+    public void testAgainstHashMapWithEachLoadFactor() {
+        for (float lf : new float[]{0.5f, 0.8f, 0.95f}) {
+            TSBRobinHoodHashTableDA<Integer, Integer> ht = new TSBRobinHoodHashTableDA<>(1, lf);
+            assertAgainstHashMap(ht, 200000);
+            assertTrue(ht.size() <= lf * ht.capacity());
+        }
+    }
+
+    @Test
+    public void whenKeysAreRemoved_probeDistancesShrink() {
+        TSBRobinHoodHashTableDA<Integer, Integer> ht = new TSBRobinHoodHashTableDA<>(100000, 0.9f);
+        for (int i = 0; i < 100000; i++) {
+            ht.put(i, i);
+        }
+        double full = ht.averageProbeDistance();
+        assertTrue(full > 0);
+        for (int i = 0; i < 100000; i += 2) {
+            ht.remove(i);
+        }
+        assertTrue(ht.averageProbeDistance() < full);
+        for (int i = 1; i < 100000; i += 2) {
+            assertEquals(Integer.valueOf(i), ht.get(i));
+        }
+    }
+
+    @Test
+    public void whenKeysShareHashCode_probeDistanceGrowsWithEachKey() {
+        TSBRobinHoodHashTableDA<CollidingKey, Integer> ht = new TSBRobinHoodHashTableDA<>();
+        for (int i = 0; i < 100; i++) {
+            ht.put(new CollidingKey(i), i);
+        }
+        assertEquals(99, ht.maxProbeDistance());
+    }
+
+    @Test
+    public void whenRemoveShiftsPairsBack_entrySetValueWritesItsOwnKey() {
+        TSBRobinHoodHashTableDA<CollidingKey, Integer> ht = new TSBRobinHoodHashTableDA<>();
+        for (int i = 0; i < 100; i++) {
+            ht.put(new CollidingKey(i), i);
+        }
+        List<Map.Entry<CollidingKey, Integer>> entries = new ArrayList<>(ht.entrySet());
+        ht.remove(new CollidingKey(0));
+        for (Map.Entry<CollidingKey, Integer> e : entries) {
+            if (e.getKey().id != 0) {
+                assertEquals(Integer.valueOf(e.getKey().id), e.setValue(-e.getKey().id));
+            }
+        }
+        for (int i = 1; i < 100; i++) {
+            assertEquals(Integer.valueOf(-i), ht.get(new CollidingKey(i)));
+        }
+    }
+
+    @Test
+    public void whenSerialized_loadFactorIsKept() throws Exception {
+        TSBRobinHoodHashTableDA<String, Integer> ht = new TSBRobinHoodHashTableDA<>(16, 0.8f);
+        ht.put("a", 1);
+        TSBRobinHoodHashTableDA<String, Integer> copy = serializedCopy(ht);
+        assertEquals(ht, copy);
+        assertEquals(0.8f, copy.getLoadFactor(), 0);
+    }
+}
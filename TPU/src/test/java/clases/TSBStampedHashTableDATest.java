@@ -0,0 +1,146 @@
+package clases;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class TSBStampedHashTableDATest {
+
+    private TSBStampedHashTableDA<String, Integer> table;
+
+    @Before
+    public void setup() {
+        table = new TSBStampedHashTableDA<>();
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        assertNull(table.put("a", 1));
+        assertEquals(Integer.valueOf(1), table.put("a", 2));
+        assertEquals(Integer.valueOf(2), table.get("a"));
+        assertTrue(table.containsKey("a"));
+        assertFalse(table.containsKey("b"));
+        assertTrue(table.containsValue(2));
+        assertEquals(1, table.size());
+        assertEquals(Integer.valueOf(2), table.remove("a"));
+        assertTrue(table.isEmpty());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenNullKeyIsSearched_exceptionIsThrown() {
+        table.get(null);
+    }
+
+    @Test
+    public void testComputeAndMerge() {
+        assertNull(table.putIfAbsent("a", 1));
+        assertEquals(Integer.valueOf(1), table.putIfAbsent("a", 2));
+        assertEquals(Integer.valueOf(3), table.merge("a", 2, Integer::sum));
+        assertEquals(Integer.valueOf(7), table.computeIfAbsent("b", k -> 7));
+        assertNull(table.computeIfPresent("b", (k, v) -> null));
+        assertEquals(Collections.singletonMap("a", 3), table);
+    }
+
+    @Test
+    public void testConditionalOperations() {
+        table.put("a", 1);
+        assertFalse(table.replace("a", 2, 3));
+        assertTrue(table.replace("a", 1, 3));
+        assertEquals(Integer.valueOf(3), table.replace("a", 4));
+        assertNull(table.replace("b", 4));
+        assertFalse(table.remove("a", 3));
+        assertTrue(table.remove("a", 4));
+        assertTrue(table.isEmpty());
+    }
+
+    @Test
+    public void whenThreadsIncrementWithReplace_noUpdateIsLost() throws Exception {
+        table.put("c", 0);
+        Thread writers[] = new Thread[4];
+        for (int w = 0; w < writers.length; w++) {
+            writers[w] = new Thread(() -> {
+                for (int i = 0; i < 20000; i++) {
+                    Integer v;
+                    do {
+                        v = table.get("c");
+                    } while (!table.replace("c", v, v + 1));
+                }
+            });
+            writers[w].start();
+        }
+        for (Thread w : writers) {
+            w.join();
+        }
+        assertEquals(Integer.valueOf(4 * 20000), table.get("c"));
+    }
+
+    @Test
+    public void testIteratorOverSnapshot() {
+        for (int i = 0; i < 50; i++) {
+            table.put("k" + i, i);
+        }
+        Iterator<Map.Entry<String, Integer>> it = table.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Integer> e = it.next();
+            table.put("x" + e.getKey(), 0);
+            if (e.getValue() % 2 == 0) {
+                it.remove();
+            } else {
+                e.setValue(-e.getValue());
+            }
+        }
+        assertEquals(75, table.size());
+        assertEquals(Integer.valueOf(-1), table.get("k1"));
+        assertFalse(table.containsKey("k2"));
+    }
+
+    @Test
+    public void whenWriterRehashes_readersStillFindEveryKey() throws Exception {
+        final int present = 1000;
+        for (int i = 0; i < present; i++) {
+            table.put("p" + i, i);
+        }
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread readers[] = new Thread[4];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                try {
+                    while (!done.get()) {
+                        for (int i = 0; i < present; i++) {
+                            Integer v = table.get("p" + i);
+                            if (v == null || v != i) {
+                                throw new AssertionError("p" + i + " -> " + v);
+                            }
+                        }
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            readers[r].start();
+        }
+
+        // el escritor provoca muchos rehash y compactaciones...
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 5000; i++) {
+                table.put("w" + i, i);
+            }
+            for (int i = 0; i < 5000; i++) {
+                table.remove("w" + i);
+            }
+        }
+        done.set(true);
+        for (Thread r : readers) {
+            r.join();
+        }
+
+        assertNull(failure.get());
+        assertEquals(present, table.size());
+    }
+}
@@ -0,0 +1,86 @@
+package clases;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TSBSwissHashTableDATest extends AbstractTSBHashTableDATest {
+
+    @Override
+    protected <K, V> AbstractTSBHashTableDA<K, V> create(int initialCapacity) {
+        return new TSBSwissHashTableDA<>(initialCapacity);
+    }
+
+    @Test
+    public void testGroupMatch() {
+        long group = 0;
+        int bytes[] = {0x12, TSBSwissHashTableDA.EMPTY, 0x12, 0x7F, TSBSwissHashTableDA.DELETED, 0x00, 0x13, TSBSwissHashTableDA.EMPTY};
+        for (int j = 0; j < 8; j++) {
+            group |= (long) bytes[j] << (8 * j);
+        }
+        assertEquals(byteMask(0, 2), TSBSwissHashTableDA.match(group, 0x12));
+        assertEquals(byteMask(3), TSBSwissHashTableDA.match(group, 0x7F));
+        assertEquals(0, TSBSwissHashTableDA.match(group, 0x55));
+        assertEquals(byteMask(1, 7), TSBSwissHashTableDA.match_empty(group));
+        assertEquals(byteMask(1, 4, 7), TSBSwissHashTableDA.match_free(group));
+    }
+
+    @Test
+    public void whenComparedWithHashMap_deletedSlotsCountTowardsTheLoad() {
+        TSBSwissHashTableDA<Integer, Integer> ht = new TSBSwissHashTableDA<>(1);
+        assertAgainstHashMap(ht, 300000);
+        assertTrue((ht.size() + ht.deletedCount()) * 8L <= 7L * ht.capacity());
+    }
+
+    @Test
+    public void whenKeysAreChurned_tombstonesAreCleanedUp() {
+        TSBSwissHashTableDA<Integer, Integer> ht = new TSBSwissHashTableDA<>(1000);
+        int capacity = ht.capacity();
+        for (int i = 0; i < 200000; i++) {
+            ht.put(i, i);
+            if (i >= 500) {
+                assertEquals(Integer.valueOf(i - 500), ht.remove(i - 500));
+            }
+        }
+        assertEquals(500, ht.size());
+        assertEquals(capacity, ht.capacity());
+        for (int i = 200000 - 500; i < 200000; i++) {
+            assertEquals(Integer.valueOf(i), ht.get(i));
+        }
+    }
+
+    @Test
+    public void whenTableGrowsWithTombstones_entrySetValueWritesItsOwnKey() {
+        TSBSwissHashTableDA<Integer, Integer> ht = new TSBSwissHashTableDA<>(16);
+        for (int i = 0; i < 400; i++) {
+            ht.put(i, i);
+        }
+        for (int i = 0; i < 400; i += 2) {
+            ht.remove(i);
+        }
+        int capacity = ht.capacity();
+        List<Map.Entry<Integer, Integer>> entries = new ArrayList<>(ht.entrySet());
+        for (int i = 400; i < 4000; i++) {
+            ht.put(i, i);
+        }
+        assertTrue(ht.capacity() > capacity);
+        for (Map.Entry<Integer, Integer> e : entries) {
+            assertEquals(e.getKey(), e.setValue(-e.getKey()));
+        }
+        for (int i = 1; i < 400; i += 2) {
+            assertEquals(Integer.valueOf(-i), ht.get(i));
+        }
+        for (int i = 400; i < 4000; i++) {
+            assertEquals(Integer.valueOf(i), ht.get(i));
+        }
+    }
+
+    private static long byteMask(int... positions) {
+        long mask = 0;
+        for (int j : positions) {
+            mask |= 0x80L << (8 * j);
+        }
+        return mask;
+    }
+}